@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.event;
+
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+/**
+ * Listener of the batches of {@link EntityEvent}s which are dispatched by {@link EntityEventDispatcher}
+ * after the commit of the transaction where the events were published.
+ * <p>
+ * The type of the events is resolved from the type parameter of the listener implementation,
+ * so the listener receives the events of the given type and its subtypes, for example:
+ * <pre>{@code
+ * @Component
+ * public class ModelIndexer implements BatchEntityEventListener<UpdateModelEvent> {
+ *     @Override
+ *     public void onEvents(List<UpdateModelEvent> events) {
+ *         // ...
+ *     }
+ * }
+ * }</pre>
+ *
+ * @param <E> type of the events
+ * @author Sergei Poznanski
+ */
+@FunctionalInterface
+public interface BatchEntityEventListener<E extends EntityEvent<?>> {
+
+	/**
+	 * Handles the batch of the events of the same class, in the order of their publication.
+	 *
+	 * @param events the non-empty unmodifiable list of the events
+	 */
+	void onEvents(@NonNull List<E> events);
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.event;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the {@link EntityEvent}s published in the transaction and, after its commit, dispatches them
+ * to the {@link BatchEntityEventListener}s asynchronously, in batches grouped by the event class.
+ * The events of the rolled back transaction are discarded. The events published outside the transaction
+ * are dispatched immediately (in the batches of one event).
+ * <p>
+ * The batches are dispatched by the bounded pool of threads with the bounded queue of batches.
+ * When the queue is full the {@link OverflowPolicy} is applied: {@link OverflowPolicy#BLOCK BLOCK}
+ * makes the committing thread wait for the free place in the queue (the backpressure to the event producers),
+ * {@link OverflowPolicy#DROP DROP} drops the batch (see {@link #getDroppedCount()}).
+ * <p>
+ * The regular (synchronous) event listeners still receive the events, so that only the slow ones should be
+ * moved to the batch listeners. To listen the events the dispatcher must be registered as a bean, for example:
+ * <pre>{@code
+ * @Bean
+ * public EntityEventDispatcher entityEventDispatcher() {
+ *     return new EntityEventDispatcher(2, 1000, 100, EntityEventDispatcher.OverflowPolicy.BLOCK);
+ * }
+ * }</pre>
+ * Then all {@link BatchEntityEventListener} beans are registered in the dispatcher automatically,
+ * other listeners can be registered with {@link #addListener} methods.
+ *
+ * @author Sergei Poznanski
+ */
+public class EntityEventDispatcher implements BeanFactoryAware, SmartInitializingSingleton, DisposableBean {
+
+	private static final Log log = LogFactory.getLog(EntityEventDispatcher.class);
+
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+	/**
+	 * What to do with the batch of events when the dispatching queue is full.
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * Wait for the free place in the queue.
+		 */
+		BLOCK,
+		/**
+		 * Drop the batch.
+		 */
+		DROP
+	}
+
+	private final int maxBatchSize;
+	private final OverflowPolicy overflowPolicy;
+	private final ThreadPoolExecutor executor;
+
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	private final Map<Class<?>, List<Listener>> listenersByEvent = new ConcurrentHashMap<>();
+	private final AtomicLong dropped = new AtomicLong();
+
+	private ListableBeanFactory beanFactory;
+
+	/**
+	 * Creates the dispatcher with one thread, the queue of 1000 batches, the batches of 100 events
+	 * and {@link OverflowPolicy#BLOCK BLOCK} policy.
+	 */
+	public EntityEventDispatcher() {
+		this(1, 1000, 100, OverflowPolicy.BLOCK);
+	}
+
+	/**
+	 * @param threads number of the dispatching threads, must be positive
+	 * @param queueCapacity maximum number of the batches waiting for the dispatching, must be positive
+	 * @param maxBatchSize maximum number of the events in the batch, must be positive
+	 * @param overflowPolicy what to do with the batch when the queue is full, must not be {@code null}
+	 */
+	public EntityEventDispatcher(final int threads, final int queueCapacity, final int maxBatchSize, @NonNull final OverflowPolicy overflowPolicy) {
+		if (threads <= 0) throw new IllegalArgumentException("Parameter 'threads' must be positive!");
+		if (queueCapacity <= 0) throw new IllegalArgumentException("Parameter 'queueCapacity' must be positive!");
+		if (maxBatchSize <= 0) throw new IllegalArgumentException("Parameter 'maxBatchSize' must be positive!");
+		this.maxBatchSize = maxBatchSize;
+		this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "Parameter 'overflowPolicy' must not be null!");
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("entity-event-");
+		threadFactory.setDaemon(true);
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), threadFactory, this::overflow);
+	}
+
+	/**
+	 * Registers the listener of the events, which type is resolved from the type parameter of the listener.
+	 * If the type is not resolved (the listener is a lambda, for example) the listener receives all events.
+	 *
+	 * @param listener the listener, must not be {@code null}
+	 */
+	public void addListener(@NonNull final BatchEntityEventListener<?> listener) {
+		Objects.requireNonNull(listener, "Parameter 'listener' must not be null!");
+		Class<?> eventType = GenericTypeResolver.resolveTypeArgument(AopUtils.getTargetClass(listener), BatchEntityEventListener.class);
+		register(new Listener(eventType != null ? eventType : EntityEvent.class, listener));
+	}
+
+	/**
+	 * Registers the listener of the events of the given type and its subtypes.
+	 *
+	 * @param eventType the type of the events, must not be {@code null}
+	 * @param listener the listener, must not be {@code null}
+	 * @param <E> type of the events
+	 */
+	public <E extends EntityEvent<?>> void addListener(@NonNull final Class<E> eventType, @NonNull final BatchEntityEventListener<E> listener) {
+		Objects.requireNonNull(eventType, "Parameter 'eventType' must not be null!");
+		Objects.requireNonNull(listener, "Parameter 'listener' must not be null!");
+		register(new Listener(eventType, listener));
+	}
+
+	/**
+	 * Collects the event in the current transaction or, if there is no one, dispatches it immediately.
+	 *
+	 * @param event the published entity event
+	 */
+	@EventListener
+	public void onEntityEvent(@Nullable final EntityEvent<?> event) {
+		if (event == null) return;
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			EventBuffer buffer = (EventBuffer) TransactionSynchronizationManager.getResource(this);
+			if (buffer == null) {
+				buffer = new EventBuffer();
+				TransactionSynchronizationManager.bindResource(this, buffer);
+				TransactionSynchronizationManager.registerSynchronization(buffer);
+			}
+			if (!buffer.committed) {
+				buffer.events.add(event);
+				return;
+			}
+		}
+		dispatch(Collections.singletonList(event));
+	}
+
+	/**
+	 * @return number of the events dropped due to the {@link OverflowPolicy#DROP DROP} policy or the shutdown
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	/**
+	 * @return number of the batches waiting for the dispatching
+	 */
+	public int getQueueSize() {
+		return executor.getQueue().size();
+	}
+
+	@Override
+	public void setBeanFactory(@NonNull final BeanFactory beanFactory) throws BeansException {
+		if (beanFactory instanceof ListableBeanFactory) {
+			this.beanFactory = (ListableBeanFactory) beanFactory;
+		}
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (beanFactory == null) return;
+		List<BatchEntityEventListener<?>> beans = new ArrayList<>();
+		for (BatchEntityEventListener<?> bean : beanFactory.getBeansOfType(BatchEntityEventListener.class).values()) {
+			beans.add(bean);
+		}
+		AnnotationAwareOrderComparator.sort(beans);
+		beans.forEach(this::addListener);
+	}
+
+	/**
+	 * Stops the dispatcher, waiting for the queued batches to be dispatched.
+	 */
+	@Override
+	public void destroy() throws InterruptedException {
+		executor.shutdown();
+		if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+			int lost = executor.shutdownNow().size();
+			log.warn("Entity event dispatcher is stopped with " + lost + " undispatched batch(es)");
+		}
+	}
+
+	private void register(final Listener listener) {
+		listeners.add(listener);
+		listenersByEvent.clear();
+	}
+
+	private void dispatch(final List<EntityEvent<?>> events) {
+		Map<Class<?>, List<EntityEvent<?>>> eventsByType = new LinkedHashMap<>();
+		for (EntityEvent<?> event : events) {
+			eventsByType.computeIfAbsent(event.getClass(), type -> new ArrayList<>()).add(event);
+		}
+
+		eventsByType.forEach((type, typed) -> {
+			List<Listener> targets = listenersByEvent.computeIfAbsent(type, t -> listeners.stream()
+					.filter(listener -> listener.eventType.isAssignableFrom(t))
+					.collect(Collectors.toList()));
+			if (targets.isEmpty()) return;
+
+			for (int from = 0; from < typed.size(); from += maxBatchSize) {
+				List<EntityEvent<?>> batch = typed.subList(from, Math.min(from + maxBatchSize, typed.size()));
+				executor.execute(new Batch(targets, Collections.unmodifiableList(new ArrayList<>(batch))));
+			}
+		});
+	}
+
+	private void overflow(final Runnable task, final ThreadPoolExecutor executor) {
+		Batch batch = (Batch) task;
+		if (overflowPolicy == OverflowPolicy.BLOCK && !executor.isShutdown()) {
+			try {
+				executor.getQueue().put(batch);
+				return;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		dropped.addAndGet(batch.events.size());
+		log.warn("Dropped the batch of " + batch.events.size() + " entity event(s) " + batch.events.get(0).getClass().getSimpleName());
+	}
+
+	private static final class Listener {
+		private final Class<?> eventType;
+		private final BatchEntityEventListener<?> delegate;
+
+		private Listener(final Class<?> eventType, final BatchEntityEventListener<?> delegate) {
+			this.eventType = eventType;
+			this.delegate = delegate;
+		}
+	}
+
+	private static final class Batch implements Runnable {
+		private final List<Listener> listeners;
+		private final List<EntityEvent<?>> events;
+
+		private Batch(final List<Listener> listeners, final List<EntityEvent<?>> events) {
+			this.listeners = listeners;
+			this.events = events;
+		}
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		@Override
+		public void run() {
+			for (Listener listener : listeners) {
+				try {
+					((BatchEntityEventListener) listener.delegate).onEvents(events);
+				} catch (RuntimeException e) {
+					log.error("Batch entity event listener " + listener.delegate + " failed", e);
+				}
+			}
+		}
+	}
+
+	private final class EventBuffer extends TransactionSynchronizationAdapter {
+		private final List<EntityEvent<?>> events = new ArrayList<>();
+		private boolean committed;
+
+		@Override
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResource(EntityEventDispatcher.this);
+		}
+
+		@Override
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(EntityEventDispatcher.this, this);
+		}
+
+		@Override
+		public void afterCommit() {
+			committed = true;
+			if (!events.isEmpty()) {
+				dispatch(events);
+			}
+		}
+
+		@Override
+		public void afterCompletion(final int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(EntityEventDispatcher.this);
+		}
+	}
+}
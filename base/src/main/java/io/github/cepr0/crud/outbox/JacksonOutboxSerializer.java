@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.outbox;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.cepr0.crud.event.EntityEvent;
+import org.springframework.lang.NonNull;
+
+import java.util.Objects;
+
+/**
+ * {@link OutboxSerializer} which writes the entity of the event as the compact JSON (without {@code null} values
+ * and indentation) with the given {@link ObjectMapper}. The type of the event and the entity is stored
+ * by the {@link OutboxMessage} itself.
+ * <p>
+ * Note that the entities with the lazy associations should be serialized with a custom serializer
+ * (or excluded with the Jackson annotations), otherwise they are loaded in the write transaction.
+ *
+ * @author Sergei Poznanski
+ */
+public class JacksonOutboxSerializer implements OutboxSerializer {
+
+	private final ObjectWriter writer;
+
+	/**
+	 * @param objectMapper must not be {@code null}, is not modified
+	 */
+	public JacksonOutboxSerializer(@NonNull final ObjectMapper objectMapper) {
+		Objects.requireNonNull(objectMapper, "Parameter 'objectMapper' must not be null!");
+		this.writer = objectMapper.copy()
+				.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+				.writer()
+				.without(SerializationFeature.INDENT_OUTPUT);
+	}
+
+	@NonNull
+	@Override
+	public byte[] serialize(@NonNull final EntityEvent<?> event) {
+		try {
+			return writer.writeValueAsBytes(event.getEntity());
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Unable to serialize the event " + event.getClass().getName(), e);
+		}
+	}
+}
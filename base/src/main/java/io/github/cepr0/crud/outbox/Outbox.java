@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.outbox;
+
+import io.github.cepr0.crud.event.EntityEvent;
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Transactional outbox of {@link EntityEvent}s: serializes the published events and saves them to the
+ * {@link OutboxStore} in the same transaction where they are published (so that the events are stored
+ * only if the entity changes are committed). The stored events are delivered to the downstream consumers
+ * by {@link OutboxRelay}.
+ * <p>
+ * To listen the events the outbox must be registered as a bean, for example:
+ * <pre>{@code
+ * @Bean
+ * public Outbox outbox(JdbcOperations jdbc, ObjectMapper objectMapper) {
+ *     return new Outbox(new JdbcOutboxStore(jdbc), new JacksonOutboxSerializer(objectMapper), CreateModelEvent.class, DeleteModelEvent.class);
+ * }
+ * }</pre>
+ *
+ * @author Sergei Poznanski
+ */
+public class Outbox {
+
+	private final OutboxStore store;
+	private final OutboxSerializer serializer;
+	private final List<Class<?>> events;
+
+	/**
+	 * @param store must not be {@code null}
+	 * @param serializer must not be {@code null}
+	 * @param events classes of the stored events, if they are not given then all entity events are stored
+	 */
+	@SafeVarargs
+	public Outbox(@NonNull final OutboxStore store, @NonNull final OutboxSerializer serializer, final Class<? extends EntityEvent>... events) {
+		this.store = Objects.requireNonNull(store, "Parameter 'store' must not be null!");
+		this.serializer = Objects.requireNonNull(serializer, "Parameter 'serializer' must not be null!");
+		this.events = events != null ? Collections.unmodifiableList(Arrays.asList(events)) : Collections.emptyList();
+	}
+
+	/**
+	 * Saves the given event to the store if it's an instance of one of the stored events.
+	 *
+	 * @param event the published entity event
+	 */
+	@EventListener
+	public void onEntityEvent(@Nullable final EntityEvent<?> event) {
+		if (event == null || !isStored(event)) return;
+		IdentifiableEntity<?> entity = event.getEntity();
+		store.save(new OutboxMessage(
+				event.getClass().getName(),
+				ClassUtils.getUserClass(entity).getName(),
+				String.valueOf(entity.getId()),
+				serializer.serialize(event),
+				Instant.now()
+		));
+	}
+
+	private boolean isStored(final EntityEvent<?> event) {
+		if (events.isEmpty()) return true;
+		for (Class<?> type : events) {
+			if (type.isInstance(event)) return true;
+		}
+		return false;
+	}
+}
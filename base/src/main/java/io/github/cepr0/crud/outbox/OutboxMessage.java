@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.outbox;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Serialized {@link io.github.cepr0.crud.event.EntityEvent} stored in the {@link OutboxStore}.
+ *
+ * @author Sergei Poznanski
+ */
+public class OutboxMessage {
+
+	private final Object id;
+	private final String eventType;
+	private final String entityType;
+	private final String entityId;
+	private final byte[] payload;
+	private final Instant createdAt;
+
+	/**
+	 * Creates a new message which is not stored yet.
+	 *
+	 * @param eventType the full class name of the event, must not be {@code null}
+	 * @param entityType the full class name of the entity, must not be {@code null}
+	 * @param entityId the string representation of the entity id, must not be {@code null}
+	 * @param payload the serialized event, must not be {@code null}
+	 * @param createdAt the time of the event, must not be {@code null}
+	 */
+	public OutboxMessage(@NonNull final String eventType, @NonNull final String entityType, @NonNull final String entityId, @NonNull final byte[] payload, @NonNull final Instant createdAt) {
+		this(null, eventType, entityType, entityId, payload, createdAt);
+	}
+
+	/**
+	 * Creates the message read from the {@link OutboxStore}.
+	 *
+	 * @param id the store specific identifier of the message
+	 * @param eventType the full class name of the event, must not be {@code null}
+	 * @param entityType the full class name of the entity, must not be {@code null}
+	 * @param entityId the string representation of the entity id, must not be {@code null}
+	 * @param payload the serialized event, must not be {@code null}
+	 * @param createdAt the time of the event, must not be {@code null}
+	 */
+	public OutboxMessage(@Nullable final Object id, @NonNull final String eventType, @NonNull final String entityType, @NonNull final String entityId, @NonNull final byte[] payload, @NonNull final Instant createdAt) {
+		this.id = id;
+		this.eventType = Objects.requireNonNull(eventType, "Parameter 'eventType' must not be null!");
+		this.entityType = Objects.requireNonNull(entityType, "Parameter 'entityType' must not be null!");
+		this.entityId = Objects.requireNonNull(entityId, "Parameter 'entityId' must not be null!");
+		this.payload = Objects.requireNonNull(payload, "Parameter 'payload' must not be null!");
+		this.createdAt = Objects.requireNonNull(createdAt, "Parameter 'createdAt' must not be null!");
+	}
+
+	@Nullable
+	public Object getId() {
+		return id;
+	}
+
+	@NonNull
+	public String getEventType() {
+		return eventType;
+	}
+
+	@NonNull
+	public String getEntityType() {
+		return entityType;
+	}
+
+	@NonNull
+	public String getEntityId() {
+		return entityId;
+	}
+
+	@NonNull
+	public byte[] getPayload() {
+		return payload;
+	}
+
+	@NonNull
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	@Override
+	public String toString() {
+		return "OutboxMessage{id=" + id + ", eventType=" + eventType + ", entityType=" + entityType + ", entityId=" + entityId + ", createdAt=" + createdAt + "}";
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.outbox;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background relay of the {@link OutboxMessage}s: polls the {@link OutboxStore} with the given interval
+ * and passes the stored messages to the {@link Sender} in batches, then deletes the sent messages.
+ * <p>
+ * If the sender fails, the messages are kept in the store and are sent again with the next poll,
+ * so the delivery is 'at least once' and the consumers should be idempotent (the id of the entity
+ * and the type of the event are available in the message). The relay is intended to run
+ * on a single application instance.
+ * <p>
+ * The relay is started and stopped as a bean, for example:
+ * <pre>{@code
+ * @Bean
+ * public OutboxRelay outboxRelay(OutboxStore store, KafkaTemplate<String, byte[]> kafka) {
+ *     return new OutboxRelay(store, messages -> messages.forEach(m -> kafka.send("events", m.getEntityId(), m.getPayload())), 100, Duration.ofSeconds(1));
+ * }
+ * }</pre>
+ *
+ * @author Sergei Poznanski
+ */
+public class OutboxRelay implements InitializingBean, DisposableBean {
+
+	private static final Log log = LogFactory.getLog(OutboxRelay.class);
+
+	/**
+	 * Sender of the messages to the downstream consumers (a message broker, for example).
+	 */
+	@FunctionalInterface
+	public interface Sender {
+		/**
+		 * Sends the messages, in the order of their identifiers in the store (see {@link OutboxStore#poll}).
+		 * It only approximates the order of saving: the concurrent transactions may commit out of the order
+		 * of their identifiers, so a message may be sent after the later saved ones. As the messages are also
+		 * re-sent if the sending fails, the consumers should tolerate the reordered and the duplicate messages
+		 * (by the entity identifier and the creation time of the message, for example).
+		 *
+		 * @param messages the non-empty list of the messages
+		 */
+		void send(@NonNull List<OutboxMessage> messages);
+	}
+
+	private final OutboxStore store;
+	private final Sender sender;
+	private final int batchSize;
+	private final Duration pollInterval;
+
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * @param store must not be {@code null}
+	 * @param sender must not be {@code null}
+	 * @param batchSize maximum number of the messages passed to the sender at once, must be positive
+	 * @param pollInterval delay between the polls of the store, must be positive
+	 */
+	public OutboxRelay(@NonNull final OutboxStore store, @NonNull final Sender sender, final int batchSize, @NonNull final Duration pollInterval) {
+		this.store = Objects.requireNonNull(store, "Parameter 'store' must not be null!");
+		this.sender = Objects.requireNonNull(sender, "Parameter 'sender' must not be null!");
+		if (batchSize <= 0) throw new IllegalArgumentException("Parameter 'batchSize' must be positive!");
+		this.batchSize = batchSize;
+		this.pollInterval = Objects.requireNonNull(pollInterval, "Parameter 'pollInterval' must not be null!");
+		if (pollInterval.isZero() || pollInterval.isNegative()) throw new IllegalArgumentException("Parameter 'pollInterval' must be positive!");
+	}
+
+	/**
+	 * Sends all stored messages, batch by batch.
+	 *
+	 * @return number of the sent messages
+	 */
+	public int relay() {
+		int total = 0;
+		List<OutboxMessage> batch;
+		do {
+			batch = store.poll(batchSize);
+			if (batch.isEmpty()) break;
+			sender.send(batch);
+			store.delete(batch);
+			total += batch.size();
+		} while (batch.size() == batchSize);
+		return total;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("outbox-relay-");
+		threadFactory.setDaemon(true);
+		scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		long interval = pollInterval.toNanos();
+		scheduler.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		if (scheduler != null) {
+			scheduler.shutdown();
+			scheduler.awaitTermination(pollInterval.toMillis() + TimeUnit.SECONDS.toMillis(10), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void poll() {
+		try {
+			relay();
+		} catch (RuntimeException e) {
+			log.error("Outbox relay failed, the messages will be sent again with the next poll", e);
+		}
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.outbox;
+
+import io.github.cepr0.crud.event.EntityEvent;
+import org.springframework.lang.NonNull;
+
+/**
+ * Serializer of the {@link EntityEvent}s to the payload of the {@link OutboxMessage}s.
+ *
+ * @author Sergei Poznanski
+ * @see JacksonOutboxSerializer
+ */
+@FunctionalInterface
+public interface OutboxSerializer {
+
+	/**
+	 * @param event must not be {@code null}
+	 * @return the serialized event, must not be {@code null}
+	 */
+	@NonNull
+	byte[] serialize(@NonNull EntityEvent<?> event);
+}
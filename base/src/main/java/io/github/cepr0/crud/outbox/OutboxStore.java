@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.outbox;
+
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+/**
+ * Storage of the {@link OutboxMessage}s (a table or a collection).
+ *
+ * @author Sergei Poznanski
+ * @see Outbox
+ * @see OutboxRelay
+ */
+public interface OutboxStore {
+
+	/**
+	 * Stores the message in the current transaction.
+	 *
+	 * @param message must not be {@code null}
+	 */
+	void save(@NonNull OutboxMessage message);
+
+	/**
+	 * Reads the oldest stored messages, in the order of their identifiers, which approximates the order
+	 * of their saving (see {@link OutboxRelay.Sender#send}).
+	 *
+	 * @param limit maximum number of the messages
+	 * @return the list of the messages with their ids, will never be {@code null}
+	 */
+	@NonNull
+	List<OutboxMessage> poll(int limit);
+
+	/**
+	 * Deletes the given (relayed) messages.
+	 *
+	 * @param messages the messages read by {@link #poll}, must not be {@code null}
+	 */
+	void delete(@NonNull List<OutboxMessage> messages);
+}
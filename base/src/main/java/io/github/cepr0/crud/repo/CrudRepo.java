@@ -17,18 +17,38 @@
 package io.github.cepr0.crud.repo;
 
 import io.github.cepr0.crud.model.IdentifiableEntity;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Repository interface of generic CRUD operations for a specific entity type and its identifier.
+ * <p>
+ * <b>Repository-level filters.</b> To restrict the entities at the repository level (to filter out the 'soft deleted'
+ * entities, for example) override {@code JpaRepo#restriction()}, which is applied to all queries of {@code JpaRepo}.
+ * The other implementations read the entities in the different methods with the different queries, which should be
+ * restricted accordingly (e.g. {@code MongoRepo#getByIdIn} used by {@link CrudRepo#getAllById(Collection)}).
  *
  * @param <T> type of the entity which extends {@link IdentifiableEntity}
  * @param <ID> type of the entity identifier
@@ -55,6 +75,32 @@ public interface CrudRepo<T extends IdentifiableEntity<ID>, ID extends Serializa
 	 */
 	@NonNull <S> Optional<T> update(@NonNull ID id, @NonNull S source, @NonNull BiFunction<S, T, T> mapper);
 
+	/**
+	 * Updates an entity, found by its id, by setting the given values of its properties, then returns the updated entity.
+	 * Unlike {@link CrudRepo#update} this method doesn't need a mapper, so the implementations can perform it with
+	 * one statement of the underlying storage, without loading the entity beforehand.
+	 * <p>
+	 * By default it loads the entity with {@link CrudRepo#update} and sets the given properties to it.
+	 *
+	 * @param id must not be {@code null}
+	 * @param version the expected version of the entity, or {@code null} to not check it
+	 * @param fields the new values of the entity properties by their names, must not be {@code null}
+	 * @return updated entity or {@code Optional#empty()} if none found
+	 * @throws OptimisticLockingFailureException if the entity is found but its version differs from the given one
+	 */
+	@NonNull
+	default Optional<T> updateFields(@NonNull final ID id, @Nullable final Object version, @NonNull final Map<String, ?> fields) {
+		Objects.requireNonNull(fields, "The given fields must not be null!");
+		return update(id, fields, (values, target) -> {
+			BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(target);
+			if (version != null && wrapper.isReadableProperty("version") && !version.equals(wrapper.getPropertyValue("version"))) {
+				throw new OptimisticLockingFailureException("The version of the entity with id '" + id + "' differs from the given one!");
+			}
+			wrapper.setPropertyValues(values);
+			return target;
+		});
+	}
+
 	/**
 	 * Deletes an entity by its id, then returns deleted entity.
 	 *
@@ -63,6 +109,83 @@ public interface CrudRepo<T extends IdentifiableEntity<ID>, ID extends Serializa
 	 */
 	@NonNull Optional<T> del(@NonNull ID id);
 
+	/**
+	 * Preferable number of entities which are processed at once in the batch operations
+	 * ({@link CrudRepo#createAll}, {@link CrudRepo#updateAll} and {@link CrudRepo#delAll}).
+	 *
+	 * @return size of the batch, must be positive
+	 */
+	default int batchSize() {
+		return 100;
+	}
+
+	/**
+	 * Creates (saves) all given entities.
+	 * <p>
+	 * By default it invokes {@link CrudRepo#create} for every entity,
+	 * the implementations should override it to use the batch facilities of the underlying storage.
+	 *
+	 * @param entities must not be {@code null}
+	 * @return created (saved) entities, will never be {@code null}
+	 */
+	@NonNull
+	default List<T> createAll(@NonNull final Collection<T> entities) {
+		Objects.requireNonNull(entities, "The given entities must not be null!");
+		List<T> result = new ArrayList<>(entities.size());
+		for (T entity : entities) {
+			result.add(create(entity));
+		}
+		return result;
+	}
+
+	/**
+	 * Updates entities, found by the keys of the given map, with the related sources and a mapper.
+	 * <p>
+	 * By default it invokes {@link CrudRepo#update} for every entry of the given map,
+	 * the implementations should override it to use the batch facilities of the underlying storage.
+	 *
+	 * @param sources the map of the sources by the entity ids, must not be {@code null}
+	 * @param mapper that maps the 'source' to updated entity, must not be {@code null}
+	 * @param <S> type of the source which properties are used to update the found entity
+	 * @return updated entities (the entities which were not found are skipped), will never be {@code null}
+	 */
+	@NonNull
+	default <S> List<T> updateAll(@NonNull final Map<ID, S> sources, @NonNull final BiFunction<S, T, T> mapper) {
+		Objects.requireNonNull(sources, "The given sources must not be null!");
+		List<T> result = new ArrayList<>(sources.size());
+		sources.forEach((id, source) -> update(id, source, mapper).ifPresent(result::add));
+		return result;
+	}
+
+	/**
+	 * Deletes entities by their ids, then returns deleted entities.
+	 * <p>
+	 * By default it invokes {@link CrudRepo#del} for every id,
+	 * the implementations should override it to use the batch facilities of the underlying storage.
+	 *
+	 * @param ids must not be {@code null}
+	 * @return the deleted entities (the entities which were not found are skipped), will never be {@code null}
+	 */
+	@NonNull
+	default List<T> delAll(@NonNull final Collection<ID> ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		List<T> result = new ArrayList<>(ids.size());
+		for (ID id : ids) {
+			del(id).ifPresent(result::add);
+		}
+		return result;
+	}
+
+	/**
+	 * Releases the given entities, which have already been processed,
+	 * from the underlying storage context (for example, detaches them from the JPA persistence context)
+	 * to prevent its growth in the batch operations. Does nothing by default.
+	 *
+	 * @param entities must not be {@code null}
+	 */
+	default void detach(@NonNull final Collection<T> entities) {
+	}
+
 	/**
 	 * Retrieves an entity by its id.
 	 *
@@ -71,6 +194,58 @@ public interface CrudRepo<T extends IdentifiableEntity<ID>, ID extends Serializa
 	 */
 	@NonNull Optional<T> getById(@NonNull ID id);
 
+	/**
+	 * Retrieves an entity by its id, loading the attributes of the given {@link FetchPlan}.
+	 * <p>
+	 * By default the plan is ignored and {@link CrudRepo#getById(Serializable)} is invoked.
+	 *
+	 * @param id must not be {@code null}
+	 * @param plan the fetch plan, or {@code null} to use the default one
+	 * @return the entity with the given id or {@code Optional#empty()} if none found
+	 */
+	@NonNull
+	default Optional<T> getById(@NonNull final ID id, @Nullable final FetchPlan plan) {
+		return getById(id);
+	}
+
+	/**
+	 * Retrieves entities by their ids.
+	 * <p>
+	 * By default it invokes {@link CrudRepo#getById(Serializable)} for every id,
+	 * the implementations should override it to use the batch facilities of the underlying storage.
+	 *
+	 * @param ids must not be {@code null}
+	 * @return the found entities (the entities which were not found are skipped) in no particular order,
+	 * will never be {@code null}
+	 */
+	@NonNull
+	default List<T> getAllById(@NonNull final Collection<ID> ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		List<T> result = new ArrayList<>(ids.size());
+		for (ID id : ids) {
+			getById(id).ifPresent(result::add);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the version of the entity with the given id (the value of its {@code version} property),
+	 * for example to check the 'entity tag' of the conditional HTTP request. The implementations can read
+	 * the version only, without loading the whole entity.
+	 * <p>
+	 * By default the entity is loaded with {@link CrudRepo#getById(Serializable)}.
+	 *
+	 * @param id must not be {@code null}
+	 * @return the version of the entity or {@code Optional#empty()} if none found or the entity has no version
+	 */
+	@NonNull
+	default Optional<Object> getVersionById(@NonNull final ID id) {
+		return getById(id).map(entity -> {
+			BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+			return wrapper.isReadableProperty("version") ? wrapper.getPropertyValue("version") : null;
+		});
+	}
+
 	/**
 	 * Returns all instances of the entity.
 	 *
@@ -86,6 +261,75 @@ public interface CrudRepo<T extends IdentifiableEntity<ID>, ID extends Serializa
 	 */
 	@NonNull Page<T> getAll(@NonNull Pageable pageable);
 
+	/**
+	 * Returns a {@link Page} of entities, loading the attributes of the given {@link FetchPlan}.
+	 * <p>
+	 * By default the plan is ignored and {@link CrudRepo#getAll(Pageable)} is invoked.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param plan the fetch plan, or {@code null} to use the default one
+	 * @return a page of entities
+	 */
+	@NonNull
+	default Page<T> getAll(@NonNull final Pageable pageable, @Nullable final FetchPlan plan) {
+		return getAll(pageable);
+	}
+
+	/**
+	 * Returns the total number of entities, which are returned by the {@link CrudRepo#getAll} methods.
+	 * <p>
+	 * By default it's taken from the page returned by {@link CrudRepo#getAll(Pageable)},
+	 * the implementations should override it to count the entities with their own query.
+	 *
+	 * @return the number of entities
+	 */
+	default long countAll() {
+		return getAll(PageRequest.of(0, 1)).getTotalElements();
+	}
+
+	/**
+	 * Returns a {@link Slice} of entities meeting the paging restriction provided in the {@code Pageable} object.
+	 * Unlike {@link CrudRepo#getAll(Pageable)} it doesn't count the total number of entities,
+	 * but reads one extra entity to find out whether the next slice exists.
+	 * <p>
+	 * By default the slice is made of the page returned by {@link CrudRepo#getAll(Pageable)} (so the entities
+	 * are counted), the implementations should override it to read the slice with its own query.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @return a slice of entities
+	 */
+	@NonNull
+	default Slice<T> getSlice(@NonNull final Pageable pageable) {
+		Page<T> page = getAll(pageable);
+		return new SliceImpl<>(page.getContent(), page.getPageable(), page.hasNext());
+	}
+
+	/**
+	 * Returns a {@link Slice} of entities, loading the attributes of the given {@link FetchPlan}.
+	 * <p>
+	 * By default the plan is ignored and {@link CrudRepo#getSlice(Pageable)} is invoked.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param plan the fetch plan, or {@code null} to use the default one
+	 * @return a slice of entities
+	 */
+	@NonNull
+	default Slice<T> getSlice(@NonNull final Pageable pageable, @Nullable final FetchPlan plan) {
+		return getSlice(pageable);
+	}
+
+	/**
+	 * Returns a {@link Slice} of entities following the entity with the given id, in the order of identifiers
+	 * (the keyset or 'seek' pagination). Unlike {@link CrudRepo#getAll(Pageable)} it neither skips the preceding rows
+	 * nor counts the total number of entities, so it's fast regardless of how far the slice is from the beginning.
+	 *
+	 * @param lastId id of the last entity of the previous slice, or {@code null} to get the first slice
+	 * @param size maximum number of entities in the slice, must be positive
+	 * @param direction order of the identifiers, must not be {@code null}
+	 * @return a slice of entities, will never be {@code null}
+	 */
+	@NonNull Slice<T> getAfter(@Nullable ID lastId, int size, @NonNull Sort.Direction direction);
+
 	/**
 	 * Returns all entities sorted by the given options.
 	 *
@@ -93,4 +337,138 @@ public interface CrudRepo<T extends IdentifiableEntity<ID>, ID extends Serializa
 	 * @return all entities sorted by the given options
 	 */
 	@NonNull List<T> getAll(@NonNull Sort sort);
+
+	/**
+	 * Returns all entities sorted by the given options, loading the attributes of the given {@link FetchPlan}.
+	 * <p>
+	 * By default the plan is ignored and {@link CrudRepo#getAll(Sort)} is invoked.
+	 *
+	 * @param sort must not be {@code null}
+	 * @param plan the fetch plan, or {@code null} to use the default one
+	 * @return all entities sorted by the given options
+	 */
+	@NonNull
+	default List<T> getAll(@NonNull final Sort sort, @Nullable final FetchPlan plan) {
+		return getAll(sort);
+	}
+
+	/**
+	 * Returns a {@link Page} of projections of the entities. The projection is either an interface with the getters
+	 * or a class with the constructor, which are named as the (single-valued) properties of the entity.
+	 * <p>
+	 * By default {@link CrudRepo#getAllAs(Pageable, Class, Set)} is invoked with all properties of the projection.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param projection the type of projection, must not be {@code null}
+	 * @param <P> type of projection
+	 * @return a page of projections
+	 */
+	@NonNull
+	default <P> Page<P> getAllAs(@NonNull final Pageable pageable, @NonNull final Class<P> projection) {
+		return getAllAs(pageable, projection, null);
+	}
+
+	/**
+	 * Returns a {@link Page} of projections of the entities (see {@link CrudRepo#getAllAs(Pageable, Class)}),
+	 * with only the given properties of the projection (the 'sparse fieldset'). The other properties
+	 * of the projections are {@code null} (or the default values of the primitive types).
+	 * <p>
+	 * By default the entities are read with {@link CrudRepo#getAll(Pageable)} and converted to the projections in memory.
+	 * The implementations can read the properties of the projection only, without loading the entities themselves.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param projection the type of projection, must not be {@code null}
+	 * @param properties the properties to read, or {@code null} to read all properties of the projection
+	 * @param <P> type of projection
+	 * @return a page of projections
+	 * @throws IllegalArgumentException if the projection doesn't match the entity
+	 */
+	@NonNull
+	default <P> Page<P> getAllAs(@NonNull final Pageable pageable, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		return getAll(pageable).map(EntityProjections.converter(projection, properties));
+	}
+
+	/**
+	 * Returns a {@link Slice} of projections of the entities (see {@link CrudRepo#getAllAs(Pageable, Class)}).
+	 * <p>
+	 * By default {@link CrudRepo#getSliceAs(Pageable, Class, Set)} is invoked with all properties of the projection.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param projection the type of projection, must not be {@code null}
+	 * @param <P> type of projection
+	 * @return a slice of projections
+	 */
+	@NonNull
+	default <P> Slice<P> getSliceAs(@NonNull final Pageable pageable, @NonNull final Class<P> projection) {
+		return getSliceAs(pageable, projection, null);
+	}
+
+	/**
+	 * Returns a {@link Slice} of projections of the entities with only the given properties of the projection
+	 * (see {@link CrudRepo#getAllAs(Pageable, Class, Set)}).
+	 * <p>
+	 * By default the entities are read with {@link CrudRepo#getSlice(Pageable)} and converted to the projections in memory.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param projection the type of projection, must not be {@code null}
+	 * @param properties the properties to read, or {@code null} to read all properties of the projection
+	 * @param <P> type of projection
+	 * @return a slice of projections
+	 * @throws IllegalArgumentException if the projection doesn't match the entity
+	 */
+	@NonNull
+	default <P> Slice<P> getSliceAs(@NonNull final Pageable pageable, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		return getSlice(pageable).map(EntityProjections.converter(projection, properties));
+	}
+
+	/**
+	 * Returns projections of all entities sorted by the given options (see {@link CrudRepo#getAllAs(Pageable, Class)}).
+	 * <p>
+	 * By default {@link CrudRepo#getAllAs(Sort, Class, Set)} is invoked with all properties of the projection.
+	 *
+	 * @param sort must not be {@code null}
+	 * @param projection the type of projection, must not be {@code null}
+	 * @param <P> type of projection
+	 * @return projections of all entities sorted by the given options
+	 */
+	@NonNull
+	default <P> List<P> getAllAs(@NonNull final Sort sort, @NonNull final Class<P> projection) {
+		return getAllAs(sort, projection, null);
+	}
+
+	/**
+	 * Returns projections of all entities sorted by the given options, with only the given properties
+	 * of the projection (see {@link CrudRepo#getAllAs(Pageable, Class, Set)}).
+	 * <p>
+	 * By default the entities are read with {@link CrudRepo#getAll(Sort)} and converted to the projections in memory.
+	 *
+	 * @param sort must not be {@code null}
+	 * @param projection the type of projection, must not be {@code null}
+	 * @param properties the properties to read, or {@code null} to read all properties of the projection
+	 * @param <P> type of projection
+	 * @return projections of all entities sorted by the given options
+	 * @throws IllegalArgumentException if the projection doesn't match the entity
+	 */
+	@NonNull
+	default <P> List<P> getAllAs(@NonNull final Sort sort, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		Function<T, P> converter = EntityProjections.converter(projection, properties);
+		return getAll(sort).stream().map(converter).collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns a {@link Stream} of all entities sorted by the given options, without loading them into memory at once.
+	 * <p>
+	 * The stream holds the resources of the underlying storage (a database cursor for example),
+	 * so it must be consumed within a transaction and closed after usage.
+	 * <p>
+	 * By default the entities are read at once with {@link CrudRepo#getAll(Sort)},
+	 * the implementations should override it to read them lazily.
+	 *
+	 * @param sort must not be {@code null}
+	 * @return a stream of all entities sorted by the given options
+	 */
+	@NonNull
+	default Stream<T> streamAll(@NonNull final Sort sort) {
+		return getAll(sort).stream();
+	}
 }
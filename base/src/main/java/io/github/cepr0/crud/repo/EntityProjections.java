@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.model.PreferredConstructorDiscoverer;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Converts the loaded entities to the projections in memory, used by the default projection reads of {@link CrudRepo}.
+ * <p>
+ * The interface projections are created with {@link ProjectionFactory} from the values of the entity properties,
+ * the class projections - with their preferred constructor, which parameters are named as the entity properties.
+ * If only some properties of the projection are requested, the other ones are left {@code null}
+ * (or the default values of the primitive types).
+ *
+ * @author Sergei Poznanski
+ */
+final class EntityProjections {
+
+	private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+	private EntityProjections() {
+	}
+
+	/**
+	 * Returns the function which converts the entities to the given projection.
+	 *
+	 * @param projection must not be {@code null}
+	 * @param selected the properties to copy, or {@code null} to copy all properties of the projection
+	 * @param <T> type of the entity
+	 * @param <P> type of the projection
+	 * @return the converter
+	 * @throws IllegalArgumentException if the projection class has no constructor with named parameters,
+	 * or none of the selected properties belongs to the projection
+	 */
+	@NonNull
+	static <T, P> Function<T, P> converter(@NonNull final Class<P> projection, @Nullable final Set<String> selected) {
+		Objects.requireNonNull(projection, "The given projection must not be null!");
+		if (projection.isInterface()) {
+			List<String> properties = select(projection, PROJECTIONS.getProjectionInformation(projection).getInputProperties().stream()
+					.map(PropertyDescriptor::getName)
+					.collect(Collectors.toList()), selected);
+			return entity -> PROJECTIONS.createProjection(projection, valuesOf(entity, properties));
+		}
+
+		PreferredConstructor<P, ?> preferred = PreferredConstructorDiscoverer.discover(projection);
+		if (preferred == null || !preferred.hasParameters()) {
+			throw new IllegalArgumentException("The projection class " + projection.getName() + " must have a constructor with parameters");
+		}
+		List<String> parameters = new ArrayList<>();
+		for (PreferredConstructor.Parameter<Object, ?> parameter : preferred.getParameters()) {
+			if (parameter.getName() == null) {
+				throw new IllegalArgumentException("The constructor parameter names of " + projection.getName() + " are not available");
+			}
+			parameters.add(parameter.getName());
+		}
+		List<String> properties = select(projection, parameters, selected);
+		Constructor<P> constructor = preferred.getConstructor();
+		Class<?>[] types = constructor.getParameterTypes();
+		return entity -> {
+			Map<String, Object> values = valuesOf(entity, properties);
+			Object[] args = new Object[types.length];
+			for (int i = 0; i < args.length; i++) {
+				Object value = values.get(parameters.get(i));
+				args[i] = value == null && types[i].isPrimitive() ? Array.get(Array.newInstance(types[i], 1), 0) : value;
+			}
+			return BeanUtils.instantiateClass(constructor, args);
+		};
+	}
+
+	private static List<String> select(final Class<?> projection, final List<String> properties, @Nullable final Set<String> selected) {
+		if (selected == null) {
+			return properties;
+		}
+		List<String> filtered = properties.stream().filter(selected::contains).collect(Collectors.toList());
+		if (filtered.isEmpty()) {
+			throw new IllegalArgumentException("None of the properties " + selected + " belongs to the projection " + projection.getName());
+		}
+		return filtered;
+	}
+
+	private static Map<String, Object> valuesOf(final Object entity, final List<String> properties) {
+		BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+		Map<String, Object> values = new HashMap<>(properties.size() * 2);
+		for (String property : properties) {
+			if (!wrapper.isReadableProperty(property)) {
+				throw new IllegalArgumentException("Unknown property '" + property + "' of " + entity.getClass().getSimpleName());
+			}
+			values.put(property, wrapper.getPropertyValue(property));
+		}
+		return values;
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Plan of the entity attributes which are loaded by the read methods of {@link CrudRepo}, together with the entities.
+ * <p>
+ * The plan is either named (a named entity graph of JPA, for example) or dynamic, defined by the attribute paths
+ * like {@code "cars"} or {@code "cars.person"}. It's interpreted by the repository implementation:
+ * JPA repository loads the entities with the entity graph, Mongo repository reads only the given fields
+ * of the documents (a projection).
+ *
+ * @author Sergei Poznanski
+ */
+public final class FetchPlan {
+
+	private final String name;
+	private final Set<String> attributePaths;
+
+	private FetchPlan(@Nullable final String name, @NonNull final Set<String> attributePaths) {
+		this.name = name;
+		this.attributePaths = attributePaths;
+	}
+
+	/**
+	 * Creates the named plan.
+	 *
+	 * @param name name of the plan (a named entity graph, for example), must not be {@code null}
+	 * @return the named plan
+	 */
+	@NonNull
+	public static FetchPlan named(@NonNull final String name) {
+		Objects.requireNonNull(name, "Parameter 'name' must not be null!");
+		return new FetchPlan(name, Collections.emptySet());
+	}
+
+	/**
+	 * Creates the dynamic plan of the given attribute paths.
+	 *
+	 * @param attributePaths the paths of the attributes separated by dots, like {@code "cars.person"}, must not be empty
+	 * @return the dynamic plan
+	 */
+	@NonNull
+	public static FetchPlan of(@NonNull final String... attributePaths) {
+		Objects.requireNonNull(attributePaths, "Parameter 'attributePaths' must not be null!");
+		if (attributePaths.length == 0) {
+			throw new IllegalArgumentException("Parameter 'attributePaths' must not be empty!");
+		}
+		for (String path : attributePaths) {
+			if (path == null || path.isEmpty()) {
+				throw new IllegalArgumentException("Attribute path must not be null or empty!");
+			}
+		}
+		return new FetchPlan(null, Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(attributePaths))));
+	}
+
+	/**
+	 * @return {@code true} if the plan is named, {@code false} if it's dynamic
+	 */
+	public boolean isNamed() {
+		return name != null;
+	}
+
+	/**
+	 * @return name of the named plan, or {@code null} if the plan is dynamic
+	 */
+	@Nullable
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the attribute paths of the dynamic plan, or the empty set if the plan is named
+	 */
+	@NonNull
+	public Set<String> getAttributePaths() {
+		return attributePaths;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		FetchPlan that = (FetchPlan) o;
+		return Objects.equals(name, that.name) && attributePaths.equals(that.attributePaths);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(name, attributePaths);
+	}
+
+	@Override
+	public String toString() {
+		return isNamed() ? "FetchPlan{name=" + name + "}" : "FetchPlan{attributePaths=" + attributePaths + "}";
+	}
+}
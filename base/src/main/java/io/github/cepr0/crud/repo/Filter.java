@@ -0,0 +1,323 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Filter of the entities read by {@link FilterRepo#getAllBy} methods - the conjunction of the conditions
+ * like {@code age > 18}, each of them is the property of the entity, the operator and the value.
+ * <p>
+ * The filter is interpreted by the repository implementation, which executes it in the database:
+ * JPA repository compiles it to the JPQL query, Mongo repository - to the query {@code Criteria}.
+ * The queries are cached by the {@link Filter#getShape() shape} of the filter, i.e. by its properties
+ * and operators, and the values are passed as the parameters of the query.
+ * <p>
+ * The values are converted to the types of the properties by the repository, so they can be strings
+ * (as in the filter {@link Filter#parse parsed} from the request parameter).
+ *
+ * @author Sergei Poznanski
+ */
+public final class Filter {
+
+	private static final Pattern PROPERTY = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*(\\.[A-Za-z_$][A-Za-z0-9_$]*)*");
+
+	private static final Filter EMPTY = new Filter(Collections.emptyList());
+
+	private final List<Condition> conditions;
+	private volatile String shape;
+
+	private Filter(@NonNull final List<Condition> conditions) {
+		this.conditions = conditions;
+	}
+
+	/**
+	 * Returns the filter without conditions, which matches all entities.
+	 *
+	 * @return the empty filter
+	 */
+	@NonNull
+	public static Filter empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Creates the filter with the given condition.
+	 *
+	 * @param property the property path separated by dots, like {@code "person.name"}, must not be {@code null}
+	 * @param operator must not be {@code null}
+	 * @param value the value of the condition (a collection for {@link Operator#IN}, ignored for
+	 * {@link Operator#NULL} and {@link Operator#NOT_NULL})
+	 * @return the filter with the given condition
+	 * @throws IllegalArgumentException if the property is not valid, or the value is {@code null} (or not a collection for {@link Operator#IN})
+	 */
+	@NonNull
+	public static Filter where(@NonNull final String property, @NonNull final Operator operator, @Nullable final Object value) {
+		return EMPTY.and(property, operator, value);
+	}
+
+	/**
+	 * Returns the new filter with the conditions of this filter and the given one.
+	 *
+	 * @param property the property path separated by dots, like {@code "person.name"}, must not be {@code null}
+	 * @param operator must not be {@code null}
+	 * @param value the value of the condition (a collection for {@link Operator#IN}, ignored for
+	 * {@link Operator#NULL} and {@link Operator#NOT_NULL})
+	 * @return the new filter
+	 * @throws IllegalArgumentException if the property is not valid, or the value is {@code null} (or not a collection for {@link Operator#IN})
+	 */
+	@NonNull
+	public Filter and(@NonNull final String property, @NonNull final Operator operator, @Nullable final Object value) {
+		List<Condition> result = new ArrayList<>(conditions.size() + 1);
+		result.addAll(conditions);
+		result.add(new Condition(property, operator, value));
+		return new Filter(Collections.unmodifiableList(result));
+	}
+
+	/**
+	 * Parses the filter from the string like {@code "age:gt:18;name:like:Jo%;status:in:NEW,ACTIVE"}, i.e. from
+	 * the conditions separated by semicolons, each of them is the property, the {@link Operator#getToken() token}
+	 * of the operator and the value separated by colons. The values of {@link Operator#IN} are separated by commas,
+	 * {@link Operator#NULL} and {@link Operator#NOT_NULL} have no value ({@code "email:null"}).
+	 *
+	 * @param filter the string to parse, {@code null} or blank string results in the empty filter
+	 * @return the parsed filter
+	 * @throws IllegalArgumentException if the string is malformed
+	 */
+	@NonNull
+	public static Filter parse(@Nullable final String filter) {
+		if (filter == null || filter.trim().isEmpty()) {
+			return EMPTY;
+		}
+		Filter result = EMPTY;
+		for (String condition : filter.split(";")) {
+			if (condition.trim().isEmpty()) {
+				continue;
+			}
+			String[] parts = condition.split(":", 3);
+			if (parts.length < 2) {
+				throw new IllegalArgumentException("The filter condition '" + condition + "' must be like 'property:operator:value'");
+			}
+			Operator operator = Operator.of(parts[1].trim());
+			String value = parts.length > 2 ? parts[2] : null;
+			if (operator == Operator.IN) {
+				result = result.and(parts[0].trim(), operator, value != null ? Arrays.asList(value.split(",")) : null);
+			} else {
+				result = result.and(parts[0].trim(), operator, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the conditions of the filter.
+	 *
+	 * @return the unmodifiable list of conditions
+	 */
+	@NonNull
+	public List<Condition> getConditions() {
+		return conditions;
+	}
+
+	/**
+	 * Checks if the filter has no conditions.
+	 *
+	 * @return {@code true} if the filter matches all entities
+	 */
+	public boolean isEmpty() {
+		return conditions.isEmpty();
+	}
+
+	/**
+	 * Returns the shape of the filter - its properties and operators without the values, like {@code "age:gt;name:like"}.
+	 * The filters of the same shape are compiled to the same query.
+	 *
+	 * @return the shape of the filter
+	 */
+	@NonNull
+	public String getShape() {
+		String result = shape;
+		if (result == null) {
+			StringBuilder builder = new StringBuilder();
+			for (Condition condition : conditions) {
+				if (builder.length() > 0) {
+					builder.append(';');
+				}
+				builder.append(condition.property).append(':').append(condition.operator.token);
+			}
+			result = builder.toString();
+			shape = result;
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		return conditions.equals(((Filter) o).conditions);
+	}
+
+	@Override
+	public int hashCode() {
+		return conditions.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "Filter{conditions=" + conditions + "}";
+	}
+
+	/**
+	 * The operators of the filter conditions.
+	 */
+	public enum Operator {
+		EQ("eq"), NE("ne"), GT("gt"), GE("ge"), LT("lt"), LE("le"),
+
+		/**
+		 * The property is equal to one of the values of the collection.
+		 */
+		IN("in"),
+
+		/**
+		 * The (string) property matches the pattern, where {@code %} is any number of characters,
+		 * and {@code _} - a single character (as the SQL {@code LIKE} operator).
+		 */
+		LIKE("like"),
+
+		/**
+		 * The property is {@code null} (or missing in the document).
+		 */
+		NULL("null"),
+
+		/**
+		 * The property is not {@code null}.
+		 */
+		NOT_NULL("notnull");
+
+		private final String token;
+
+		Operator(final String token) {
+			this.token = token;
+		}
+
+		/**
+		 * Returns the token of the operator in the {@link Filter#parse parsed} filter.
+		 *
+		 * @return the token of the operator
+		 */
+		@NonNull
+		public String getToken() {
+			return token;
+		}
+
+		/**
+		 * Checks if the operator needs a value.
+		 *
+		 * @return {@code false} for {@link Operator#NULL} and {@link Operator#NOT_NULL}, {@code true} - otherwise
+		 */
+		public boolean hasValue() {
+			return this != NULL && this != NOT_NULL;
+		}
+
+		@NonNull
+		private static Operator of(final String token) {
+			for (Operator operator : values()) {
+				if (operator.token.equalsIgnoreCase(token)) {
+					return operator;
+				}
+			}
+			throw new IllegalArgumentException("Unknown filter operator '" + token + "'");
+		}
+	}
+
+	/**
+	 * The condition of the filter.
+	 */
+	public static final class Condition {
+		private final String property;
+		private final Operator operator;
+		private final Object value;
+
+		private Condition(final String property, final Operator operator, @Nullable final Object value) {
+			Objects.requireNonNull(property, "The given property must not be null!");
+			Objects.requireNonNull(operator, "The given operator must not be null!");
+			if (!PROPERTY.matcher(property).matches()) {
+				throw new IllegalArgumentException("Invalid filter property '" + property + "'");
+			}
+			if (operator.hasValue() && value == null) {
+				throw new IllegalArgumentException("The value of the filter condition '" + property + ":" + operator.token + "' must not be null");
+			}
+			if (operator == Operator.IN && (!(value instanceof Collection) || ((Collection<?>) value).isEmpty())) {
+				throw new IllegalArgumentException("The value of the filter condition '" + property + ":in' must be a non-empty collection");
+			}
+			this.property = property;
+			this.operator = operator;
+			this.value = operator == Operator.IN
+					? Collections.unmodifiableList(new ArrayList<>((Collection<?>) value))
+					: operator.hasValue() ? value : null;
+		}
+
+		@NonNull
+		public String getProperty() {
+			return property;
+		}
+
+		@NonNull
+		public Operator getOperator() {
+			return operator;
+		}
+
+		/**
+		 * Returns the value of the condition: the list of values for {@link Operator#IN},
+		 * {@code null} for {@link Operator#NULL} and {@link Operator#NOT_NULL}.
+		 *
+		 * @return the value of the condition
+		 */
+		@Nullable
+		public Object getValue() {
+			return value;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Condition that = (Condition) o;
+			return property.equals(that.property) && operator == that.operator && Objects.equals(value, that.value);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(property, operator, value);
+		}
+
+		@Override
+		public String toString() {
+			return operator.hasValue() ? property + ":" + operator.token + ":" + value : property + ":" + operator.token;
+		}
+	}
+}
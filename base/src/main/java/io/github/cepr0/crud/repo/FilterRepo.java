@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+/**
+ * Repository which reads the entities matching a {@link Filter}. The filter is executed in the database,
+ * so the entities which don't match it are not loaded.
+ * <p>
+ * The filters are opt-in: {@code AbstractCrudService} supports them only if its repository implements this interface.
+ * {@code JpaRepo} always implements it, and {@code FilterMongoRepo} - if the repository is based on {@code SimpleMongoRepo}.
+ *
+ * @param <T> type of the entity
+ *
+ * @author Sergei Poznanski
+ */
+public interface FilterRepo<T> {
+	/**
+	 * Returns a {@link Page} of entities matching the given {@link Filter}.
+	 *
+	 * @param filter must not be {@code null}
+	 * @param pageable must not be {@code null}
+	 * @return a page of entities matching the filter
+	 * @throws IllegalArgumentException if the filter properties are unknown or the values can't be converted to their types
+	 */
+	@NonNull Page<T> getAllBy(@NonNull Filter filter, @NonNull Pageable pageable);
+
+	/**
+	 * Returns all entities matching the given {@link Filter} sorted by the given options
+	 * (see {@link FilterRepo#getAllBy(Filter, Pageable)}).
+	 *
+	 * @param filter must not be {@code null}
+	 * @param sort must not be {@code null}
+	 * @return entities matching the filter sorted by the given options
+	 * @throws IllegalArgumentException if the filter properties are unknown or the values can't be converted to their types
+	 */
+	@NonNull List<T> getAllBy(@NonNull Filter filter, @NonNull Sort sort);
+
+	/**
+	 * Returns the number of entities matching the given {@link Filter} (see {@link FilterRepo#getAllBy(Filter, Pageable)}).
+	 *
+	 * @param filter must not be {@code null}
+	 * @return the number of entities matching the filter
+	 * @throws IllegalArgumentException if the filter properties are unknown or the values can't be converted to their types
+	 */
+	long countBy(@NonNull Filter filter);
+}
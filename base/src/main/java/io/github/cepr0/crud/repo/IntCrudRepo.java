@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import io.github.cepr0.crud.support.CrudUtils;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Extension of {@link CrudRepo} for the entities with the {@code int} identifiers, which accepts the arrays
+ * of primitive ids in the bulk operations. The arrays are not copied into the boxed collections,
+ * they are wrapped with the read only views (see {@link CrudUtils#asList(int...)}), so the ids are boxed
+ * one by one only when they are passed to the underlying storage.
+ * <p>
+ * It can be mixed with the storage specific repository, for example:
+ * <pre>
+ *    {@code public interface UserRepo extends JpaRepo<User, Integer>, IntCrudRepo<User> {}}
+ * </pre>
+ *
+ * @param <T> type of the entity which extends {@link IdentifiableEntity}
+ *
+ * @author Sergei Poznanski
+ */
+public interface IntCrudRepo<T extends IdentifiableEntity<Integer>> extends CrudRepo<T, Integer> {
+
+	/**
+	 * Retrieves entities by their ids with {@link CrudRepo#getAllById(java.util.Collection)}.
+	 *
+	 * @param ids must not be {@code null}
+	 * @return the found entities (the entities which were not found are skipped) in no particular order,
+	 * will never be {@code null}
+	 */
+	@NonNull
+	default List<T> getAllById(@NonNull final int... ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		return getAllById(CrudUtils.asList(ids));
+	}
+
+	/**
+	 * Deletes entities by their ids with {@link CrudRepo#delAll(java.util.Collection)}, then returns deleted entities.
+	 *
+	 * @param ids must not be {@code null}
+	 * @return the deleted entities (the entities which were not found are skipped), will never be {@code null}
+	 */
+	@NonNull
+	default List<T> delAll(@NonNull final int... ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		return delAll(CrudUtils.asList(ids));
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+import java.util.function.BiFunction;
+
+/**
+ * Reactive counterpart of {@link CrudRepo}: the repository interface of non-blocking generic CRUD operations
+ * for a specific entity type and its identifier.
+ *
+ * @param <T> type of the entity which extends {@link IdentifiableEntity}
+ * @param <ID> type of the entity identifier
+ *
+ * @author Sergei Poznanski
+ */
+public interface ReactiveCrudRepo<T extends IdentifiableEntity<ID>, ID extends Serializable> {
+	/**
+	 * Creates (saves) a given entity.
+	 *
+	 * @param entity must not be {@code null}
+	 * @return {@link Mono} emitting the created (saved) entity
+	 */
+	@NonNull Mono<T> create(@NonNull T entity);
+
+	/**
+	 * Updates an entity, found by its id, with a given source and a mapper.
+	 *
+	 * @param id must not be {@code null}
+	 * @param source must not be {@code null}
+	 * @param mapper that maps the 'source' to updated entity, must not be {@code null}
+	 * @param <S> type of the source which properties are used to update the found entity
+	 * @return {@link Mono} emitting the updated entity, or empty {@link Mono} if none found
+	 */
+	@NonNull <S> Mono<T> update(@NonNull ID id, @NonNull S source, @NonNull BiFunction<S, T, T> mapper);
+
+	/**
+	 * Deletes an entity by its id, then returns deleted entity.
+	 *
+	 * @param id must not be {@code null}
+	 * @return {@link Mono} emitting the deleted entity, or empty {@link Mono} if none found
+	 */
+	@NonNull Mono<T> del(@NonNull ID id);
+
+	/**
+	 * Retrieves an entity by its id.
+	 *
+	 * @param id must not be {@code null}
+	 * @return {@link Mono} emitting the entity with the given id, or empty {@link Mono} if none found
+	 */
+	@NonNull Mono<T> getById(@NonNull ID id);
+
+	/**
+	 * Returns all instances of the entity.
+	 *
+	 * @return {@link Flux} of all entities
+	 */
+	@NonNull Flux<T> getAll();
+
+	/**
+	 * Returns the entities meeting the paging restriction provided in the {@code Pageable} object.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @return {@link Flux} of the entities of the requested page
+	 */
+	@NonNull Flux<T> getAll(@NonNull Pageable pageable);
+
+	/**
+	 * Returns all entities sorted by the given options.
+	 *
+	 * @param sort must not be {@code null}
+	 * @return {@link Flux} of all entities sorted by the given options
+	 */
+	@NonNull Flux<T> getAll(@NonNull Sort sort);
+
+	/**
+	 * Returns the total number of entities, which are returned by the {@link ReactiveCrudRepo#getAll} methods.
+	 *
+	 * @return {@link Mono} emitting the number of entities
+	 */
+	@NonNull Mono<Long> countAll();
+}
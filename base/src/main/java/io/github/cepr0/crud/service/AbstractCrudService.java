@@ -22,21 +22,49 @@ import io.github.cepr0.crud.event.EntityEvent;
 import io.github.cepr0.crud.mapper.CrudMapper;
 import io.github.cepr0.crud.model.IdentifiableEntity;
 import io.github.cepr0.crud.repo.CrudRepo;
+import io.github.cepr0.crud.repo.FetchPlan;
+import io.github.cepr0.crud.repo.Filter;
+import io.github.cepr0.crud.repo.FilterRepo;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ClassUtils;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static io.github.cepr0.crud.support.CrudUtils.copyNonNullProperties;
+import static io.github.cepr0.crud.support.CrudUtils.nonNullProperties;
+import static io.github.cepr0.crud.support.CrudUtils.partition;
 
 /**
  * Base implementation of {@link CrudService}.
@@ -56,6 +84,8 @@ public abstract class AbstractCrudService<T extends IdentifiableEntity<ID>, ID e
 
 	@Autowired protected ApplicationEventPublisher publisher;
 
+	private volatile Class<T> entityClass;
+
 	protected AbstractCrudService(final CrudRepo<T, ID> repo, final CrudMapper<T, Q, S> mapper) {
 		this.repo = repo;
 		this.mapper = mapper;
@@ -123,11 +153,41 @@ public abstract class AbstractCrudService<T extends IdentifiableEntity<ID>, ID e
 	 * Publishes 'entity is updated' {@link EntityEvent} if {@link AbstractCrudService#onUpdateEvent} method returns a new one.
 	 * <p>
 	 * The event contains the updated entity, and can be post-processed in the custom event listener.
+	 * <p>
+	 * If {@link AbstractCrudService#useSingleStatementUpdate} returns {@code true}, the entity is updated
+	 * with {@link CrudRepo#updateFields} instead of loading and modifying it.
 	 */
 	@NonNull
 	@Override
 	public Optional<S> update(final ID id, final Q source) {
-		return repo.update(id, source, new CallbackMapper<>(mapper::toUpdate, this::onUpdate))
+		return doUpdate(id, source, null, versionOf(source));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The version is checked in the same transaction: the loaded entity is checked before it's mapped
+	 * (if its {@code version} property is readable), and the single-statement update (see
+	 * {@link AbstractCrudService#useSingleStatementUpdate}) checks the given version instead of the one of the DTO.
+	 */
+	@NonNull
+	@Override
+	public Optional<S> update(@NonNull final ID id, @NonNull final Q source, @Nullable final Object version) {
+		return doUpdate(id, source, version, version != null ? version : versionOf(source));
+	}
+
+	private Optional<S> doUpdate(final ID id, final Q source, @Nullable final Object version, @Nullable final Object fieldsVersion) {
+		Optional<T> updated;
+		if (useSingleStatementUpdate()) {
+			updated = repo.updateFields(id, fieldsVersion, nonNullProperties(source, getEntityClass(), ignoredProps()));
+		} else {
+			BiFunction<Q, T, T> callbackMapper = new CallbackMapper<>(mapper::toUpdate, this::onUpdate);
+			BiFunction<Q, T, T> entityMapper = version == null
+					? callbackMapper
+					: (s, t) -> callbackMapper.apply(s, checkVersion(id, t, version));
+			updated = repo.update(id, source, entityMapper);
+		}
+		return updated
 				.map(entity -> {
 					EntityEvent<T> event = onUpdateEvent(entity);
 					if (event != null) publisher.publishEvent(event);
@@ -151,63 +211,584 @@ public abstract class AbstractCrudService<T extends IdentifiableEntity<ID>, ID e
 		}).orElse(false);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The sources are processed by chunks of {@link CrudRepo#batchSize()} size. {@link AbstractCrudService#onCreate}
+	 * callback is invoked and 'entity is created' {@link EntityEvent} is published for every entity, like in
+	 * {@link AbstractCrudService#create(CrudRequest)}. The processed entities of each chunk are released
+	 * with {@link CrudRepo#detach}.
+	 */
+	@NonNull
+	@Override
+	public BatchResult<ID, S> createAll(@NonNull final Collection<Q> sources) {
+		Objects.requireNonNull(sources, "The given sources must not be null!");
+		List<S> responses = new ArrayList<>(sources.size());
+
+		for (List<Q> chunk : partition(sources, repo.batchSize())) {
+			List<T> entities = new ArrayList<>(chunk.size());
+			for (Q source : chunk) {
+				T entity = mapper.toCreate(source);
+				onCreate(source, entity);
+				entities.add(entity);
+			}
+
+			List<T> created = repo.createAll(entities);
+			for (T entity : created) {
+				EntityEvent<T> event = onCreateEvent(entity);
+				if (event != null) publisher.publishEvent(event);
+				responses.add(mapper.toResponse(entity));
+			}
+			repo.detach(created);
+		}
+
+		return new BatchResult<>(responses, new HashSet<>());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The sources are processed by chunks of {@link CrudRepo#batchSize()} size. {@link AbstractCrudService#onUpdate}
+	 * callback is invoked and 'entity is updated' {@link EntityEvent} is published for every updated entity, like in
+	 * {@link AbstractCrudService#update(Serializable, CrudRequest)}. The processed entities of each chunk are released
+	 * with {@link CrudRepo#detach}.
+	 */
+	@NonNull
+	@Override
+	public BatchResult<ID, S> updateAll(@NonNull final Map<ID, Q> sources) {
+		Objects.requireNonNull(sources, "The given sources must not be null!");
+		List<S> responses = new ArrayList<>(sources.size());
+		Set<ID> notFound = new LinkedHashSet<>();
+
+		for (List<ID> ids : partition(sources.keySet(), repo.batchSize())) {
+			Map<ID, Q> chunk = new LinkedHashMap<>(ids.size());
+			ids.forEach(id -> chunk.put(id, sources.get(id)));
+
+			List<T> updated = repo.updateAll(chunk, new CallbackMapper<>(mapper::toUpdate, this::onUpdate));
+			Set<ID> updatedIds = new HashSet<>(updated.size());
+			for (T entity : updated) {
+				updatedIds.add(entity.getId());
+				EntityEvent<T> event = onUpdateEvent(entity);
+				if (event != null) publisher.publishEvent(event);
+				responses.add(mapper.toResponse(entity));
+			}
+			repo.detach(updated);
+
+			ids.stream().filter(id -> !updatedIds.contains(id)).forEach(notFound::add);
+		}
+
+		return new BatchResult<>(responses, notFound);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The ids are processed by chunks of {@link CrudRepo#batchSize()} size. 'Entity is deleted' {@link EntityEvent}
+	 * is published for every deleted entity, like in {@link AbstractCrudService#delete}.
+	 */
+	@NonNull
+	@Override
+	public BatchResult<ID, ID> deleteAll(@NonNull final Collection<ID> ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		List<ID> deletedIds = new ArrayList<>(ids.size());
+		Set<ID> notFound = new LinkedHashSet<>();
+
+		for (List<ID> chunk : partition(ids, repo.batchSize())) {
+			Set<ID> chunkDeletedIds = new HashSet<>(chunk.size());
+			for (T deleted : repo.delAll(chunk)) {
+				chunkDeletedIds.add(deleted.getId());
+				EntityEvent<T> event = onDeleteEvent(deleted);
+				if (event != null) publisher.publishEvent(event);
+			}
+			for (ID id : chunk) {
+				if (chunkDeletedIds.contains(id)) {
+					deletedIds.add(id);
+				} else {
+					notFound.add(id);
+				}
+			}
+		}
+
+		return new BatchResult<>(deletedIds, notFound);
+	}
+
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public Optional<Object> getVersion(@NonNull final ID id) {
+		return repo.getVersionById(id);
+	}
+
 	@Transactional(readOnly = true)
 	@NonNull
 	@Override
 	public Optional<T> getOneT(@NonNull final ID id) {
-		return repo.getById(id);
+		return repo.getById(id, getOneFetchPlan());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entity is loaded with {@link AbstractCrudService#getOneFetchPlan()}.
+	 */
 	@Transactional(readOnly = true)
 	@NonNull
 	@Override
 	public Optional<S> getOne(@NonNull final ID id) {
-		return getOneT(id).map(mapper::toResponse);
+		return getOne(id, getOneFetchPlan());
+	}
+
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public Optional<S> getOne(@NonNull final ID id, @Nullable final FetchPlan plan) {
+		return repo.getById(id, plan).map(mapper::toResponse);
 	}
 
 	@Transactional(readOnly = true)
 	@NonNull
 	@Override
 	public List<T> getAllT() {
-		return repo.getAll();
+		return readAll(getAllFetchPlan());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are loaded with {@link AbstractCrudService#getAllFetchPlan()}, or the response DTOs are read
+	 * straight from the repository if {@link AbstractCrudService#getResponseProjection()} is defined.
+	 */
 	@Transactional(readOnly = true)
 	@NonNull
 	@Override
 	public List<S> getAll() {
-		return repo.getAll().stream().map(mapper::toResponse).collect(Collectors.toList());
+		Class<? extends S> projection = getResponseProjection();
+		if (projection != null) {
+			return upcast(repo.getAllAs(Sort.unsorted(), projection));
+		}
+		return readAll(getAllFetchPlan()).stream().map(mapper::toResponse).collect(Collectors.toList());
+	}
+
+	private List<T> readAll(@Nullable final FetchPlan plan) {
+		return plan != null ? repo.getAll(Sort.unsorted(), plan) : repo.getAll();
 	}
 
 	@Transactional(readOnly = true)
 	@NonNull
 	@Override
 	public Page<T> getAllT(final Pageable pageable) {
-		return repo.getAll(pageable);
+		return readPage(pageable, getAllFetchPlan());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are loaded with {@link AbstractCrudService#getAllFetchPlan()}, or the response DTOs are read
+	 * straight from the repository if {@link AbstractCrudService#getResponseProjection()} is defined.
+	 */
 	@Transactional(readOnly = true)
 	@NonNull
 	@Override
 	public Page<S> getAll(final Pageable pageable) {
-//		return repo.getAll(pageable).map(mapper::toResponse); // works in SB 2.0+
-		Page<T> page = repo.getAll(pageable);
+		Class<? extends S> projection = getResponseProjection();
+		if (projection != null) {
+			return readProjectedPage(pageable, projection, null);
+		}
+		return getAll(pageable, getAllFetchPlan());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If {@link AbstractCrudService#getResponseProjection()} is defined, only the given fields of the response DTOs
+	 * are read from the repository (see {@link CrudRepo#getAllAs(Pageable, Class, Set)}), otherwise the fields
+	 * are ignored and {@link AbstractCrudService#getAll(Pageable)} is invoked.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public Page<S> getAllSparse(@NonNull final Pageable pageable, @Nullable final Set<String> fields) {
+		Class<? extends S> projection = getResponseProjection();
+		if (projection != null && fields != null) {
+			return readProjectedPage(pageable, projection, fields);
+		}
+		return getAll(pageable);
+	}
+
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public Page<S> getAll(@NonNull final Pageable pageable, @Nullable final FetchPlan plan) {
+//		return readPage(pageable, plan).map(mapper::toResponse); // works in SB 2.0+
+		Page<T> page = readPage(pageable, plan);
 		List<S> content = page.getContent().stream().map(mapper::toResponse).collect(Collectors.toList());
 		return new PageImpl<>(content, pageable, page.getTotalElements());
 	}
 
+	private Page<T> readPage(final Pageable pageable, @Nullable final FetchPlan plan) {
+		return readPage(pageable, p -> repo.getAll(p, plan), p -> repo.getSlice(p, plan));
+	}
+
+	private <P extends S> Page<S> readProjectedPage(final Pageable pageable, final Class<P> projection, @Nullable final Set<String> fields) {
+		Page<P> page = readPage(pageable, p -> repo.getAllAs(p, projection, fields), p -> repo.getSliceAs(p, projection, fields));
+		return new PageImpl<>(upcast(page.getContent()), pageable, page.getTotalElements());
+	}
+
+	/**
+	 * Reads the page with the given reader, or reads the slice if the total number is provided
+	 * by the {@link AbstractCrudService#getTotalCountProvider()}.
+	 */
+	private <E> Page<E> readPage(final Pageable pageable, final Function<Pageable, Page<E>> pageReader, final Function<Pageable, Slice<E>> sliceReader) {
+		Long total = getTotal();
+		if (total == null) {
+			return pageReader.apply(pageable);
+		}
+		Slice<E> slice = sliceReader.apply(pageable);
+		return new PageImpl<>(slice.getContent(), pageable, totalOf(slice, total));
+	}
+
+	@Nullable
+	private Long getTotal() {
+		TotalCountProvider provider = getTotalCountProvider();
+		return provider != null ? provider.getTotal() : null;
+	}
+
+	/**
+	 * Corrects the provided (cached or estimated) total number of entities, so it doesn't contradict the read slice.
+	 */
+	private static long totalOf(final Slice<?> slice, final long total) {
+		long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+		if (slice.hasNext()) {
+			return Math.max(total, offset + slice.getNumberOfElements() + 1);
+		}
+		if (slice.hasContent() || offset == 0) {
+			return offset + slice.getNumberOfElements(); // the last slice, so the total is exact
+		}
+		return Math.min(total, offset); // the slice is beyond the last entity
+	}
+
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public Slice<T> getSliceT(@NonNull final Pageable pageable) {
+		return repo.getSlice(pageable, getAllFetchPlan());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are loaded with {@link AbstractCrudService#getAllFetchPlan()}, or the response DTOs are read
+	 * straight from the repository if {@link AbstractCrudService#getResponseProjection()} is defined.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public Slice<S> getSlice(@NonNull final Pageable pageable) {
+		Class<? extends S> projection = getResponseProjection();
+		if (projection != null) {
+			Slice<? extends S> slice = repo.getSliceAs(pageable, projection);
+			return new SliceImpl<>(upcast(slice.getContent()), pageable, slice.hasNext());
+		}
+		return getSlice(pageable, getAllFetchPlan());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If {@link AbstractCrudService#getResponseProjection()} is defined, only the given fields of the response DTOs
+	 * are read from the repository (see {@link CrudRepo#getSliceAs(Pageable, Class, Set)}), otherwise the fields
+	 * are ignored and {@link AbstractCrudService#getSlice(Pageable)} is invoked.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public Slice<S> getSliceSparse(@NonNull final Pageable pageable, @Nullable final Set<String> fields) {
+		Class<? extends S> projection = getResponseProjection();
+		if (projection != null && fields != null) {
+			Slice<? extends S> slice = repo.getSliceAs(pageable, projection, fields);
+			return new SliceImpl<>(upcast(slice.getContent()), pageable, slice.hasNext());
+		}
+		return getSlice(pageable);
+	}
+
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public Slice<S> getSlice(@NonNull final Pageable pageable, @Nullable final FetchPlan plan) {
+		Slice<T> slice = repo.getSlice(pageable, plan);
+		List<S> content = slice.getContent().stream().map(mapper::toResponse).collect(Collectors.toList());
+		return new SliceImpl<>(content, pageable, slice.hasNext());
+	}
+
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public KeysetSlice<T> getAfterT(@Nullable final ID lastId, final int size, @NonNull final Sort sort) {
+		Slice<T> slice = repo.getAfter(lastId, size, keysetDirection(sort));
+		return toKeysetSlice(slice, slice.getContent(), lastId);
+	}
+
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public KeysetSlice<S> getAfter(@Nullable final ID lastId, final int size, @NonNull final Sort sort) {
+		Slice<T> slice = repo.getAfter(lastId, size, keysetDirection(sort));
+		List<S> content = slice.getContent().stream().map(mapper::toResponse).collect(Collectors.toList());
+		return toKeysetSlice(slice, content, lastId);
+	}
+
 	@Transactional(readOnly = true)
 	@NonNull
 	@Override
 	public List<T> getAllT(final Sort sort) {
-		return repo.getAll(sort);
+		return repo.getAll(sort, getAllFetchPlan());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are loaded with {@link AbstractCrudService#getAllFetchPlan()}, or the response DTOs are read
+	 * straight from the repository if {@link AbstractCrudService#getResponseProjection()} is defined.
+	 */
 	@Transactional(readOnly = true)
 	@NonNull
 	@Override
 	public List<S> getAll(final Sort sort) {
-		return repo.getAll(sort).stream().map(mapper::toResponse).collect(Collectors.toList());
+		Class<? extends S> projection = getResponseProjection();
+		if (projection != null) {
+			return upcast(repo.getAllAs(sort, projection));
+		}
+		return getAll(sort, getAllFetchPlan());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If {@link AbstractCrudService#getResponseProjection()} is defined, only the given fields of the response DTOs
+	 * are read from the repository (see {@link CrudRepo#getAllAs(Sort, Class, Set)}), otherwise the fields
+	 * are ignored and {@link AbstractCrudService#getAll(Sort)} is invoked.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public List<S> getAllSparse(@NonNull final Sort sort, @Nullable final Set<String> fields) {
+		Class<? extends S> projection = getResponseProjection();
+		if (projection != null && fields != null) {
+			return upcast(repo.getAllAs(sort, projection, fields));
+		}
+		return getAll(sort);
+	}
+
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public List<S> getAll(@NonNull final Sort sort, @Nullable final FetchPlan plan) {
+		return repo.getAll(sort, plan).stream().map(mapper::toResponse).collect(Collectors.toList());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The total number of the filtered entities is always counted, {@link AbstractCrudService#getTotalCountProvider()}
+	 * is not used.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public Page<S> getAllBy(@NonNull final Filter filter, @NonNull final Pageable pageable) {
+		Page<T> page = filterRepo().getAllBy(filter, pageable);
+		List<S> content = page.getContent().stream().map(mapper::toResponse).collect(Collectors.toList());
+		return new PageImpl<>(content, pageable, page.getTotalElements());
+	}
+
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	public List<S> getAllBy(@NonNull final Filter filter, @NonNull final Sort sort) {
+		return filterRepo().getAllBy(filter, sort).stream().map(mapper::toResponse).collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the repository as {@link FilterRepo}, the filters are supported only if the repository implements it.
+	 */
+	@SuppressWarnings("unchecked")
+	private FilterRepo<T> filterRepo() {
+		if (repo instanceof FilterRepo) {
+			return (FilterRepo<T>) repo;
+		}
+		throw new UnsupportedOperationException("Filters are not supported by the repository of " + getClass().getName());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Each entity is released with {@link CrudRepo#detach} right after it's mapped to the output (response) DTO.
+	 * <p>
+	 * The method doesn't start a transaction (the stream would outlive it), it must be invoked within the caller's one.
+	 */
+	@Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+	@NonNull
+	@Override
+	public Stream<S> streamAll(@NonNull final Sort sort) {
+		return repo.streamAll(sort).map(entity -> {
+			S response = mapper.toResponse(entity);
+			repo.detach(Collections.singletonList(entity));
+			return response;
+		});
+	}
+
+	@Transactional(readOnly = true)
+	@Override
+	public void forEach(@NonNull final Sort sort, @NonNull final Consumer<? super S> action) {
+		Objects.requireNonNull(action, "The given action must not be null!");
+		try (Stream<S> stream = streamAll(sort)) {
+			stream.forEach(action);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are loaded with {@link AbstractCrudService#getAllFetchPlan()} (the total number of them is provided
+	 * by {@link AbstractCrudService#getTotalCountProvider()} if it's defined) and every entity is mapped
+	 * to the response DTO only when the consumer takes it from the iterator. If {@link AbstractCrudService#getResponseProjection()}
+	 * is defined, the response DTOs are read straight from the repository.
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public void consumePage(@NonNull final Pageable pageable, final boolean count, @NonNull final PageConsumer<S> consumer) {
+		Objects.requireNonNull(consumer, "The given consumer must not be null!");
+		if (getResponseProjection() != null) {
+			Slice<S> page = count ? getAll(pageable) : getSlice(pageable);
+			consumer.accept(page, page.getContent().iterator());
+			return;
+		}
+		Slice<T> page = count ? readPage(pageable, getAllFetchPlan()) : repo.getSlice(pageable, getAllFetchPlan());
+		consumer.accept(page, page.getContent().stream().map(mapper::toResponse).iterator());
+	}
+
+	private static Sort.Direction keysetDirection(@NonNull final Sort sort) {
+		Objects.requireNonNull(sort, "The given sort must not be null!");
+		Sort.Direction direction = Sort.Direction.ASC;
+		for (Sort.Order order : sort) {
+			if (!"id".equals(order.getProperty())) {
+				throw new IllegalArgumentException("Keyset pagination supports the sorting by 'id' only!");
+			}
+			direction = order.getDirection();
+		}
+		return direction;
+	}
+
+	private <E> KeysetSlice<E> toKeysetSlice(@NonNull final Slice<T> slice, @NonNull final List<E> content, @Nullable final ID lastId) {
+		List<T> entities = slice.getContent();
+		ID nextKey = slice.hasNext() && !entities.isEmpty() ? entities.get(entities.size() - 1).getId() : null;
+		return new KeysetSlice<>(content, slice.getPageable(), nextKey, lastId == null);
+	}
+
+	/**
+	 * Replaces the {@link ApplicationEventPublisher} of this service with the one returned by the given decorator,
+	 * which wraps the current publisher to measure or log the publication of the entity events, for example.
+	 * It's intended to be called while the service bean is initialized (from a {@code BeanPostProcessor}),
+	 * before the service is used.
+	 *
+	 * @param decorator must not be {@code null} and must not return {@code null}
+	 * @throws IllegalStateException if the publisher is not injected yet
+	 */
+	public void decorateEventPublisher(@NonNull final UnaryOperator<ApplicationEventPublisher> decorator) {
+		Objects.requireNonNull(decorator, "The given decorator must not be null!");
+		if (publisher == null) {
+			throw new IllegalStateException("The event publisher of " + getClass().getName() + " is not injected yet");
+		}
+		publisher = Objects.requireNonNull(decorator.apply(publisher), "The decorated publisher must not be null!");
+	}
+
+	/**
+	 * Defines whether {@link AbstractCrudService#update(Serializable, CrudRequest)} updates the entity with one statement
+	 * of the underlying storage ({@link CrudRepo#updateFields}), i.e. without loading the entity and without writing
+	 * its unchanged properties. Returns {@code false} by default.
+	 * <p>
+	 * In this mode the non-null properties of the request DTO (except the {@link AbstractCrudService#ignoredProps})
+	 * are set to the same-named properties of the entity, so {@link CrudMapper#toUpdate} and
+	 * {@link AbstractCrudService#onUpdate} are not invoked. If the DTO has the {@code version} property,
+	 * its value is used to check the version of the entity.
+	 *
+	 * @return {@code true} to use the single-statement update
+	 */
+	protected boolean useSingleStatementUpdate() {
+		return false;
+	}
+
+	/**
+	 * The {@link FetchPlan} of the entity read by {@link AbstractCrudService#getOne} and {@link AbstractCrudService#getOneT}
+	 * (the 'detail' reads), for example the associations which are needed to {@link CrudMapper#toResponse map} the entity
+	 * to the response DTO. Returns {@code null} by default, so the repository reads the entity with its default plan.
+	 *
+	 * @return the fetch plan or {@code null}
+	 */
+	@Nullable
+	protected FetchPlan getOneFetchPlan() {
+		return null;
+	}
+
+	/**
+	 * The {@link FetchPlan} of the entities read by the {@code getAll}, {@code getAllT}, {@code getSlice}
+	 * and {@code getSliceT} methods (the 'list' reads). Returns {@code null} by default, so the repository reads
+	 * the entities with its default plan.
+	 *
+	 * @return the fetch plan or {@code null}
+	 */
+	@Nullable
+	protected FetchPlan getAllFetchPlan() {
+		return null;
+	}
+
+	/**
+	 * The type of the response DTO, which is read by the {@code getAll} and {@code getSlice} methods straight from the
+	 * repository (see {@link CrudRepo#getAllAs(Pageable, Class)}), i.e. without loading the entities and without
+	 * {@link CrudMapper#toResponse mapping} them. The DTO should have the constructor (or the getters, if it's
+	 * an interface) named as the single-valued properties of the entity. Returns {@code null} by default,
+	 * so the entities are loaded and mapped.
+	 * <p>
+	 * The entity reads ({@code getAllT}, {@code getSliceT}), the reads with the explicit {@link FetchPlan},
+	 * {@code getAfter} and {@code streamAll} don't use the projection.
+	 *
+	 * @return the projection type or {@code null}
+	 */
+	@Nullable
+	protected Class<? extends S> getResponseProjection() {
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E> List<E> upcast(final List<? extends E> list) {
+		return (List<E>) list; // the lists are not modified
+	}
+
+	@SuppressWarnings("unchecked")
+	private Class<T> getEntityClass() {
+		Class<T> result = entityClass;
+		if (result == null) {
+			Class<?>[] types = GenericTypeResolver.resolveTypeArguments(ClassUtils.getUserClass(this), AbstractCrudService.class);
+			if (types == null || types[0] == null) {
+				throw new IllegalStateException("Could not resolve the entity class of " + getClass().getName());
+			}
+			entityClass = result = (Class<T>) types[0];
+		}
+		return result;
+	}
+
+	private static <E> E checkVersion(final Object id, final E entity, final Object version) {
+		BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+		if (wrapper.isReadableProperty("version") && !version.equals(wrapper.getPropertyValue("version"))) {
+			throw new OptimisticLockingFailureException("The version of the entity with id '" + id + "' differs from the given one!");
+		}
+		return entity;
+	}
+
+	@Nullable
+	private static Object versionOf(@NonNull final Object source) {
+		BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(source);
+		return wrapper.isReadableProperty("version") ? wrapper.getPropertyValue("version") : null;
 	}
 
 	/**
@@ -273,4 +854,19 @@ public abstract class AbstractCrudService<T extends IdentifiableEntity<ID>, ID e
 	protected EntityEvent<T> onDeleteEvent(@NonNull T entity) {
 		return null;
 	}
+
+	/**
+	 * Returns the {@link TotalCountProvider} which is consulted by the paged reads ({@link AbstractCrudService#getAll(Pageable)}
+	 * and {@link AbstractCrudService#getAllT(Pageable)}) before executing the count query. If it returns {@code null}
+	 * (by default), or the provider doesn't know the total number of entities, the exact count query is executed.
+	 * <p>
+	 * Note that the same provider instance should be returned on every call (a bean, for example),
+	 * otherwise the cached total count will not be reused.
+	 *
+	 * @return the total count provider, or {@code null}
+	 */
+	@Nullable
+	protected TotalCountProvider getTotalCountProvider() {
+		return null;
+	}
 }
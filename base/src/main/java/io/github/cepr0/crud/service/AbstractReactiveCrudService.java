@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import io.github.cepr0.crud.dto.CrudRequest;
+import io.github.cepr0.crud.dto.CrudResponse;
+import io.github.cepr0.crud.event.EntityEvent;
+import io.github.cepr0.crud.mapper.CrudMapper;
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import io.github.cepr0.crud.repo.ReactiveCrudRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Base implementation of {@link ReactiveCrudService}. It has the same 'callback' methods as {@link AbstractCrudService}.
+ * <p>
+ * The entity events are published synchronously on the thread which completes the related repository operation,
+ * so their listeners must not block.
+ *
+ * @param <T>  type of the entity which extends {@link IdentifiableEntity}
+ * @param <ID> type of the entity identifier
+ * @param <Q>  type of the input (request) DTO
+ * @param <S>  type of the output (response) DTO
+ * @author Sergei Poznanski
+ */
+public abstract class AbstractReactiveCrudService<T extends IdentifiableEntity<ID>, ID extends Serializable, Q extends CrudRequest, S extends CrudResponse<ID>>
+		implements ReactiveCrudService<T, ID, Q, S> {
+
+	protected final ReactiveCrudRepo<T, ID> repo;
+	protected final CrudMapper<T, Q, S> mapper;
+
+	@Autowired protected ApplicationEventPublisher publisher;
+
+	protected AbstractReactiveCrudService(final ReactiveCrudRepo<T, ID> repo, final CrudMapper<T, Q, S> mapper) {
+		this.repo = repo;
+		this.mapper = mapper;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Publishes 'entity is created' {@link EntityEvent} if {@link AbstractReactiveCrudService#onCreateEvent} method returns a new one.
+	 */
+	@NonNull
+	@Override
+	public Mono<S> create(@NonNull final Q source) {
+		Objects.requireNonNull(source, "The given source must not be null!");
+		return Mono.fromSupplier(() -> {
+					T entity = mapper.toCreate(source);
+					onCreate(source, entity);
+					return entity;
+				})
+				.flatMap(repo::create)
+				.doOnNext(entity -> publish(onCreateEvent(entity)))
+				.map(mapper::toResponse);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Publishes 'entity is updated' {@link EntityEvent} if {@link AbstractReactiveCrudService#onUpdateEvent} method returns a new one.
+	 */
+	@NonNull
+	@Override
+	public Mono<S> update(@NonNull final ID id, @NonNull final Q source) {
+		return repo.update(id, source, new CallbackMapper<>(mapper::toUpdate, this::onUpdate))
+				.doOnNext(entity -> publish(onUpdateEvent(entity)))
+				.map(mapper::toResponse);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Publishes 'entity is deleted' {@link EntityEvent} if {@link AbstractReactiveCrudService#onDeleteEvent} method returns a new one.
+	 */
+	@NonNull
+	@Override
+	public Mono<Boolean> delete(@NonNull final ID id) {
+		return repo.del(id)
+				.doOnNext(entity -> publish(onDeleteEvent(entity)))
+				.map(entity -> true)
+				.defaultIfEmpty(false);
+	}
+
+	@NonNull
+	@Override
+	public Mono<S> getOne(@NonNull final ID id) {
+		return repo.getById(id).map(mapper::toResponse);
+	}
+
+	@NonNull
+	@Override
+	public Mono<T> getOneT(@NonNull final ID id) {
+		return repo.getById(id);
+	}
+
+	@NonNull
+	@Override
+	public Flux<S> getAll() {
+		return repo.getAll().map(mapper::toResponse);
+	}
+
+	@NonNull
+	@Override
+	public Flux<S> getAll(@NonNull final Sort sort) {
+		return repo.getAll(sort).map(mapper::toResponse);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Like {@code PageableExecutionUtils}, it doesn't count the entities if the total can be
+	 * calculated from the page content (the first or the last page, for example).
+	 */
+	@NonNull
+	@Override
+	public Mono<Page<S>> getAll(@NonNull final Pageable pageable) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		return repo.getAll(pageable)
+				.map(mapper::toResponse)
+				.collectList()
+				.flatMap(content -> {
+					Long total = totalOf(content, pageable);
+					Mono<Long> totalMono = total != null ? Mono.just(total) : repo.countAll();
+					return totalMono.<Page<S>>map(t -> new PageImpl<>(content, pageable, t));
+				});
+	}
+
+	@Nullable
+	private static Long totalOf(final List<?> content, final Pageable pageable) {
+		if (pageable.isUnpaged() || (pageable.getOffset() == 0 && content.size() < pageable.getPageSize())) {
+			return (long) content.size();
+		}
+		if (!content.isEmpty() && content.size() < pageable.getPageSize()) {
+			return pageable.getOffset() + content.size();
+		}
+		return null;
+	}
+
+	private void publish(@Nullable final EntityEvent<T> event) {
+		if (event != null) publisher.publishEvent(event);
+	}
+
+	/**
+	 * Callback method that is called before creating the entity. Can be overridden to implement custom pre-processing.
+	 *
+	 * @param request input DTO related to the entity
+	 * @param entity that is creating, will never be {@code null}
+	 */
+	protected void onCreate(@NonNull Q request, @NonNull T entity) {
+	}
+
+	/**
+	 * Callback method that is called before updating the entity. Can be overridden to implement custom pre-processing.
+	 *
+	 * @param request input DTO related to the entity
+	 * @param entity that is updated, will never be {@code null}
+	 */
+	protected void onUpdate(@NonNull Q request, @NonNull T entity) {
+	}
+
+	/**
+	 * Factory callback method is called after entity is created,
+	 * to create 'entity is created' {@link EntityEvent} and, if it isn't {@code null}, to publish it.
+	 *
+	 * @param entity created entity
+	 * @return an event or {@code null} if none
+	 */
+	protected EntityEvent<T> onCreateEvent(@NonNull T entity) {
+		return null;
+	}
+
+	/**
+	 * Factory callback method is called after entity is updated,
+	 * to create 'entity is updated' {@link EntityEvent} and, if it isn't {@code null}, to publish it.
+	 *
+	 * @param entity updated entity
+	 * @return an event or {@code null} if none
+	 */
+	protected EntityEvent<T> onUpdateEvent(@NonNull T entity) {
+		return null;
+	}
+
+	/**
+	 * Factory callback method is called after entity is deleted,
+	 * to create 'entity is deleted' {@link EntityEvent} and, if it isn't {@code null}, to publish it.
+	 *
+	 * @param entity deleted entity
+	 * @return an event or {@code null} if none
+	 */
+	protected EntityEvent<T> onDeleteEvent(@NonNull T entity) {
+		return null;
+	}
+}
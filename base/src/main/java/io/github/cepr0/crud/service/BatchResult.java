@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import org.springframework.lang.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A result of the batch operation of {@link CrudService}.
+ * Contains the results of the processed elements and ids of the entities which were not found.
+ *
+ * @param <ID> type of the entity identifier
+ * @param <R> type of the results of the processed elements
+ * @author Sergei Poznanski
+ */
+public class BatchResult<ID, R> {
+
+	private final List<R> processed;
+	private final Set<ID> notFound;
+
+	public BatchResult(@NonNull final List<R> processed, @NonNull final Set<ID> notFound) {
+		Objects.requireNonNull(processed, "The given list of processed results must not be null!");
+		Objects.requireNonNull(notFound, "The given set of not found ids must not be null!");
+		this.processed = Collections.unmodifiableList(processed);
+		this.notFound = Collections.unmodifiableSet(notFound);
+	}
+
+	/**
+	 * Returns the results of the processed elements.
+	 *
+	 * @return the unmodifiable list of the results, will never be {@code null}
+	 */
+	@NonNull
+	public List<R> getProcessed() {
+		return processed;
+	}
+
+	/**
+	 * Returns the ids of the entities which were not found, so they were not processed.
+	 * It's always empty for the result of {@link CrudService#createAll}, which doesn't look up the entities.
+	 *
+	 * @return the unmodifiable set of ids, will never be {@code null}
+	 */
+	@NonNull
+	public Set<ID> getNotFound() {
+		return notFound;
+	}
+
+	/**
+	 * Returns the number of the processed elements.
+	 *
+	 * @return the number of the processed elements
+	 */
+	public int getProcessedCount() {
+		return processed.size();
+	}
+
+	/**
+	 * Checks whether all requested elements were processed.
+	 *
+	 * @return {@code true} if there are no 'not found' entities, {@code false} - otherwise
+	 */
+	public boolean isComplete() {
+		return notFound.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "BatchResult{processed=" + processed.size() + ", notFound=" + notFound + "}";
+	}
+}
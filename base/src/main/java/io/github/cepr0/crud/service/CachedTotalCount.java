@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import io.github.cepr0.crud.event.EntityEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link TotalCountProvider} which caches the total number of entities for the given time (TTL).
+ * <p>
+ * The cached value is reset when the TTL is expired or when one of the given 'entity is created'
+ * or 'entity is deleted' {@link EntityEvent}s is published (and once more after the completion of the transaction
+ * within which the event is published). To listen these events the provider must be
+ * registered as a bean, for example:
+ * <pre>{@code
+ * @Bean
+ * public CachedTotalCount modelTotalCount(ModelRepo repo) {
+ *     return new CachedTotalCount(repo::countAll, Duration.ofMinutes(1), CreateModelEvent.class, DeleteModelEvent.class);
+ * }
+ * }</pre>
+ *
+ * @author Sergei Poznanski
+ */
+public class CachedTotalCount implements TotalCountProvider {
+
+	private final LongSupplier counter;
+	private final long ttlNanos;
+	private final List<Class<?>> resetEvents;
+
+	private final AtomicLong generation = new AtomicLong();
+	private volatile Snapshot snapshot;
+
+	/**
+	 * @param counter the source of the exact total number of entities, must not be {@code null}
+	 * @param ttl time to live of the cached value, must not be {@code null} or negative
+	 * @param resetEvents classes of the events which reset the cached value
+	 */
+	@SafeVarargs
+	public CachedTotalCount(@NonNull final LongSupplier counter, @NonNull final Duration ttl, final Class<? extends EntityEvent>... resetEvents) {
+		this.counter = Objects.requireNonNull(counter, "Parameter 'counter' must not be null!");
+		Objects.requireNonNull(ttl, "Parameter 'ttl' must not be null!");
+		if (ttl.isNegative()) {
+			throw new IllegalArgumentException("Parameter 'ttl' must not be negative!");
+		}
+		this.ttlNanos = ttl.toNanos();
+		this.resetEvents = resetEvents != null ? Collections.unmodifiableList(Arrays.asList(resetEvents)) : Collections.emptyList();
+	}
+
+	@NonNull
+	@Override
+	public Long getTotal() {
+		Snapshot current = snapshot;
+		long now = System.nanoTime();
+		long gen = generation.get();
+		if (current == null || current.generation != gen || now - current.time >= ttlNanos) {
+			// the snapshot of the count, which is interleaved with the reset, is not used by the next calls
+			current = new Snapshot(counter.getAsLong(), now, gen);
+			snapshot = current;
+		}
+		return current.total;
+	}
+
+	/**
+	 * Resets the cached value, so the next {@link #getTotal()} call gets the exact total number of entities.
+	 */
+	public void reset() {
+		generation.incrementAndGet();
+	}
+
+	/**
+	 * Resets the cached value if the given event is an instance of one of the 'reset' events.
+	 * If the event is published within a transaction, the value is reset once more after its completion.
+	 *
+	 * @param event the published entity event
+	 */
+	@EventListener
+	public void onEntityEvent(@Nullable final EntityEvent<?> event) {
+		if (event == null) return;
+		for (Class<?> resetEvent : resetEvents) {
+			if (resetEvent.isInstance(event)) {
+				reset();
+				if (TransactionSynchronizationManager.isSynchronizationActive()) {
+					// the value, counted by a concurrent reader before the commit, must not stay cached
+					TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+						@Override
+						public void afterCompletion(final int status) {
+							reset();
+						}
+					});
+				}
+				return;
+			}
+		}
+	}
+
+	private static final class Snapshot {
+		private final long total;
+		private final long time;
+		private final long generation;
+
+		private Snapshot(final long total, final long time, final long generation) {
+			this.total = total;
+			this.time = time;
+			this.generation = generation;
+		}
+	}
+}
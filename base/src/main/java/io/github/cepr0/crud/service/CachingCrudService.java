@@ -0,0 +1,272 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import io.github.cepr0.crud.dto.CrudRequest;
+import io.github.cepr0.crud.dto.CrudResponse;
+import io.github.cepr0.crud.event.EntityEvent;
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import io.github.cepr0.crud.repo.FetchPlan;
+import io.github.cepr0.crud.repo.Filter;
+import io.github.cepr0.crud.support.BoundedCache;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * A decorator of {@link CrudService} which caches the output (response) DTOs returned by {@link CrudService#getOne}
+ * by the entity identifiers. Other methods are delegated to the decorated service (see {@link DelegatingCrudService}).
+ * <p>
+ * The cached DTO is never returned itself: every {@link #getOne} call returns its copy made with the given 'copier',
+ * so the callers can't change the cached state or each other's results. By default the DTO is copied shallowly
+ * with its no-arg constructor and the property setters; the DTOs without such constructor or setters are considered immutable
+ * and returned as is. If the DTOs contain mutable nested objects (collections, for example), a deep copier should be used,
+ * for example {@code response -> objectMapper.convertValue(response, ModelResponse.class)},
+ * and if the DTOs are immutable - {@link UnaryOperator#identity()}.
+ * <p>
+ * The cache is bounded by the maximum number of entries (the least recently used ones are evicted)
+ * and by the time to live (TTL) of the entries. The entries are invalidated by the 'update' and 'delete' methods
+ * of the decorator, and by all {@link EntityEvent}s related to the entities of the decorated service
+ * (if the event is published within a transaction, the entry is invalidated again after the transaction completion).
+ * To listen the events the decorator must be registered as a bean, for example:
+ * <pre>{@code
+ * @Bean
+ * public CachingCrudService<Model, Integer, ModelRequest, ModelResponse> cachingModelService(ModelService service) {
+ *     return new CachingCrudService<>(service, 10_000, Duration.ofMinutes(10));
+ * }
+ * }</pre>
+ * The cache statistics are available with {@link #getHitCount()}, {@link #getMissCount()},
+ * {@link #getEvictionCount()} and {@link #size()} methods.
+ *
+ * @param <T>  type of the entity which extends {@link IdentifiableEntity}
+ * @param <ID> type of the entity identifier
+ * @param <Q>  type of the input (request) DTO
+ * @param <S>  type of the output (response) DTO
+ * @author Sergei Poznanski
+ */
+public class CachingCrudService<T extends IdentifiableEntity<ID>, ID extends Serializable, Q extends CrudRequest, S extends CrudResponse<ID>>
+		extends DelegatingCrudService<T, ID, Q, S> {
+
+	private static final ConcurrentMap<Class<?>, Boolean> COPYABLE = new ConcurrentHashMap<>();
+
+	private final BoundedCache<ID, S> cache;
+	private final UnaryOperator<S> copier;
+	private final Class<?> entityClass;
+
+	/**
+	 * @param delegate the decorated service, must not be {@code null}
+	 * @param maxSize maximum number of the cached entries, must be positive
+	 * @param ttl time to live of the cached entries, must not be {@code null} or negative
+	 */
+	public CachingCrudService(@NonNull final CrudService<T, ID, Q, S> delegate, final int maxSize, @NonNull final Duration ttl) {
+		this(delegate, maxSize, ttl, CachingCrudService::shallowCopy);
+	}
+
+	/**
+	 * @param delegate the decorated service, must not be {@code null}
+	 * @param maxSize maximum number of the cached entries, must be positive
+	 * @param ttl time to live of the cached entries, must not be {@code null} or negative
+	 * @param copier the function which copies the cached response DTO returned to the caller, must not be {@code null}
+	 */
+	public CachingCrudService(@NonNull final CrudService<T, ID, Q, S> delegate, final int maxSize, @NonNull final Duration ttl, @NonNull final UnaryOperator<S> copier) {
+		super(delegate);
+		this.cache = new BoundedCache<>(maxSize, ttl);
+		this.copier = Objects.requireNonNull(copier, "Parameter 'copier' must not be null!");
+		this.entityClass = resolveEntityClass(delegate);
+	}
+
+	@NonNull
+	@Override
+	public Optional<S> getOne(@NonNull final ID id) {
+		Objects.requireNonNull(id, "The given id must not be null!");
+		return Optional.ofNullable(cache.get(id, () -> delegate.getOne(id).orElse(null))).map(copier);
+	}
+
+	/**
+	 * Invalidates the cached response DTO of the entity with the given id.
+	 *
+	 * @param id the entity identifier, must not be {@code null}
+	 */
+	public void evict(@NonNull final ID id) {
+		cache.evict(id);
+	}
+
+	/**
+	 * Invalidates all cached response DTOs.
+	 */
+	public void evictAll() {
+		cache.evictAll();
+	}
+
+	/**
+	 * Invalidates the cached response DTO of the entity from the given event, if the entity is related to the decorated service.
+	 * If the event is published within a transaction, the response DTO is invalidated again after the transaction completion
+	 * (see {@link BoundedCache#invalidate}).
+	 *
+	 * @param event the published entity event
+	 */
+	@SuppressWarnings("unchecked")
+	@EventListener
+	public void onEntityEvent(@Nullable final EntityEvent<?> event) {
+		if (event == null || event.getEntity() == null || !entityClass.isInstance(event.getEntity())) return;
+
+		ID id = (ID) event.getEntity().getId();
+		if (id == null) return;
+
+		BoundedCache.invalidate(() -> evict(id));
+	}
+
+	/**
+	 * Returns the number of {@link #getOne} calls which returned the cached response DTOs.
+	 */
+	public long getHitCount() {
+		return cache.getHitCount();
+	}
+
+	/**
+	 * Returns the number of {@link #getOne} calls which were delegated to the decorated service.
+	 */
+	public long getMissCount() {
+		return cache.getMissCount();
+	}
+
+	/**
+	 * Returns the number of cached entries which were evicted due to the size or TTL limits.
+	 */
+	public long getEvictionCount() {
+		return cache.getEvictionCount();
+	}
+
+	/**
+	 * Returns the current number of cached entries.
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	@NonNull
+	@Override
+	public Optional<S> update(@NonNull final ID id, @NonNull final Q source) {
+		Optional<S> response = delegate.update(id, source);
+		evict(id);
+		return response;
+	}
+
+	@NonNull
+	@Override
+	public Optional<S> update(@NonNull final ID id, @NonNull final Q source, @Nullable final Object version) {
+		Optional<S> response = delegate.update(id, source, version);
+		evict(id);
+		return response;
+	}
+
+	@NonNull
+	@Override
+	public Optional<T> update(@NonNull final ID id, @NonNull final T source) {
+		Optional<T> entity = delegate.update(id, source);
+		evict(id);
+		return entity;
+	}
+
+	@Override
+	public boolean delete(@NonNull final ID id) {
+		boolean deleted = delegate.delete(id);
+		evict(id);
+		return deleted;
+	}
+
+	@NonNull
+	@Override
+	public BatchResult<ID, S> updateAll(@NonNull final Map<ID, Q> sources) {
+		BatchResult<ID, S> result = delegate.updateAll(sources);
+		sources.keySet().forEach(this::evict);
+		return result;
+	}
+
+	@NonNull
+	@Override
+	public BatchResult<ID, ID> deleteAll(@NonNull final Collection<ID> ids) {
+		BatchResult<ID, ID> result = delegate.deleteAll(ids);
+		ids.forEach(this::evict);
+		return result;
+	}
+
+	/**
+	 * Reads the version of the entity, bypassing the cache.
+	 */
+	@NonNull
+	@Override
+	public Optional<Object> getVersion(@NonNull final ID id) {
+		return delegate.getVersion(id);
+	}
+
+	/**
+	 * Reads the entity with the given plan, bypassing the cache.
+	 */
+	@NonNull
+	@Override
+	public Optional<S> getOne(@NonNull final ID id, @Nullable final FetchPlan plan) {
+		return delegate.getOne(id, plan);
+	}
+
+	/**
+	 * Returns the shallow copy of the given response DTO made with its no-arg constructor and the property setters,
+	 * or the given DTO itself if its class has no such constructor or some of its properties have no setters
+	 * (such DTOs are considered immutable).
+	 */
+	private static <S> S shallowCopy(final S response) {
+		Class<?> type = response.getClass();
+		if (!COPYABLE.computeIfAbsent(type, CachingCrudService::isCopyable)) {
+			return response;
+		}
+		@SuppressWarnings("unchecked")
+		S copy = (S) BeanUtils.instantiateClass(type);
+		BeanUtils.copyProperties(response, copy);
+		return copy;
+	}
+
+	private static boolean isCopyable(final Class<?> type) {
+		if (!ClassUtils.hasConstructor(type)) {
+			return false;
+		}
+		for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(type)) {
+			if (property.getReadMethod() != null && property.getWriteMethod() == null && !"class".equals(property.getName())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Class<?> resolveEntityClass(final CrudService<?, ?, ?, ?> service) {
+		Class<?>[] types = GenericTypeResolver.resolveTypeArguments(ClassUtils.getUserClass(service), CrudService.class);
+		return types != null && types[0] != null ? types[0] : IdentifiableEntity.class;
+	}
+}
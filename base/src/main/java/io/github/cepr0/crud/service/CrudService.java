@@ -19,14 +19,25 @@ package io.github.cepr0.crud.service;
 import io.github.cepr0.crud.dto.CrudRequest;
 import io.github.cepr0.crud.dto.CrudResponse;
 import io.github.cepr0.crud.model.IdentifiableEntity;
+import io.github.cepr0.crud.repo.FetchPlan;
+import io.github.cepr0.crud.repo.Filter;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Base service interface provides CRUD operations for entities and their related DTOs.
@@ -65,6 +76,27 @@ public interface CrudService<T extends IdentifiableEntity<ID>, ID extends Serial
 	 */
 	@NonNull Optional<S> update(@NonNull ID id, @NonNull Q source);
 
+	/**
+	 * Updates an entity found by its id, with a given source as an input (request) DTO,
+	 * if the current version of the entity equals the given one (for example, the version from the 'If-Match' header).
+	 * <p>
+	 * By default the version is checked with {@link CrudService#getVersion} before the update,
+	 * i.e. not in the same transaction.
+	 *
+	 * @param id must not be {@code null}
+	 * @param source must not be {@code null}
+	 * @param version the expected version of the entity, or {@code null} to not check it
+	 * @return output (response) DTO of the updated entity or {@code Optional#empty()} if none found
+	 * @throws OptimisticLockingFailureException if the entity is found but its version differs from the given one
+	 */
+	@NonNull
+	default Optional<S> update(@NonNull ID id, @NonNull Q source, @Nullable Object version) {
+		if (version != null && getVersion(id).filter(current -> !current.equals(version)).isPresent()) {
+			throw new OptimisticLockingFailureException("The version of the entity with id '" + id + "' differs from the given one!");
+		}
+		return update(id, source);
+	}
+
 	/**
 	 * Updates an entity, found by its id, with a given source entity.
 	 *
@@ -82,6 +114,32 @@ public interface CrudService<T extends IdentifiableEntity<ID>, ID extends Serial
 	 */
 	@NonNull boolean delete(@NonNull ID id);
 
+	/**
+	 * Creates (saves) entities from their input (request) DTOs in the batch mode.
+	 *
+	 * @param sources input (request) DTOs, must not be {@code null}
+	 * @return a {@link BatchResult} with output (response) DTOs of the created entities and the empty set
+	 * of 'not found' ids (nothing is looked up on creation), will never be {@code null}
+	 */
+	@NonNull BatchResult<ID, S> createAll(@NonNull Collection<Q> sources);
+
+	/**
+	 * Updates entities found by their ids, with the related input (request) DTOs in the batch mode.
+	 *
+	 * @param sources the map of input (request) DTOs by the entity ids, must not be {@code null}
+	 * @return a {@link BatchResult} with output (response) DTOs of the updated entities
+	 * and ids of not found ones, will never be {@code null}
+	 */
+	@NonNull BatchResult<ID, S> updateAll(@NonNull Map<ID, Q> sources);
+
+	/**
+	 * Deletes entities by their ids in the batch mode.
+	 *
+	 * @param ids must not be {@code null}
+	 * @return a {@link BatchResult} with ids of the deleted entities and ids of not found ones, will never be {@code null}
+	 */
+	@NonNull BatchResult<ID, ID> deleteAll(@NonNull Collection<ID> ids);
+
 	/**
 	 * Retrieves an entity by its id.
 	 *
@@ -90,6 +148,34 @@ public interface CrudService<T extends IdentifiableEntity<ID>, ID extends Serial
 	 */
 	@NonNull Optional<S> getOne(@NonNull ID id);
 
+	/**
+	 * Retrieves an entity by its id, loading the attributes of the given {@link FetchPlan}.
+	 * <p>
+	 * By default the plan is ignored and {@link CrudService#getOne(Serializable)} is invoked.
+	 *
+	 * @param id must not be {@code null}
+	 * @param plan the fetch plan, or {@code null} to use the default one
+	 * @return output (response) DTO related to the found entity or {@code Optional#empty()} if none found
+	 */
+	@NonNull
+	default Optional<S> getOne(@NonNull ID id, @Nullable FetchPlan plan) {
+		return getOne(id);
+	}
+
+	/**
+	 * Returns the version of the entity by its id, without loading the whole entity if the repository supports it
+	 * (see {@code CrudRepo#getVersionById}). It's used as the 'entity tag' of the conditional HTTP requests.
+	 * <p>
+	 * By default the versions are not supported and {@code Optional#empty()} is returned.
+	 *
+	 * @param id must not be {@code null}
+	 * @return the version of the entity or {@code Optional#empty()} if none found or the entity has no version
+	 */
+	@NonNull
+	default Optional<Object> getVersion(@NonNull ID id) {
+		return Optional.empty();
+	}
+
 	/**
 	 * Retrieves an entity by its id.
 	 *
@@ -120,6 +206,35 @@ public interface CrudService<T extends IdentifiableEntity<ID>, ID extends Serial
 	 */
 	@NonNull Page<S> getAll(@NonNull Pageable pageable);
 
+	/**
+	 * Retrieves a {@link Page} of entities, loading the attributes of the given {@link FetchPlan}.
+	 * <p>
+	 * By default the plan is ignored and {@link CrudService#getAll(Pageable)} is invoked.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param plan the fetch plan, or {@code null} to use the default one
+	 * @return a page of output (response) DTOs
+	 */
+	@NonNull
+	default Page<S> getAll(@NonNull Pageable pageable, @Nullable FetchPlan plan) {
+		return getAll(pageable);
+	}
+
+	/**
+	 * Retrieves a {@link Page} of entities, where the output (response) DTOs need only the given fields
+	 * (the 'sparse fieldset'), so the other fields can be skipped while reading.
+	 * <p>
+	 * By default the fields are ignored and {@link CrudService#getAll(Pageable)} is invoked.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param fields the needed fields of the DTOs, or {@code null} if all fields are needed
+	 * @return a page of output (response) DTOs
+	 */
+	@NonNull
+	default Page<S> getAllSparse(@NonNull Pageable pageable, @Nullable Set<String> fields) {
+		return getAll(pageable);
+	}
+
 	/**
 	 * Retrieves a {@link Page} of entities meeting the paging restriction provided in the {@code Pageable} object.
 	 *
@@ -128,6 +243,90 @@ public interface CrudService<T extends IdentifiableEntity<ID>, ID extends Serial
 	 */
 	@NonNull Page<T> getAllT(@NonNull Pageable pageable);
 
+	/**
+	 * Retrieves a {@link Slice} of entities meeting the paging restriction provided in the {@code Pageable} object,
+	 * without counting the total number of entities.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @return a slice of output (response) DTOs
+	 */
+	@NonNull Slice<S> getSlice(@NonNull Pageable pageable);
+
+	/**
+	 * Retrieves a {@link Slice} of entities, loading the attributes of the given {@link FetchPlan}.
+	 * <p>
+	 * By default the plan is ignored and {@link CrudService#getSlice(Pageable)} is invoked.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param plan the fetch plan, or {@code null} to use the default one
+	 * @return a slice of output (response) DTOs
+	 */
+	@NonNull
+	default Slice<S> getSlice(@NonNull Pageable pageable, @Nullable FetchPlan plan) {
+		return getSlice(pageable);
+	}
+
+	/**
+	 * Retrieves a {@link Slice} of entities, where the output (response) DTOs need only the given fields
+	 * (see {@link CrudService#getAllSparse(Pageable, Set)}).
+	 * <p>
+	 * By default the fields are ignored and {@link CrudService#getSlice(Pageable)} is invoked.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param fields the needed fields of the DTOs, or {@code null} if all fields are needed
+	 * @return a slice of output (response) DTOs
+	 */
+	@NonNull
+	default Slice<S> getSliceSparse(@NonNull Pageable pageable, @Nullable Set<String> fields) {
+		return getSlice(pageable);
+	}
+
+	/**
+	 * Retrieves a {@link Slice} of entities meeting the paging restriction provided in the {@code Pageable} object,
+	 * without counting the total number of entities.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @return a slice of entities
+	 */
+	@NonNull Slice<T> getSliceT(@NonNull Pageable pageable);
+
+	/**
+	 * Defines whether the paged reads of this service should skip counting the total number of entities by default,
+	 * i.e. return a {@link Slice} instead of a {@link Page} (see {@code AbstractCrudController#getPage}).
+	 * By default it returns {@code false}, override it to turn the 'slice mode' on.
+	 *
+	 * @return {@code true} if the 'slice mode' is on, {@code false} - otherwise
+	 */
+	default boolean isSliceMode() {
+		return false;
+	}
+
+	/**
+	 * Retrieves a {@link KeysetSlice} of entities following the entity with the given id (the keyset pagination).
+	 * The entities are ordered by their identifiers, so the given sort parameter can contain only the order of 'id' property.
+	 *
+	 * @param lastId id of the last entity of the previous slice (see {@link KeysetSlice#getNextKey()}),
+	 * or {@code null} to get the first slice
+	 * @param size maximum number of entities in the slice, must be positive
+	 * @param sort must not be {@code null}
+	 * @return a slice of output (response) DTOs
+	 * @throws IllegalArgumentException if the sort parameter contains other properties than 'id'
+	 */
+	@NonNull KeysetSlice<S> getAfter(@Nullable ID lastId, int size, @NonNull Sort sort);
+
+	/**
+	 * Retrieves a {@link KeysetSlice} of entities following the entity with the given id (the keyset pagination).
+	 * The entities are ordered by their identifiers, so the given sort parameter can contain only the order of 'id' property.
+	 *
+	 * @param lastId id of the last entity of the previous slice (see {@link KeysetSlice#getNextKey()}),
+	 * or {@code null} to get the first slice
+	 * @param size maximum number of entities in the slice, must be positive
+	 * @param sort must not be {@code null}
+	 * @return a slice of entities
+	 * @throws IllegalArgumentException if the sort parameter contains other properties than 'id'
+	 */
+	@NonNull KeysetSlice<T> getAfterT(@Nullable ID lastId, int size, @NonNull Sort sort);
+
 	/**
 	 * Retrieves all entities sorted by the given sort parameter.
 	 *
@@ -136,6 +335,35 @@ public interface CrudService<T extends IdentifiableEntity<ID>, ID extends Serial
 	 */
 	@NonNull List<S> getAll(@NonNull Sort sort);
 
+	/**
+	 * Retrieves all entities sorted by the given options, loading the attributes of the given {@link FetchPlan}.
+	 * <p>
+	 * By default the plan is ignored and {@link CrudService#getAll(Sort)} is invoked.
+	 *
+	 * @param sort must not be {@code null}
+	 * @param plan the fetch plan, or {@code null} to use the default one
+	 * @return a list of output (response) DTOs of all related entities sorted by the given options
+	 */
+	@NonNull
+	default List<S> getAll(@NonNull Sort sort, @Nullable FetchPlan plan) {
+		return getAll(sort);
+	}
+
+	/**
+	 * Retrieves all entities sorted by the given options, where the output (response) DTOs need only the given fields
+	 * (see {@link CrudService#getAllSparse(Pageable, Set)}).
+	 * <p>
+	 * By default the fields are ignored and {@link CrudService#getAll(Sort)} is invoked.
+	 *
+	 * @param sort must not be {@code null}
+	 * @param fields the needed fields of the DTOs, or {@code null} if all fields are needed
+	 * @return a list of output (response) DTOs of all related entities sorted by the given options
+	 */
+	@NonNull
+	default List<S> getAllSparse(@NonNull Sort sort, @Nullable Set<String> fields) {
+		return getAll(sort);
+	}
+
 	/**
 	 * Retrieves all entities sorted by the given sort parameter.
 	 *
@@ -143,4 +371,69 @@ public interface CrudService<T extends IdentifiableEntity<ID>, ID extends Serial
 	 * @return a sorted list of all entities
 	 */
 	@NonNull List<T> getAllT(@NonNull Sort sort);
+
+	/**
+	 * Retrieves a {@link Page} of entities matching the given {@link Filter}, which is executed in the database
+	 * (see {@link io.github.cepr0.crud.repo.FilterRepo#getAllBy(Filter, Pageable)}).
+	 *
+	 * @param filter must not be {@code null}
+	 * @param pageable must not be {@code null}
+	 * @return a page of output (response) DTOs
+	 * @throws IllegalArgumentException if the filter properties are unknown or the values can't be converted to their types
+	 * @throws UnsupportedOperationException if the repository of the service doesn't support the filters
+	 */
+	@NonNull Page<S> getAllBy(@NonNull Filter filter, @NonNull Pageable pageable);
+
+	/**
+	 * Retrieves all entities matching the given {@link Filter} sorted by the given sort parameter
+	 * (see {@link CrudService#getAllBy(Filter, Pageable)}).
+	 *
+	 * @param filter must not be {@code null}
+	 * @param sort must not be {@code null}
+	 * @return a sorted list of output (response) DTOs
+	 * @throws IllegalArgumentException if the filter properties are unknown or the values can't be converted to their types
+	 * @throws UnsupportedOperationException if the repository of the service doesn't support the filters
+	 */
+	@NonNull List<S> getAllBy(@NonNull Filter filter, @NonNull Sort sort);
+
+	/**
+	 * Retrieves all entities sorted by the given sort parameter as a {@link Stream} of output (response) DTOs,
+	 * without loading all of them into memory at once.
+	 * <p>
+	 * The stream must be consumed within the caller's transaction and closed after usage.
+	 * Use {@link CrudService#forEach} to process all entities in its own transaction.
+	 *
+	 * @param sort must not be {@code null}
+	 * @return a sorted stream of output (response) DTOs of all related entities
+	 * @throws org.springframework.transaction.IllegalTransactionStateException if there is no active transaction
+	 * (with {@code AbstractCrudService})
+	 */
+	@NonNull Stream<S> streamAll(@NonNull Sort sort);
+
+	/**
+	 * Performs the given action for output (response) DTOs of all entities sorted by the given sort parameter,
+	 * without loading all of them into memory at once.
+	 *
+	 * @param sort must not be {@code null}
+	 * @param action must not be {@code null}
+	 */
+	void forEach(@NonNull Sort sort, @NonNull Consumer<? super S> action);
+
+	/**
+	 * Reads a page of entities (or a slice if {@code count} is {@code false}) and passes it to the given consumer
+	 * with the iterator of its output (response) DTOs. The consumer is invoked within the read, so the DTOs
+	 * can be mapped from the entities lazily, while the consumer iterates over them (e.g. writes them to the response).
+	 * <p>
+	 * By default the page is read with {@link CrudService#getAll(Pageable)} (or {@link CrudService#getSlice(Pageable)}),
+	 * so if you override one of them, override this method too.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param count whether to count the total number of entities
+	 * @param consumer must not be {@code null}
+	 */
+	default void consumePage(@NonNull Pageable pageable, boolean count, @NonNull PageConsumer<S> consumer) {
+		Objects.requireNonNull(consumer, "The given consumer must not be null!");
+		Slice<S> page = count ? getAll(pageable) : getSlice(pageable);
+		consumer.accept(page, page.getContent().iterator());
+	}
 }
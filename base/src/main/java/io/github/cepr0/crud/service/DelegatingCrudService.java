@@ -0,0 +1,278 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import io.github.cepr0.crud.dto.CrudRequest;
+import io.github.cepr0.crud.dto.CrudResponse;
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import io.github.cepr0.crud.repo.FetchPlan;
+import io.github.cepr0.crud.repo.Filter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A base class of the {@link CrudService} decorators, which delegates all methods to the decorated service,
+ * so a decorator overrides only the methods it changes (see {@link CachingCrudService}, for example).
+ *
+ * @param <T>  type of the entity which extends {@link IdentifiableEntity}
+ * @param <ID> type of the entity identifier
+ * @param <Q>  type of the input (request) DTO
+ * @param <S>  type of the output (response) DTO
+ * @author Sergei Poznanski
+ */
+public abstract class DelegatingCrudService<T extends IdentifiableEntity<ID>, ID extends Serializable, Q extends CrudRequest, S extends CrudResponse<ID>>
+		implements CrudService<T, ID, Q, S> {
+
+	protected final CrudService<T, ID, Q, S> delegate;
+
+	/**
+	 * @param delegate the decorated service, must not be {@code null}
+	 */
+	protected DelegatingCrudService(@NonNull final CrudService<T, ID, Q, S> delegate) {
+		this.delegate = Objects.requireNonNull(delegate, "Parameter 'delegate' must not be null!");
+	}
+
+	/**
+	 * Returns the decorated service.
+	 *
+	 * @return the decorated service
+	 */
+	@NonNull
+	public CrudService<T, ID, Q, S> getDelegate() {
+		return delegate;
+	}
+
+	@NonNull
+	@Override
+	public S create(@NonNull final Q source) {
+		return delegate.create(source);
+	}
+
+	@NonNull
+	@Override
+	public T create(@NonNull final T source) {
+		return delegate.create(source);
+	}
+
+	@NonNull
+	@Override
+	public Optional<S> update(@NonNull final ID id, @NonNull final Q source) {
+		return delegate.update(id, source);
+	}
+
+	@NonNull
+	@Override
+	public Optional<S> update(@NonNull final ID id, @NonNull final Q source, @Nullable final Object version) {
+		return delegate.update(id, source, version);
+	}
+
+	@NonNull
+	@Override
+	public Optional<T> update(@NonNull final ID id, @NonNull final T source) {
+		return delegate.update(id, source);
+	}
+
+	@Override
+	public boolean delete(@NonNull final ID id) {
+		return delegate.delete(id);
+	}
+
+	@NonNull
+	@Override
+	public BatchResult<ID, S> createAll(@NonNull final Collection<Q> sources) {
+		return delegate.createAll(sources);
+	}
+
+	@NonNull
+	@Override
+	public BatchResult<ID, S> updateAll(@NonNull final Map<ID, Q> sources) {
+		return delegate.updateAll(sources);
+	}
+
+	@NonNull
+	@Override
+	public BatchResult<ID, ID> deleteAll(@NonNull final Collection<ID> ids) {
+		return delegate.deleteAll(ids);
+	}
+
+	@NonNull
+	@Override
+	public Optional<S> getOne(@NonNull final ID id) {
+		return delegate.getOne(id);
+	}
+
+	@NonNull
+	@Override
+	public Optional<T> getOneT(@NonNull final ID id) {
+		return delegate.getOneT(id);
+	}
+
+	@NonNull
+	@Override
+	public Optional<Object> getVersion(@NonNull final ID id) {
+		return delegate.getVersion(id);
+	}
+
+	@NonNull
+	@Override
+	public Optional<S> getOne(@NonNull final ID id, @Nullable final FetchPlan plan) {
+		return delegate.getOne(id, plan);
+	}
+
+	@NonNull
+	@Override
+	public List<S> getAll() {
+		return delegate.getAll();
+	}
+
+	@NonNull
+	@Override
+	public List<T> getAllT() {
+		return delegate.getAllT();
+	}
+
+	@NonNull
+	@Override
+	public Page<S> getAll(@NonNull final Pageable pageable) {
+		return delegate.getAll(pageable);
+	}
+
+	@NonNull
+	@Override
+	public Page<S> getAll(@NonNull final Pageable pageable, @Nullable final FetchPlan plan) {
+		return delegate.getAll(pageable, plan);
+	}
+
+	@NonNull
+	@Override
+	public Page<S> getAllSparse(@NonNull final Pageable pageable, @Nullable final Set<String> fields) {
+		return delegate.getAllSparse(pageable, fields);
+	}
+
+	@NonNull
+	@Override
+	public Page<T> getAllT(@NonNull final Pageable pageable) {
+		return delegate.getAllT(pageable);
+	}
+
+	@NonNull
+	@Override
+	public Slice<S> getSlice(@NonNull final Pageable pageable) {
+		return delegate.getSlice(pageable);
+	}
+
+	@NonNull
+	@Override
+	public Slice<S> getSlice(@NonNull final Pageable pageable, @Nullable final FetchPlan plan) {
+		return delegate.getSlice(pageable, plan);
+	}
+
+	@NonNull
+	@Override
+	public Slice<S> getSliceSparse(@NonNull final Pageable pageable, @Nullable final Set<String> fields) {
+		return delegate.getSliceSparse(pageable, fields);
+	}
+
+	@NonNull
+	@Override
+	public Slice<T> getSliceT(@NonNull final Pageable pageable) {
+		return delegate.getSliceT(pageable);
+	}
+
+	@Override
+	public boolean isSliceMode() {
+		return delegate.isSliceMode();
+	}
+
+	@NonNull
+	@Override
+	public KeysetSlice<S> getAfter(@Nullable final ID lastId, final int size, @NonNull final Sort sort) {
+		return delegate.getAfter(lastId, size, sort);
+	}
+
+	@NonNull
+	@Override
+	public KeysetSlice<T> getAfterT(@Nullable final ID lastId, final int size, @NonNull final Sort sort) {
+		return delegate.getAfterT(lastId, size, sort);
+	}
+
+	@NonNull
+	@Override
+	public List<S> getAll(@NonNull final Sort sort) {
+		return delegate.getAll(sort);
+	}
+
+	@NonNull
+	@Override
+	public List<S> getAll(@NonNull final Sort sort, @Nullable final FetchPlan plan) {
+		return delegate.getAll(sort, plan);
+	}
+
+	@NonNull
+	@Override
+	public List<S> getAllSparse(@NonNull final Sort sort, @Nullable final Set<String> fields) {
+		return delegate.getAllSparse(sort, fields);
+	}
+
+	@NonNull
+	@Override
+	public Page<S> getAllBy(@NonNull final Filter filter, @NonNull final Pageable pageable) {
+		return delegate.getAllBy(filter, pageable);
+	}
+
+	@NonNull
+	@Override
+	public List<S> getAllBy(@NonNull final Filter filter, @NonNull final Sort sort) {
+		return delegate.getAllBy(filter, sort);
+	}
+
+	@NonNull
+	@Override
+	public List<T> getAllT(@NonNull final Sort sort) {
+		return delegate.getAllT(sort);
+	}
+
+	@NonNull
+	@Override
+	public Stream<S> streamAll(@NonNull final Sort sort) {
+		return delegate.streamAll(sort);
+	}
+
+	@Override
+	public void forEach(@NonNull final Sort sort, @NonNull final Consumer<? super S> action) {
+		delegate.forEach(sort, action);
+	}
+
+	@Override
+	public void consumePage(@NonNull final Pageable pageable, final boolean count, @NonNull final PageConsumer<S> consumer) {
+		delegate.consumePage(pageable, count, consumer);
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A {@link org.springframework.data.domain.Slice} of the keyset (seek) pagination
+ * (see {@link CrudService#getAfter}). Unlike the regular slices it doesn't know its page number,
+ * but contains the key (identifier of the last element) to get the next slice.
+ *
+ * @param <E> type of the elements
+ * @author Sergei Poznanski
+ */
+public class KeysetSlice<E> extends SliceImpl<E> {
+
+	private final Serializable nextKey;
+	private final boolean first;
+
+	/**
+	 * Creates a new {@link KeysetSlice}.
+	 *
+	 * @param content the content of this slice, must not be {@code null}
+	 * @param pageable the size and sort of this slice, must not be {@code null}
+	 * @param nextKey the key to get the next slice, or {@code null} if this slice is the last one
+	 * @param first whether this slice is the first one
+	 */
+	public KeysetSlice(@NonNull final List<E> content, @NonNull final Pageable pageable, @Nullable final Serializable nextKey, final boolean first) {
+		super(content, pageable, nextKey != null);
+		this.nextKey = nextKey;
+		this.first = first;
+	}
+
+	/**
+	 * Returns the key (identifier of the last element) to get the next slice.
+	 *
+	 * @return the key, or {@code null} if this slice is the last one
+	 */
+	@Nullable
+	public Serializable getNextKey() {
+		return nextKey;
+	}
+
+	@Override
+	public boolean isFirst() {
+		return first;
+	}
+
+	@Override
+	public boolean hasPrevious() {
+		return !first;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) return true;
+		if (!(obj instanceof KeysetSlice)) return false;
+		KeysetSlice<?> that = (KeysetSlice<?>) obj;
+		return first == that.first
+				&& (nextKey == null ? that.nextKey == null : nextKey.equals(that.nextKey))
+				&& super.equals(obj);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * super.hashCode() + (nextKey != null ? nextKey.hashCode() : 0);
+	}
+
+	@Override
+	public String toString() {
+		return "KeysetSlice{size=" + getSize() + ", nextKey=" + nextKey + ", first=" + first + "}";
+	}
+}
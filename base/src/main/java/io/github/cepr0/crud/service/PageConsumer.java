@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.lang.NonNull;
+
+import java.util.Iterator;
+
+/**
+ * Consumes the page (or slice) read by {@link CrudService#consumePage}. The page is passed with the iterator
+ * of its output (response) DTOs, which can be mapped from the entities lazily, while the iterator is consumed.
+ *
+ * @param <S> type of output (response) DTO
+ * @author Sergei Poznanski
+ */
+@FunctionalInterface
+public interface PageConsumer<S> {
+
+	/**
+	 * Consumes the page.
+	 *
+	 * @param page the source of the page metadata (number, size, total values and sort),
+	 * its content can consist of the entities rather than the output DTOs
+	 * @param content the output (response) DTOs of the page
+	 */
+	void accept(@NonNull Slice<?> page, @NonNull Iterator<S> content);
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import io.github.cepr0.crud.dto.CrudRequest;
+import io.github.cepr0.crud.dto.CrudResponse;
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+
+/**
+ * Reactive counterpart of {@link CrudService}: the service interface provides non-blocking CRUD operations
+ * for entities and their related DTOs.
+ *
+ * @param <T> type of the entity which extends {@link IdentifiableEntity}
+ * @param <ID> type of the entity identifier
+ * @param <Q> type of the input (request) DTO
+ * @param <S> type of the output (response) DTO
+ *
+ * @author Sergei Poznanski
+ */
+public interface ReactiveCrudService<T extends IdentifiableEntity<ID>, ID extends Serializable, Q extends CrudRequest, S extends CrudResponse<ID>> {
+
+	/**
+	 * Creates (saves) an entity from its input (request) DTO.
+	 *
+	 * @param source input (request) DTO, must not be {@code null}
+	 * @return {@link Mono} emitting the output (response) DTO of the created entity
+	 */
+	@NonNull Mono<S> create(@NonNull Q source);
+
+	/**
+	 * Updates an entity, found by its id, with the input (request) DTO.
+	 *
+	 * @param id must not be {@code null}
+	 * @param source input (request) DTO, must not be {@code null}
+	 * @return {@link Mono} emitting the output (response) DTO of the updated entity, or empty {@link Mono} if none found
+	 */
+	@NonNull Mono<S> update(@NonNull ID id, @NonNull Q source);
+
+	/**
+	 * Deletes an entity by its id.
+	 *
+	 * @param id must not be {@code null}
+	 * @return {@link Mono} emitting {@code true} if the entity was found and deleted, and {@code false} - otherwise
+	 */
+	@NonNull Mono<Boolean> delete(@NonNull ID id);
+
+	/**
+	 * Retrieves an entity by its id.
+	 *
+	 * @param id must not be {@code null}
+	 * @return {@link Mono} emitting the output (response) DTO of the found entity, or empty {@link Mono} if none found
+	 */
+	@NonNull Mono<S> getOne(@NonNull ID id);
+
+	/**
+	 * Retrieves an entity by its id.
+	 *
+	 * @param id must not be {@code null}
+	 * @return {@link Mono} emitting the found entity, or empty {@link Mono} if none found
+	 */
+	@NonNull Mono<T> getOneT(@NonNull ID id);
+
+	/**
+	 * Retrieves all entities.
+	 *
+	 * @return {@link Flux} of output (response) DTOs of all entities
+	 */
+	@NonNull Flux<S> getAll();
+
+	/**
+	 * Retrieves all entities sorted by the given options.
+	 *
+	 * @param sort must not be {@code null}
+	 * @return {@link Flux} of output (response) DTOs of all entities sorted by the given options
+	 */
+	@NonNull Flux<S> getAll(@NonNull Sort sort);
+
+	/**
+	 * Retrieves a {@link Page} of output (response) DTOs meeting the paging restriction provided in the {@code Pageable} object.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @return {@link Mono} emitting the page of output (response) DTOs
+	 */
+	@NonNull Mono<Page<S>> getAll(@NonNull Pageable pageable);
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import io.github.cepr0.crud.repo.CrudRepo;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Provides the total number of entities to build the {@link org.springframework.data.domain.Page}
+ * in {@link AbstractCrudService#getAll(org.springframework.data.domain.Pageable)}
+ * instead of executing the count query on every page request (see {@link AbstractCrudService#getTotalCountProvider}).
+ * <p>
+ * The library provides the exact provider ({@link TotalCountProvider#exact}), the cached one ({@link CachedTotalCount})
+ * and the providers which estimate the total number of entities with the database statistics
+ * ({@code PostgresEstimatedTotalCount} and {@code MongoEstimatedTotalCount}).
+ *
+ * @author Sergei Poznanski
+ */
+@FunctionalInterface
+public interface TotalCountProvider {
+
+	/**
+	 * Returns the total number of entities.
+	 *
+	 * @return the total number of entities, or {@code null} if it's unknown - then the exact count query is executed
+	 */
+	@Nullable Long getTotal();
+
+	/**
+	 * Returns the provider which counts the entities with {@link CrudRepo#countAll()} method.
+	 *
+	 * @param repo must not be {@code null}
+	 * @return the exact total count provider
+	 */
+	@NonNull
+	static TotalCountProvider exact(@NonNull final CrudRepo<?, ?> repo) {
+		Objects.requireNonNull(repo, "Parameter 'repo' must not be null!");
+		return repo::countAll;
+	}
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.support;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe cache bounded by the maximum number of entries (the least recently used ones are evicted)
+ * and by the time to live (TTL) of the entries.
+ * <p>
+ * The large caches are split into segments by the hash of the keys. Each segment is an access-ordered {@link LinkedHashMap}
+ * with its own lock and its share of the maximum size, so the reads of the different keys rarely contend
+ * (and the least recently used entry is evicted within the segment). The caches of up to
+ * {@value #MIN_SEGMENT_SIZE} entries have one segment.
+ * <p>
+ * A value is loaded outside the locks, and it's not cached if the cache was invalidated while it was being loaded,
+ * so the value, which was read before its update, is not kept.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ *
+ * @author Sergei Poznanski
+ */
+public final class BoundedCache<K, V> {
+
+	private static final int MAX_SEGMENTS = 16;
+	private static final int MIN_SEGMENT_SIZE = 64;
+
+	private final Segment<K, V>[] segments;
+	private final long ttlNanos;
+	@Nullable private final Consumer<? super K> evictionListener;
+
+	private final AtomicLong invalidations = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param maxSize maximum number of the cached entries, must be positive
+	 * @param ttl time to live of the cached entries, must not be {@code null} or negative
+	 */
+	public BoundedCache(final int maxSize, @NonNull final Duration ttl) {
+		this(maxSize, ttl, null);
+	}
+
+	/**
+	 * @param maxSize maximum number of the cached entries, must be positive
+	 * @param ttl time to live of the cached entries, must not be {@code null} or negative
+	 * @param evictionListener receives the keys of the entries evicted due to the size or TTL limits
+	 * (it's invoked under the lock of the segment, so it must be fast and must not access the cache), or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	public BoundedCache(final int maxSize, @NonNull final Duration ttl, @Nullable final Consumer<? super K> evictionListener) {
+		Objects.requireNonNull(ttl, "Parameter 'ttl' must not be null!");
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Parameter 'maxSize' must be positive!");
+		}
+		if (ttl.isNegative()) {
+			throw new IllegalArgumentException("Parameter 'ttl' must not be negative!");
+		}
+		this.ttlNanos = ttl.toNanos();
+		this.evictionListener = evictionListener;
+
+		int count = Math.max(1, Integer.highestOneBit(Math.min(MAX_SEGMENTS, maxSize / MIN_SEGMENT_SIZE)));
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			// the sizes of the segments sum up to the maximum size
+			segments[i] = new Segment<>(maxSize / count + (i < maxSize % count ? 1 : 0), this::evicted);
+		}
+	}
+
+	/**
+	 * Returns the cached value by the given key, or loads it with the given loader and caches it.
+	 *
+	 * @param key must not be {@code null}
+	 * @param loader loads the value, returns {@code null} if there is no value (then nothing is cached)
+	 * @return the value, or {@code null} if the loader returned {@code null}
+	 */
+	@Nullable
+	public V get(@NonNull final K key, @NonNull final Supplier<? extends V> loader) {
+		Objects.requireNonNull(key, "The given key must not be null!");
+		Segment<K, V> segment = segmentOf(key);
+		long now = System.nanoTime();
+		synchronized (segment) {
+			Entry<V> entry = segment.get(key);
+			if (entry != null) {
+				if (now - entry.time < ttlNanos) {
+					hits.increment();
+					return entry.value;
+				}
+				segment.remove(key);
+				evicted(key);
+			}
+		}
+
+		misses.increment();
+		long invalidation = invalidations.get();
+		V value = loader.get();
+		if (value != null) {
+			synchronized (segment) {
+				// don't cache the value which could be read before its invalidation
+				if (invalidations.get() == invalidation) {
+					segment.put(key, new Entry<>(value, now));
+				}
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Invalidates the entry with the given key.
+	 *
+	 * @param key must not be {@code null}
+	 */
+	public void evict(@NonNull final K key) {
+		Objects.requireNonNull(key, "The given key must not be null!");
+		invalidations.incrementAndGet();
+		Segment<K, V> segment = segmentOf(key);
+		synchronized (segment) {
+			segment.remove(key);
+		}
+	}
+
+	/**
+	 * Invalidates all entries.
+	 */
+	public void evictAll() {
+		invalidations.incrementAndGet();
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of {@link #get} calls which returned the cached values.
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of {@link #get} calls which invoked the loader.
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of entries which were evicted due to the size or TTL limits.
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Returns the current number of cached entries.
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Runs the given invalidation, and if there is an active transaction, runs it again after the transaction completion,
+	 * so the value, which is read by other thread before the commit, is not kept in the cache.
+	 *
+	 * @param invalidation must not be {@code null}
+	 */
+	public static void invalidate(@NonNull final Runnable invalidation) {
+		Objects.requireNonNull(invalidation, "The given invalidation must not be null!");
+		invalidation.run();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(final int status) {
+					invalidation.run();
+				}
+			});
+		}
+	}
+
+	private Segment<K, V> segmentOf(final K key) {
+		int hash = key.hashCode();
+		return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+	}
+
+	private void evicted(final K key) {
+		evictions.increment();
+		if (evictionListener != null) {
+			evictionListener.accept(key);
+		}
+	}
+
+	private static final class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+		private final int maxSize;
+		private final Consumer<K> onEviction;
+
+		private Segment(final int maxSize, final Consumer<K> onEviction) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+			this.onEviction = onEviction;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<K, Entry<V>> eldest) {
+			boolean remove = size() > maxSize;
+			if (remove) onEviction.accept(eldest.getKey());
+			return remove;
+		}
+	}
+
+	private static final class Entry<V> {
+		private final V value;
+		private final long time;
+
+		private Entry(final V value, final long time) {
+			this.value = value;
+			this.time = time;
+		}
+	}
+}
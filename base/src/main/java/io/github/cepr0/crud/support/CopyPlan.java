@@ -0,0 +1,274 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.support;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.springframework.beans.BeanUtils.getPropertyDescriptor;
+import static org.springframework.beans.BeanUtils.getPropertyDescriptors;
+
+/**
+ * A compiled plan of copying non-null properties from the source bean class to the target bean class
+ * (see {@link CrudUtils#copyNonNullProperties}).
+ * <p>
+ * The bean introspection is performed only once, when the plan is built, then the plan keeps the pairs of
+ * getter/setter {@link MethodHandle}s of the copied properties, so each copy operation is a simple loop over them.
+ * The plans are cached per source class and target class, then per array of ignored properties, so that
+ * the lookup of a cached plan doesn't allocate any objects.
+ *
+ * @author Sergei Poznanski
+ */
+public final class CopyPlan {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final Map<Class<?>, Map<Class<?>, Plans>> PLANS = new ConcurrentReferenceHashMap<>();
+
+	private final String[] names;
+	private final MethodHandle[] getters;
+	private final MethodHandle[] setters;
+
+	private CopyPlan(final String[] names, final MethodHandle[] getters, final MethodHandle[] setters) {
+		this.names = names;
+		this.getters = getters;
+		this.setters = setters;
+	}
+
+	/**
+	 * Returns a cached copy plan for the given classes and ignored properties, or builds a new one.
+	 *
+	 * @param sourceClass the source bean class, must not be {@code null}
+	 * @param targetClass the target bean class, must not be {@code null}
+	 * @param ignoredProperties array of property names to ignore
+	 * @return the copy plan, will never be {@code null}
+	 * @throws BeansException if the plan cannot be built
+	 */
+	@NonNull
+	public static CopyPlan of(@NonNull final Class<?> sourceClass, @NonNull final Class<?> targetClass, @Nullable final String... ignoredProperties) throws BeansException {
+		Objects.requireNonNull(sourceClass, "Parameter 'sourceClass' must not be null!");
+		Objects.requireNonNull(targetClass, "Parameter 'targetClass' must not be null!");
+
+		Map<Class<?>, Plans> byTarget = PLANS.get(sourceClass);
+		if (byTarget == null) {
+			byTarget = PLANS.computeIfAbsent(sourceClass, c -> new ConcurrentReferenceHashMap<>());
+		}
+		Plans plans = byTarget.get(targetClass);
+		if (plans == null) {
+			plans = byTarget.computeIfAbsent(targetClass, c -> new Plans(sourceClass, c));
+		}
+		return plans.get(ignoredProperties);
+	}
+
+	/**
+	 * Returns a cached copy plan for the given classes without ignored properties, or builds a new one.
+	 *
+	 * @param sourceClass the source bean class, must not be {@code null}
+	 * @param targetClass the target bean class, must not be {@code null}
+	 * @return the copy plan, will never be {@code null}
+	 * @throws BeansException if the plan cannot be built
+	 */
+	@NonNull
+	public static CopyPlan of(@NonNull final Class<?> sourceClass, @NonNull final Class<?> targetClass) throws BeansException {
+		return of(sourceClass, targetClass, (String[]) null);
+	}
+
+	/**
+	 * Copies non-null properties of the source bean to the target bean.
+	 *
+	 * @param source the source bean, must not be {@code null}
+	 * @param target the target bean, must not be {@code null}
+	 * @param <T> type of the target bean
+	 * @return target bean, will never be {@code null}
+	 * @throws BeansException if the copying failed
+	 */
+	@NonNull
+	public <T> T copy(@NonNull final Object source, @NonNull final T target) throws BeansException {
+		Object targetBean = target;
+		for (int i = 0; i < getters.length; i++) {
+			try {
+				Object value = (Object) getters[i].invokeExact(source);
+				if (value != null) {
+					setters[i].invokeExact(targetBean, value);
+				}
+			} catch (Throwable ex) {
+				throw new FatalBeanException("Could not copy property '" + names[i] + "' from source to target", ex);
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * Reads non-null properties of the source bean which would be copied to the target bean.
+	 *
+	 * @param source the source bean, must not be {@code null}
+	 * @return the map of the property values by the names of the target properties,
+	 * in the order of the plan, will never be {@code null}
+	 * @throws BeansException if the reading failed
+	 */
+	@NonNull
+	public Map<String, Object> values(@NonNull final Object source) throws BeansException {
+		Map<String, Object> values = new LinkedHashMap<>(getters.length * 2);
+		for (int i = 0; i < getters.length; i++) {
+			try {
+				Object value = (Object) getters[i].invokeExact(source);
+				if (value != null) {
+					values.put(names[i], value);
+				}
+			} catch (Throwable ex) {
+				throw new FatalBeanException("Could not read property '" + names[i] + "' from source", ex);
+			}
+		}
+		return values;
+	}
+
+	private static CopyPlan build(final Class<?> sourceClass, final Class<?> targetClass, final String[] ignoredProperties) {
+
+		List<String> ignoreList = (ignoredProperties != null ? Arrays.asList(ignoredProperties) : null);
+
+		List<String> names = new ArrayList<>();
+		List<MethodHandle> getters = new ArrayList<>();
+		List<MethodHandle> setters = new ArrayList<>();
+
+		for (PropertyDescriptor targetProperty : getPropertyDescriptors(targetClass)) {
+
+			Method targetPropSetter = targetProperty.getWriteMethod();
+			String targetPropName = targetProperty.getName();
+
+			if (targetPropSetter == null || (ignoreList != null && ignoreList.contains(targetPropName))) {
+				continue;
+			}
+
+			PropertyDescriptor sourceProperty = getPropertyDescriptor(sourceClass, targetPropName);
+			if (sourceProperty == null) {
+				continue;
+			}
+
+			Method sourcePropGetter = sourceProperty.getReadMethod();
+			if (sourcePropGetter != null && ClassUtils.isAssignable(targetPropSetter.getParameterTypes()[0], sourcePropGetter.getReturnType())) {
+				try {
+					getters.add(toHandle(sourcePropGetter, GETTER_TYPE));
+					setters.add(toHandle(targetPropSetter, SETTER_TYPE));
+					names.add(targetPropName);
+				} catch (Throwable ex) {
+					throw new FatalBeanException("Could not prepare copying of property '" + targetPropName + "' from source to target", ex);
+				}
+			}
+		}
+
+		return new CopyPlan(
+				names.toArray(new String[0]),
+				getters.toArray(new MethodHandle[0]),
+				setters.toArray(new MethodHandle[0])
+		);
+	}
+
+	private static MethodHandle toHandle(final Method method, final MethodType type) throws IllegalAccessException {
+		if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+			method.setAccessible(true);
+		}
+		return MethodHandles.lookup().unreflect(method).asType(type);
+	}
+
+	/**
+	 * Copy plans of one pair of the source and target classes. The plan without ignored properties is kept
+	 * in the separate field, the plans with ignored properties are looked up by the linear scan of their
+	 * (usually few) variants, which are compared with the given array by its content.
+	 */
+	private static final class Plans {
+
+		private static final Variant[] NO_VARIANTS = new Variant[0];
+
+		private final Class<?> sourceClass;
+		private final Class<?> targetClass;
+
+		private volatile CopyPlan plain;
+		private volatile Variant[] variants = NO_VARIANTS;
+
+		private Plans(final Class<?> sourceClass, final Class<?> targetClass) {
+			this.sourceClass = sourceClass;
+			this.targetClass = targetClass;
+		}
+
+		private CopyPlan get(final String[] ignoredProperties) {
+			if (ignoredProperties == null || ignoredProperties.length == 0) {
+				CopyPlan plan = plain;
+				if (plan == null) {
+					plain = plan = build(sourceClass, targetClass, null);
+				}
+				return plan;
+			}
+			CopyPlan plan = find(variants, ignoredProperties);
+			return plan != null ? plan : add(ignoredProperties);
+		}
+
+		private synchronized CopyPlan add(final String[] ignoredProperties) {
+			Variant[] current = variants;
+			CopyPlan plan = find(current, ignoredProperties);
+			if (plan == null) {
+				// the caller's array is copied, so its changes must not affect the cached plan
+				String[] ignored = ignoredProperties.clone();
+				plan = build(sourceClass, targetClass, ignored);
+				Variant[] extended = Arrays.copyOf(current, current.length + 1);
+				extended[current.length] = new Variant(ignored, plan);
+				variants = extended;
+			}
+			return plan;
+		}
+
+		private static CopyPlan find(final Variant[] variants, final String[] ignoredProperties) {
+			for (Variant variant : variants) {
+				if (Arrays.equals(variant.ignoredProperties, ignoredProperties)) {
+					return variant.plan;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Copy plan with its array of ignored properties.
+	 */
+	private static final class Variant {
+
+		private final String[] ignoredProperties;
+		private final CopyPlan plan;
+
+		private Variant(final String[] ignoredProperties, final CopyPlan plan) {
+			this.ignoredProperties = ignoredProperties;
+			this.plan = plan;
+		}
+	}
+}
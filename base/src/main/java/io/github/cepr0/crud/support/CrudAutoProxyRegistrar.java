@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.support;
+
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.NonNull;
+
+/**
+ * Registers the auto-proxy creator, which applies the advisors of the library auto-configurations, if the application
+ * doesn't register it (when it doesn't use transactions and AOP, for example).
+ * <p>
+ * The creator registered by the application is left as is, so the proxy type chosen by the application is kept.
+ * The one registered here uses the class-based proxies unless the {@code spring.aop.proxy-target-class} property
+ * is {@code false}, as the creator of Spring Boot does.
+ *
+ * @author Sergei Poznanski
+ */
+public class CrudAutoProxyRegistrar implements ImportBeanDefinitionRegistrar, EnvironmentAware {
+
+	/**
+	 * The property which selects the class-based ({@code true}, by default) or the interface-based proxies.
+	 */
+	public static final String PROXY_TARGET_CLASS_PROPERTY = "spring.aop.proxy-target-class";
+
+	private boolean proxyTargetClass = true;
+
+	@Override
+	public void setEnvironment(@NonNull final Environment environment) {
+		proxyTargetClass = environment.getProperty(PROXY_TARGET_CLASS_PROPERTY, Boolean.class, true);
+	}
+
+	@Override
+	public void registerBeanDefinitions(@NonNull final AnnotationMetadata metadata, @NonNull final BeanDefinitionRegistry registry) {
+		if (registry.containsBeanDefinition(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME)) {
+			return;
+		}
+		AopConfigUtils.registerAutoProxyCreatorIfNecessary(registry);
+		if (proxyTargetClass) {
+			AopConfigUtils.forceAutoProxyCreatorToUseClassProxying(registry);
+		}
+	}
+}
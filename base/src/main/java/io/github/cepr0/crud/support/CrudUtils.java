@@ -18,21 +18,20 @@ package io.github.cepr0.crud.support;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
-import org.springframework.beans.FatalBeanException;
 import org.springframework.lang.NonNull;
-import org.springframework.util.ClassUtils;
 
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import static org.springframework.beans.BeanUtils.getPropertyDescriptor;
-import static org.springframework.beans.BeanUtils.getPropertyDescriptors;
-
 /**
  * A set of utility methods used in the library.
  *
@@ -40,9 +39,15 @@ import static org.springframework.beans.BeanUtils.getPropertyDescriptors;
  */
 public abstract class CrudUtils {
 
+	// https://stackoverflow.com/a/7594052
+	private static final Pattern CAMEL_CASE_BOUNDARY = Pattern.compile("(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])");
+
 	/**
 	 * A variant of the {@link BeanUtils#copyProperties},
 	 * which copy only non null properties of the source bean to the target bean.
+	 * <p>
+	 * The bean introspection is done once per source class, target class and ignored properties,
+	 * then a cached {@link CopyPlan} is used.
 	 *
 	 * @param source the source bean, must not be {@code null}
 	 * @param target the target bean, must not be {@code null}
@@ -54,44 +59,93 @@ public abstract class CrudUtils {
 	 */
 	@NonNull
 	public static <S, T> T copyNonNullProperties(@NonNull final S source, @NonNull final T target, String... ignoredProperties) throws BeansException {
+		return CopyPlan.of(source.getClass(), target.getClass(), ignoredProperties).copy(source, target);
+	}
 
-		Class<?> targetClass = target.getClass();
-		PropertyDescriptor[] targetProperties = getPropertyDescriptors(targetClass);
-		List<String> ignoreList = (ignoredProperties != null ? Arrays.asList(ignoredProperties) : null);
-
-		for (PropertyDescriptor targetProperty : targetProperties) {
-
-			Method targetPropSetter = targetProperty.getWriteMethod();
-			String targetPropName = targetProperty.getName();
-
-			if (targetPropSetter != null && (ignoreList == null || !ignoreList.contains(targetPropName))) {
+	/**
+	 * Copies all non-null properties of the source bean to the target bean
+	 * (see {@link CrudUtils#copyNonNullProperties(Object, Object, String...)}).
+	 *
+	 * @param source the source bean, must not be {@code null}
+	 * @param target the target bean, must not be {@code null}
+	 * @param <S> type of the source bean
+	 * @param <T> type of the target bean
+	 * @return target bean, will never be {@code null}
+	 * @throws BeansException if the copying failed
+	 */
+	@NonNull
+	public static <S, T> T copyNonNullProperties(@NonNull final S source, @NonNull final T target) throws BeansException {
+		return CopyPlan.of(source.getClass(), target.getClass()).copy(source, target);
+	}
 
-				PropertyDescriptor sourceProperty = getPropertyDescriptor(source.getClass(), targetPropName);
+	/**
+	 * Reads non-null properties of the source bean, which can be copied to the beans of the target class
+	 * with {@link CrudUtils#copyNonNullProperties}.
+	 *
+	 * @param source the source bean, must not be {@code null}
+	 * @param targetClass the target bean class, must not be {@code null}
+	 * @param ignoredProperties array of property names to ignore
+	 * @return the map of the property values by the names of the target properties, will never be {@code null}
+	 * @throws BeansException if the reading failed
+	 */
+	@NonNull
+	public static Map<String, Object> nonNullProperties(@NonNull final Object source, @NonNull final Class<?> targetClass, String... ignoredProperties) throws BeansException {
+		return CopyPlan.of(source.getClass(), targetClass, ignoredProperties).values(source);
+	}
 
-				if (sourceProperty != null) {
+	/**
+	 * Splits a given collection to the consecutive chunks of the given size (the last chunk may be smaller).
+	 *
+	 * @param elements given collection, must not be {@code null}
+	 * @param size size of the chunks, must be positive
+	 * @param <E> type of the elements
+	 * @return a list of chunks, will never be {@code null}
+	 */
+	@NonNull
+	public static <E> List<List<E>> partition(@NonNull final Collection<E> elements, final int size) {
+		Objects.requireNonNull(elements, "The parameter 'elements' must not be null!");
+		if (size <= 0) {
+			throw new IllegalArgumentException("The parameter 'size' must be positive!");
+		}
+		if (elements.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<E> list = elements instanceof List ? (List<E>) elements : new ArrayList<>(elements);
+		if (list.size() <= size) {
+			return Collections.singletonList(list);
+		}
+		List<List<E>> chunks = new ArrayList<>((list.size() + size - 1) / size);
+		for (int from = 0; from < list.size(); from += size) {
+			chunks.add(list.subList(from, Math.min(from + size, list.size())));
+		}
+		return chunks;
+	}
 
-					Method sourcePropGetter = sourceProperty.getReadMethod();
+	/**
+	 * Returns a fixed-size, read-only list backed by the given array of primitive values. The values are boxed only
+	 * when they are accessed, so the list (or its chunks, see {@link CrudUtils#partition}) can be passed
+	 * to the methods expecting a collection, without copying the whole array to a collection of boxed values.
+	 *
+	 * @param values the backing array, must not be {@code null}
+	 * @return a list view of the array, will never be {@code null}
+	 */
+	@NonNull
+	public static List<Long> asList(@NonNull final long... values) {
+		Objects.requireNonNull(values, "The parameter 'values' must not be null!");
+		return new LongArrayList(values);
+	}
 
-					if (sourcePropGetter != null && ClassUtils.isAssignable(targetPropSetter.getParameterTypes()[0], sourcePropGetter.getReturnType())) {
-						try {
-							if (!Modifier.isPublic(sourcePropGetter.getDeclaringClass().getModifiers())) {
-								sourcePropGetter.setAccessible(true);
-							}
-							Object value = sourcePropGetter.invoke(source);
-							if (value != null) {
-								if (!Modifier.isPublic(targetPropSetter.getDeclaringClass().getModifiers())) {
-									targetPropSetter.setAccessible(true);
-								}
-								targetPropSetter.invoke(target, value);
-							}
-						} catch (Throwable ex) {
-							throw new FatalBeanException("Could not copy property '" + targetPropName + "' from source to target", ex);
-						}
-					}
-				}
-			}
-		}
-		return target;
+	/**
+	 * Returns a fixed-size, read-only list backed by the given array of primitive values
+	 * (see {@link CrudUtils#asList(long...)}).
+	 *
+	 * @param values the backing array, must not be {@code null}
+	 * @return a list view of the array, will never be {@code null}
+	 */
+	@NonNull
+	public static List<Integer> asList(@NonNull final int... values) {
+		Objects.requireNonNull(values, "The parameter 'values' must not be null!");
+		return new IntArrayList(values);
 	}
 
 	/**
@@ -127,7 +181,64 @@ public abstract class CrudUtils {
 	@NonNull
 	public static String[] splitCamelCase(@NonNull final String camelCaseString) {
 		Objects.requireNonNull(camelCaseString, "The parameter 'camelCaseString' must not be null!");
-		// https://stackoverflow.com/a/7594052
-		return camelCaseString.split("(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])");
+		return CAMEL_CASE_BOUNDARY.split(camelCaseString);
+	}
+
+	private static final class LongArrayList extends AbstractList<Long> implements RandomAccess {
+		private final long[] values;
+
+		private LongArrayList(final long[] values) {
+			this.values = values;
+		}
+
+		@Override
+		public Long get(final int index) {
+			return values[index];
+		}
+
+		@Override
+		public int size() {
+			return values.length;
+		}
+
+		@Override
+		public boolean contains(final Object o) {
+			if (o instanceof Long) {
+				long value = (Long) o;
+				for (long v : values) {
+					if (v == value) return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static final class IntArrayList extends AbstractList<Integer> implements RandomAccess {
+		private final int[] values;
+
+		private IntArrayList(final int[] values) {
+			this.values = values;
+		}
+
+		@Override
+		public Integer get(final int index) {
+			return values[index];
+		}
+
+		@Override
+		public int size() {
+			return values.length;
+		}
+
+		@Override
+		public boolean contains(final Object o) {
+			if (o instanceof Integer) {
+				int value = (Integer) o;
+				for (int v : values) {
+					if (v == value) return true;
+				}
+			}
+			return false;
+		}
 	}
 }
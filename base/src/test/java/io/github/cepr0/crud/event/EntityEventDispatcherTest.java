@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.event;
+
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Sergei Poznanski
+ */
+public class EntityEventDispatcherTest {
+
+	private EntityEventDispatcher dispatcher;
+
+	@After
+	public void tearDown() throws Exception {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		if (dispatcher != null) {
+			dispatcher.destroy();
+		}
+	}
+
+	@Test
+	public void dispatchedAfterCommitInBatches() throws Exception {
+		dispatcher = new EntityEventDispatcher(1, 10, 2, EntityEventDispatcher.OverflowPolicy.BLOCK);
+		CreateListener createListener = new CreateListener();
+		List<List<UpdateEvent>> updateBatches = Collections.synchronizedList(new ArrayList<>());
+		dispatcher.addListener(createListener);
+		dispatcher.addListener(UpdateEvent.class, updateBatches::add);
+
+		TransactionSynchronizationManager.initSynchronization();
+		dispatcher.onEntityEvent(new CreateEvent(new Entity(1)));
+		dispatcher.onEntityEvent(new UpdateEvent(new Entity(1)));
+		dispatcher.onEntityEvent(new CreateEvent(new Entity(2)));
+		dispatcher.onEntityEvent(new CreateEvent(new Entity(3)));
+		assertThat(createListener.batches).isEmpty();
+
+		complete(TransactionSynchronization.STATUS_COMMITTED);
+		dispatcher.destroy();
+
+		assertThat(createListener.batches).hasSize(2);
+		assertThat(ids(createListener.batches.get(0))).containsExactly(1, 2);
+		assertThat(ids(createListener.batches.get(1))).containsExactly(3);
+		assertThat(updateBatches).hasSize(1);
+		assertThat(updateBatches.get(0)).hasSize(1);
+	}
+
+	@Test
+	public void discardedOnRollback() throws Exception {
+		dispatcher = new EntityEventDispatcher();
+		CreateListener listener = new CreateListener();
+		dispatcher.addListener(listener);
+
+		TransactionSynchronizationManager.initSynchronization();
+		dispatcher.onEntityEvent(new CreateEvent(new Entity(1)));
+		complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+		dispatcher.destroy();
+
+		assertThat(listener.batches).isEmpty();
+		assertThat(TransactionSynchronizationManager.getResource(dispatcher)).isNull();
+	}
+
+	@Test
+	public void dispatchedImmediatelyWithoutTransaction() throws Exception {
+		dispatcher = new EntityEventDispatcher();
+		CreateListener listener = new CreateListener();
+		dispatcher.addListener(listener);
+
+		dispatcher.onEntityEvent(new CreateEvent(new Entity(1)));
+		dispatcher.onEntityEvent(new UpdateEvent(new Entity(1)));
+		dispatcher.destroy();
+
+		assertThat(listener.batches).hasSize(1);
+		assertThat(listener.batches.get(0)).hasSize(1);
+	}
+
+	@Test
+	public void droppedWhenQueueIsFull() throws Exception {
+		dispatcher = new EntityEventDispatcher(1, 1, 10, EntityEventDispatcher.OverflowPolicy.DROP);
+		CountDownLatch release = new CountDownLatch(1);
+		List<List<CreateEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+		dispatcher.addListener(CreateEvent.class, events -> {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			batches.add(events);
+		});
+
+		dispatcher.onEntityEvent(new CreateEvent(new Entity(1))); // is being dispatched
+		dispatcher.onEntityEvent(new CreateEvent(new Entity(2))); // is queued
+		dispatcher.onEntityEvent(new CreateEvent(new Entity(3))); // is dropped
+		assertThat(dispatcher.getQueueSize()).isEqualTo(1);
+
+		release.countDown();
+		dispatcher.destroy();
+
+		assertThat(batches).hasSize(2);
+		assertThat(dispatcher.getDroppedCount()).isEqualTo(1);
+	}
+
+	private static List<Integer> ids(final List<? extends EntityEvent<Entity>> events) {
+		return events.stream().map(event -> event.getEntity().getId()).collect(Collectors.toList());
+	}
+
+	private static void complete(final int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		if (status == TransactionSynchronization.STATUS_COMMITTED) {
+			synchronizations.forEach(TransactionSynchronization::afterCommit);
+		}
+		synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+		TransactionSynchronizationManager.clearSynchronization();
+	}
+
+	private static class CreateListener implements BatchEntityEventListener<CreateEvent> {
+		private final List<List<CreateEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public void onEvents(final List<CreateEvent> events) {
+			batches.add(events);
+		}
+	}
+
+	private static class Entity implements IdentifiableEntity<Integer> {
+		private final Integer id;
+
+		Entity(final Integer id) {
+			this.id = id;
+		}
+
+		@Override
+		public Integer getId() {
+			return id;
+		}
+	}
+
+	private static class CreateEvent extends EntityEvent<Entity> {
+		CreateEvent(final Entity entity) {
+			super(entity);
+		}
+	}
+
+	private static class UpdateEvent extends EntityEvent<Entity> {
+		UpdateEvent(final Entity entity) {
+			super(entity);
+		}
+	}
+}
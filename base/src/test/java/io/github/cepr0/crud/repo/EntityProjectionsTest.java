@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import org.junit.Test;
+
+import java.util.function.Function;
+
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class EntityProjectionsTest {
+
+	private final Person person = new Person(1, "John", 30);
+
+	@Test
+	public void interfaceProjection() {
+		Function<Person, PersonName> converter = EntityProjections.converter(PersonName.class, null);
+		assertThat(converter.apply(person).getName()).isEqualTo("John");
+	}
+
+	@Test
+	public void classProjection() {
+		Function<Person, PersonView> converter = EntityProjections.converter(PersonView.class, null);
+		PersonView view = converter.apply(person);
+		assertThat(view.id).isEqualTo(1);
+		assertThat(view.name).isEqualTo("John");
+	}
+
+	@Test
+	public void sparseProjection() {
+		Function<Person, PersonView> converter = EntityProjections.converter(PersonView.class, singleton("name"));
+		PersonView view = converter.apply(person);
+		assertThat(view.id).isEqualTo(0);
+		assertThat(view.name).isEqualTo("John");
+	}
+
+	@Test
+	public void invalidProjection() {
+		assertThatIllegalArgumentException().isThrownBy(() -> EntityProjections.converter(PersonView.class, singleton("age")));
+		assertThatIllegalArgumentException().isThrownBy(() -> EntityProjections.converter(PersonEmail.class, null).apply(person));
+	}
+
+	public static class Person {
+		private final int id;
+		private final String name;
+		private final int age;
+
+		Person(final int id, final String name, final int age) {
+			this.id = id;
+			this.name = name;
+			this.age = age;
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getAge() {
+			return age;
+		}
+	}
+
+	public interface PersonName {
+		String getName();
+	}
+
+	public interface PersonEmail {
+		String getEmail();
+	}
+
+	public static class PersonView {
+		private final int id;
+		private final String name;
+
+		public PersonView(final int id, final String name) {
+			this.id = id;
+			this.name = name;
+		}
+	}
+}
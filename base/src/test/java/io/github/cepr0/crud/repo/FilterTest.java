@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import org.junit.Test;
+
+import static io.github.cepr0.crud.repo.Filter.Operator.EQ;
+import static io.github.cepr0.crud.repo.Filter.Operator.GT;
+import static io.github.cepr0.crud.repo.Filter.Operator.IN;
+import static io.github.cepr0.crud.repo.Filter.Operator.LIKE;
+import static io.github.cepr0.crud.repo.Filter.Operator.NULL;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class FilterTest {
+
+	@Test
+	public void parse() {
+		Filter filter = Filter.parse("age:gt:18; name:like:Jo%;status:in:NEW,ACTIVE;email:null;note:eq:a:b");
+
+		assertThat(filter).isEqualTo(Filter.where("age", GT, "18")
+				.and("name", LIKE, "Jo%")
+				.and("status", IN, asList("NEW", "ACTIVE"))
+				.and("email", NULL, null)
+				.and("note", EQ, "a:b"));
+		assertThat(filter.getShape()).isEqualTo("age:gt;name:like;status:in;email:null;note:eq");
+
+		assertThat(Filter.parse(null).isEmpty()).isTrue();
+		assertThat(Filter.parse(" ").isEmpty()).isTrue();
+	}
+
+	@Test
+	public void sameShape() {
+		assertThat(Filter.parse("age:gt:18").getShape()).isEqualTo(Filter.where("age", GT, 30).getShape());
+		assertThat(Filter.parse("age:gt:18").getShape()).isNotEqualTo(Filter.parse("age:ge:18").getShape());
+	}
+
+	@Test
+	public void invalid() {
+		assertThatIllegalArgumentException().isThrownBy(() -> Filter.parse("age"));
+		assertThatIllegalArgumentException().isThrownBy(() -> Filter.parse("age:between:1"));
+		assertThatIllegalArgumentException().isThrownBy(() -> Filter.parse("age:gt"));
+		assertThatIllegalArgumentException().isThrownBy(() -> Filter.parse("age or 1=1:eq:1"));
+		assertThatIllegalArgumentException().isThrownBy(() -> Filter.where("age", IN, 1));
+	}
+}
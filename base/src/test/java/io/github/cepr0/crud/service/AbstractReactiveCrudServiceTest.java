@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import io.github.cepr0.crud.dto.CrudRequest;
+import io.github.cepr0.crud.dto.CrudResponse;
+import io.github.cepr0.crud.event.EntityEvent;
+import io.github.cepr0.crud.mapper.CrudMapper;
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import io.github.cepr0.crud.repo.ReactiveCrudRepo;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Sergei Poznanski
+ */
+public class AbstractReactiveCrudServiceTest {
+
+	private ReactiveCrudRepo<Entity, Integer> repo;
+	private CrudMapper<Entity, Request, Response> mapper;
+	private ApplicationEventPublisher publisher;
+	private EntityService service;
+
+	private final Entity entity1 = new Entity(1);
+	private final Entity entity2 = new Entity(2);
+	private final Request request = new Request();
+
+	@SuppressWarnings("unchecked")
+	@Before
+	public void setUp() {
+		repo = mock(ReactiveCrudRepo.class);
+		mapper = mock(CrudMapper.class);
+		publisher = mock(ApplicationEventPublisher.class);
+
+		when(mapper.toResponse(any())).thenAnswer(inv -> new Response(((Entity) inv.getArgument(0)).getId()));
+
+		service = new EntityService(repo, mapper);
+		service.publisher = publisher;
+	}
+
+	@Test
+	public void create() {
+		when(mapper.toCreate(request)).thenReturn(entity1);
+		when(repo.create(entity1)).thenReturn(Mono.just(entity1));
+
+		Mono<Response> result = service.create(request);
+		verify(repo, never()).create(any());
+
+		assertThat(result.block()).isEqualToComparingFieldByField(new Response(1));
+		assertThat(service.callbacks).containsExactly("onCreate");
+		verify(publisher).publishEvent(any(EntityEvent.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void update() {
+		when(mapper.toUpdate(request, entity1)).thenReturn(entity1);
+		when(repo.update(eq(1), eq(request), any())).thenAnswer(inv ->
+				Mono.just(((BiFunction<Request, Entity, Entity>) inv.getArgument(2)).apply(request, entity1)));
+		when(repo.update(eq(2), eq(request), any())).thenReturn(Mono.empty());
+
+		assertThat(service.update(1, request).block()).isEqualToComparingFieldByField(new Response(1));
+		assertThat(service.update(2, request).block()).isNull();
+
+		assertThat(service.callbacks).containsExactly("onUpdate");
+		verify(publisher, times(1)).publishEvent(any(EntityEvent.class));
+	}
+
+	@Test
+	public void delete() {
+		when(repo.del(1)).thenReturn(Mono.just(entity1));
+		when(repo.del(2)).thenReturn(Mono.empty());
+
+		assertThat(service.delete(1).block()).isTrue();
+		assertThat(service.delete(2).block()).isFalse();
+
+		verify(publisher, times(1)).publishEvent(any(EntityEvent.class));
+	}
+
+	@Test
+	public void getAllPaged() {
+		when(repo.getAll(PageRequest.of(0, 2))).thenReturn(Flux.just(entity1, entity2));
+		when(repo.getAll(PageRequest.of(1, 2))).thenReturn(Flux.just(new Entity(3)));
+		when(repo.countAll()).thenReturn(Mono.just(3L));
+
+		Page<Response> page = service.getAll(PageRequest.of(0, 2)).block();
+		assertThat(page).isNotNull();
+		assertThat(page.getContent()).extracting(Response::getId).containsExactly(1, 2);
+		assertThat(page.getTotalElements()).isEqualTo(3);
+		verify(repo, times(1)).countAll();
+
+		// the last page is not full, so the total is calculated without counting
+		page = service.getAll(PageRequest.of(1, 2)).block();
+		assertThat(page).isNotNull();
+		assertThat(page.getContent()).extracting(Response::getId).containsExactly(3);
+		assertThat(page.getTotalElements()).isEqualTo(3);
+		verify(repo, times(1)).countAll();
+	}
+
+	private static class EntityService extends AbstractReactiveCrudService<Entity, Integer, Request, Response> {
+		private final List<String> callbacks = new ArrayList<>();
+
+		EntityService(final ReactiveCrudRepo<Entity, Integer> repo, final CrudMapper<Entity, Request, Response> mapper) {
+			super(repo, mapper);
+		}
+
+		@Override
+		protected void onCreate(final Request request, final Entity entity) {
+			callbacks.add("onCreate");
+		}
+
+		@Override
+		protected void onUpdate(final Request request, final Entity entity) {
+			callbacks.add("onUpdate");
+		}
+
+		@Override
+		protected EntityEvent<Entity> onCreateEvent(final Entity entity) {
+			return new EntityEvent<>(entity);
+		}
+
+		@Override
+		protected EntityEvent<Entity> onUpdateEvent(final Entity entity) {
+			return new EntityEvent<>(entity);
+		}
+
+		@Override
+		protected EntityEvent<Entity> onDeleteEvent(final Entity entity) {
+			return new EntityEvent<>(entity);
+		}
+	}
+
+	private static class Entity implements IdentifiableEntity<Integer> {
+		private final Integer id;
+
+		Entity(final Integer id) {
+			this.id = id;
+		}
+
+		@Override
+		public Integer getId() {
+			return id;
+		}
+	}
+
+	private static class Request implements CrudRequest {
+	}
+
+	private static class Response implements CrudResponse<Integer> {
+		private final Integer id;
+
+		Response(final Integer id) {
+			this.id = id;
+		}
+
+		@Override
+		public Integer getId() {
+			return id;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import io.github.cepr0.crud.event.EntityEvent;
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Sergei Poznanski
+ */
+public class CachedTotalCountTest {
+
+	private AtomicLong total;
+	private AtomicLong counts;
+
+	@Before
+	public void setUp() {
+		total = new AtomicLong(10);
+		counts = new AtomicLong();
+	}
+
+	@Test
+	public void getTotal() {
+		CachedTotalCount provider = new CachedTotalCount(this::count, Duration.ofHours(1), CreateEvent.class);
+
+		assertThat(provider.getTotal()).isEqualTo(10);
+		total.set(11);
+		assertThat(provider.getTotal()).isEqualTo(10);
+		assertThat(counts.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void resetOnEvent() {
+		CachedTotalCount provider = new CachedTotalCount(this::count, Duration.ofHours(1), CreateEvent.class);
+
+		assertThat(provider.getTotal()).isEqualTo(10);
+		total.set(11);
+
+		provider.onEntityEvent(new UpdateEvent(new Entity()));
+		assertThat(provider.getTotal()).isEqualTo(10);
+
+		provider.onEntityEvent(new CreateEvent(new Entity()));
+		assertThat(provider.getTotal()).isEqualTo(11);
+		assertThat(counts.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void resetAfterCompletion() {
+		CachedTotalCount provider = new CachedTotalCount(this::count, Duration.ofHours(1), CreateEvent.class);
+		assertThat(provider.getTotal()).isEqualTo(10);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			provider.onEntityEvent(new CreateEvent(new Entity()));
+
+			// a concurrent reader counts the entities before the commit
+			assertThat(provider.getTotal()).isEqualTo(10);
+
+			total.set(11);
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(provider.getTotal()).isEqualTo(11);
+		assertThat(counts.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void expire() {
+		CachedTotalCount provider = new CachedTotalCount(this::count, Duration.ZERO);
+
+		assertThat(provider.getTotal()).isEqualTo(10);
+		total.set(11);
+		assertThat(provider.getTotal()).isEqualTo(11);
+		assertThat(counts.get()).isEqualTo(2);
+	}
+
+	private long count() {
+		counts.incrementAndGet();
+		return total.get();
+	}
+
+	private static class Entity implements IdentifiableEntity<Integer> {
+		@Override
+		public Integer getId() {
+			return 1;
+		}
+	}
+
+	private static class CreateEvent extends EntityEvent<Entity> {
+		CreateEvent(final Entity entity) {
+			super(entity);
+		}
+	}
+
+	private static class UpdateEvent extends EntityEvent<Entity> {
+		UpdateEvent(final Entity entity) {
+			super(entity);
+		}
+	}
+}
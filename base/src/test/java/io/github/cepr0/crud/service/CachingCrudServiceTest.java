@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import io.github.cepr0.crud.dto.CrudRequest;
+import io.github.cepr0.crud.dto.CrudResponse;
+import io.github.cepr0.crud.event.EntityEvent;
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Sergei Poznanski
+ */
+public class CachingCrudServiceTest {
+
+	private CrudService<Entity, Integer, Request, Response> delegate;
+	private CachingCrudService<Entity, Integer, Request, Response> service;
+
+	@SuppressWarnings("unchecked")
+	@Before
+	public void setUp() {
+		delegate = mock(CrudService.class);
+		when(delegate.getOne(1)).thenReturn(Optional.of(new Response(1)));
+		when(delegate.getOne(2)).thenReturn(Optional.of(new Response(2)));
+		when(delegate.getOne(3)).thenReturn(Optional.empty());
+		service = new CachingCrudService<>(delegate, 2, Duration.ofHours(1));
+	}
+
+	@Test
+	public void getOne() {
+		assertThat(service.getOne(1)).hasValueSatisfying(r -> assertThat(r.getId()).isEqualTo(1));
+		assertThat(service.getOne(1)).hasValueSatisfying(r -> assertThat(r.getId()).isEqualTo(1));
+		assertThat(service.getOne(3)).isEmpty();
+
+		verify(delegate, times(1)).getOne(1);
+		assertThat(service.getHitCount()).isEqualTo(1);
+		assertThat(service.getMissCount()).isEqualTo(2);
+		assertThat(service.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void evictEldest() {
+		service.getOne(1);
+		service.getOne(2);
+		service.getOne(1);
+		when(delegate.getOne(4)).thenReturn(Optional.of(new Response(4)));
+		service.getOne(4);
+
+		assertThat(service.size()).isEqualTo(2);
+		assertThat(service.getEvictionCount()).isEqualTo(1);
+
+		service.getOne(1);
+		verify(delegate, times(1)).getOne(1);
+		service.getOne(2);
+		verify(delegate, times(2)).getOne(2);
+	}
+
+	@Test
+	public void expire() {
+		service = new CachingCrudService<>(delegate, 2, Duration.ZERO);
+		service.getOne(1);
+		service.getOne(1);
+
+		verify(delegate, times(2)).getOne(1);
+		assertThat(service.getHitCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void evictOnUpdateAndDelete() {
+		Request request = new Request();
+		when(delegate.update(1, request)).thenReturn(Optional.of(new Response(1)));
+
+		service.getOne(1);
+		service.update(1, request);
+		service.getOne(1);
+		verify(delegate, times(2)).getOne(1);
+
+		service.delete(1);
+		service.getOne(1);
+		verify(delegate, times(3)).getOne(1);
+	}
+
+	@Test
+	public void evictOnEvent() {
+		service.getOne(1);
+		service.getOne(2);
+
+		service.onEntityEvent(new EntityEvent<>(new Entity(1)));
+		service.getOne(1);
+		service.getOne(2);
+
+		verify(delegate, times(2)).getOne(1);
+		verify(delegate, times(1)).getOne(2);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void copyOnGet() {
+		CrudService<Entity, Integer, Request, MutableResponse> mutableDelegate = mock(CrudService.class);
+		when(mutableDelegate.getOne(1)).thenReturn(Optional.of(new MutableResponse(1, "name")));
+		CachingCrudService<Entity, Integer, Request, MutableResponse> mutableService = new CachingCrudService<>(mutableDelegate, 2, Duration.ofHours(1));
+
+		mutableService.getOne(1).ifPresent(r -> r.setName("changed"));
+
+		assertThat(mutableService.getOne(1)).hasValueSatisfying(r -> assertThat(r.getName()).isEqualTo("name"));
+		assertThat(mutableService.getOne(1).get()).isNotSameAs(mutableService.getOne(1).get());
+		verify(mutableDelegate, times(1)).getOne(1);
+	}
+
+	@Test
+	public void immutableNotCopied() {
+		assertThat(service.getOne(1).get()).isSameAs(service.getOne(1).get());
+	}
+
+	private static class Entity implements IdentifiableEntity<Integer> {
+		private final Integer id;
+
+		Entity(final Integer id) {
+			this.id = id;
+		}
+
+		@Override
+		public Integer getId() {
+			return id;
+		}
+	}
+
+	private static class Request implements CrudRequest {
+	}
+
+	private static class Response implements CrudResponse<Integer> {
+		private final Integer id;
+
+		Response(final Integer id) {
+			this.id = id;
+		}
+
+		@Override
+		public Integer getId() {
+			return id;
+		}
+	}
+
+	public static class MutableResponse implements CrudResponse<Integer> {
+		private Integer id;
+		private String name;
+
+		public MutableResponse() {
+		}
+
+		MutableResponse(final Integer id, final String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		@Override
+		public Integer getId() {
+			return id;
+		}
+
+		public void setId(final Integer id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(final String name) {
+			this.name = name;
+		}
+	}
+}
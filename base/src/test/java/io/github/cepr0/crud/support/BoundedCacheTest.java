@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.support;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class BoundedCacheTest {
+
+	@Test
+	public void boundedBySegments() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(1_000, Duration.ofHours(1));
+		for (int i = 0; i < 2_000; i++) {
+			int key = i;
+			cache.get(key, () -> "value" + key);
+		}
+		assertThat(cache.size()).isEqualTo(1_000);
+		assertThat(cache.getEvictionCount()).isEqualTo(1_000);
+		assertThat(cache.getMissCount()).isEqualTo(2_000);
+	}
+
+	@Test
+	public void evictionListener() {
+		List<Integer> evicted = new ArrayList<>();
+		BoundedCache<Integer, String> cache = new BoundedCache<>(2, Duration.ofHours(1), evicted::add);
+		cache.get(1, () -> "1");
+		cache.get(2, () -> "2");
+		cache.get(1, () -> "1");
+		cache.get(3, () -> "3");
+		cache.evict(1);
+
+		assertThat(evicted).containsExactly(2);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void skipInvalidatedWhileLoading() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(2, Duration.ofHours(1));
+		assertThat(cache.get(1, () -> {
+			cache.evict(1);
+			return "stale";
+		})).isEqualTo("stale");
+		assertThat(cache.size()).isEqualTo(0);
+
+		assertThat(cache.get(1, () -> "fresh")).isEqualTo("fresh");
+		assertThat(cache.get(1, () -> "other")).isEqualTo("fresh");
+		assertThat(cache.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void invalidParameters() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new BoundedCache<>(0, Duration.ZERO));
+		assertThatIllegalArgumentException().isThrownBy(() -> new BoundedCache<>(1, Duration.ofSeconds(-1)));
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.support;
+
+import org.junit.Test;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.StandardAnnotationMetadata;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Sergei Poznanski
+ */
+public class CrudAutoProxyRegistrarTest {
+
+	private static final AnnotationMetadata METADATA = new StandardAnnotationMetadata(CrudAutoProxyRegistrarTest.class);
+
+	@Test
+	public void registersClassProxyingCreatorByDefault() {
+		DefaultListableBeanFactory registry = new DefaultListableBeanFactory();
+		register(registry, new MockEnvironment());
+
+		assertThat(proxyTargetClass(registry)).isEqualTo(Boolean.TRUE);
+	}
+
+	@Test
+	public void followsProxyTargetClassProperty() {
+		DefaultListableBeanFactory registry = new DefaultListableBeanFactory();
+		register(registry, new MockEnvironment().withProperty(CrudAutoProxyRegistrar.PROXY_TARGET_CLASS_PROPERTY, "false"));
+
+		assertThat(registry.containsBeanDefinition(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME)).isTrue();
+		assertThat(proxyTargetClass(registry)).isNull();
+	}
+
+	@Test
+	public void keepsCreatorOfApplication() {
+		DefaultListableBeanFactory registry = new DefaultListableBeanFactory();
+		AopConfigUtils.registerAspectJAnnotationAutoProxyCreatorIfNecessary(registry);
+		register(registry, new MockEnvironment());
+
+		BeanDefinition creator = registry.getBeanDefinition(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME);
+		assertThat(creator.getBeanClassName()).contains("AnnotationAwareAspectJAutoProxyCreator");
+		assertThat(proxyTargetClass(registry)).isNull();
+	}
+
+	private static void register(final DefaultListableBeanFactory registry, final MockEnvironment environment) {
+		CrudAutoProxyRegistrar registrar = new CrudAutoProxyRegistrar();
+		registrar.setEnvironment(environment);
+		registrar.registerBeanDefinitions(METADATA, registry);
+	}
+
+	private static Object proxyTargetClass(final DefaultListableBeanFactory registry) {
+		return registry.getBeanDefinition(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME).getPropertyValues().get("proxyTargetClass");
+	}
+}
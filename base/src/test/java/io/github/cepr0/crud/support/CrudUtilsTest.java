@@ -21,8 +21,12 @@ import lombok.Data;
 import org.junit.Test;
 
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class CrudUtilsTest {
 
@@ -70,6 +74,57 @@ public class CrudUtilsTest {
 		assertThat(result2.getText()).isEqualTo("updated");
 	}
 
+	@Test
+	public void copyPlanIsCached() {
+		String[] ignoreProperties = new String[]{"id", "version"};
+
+		CopyPlan plan = CopyPlan.of(Model2.class, Model2.class, ignoreProperties);
+		assertThat(CopyPlan.of(Model2.class, Model2.class, "id", "version")).isSameAs(plan);
+		assertThat(CopyPlan.of(Model2.class, Model2.class, "id")).isNotSameAs(plan);
+		assertThat(CopyPlan.of(Model2.class, Model.class, ignoreProperties)).isNotSameAs(plan);
+
+		CopyPlan plain = CopyPlan.of(Model2.class, Model2.class);
+		assertThat(CopyPlan.of(Model2.class, Model2.class)).isSameAs(plain);
+		assertThat(CopyPlan.of(Model2.class, Model2.class, new String[0])).isSameAs(plain);
+		assertThat(plain).isNotSameAs(plan);
+
+		// changing of the caller's array must not affect the cached plan
+		ignoreProperties[1] = "text";
+		assertThat(CopyPlan.of(Model2.class, Model2.class, "id", "version")).isSameAs(plan);
+
+		Model2 target = Model2.builder().id(1).version(0).text("text").build();
+		Model2 result = plan.copy(Model2.builder().id(2).version(1).text("updated").build(), target);
+
+		assertThat(result.getId()).isEqualTo(1);
+		assertThat(result.getVersion()).isEqualTo(0);
+		assertThat(result.getText()).isEqualTo("updated");
+	}
+
+	@Test
+	public void partition() {
+		assertThat(CrudUtils.partition(Arrays.asList(1, 2, 3, 4, 5), 2))
+				.containsExactly(Arrays.asList(1, 2), Arrays.asList(3, 4), Collections.singletonList(5));
+
+		assertThat(CrudUtils.partition(new LinkedHashSet<>(Arrays.asList(1, 2, 3)), 3))
+				.containsExactly(Arrays.asList(1, 2, 3));
+
+		assertThat(CrudUtils.partition(Collections.emptyList(), 3)).isEmpty();
+	}
+
+	@Test
+	public void asList() {
+		long[] longs = {1L, 2L, 3L};
+		assertThat(CrudUtils.asList(longs)).containsExactly(1L, 2L, 3L).contains(2L).doesNotContain(4L);
+		longs[1] = 5L;
+		assertThat(CrudUtils.asList(longs)).containsExactly(1L, 5L, 3L);
+
+		assertThat(CrudUtils.asList(1, 2, 3)).containsExactly(1, 2, 3).contains(3).doesNotContain(4);
+		assertThat(CrudUtils.partition(CrudUtils.asList(1, 2, 3), 2))
+				.containsExactly(Arrays.asList(1, 2), Collections.singletonList(3));
+
+		assertThatThrownBy(() -> CrudUtils.asList(1, 2).set(0, 3)).isInstanceOf(UnsupportedOperationException.class);
+	}
+
 	@Test
 	public void firstWordOf() {
 		assertThat(CrudUtils.firstWordOf("SplitCamelCase"))
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.benchmark;
+
+import io.github.cepr0.crud.support.CrudUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CrudUtils#copyNonNullProperties} based on the cached copy plans
+ * with the former reflective implementation.
+ *
+ * @author Sergei Poznanski
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CopyNonNullPropertiesBenchmark {
+
+	private static final String[] IGNORED_PROPS = {"id", "version", "createdAt", "updatedAt"};
+
+	private Bean source;
+
+	@Setup
+	public void setup() {
+		source = new Bean();
+		source.setId(1L);
+		source.setVersion(1);
+		source.setCreatedAt(Instant.now());
+		source.setName("name");
+		source.setDescription("description");
+		source.setAmount(10);
+		source.setEnabled(Boolean.TRUE);
+		// 'updatedAt' and 'comment' are left null
+	}
+
+	@Benchmark
+	public Bean reflective() {
+		return ReflectiveCopy.copyNonNullProperties(source, new Bean(), IGNORED_PROPS);
+	}
+
+	@Benchmark
+	public Bean cachedPlan() {
+		return CrudUtils.copyNonNullProperties(source, new Bean(), IGNORED_PROPS);
+	}
+
+	public static class Bean {
+		private Long id;
+		private Integer version;
+		private Instant createdAt;
+		private Instant updatedAt;
+		private String name;
+		private String description;
+		private String comment;
+		private Integer amount;
+		private Boolean enabled;
+
+		public Long getId() {
+			return id;
+		}
+
+		public void setId(final Long id) {
+			this.id = id;
+		}
+
+		public Integer getVersion() {
+			return version;
+		}
+
+		public void setVersion(final Integer version) {
+			this.version = version;
+		}
+
+		public Instant getCreatedAt() {
+			return createdAt;
+		}
+
+		public void setCreatedAt(final Instant createdAt) {
+			this.createdAt = createdAt;
+		}
+
+		public Instant getUpdatedAt() {
+			return updatedAt;
+		}
+
+		public void setUpdatedAt(final Instant updatedAt) {
+			this.updatedAt = updatedAt;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(final String name) {
+			this.name = name;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public void setDescription(final String description) {
+			this.description = description;
+		}
+
+		public String getComment() {
+			return comment;
+		}
+
+		public void setComment(final String comment) {
+			this.comment = comment;
+		}
+
+		public Integer getAmount() {
+			return amount;
+		}
+
+		public void setAmount(final Integer amount) {
+			this.amount = amount;
+		}
+
+		public Boolean getEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(final Boolean enabled) {
+			this.enabled = enabled;
+		}
+	}
+}
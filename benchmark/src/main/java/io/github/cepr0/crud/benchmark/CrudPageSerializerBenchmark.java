@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.github.cepr0.crud.api.CrudPageSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures {@link CrudPageSerializer#serialize} of a page of 20 response DTOs, comparing it with
+ * the former implementation ({@link UncachedPageSerializer}), which resolved the "content" alias
+ * on every serialization. The JSON is written to the discarding output stream, so only the serialization is measured.
+ * <p>
+ * Also compares the serialization of a page of 'entities', which are mapped to the response DTOs before
+ * the serialization, with the one, which maps them lazily while writing the "content" elements.
+ *
+ * @author Sergei Poznanski
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CrudPageSerializerBenchmark {
+
+	private static final OutputStream NULL_STREAM = new OutputStream() {
+		@Override
+		public void write(final int b) {
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+		}
+	};
+
+	private ObjectMapper mapper;
+	private CrudPageSerializer serializer;
+	private UncachedPageSerializer uncachedSerializer;
+	private SerializerProvider provider;
+	private Page<Response> page;
+	private Slice<Response> slice;
+	private Page<Integer> entityPage;
+
+	@Setup
+	public void setup() {
+		serializer = new CrudPageSerializer();
+		uncachedSerializer = new UncachedPageSerializer();
+		mapper = new ObjectMapper().registerModule(new SimpleModule().addSerializer(Slice.class, serializer));
+		provider = mapper.getSerializerProviderInstance();
+
+		List<Response> content = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			content.add(new Response(i, "name" + i, "description of the element " + i));
+		}
+		PageRequest pageable = PageRequest.of(1, 20, Sort.by("id"));
+		page = new PageImpl<>(content, pageable, 1000);
+		slice = new SliceImpl<>(content, pageable, true);
+
+		List<Integer> entities = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			entities.add(i);
+		}
+		entityPage = new PageImpl<>(entities, pageable, 1000);
+	}
+
+	@Benchmark
+	public void serializePage() throws IOException {
+		try (JsonGenerator gen = mapper.getFactory().createGenerator(NULL_STREAM)) {
+			serializer.serialize(page, gen, provider);
+		}
+	}
+
+	@Benchmark
+	public void serializePageUncached() throws IOException {
+		try (JsonGenerator gen = mapper.getFactory().createGenerator(NULL_STREAM)) {
+			uncachedSerializer.serialize(page, gen, provider);
+		}
+	}
+
+	@Benchmark
+	public void serializeSlice() throws IOException {
+		try (JsonGenerator gen = mapper.getFactory().createGenerator(NULL_STREAM)) {
+			serializer.serialize(slice, gen, provider);
+		}
+	}
+
+	@Benchmark
+	public void serializeEagerlyMappedPage() throws IOException {
+		List<Response> content = entityPage.getContent().stream().map(CrudPageSerializerBenchmark::toResponse).collect(Collectors.toList());
+		try (JsonGenerator gen = mapper.getFactory().createGenerator(NULL_STREAM)) {
+			serializer.serialize(new PageImpl<>(content, entityPage.getPageable(), entityPage.getTotalElements()), gen, provider);
+		}
+	}
+
+	@Benchmark
+	public void serializeLazilyMappedPage() throws IOException {
+		try (JsonGenerator gen = mapper.getFactory().createGenerator(NULL_STREAM)) {
+			serializer.serialize(entityPage, entityPage.getContent().stream().map(CrudPageSerializerBenchmark::toResponse).iterator(), gen, provider);
+		}
+	}
+
+	@Benchmark
+	public void writeValue() throws IOException {
+		mapper.writeValue(NULL_STREAM, page);
+	}
+
+	private static Response toResponse(final Integer id) {
+		return new Response(id, "name" + id, "description of the element " + id);
+	}
+
+	public static class Response {
+		private final Integer id;
+		private final String name;
+		private final String description;
+
+		Response(final Integer id, final String name, final String description) {
+			this.id = id;
+			this.name = name;
+			this.description = description;
+		}
+
+		public Integer getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+	}
+}
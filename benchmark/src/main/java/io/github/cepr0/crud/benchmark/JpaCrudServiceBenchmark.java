@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.benchmark;
+
+import io.github.cepr0.crud.service.AbstractCrudService;
+import io.github.cepr0.test.dto.ModelRequest;
+import io.github.cepr0.test.dto.ModelResponse;
+import io.github.cepr0.test.mapper.ModelMapper;
+import io.github.cepr0.test.model.Model;
+import io.github.cepr0.test.repo.ModelRepo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.embedded.EmbeddedMongoAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operations of {@link AbstractCrudService} with the JPA repository (H2 in-memory database),
+ * using the test domain of the 'jpa' module.
+ *
+ * @author Sergei Poznanski
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JpaCrudServiceBenchmark {
+
+	private static final int MODELS = 1000;
+
+	private ConfigurableApplicationContext context;
+	private ModelService service;
+	private List<Integer> ids;
+	private Pageable pageable;
+
+	@Setup
+	public void setup() {
+		context = new SpringApplicationBuilder(Config.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.main.banner-mode=off", "--logging.level.root=warn");
+		service = context.getBean(ModelService.class);
+
+		ids = new ArrayList<>(MODELS);
+		for (int i = 0; i < MODELS; i++) {
+			ids.add(service.create(new ModelRequest().setText("text" + i).setNumber(i)).getId());
+		}
+		pageable = PageRequest.of(0, 20, Sort.by("id"));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public ModelResponse create() {
+		return service.create(new ModelRequest().setText("created").setNumber(1));
+	}
+
+	@Benchmark
+	public Optional<ModelResponse> update() {
+		return service.update(randomId(), new ModelRequest().setNumber(ThreadLocalRandom.current().nextInt()));
+	}
+
+	@Benchmark
+	public Optional<ModelResponse> getOne() {
+		return service.getOne(randomId());
+	}
+
+	@Benchmark
+	public Page<ModelResponse> getAllPaged() {
+		return service.getAll(pageable);
+	}
+
+	private Integer randomId() {
+		return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+	}
+
+	@Service
+	public static class ModelService extends AbstractCrudService<Model, Integer, ModelRequest, ModelResponse> {
+		public ModelService(final ModelRepo repo, final ModelMapper mapper) {
+			super(repo, mapper);
+		}
+	}
+
+	@SpringBootConfiguration
+	@EnableAutoConfiguration(exclude = {
+			MongoAutoConfiguration.class,
+			MongoDataAutoConfiguration.class,
+			MongoRepositoriesAutoConfiguration.class,
+			EmbeddedMongoAutoConfiguration.class
+	})
+	@EnableJpaRepositories(basePackageClasses = ModelRepo.class)
+	@EntityScan(basePackageClasses = Model.class)
+	@ComponentScan(basePackageClasses = ModelMapper.class)
+	@Import(ModelService.class)
+	public static class Config {
+	}
+}
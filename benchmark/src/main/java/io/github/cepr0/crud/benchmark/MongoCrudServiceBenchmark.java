@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.benchmark;
+
+import io.github.cepr0.crud.dto.CrudRequest;
+import io.github.cepr0.crud.dto.CrudResponse;
+import io.github.cepr0.crud.mapper.CrudMapper;
+import io.github.cepr0.crud.repo.Model;
+import io.github.cepr0.crud.repo.ModelRepo;
+import io.github.cepr0.crud.service.AbstractCrudService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operations of {@link AbstractCrudService} with the Mongo repository (embedded MongoDB),
+ * using the test domain of the 'mongo' module.
+ *
+ * @author Sergei Poznanski
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MongoCrudServiceBenchmark {
+
+	private static final int MODELS = 1000;
+
+	private ConfigurableApplicationContext context;
+	private ModelService service;
+	private List<String> ids;
+	private Pageable pageable;
+
+	@Setup
+	public void setup() {
+		context = new SpringApplicationBuilder(Config.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.main.banner-mode=off", "--logging.level.root=warn");
+		service = context.getBean(ModelService.class);
+
+		context.getBean(ModelRepo.class).deleteAll();
+		ids = new ArrayList<>(MODELS);
+		for (int i = 0; i < MODELS; i++) {
+			ids.add(service.create(new ModelRequest("name" + i)).getId());
+		}
+		pageable = PageRequest.of(0, 20, Sort.by("id"));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public ModelResponse create() {
+		return service.create(new ModelRequest("created"));
+	}
+
+	@Benchmark
+	public Optional<ModelResponse> update() {
+		return service.update(randomId(), new ModelRequest("updated" + ThreadLocalRandom.current().nextInt()));
+	}
+
+	@Benchmark
+	public Optional<ModelResponse> getOne() {
+		return service.getOne(randomId());
+	}
+
+	@Benchmark
+	public Page<ModelResponse> getAllPaged() {
+		return service.getAll(pageable);
+	}
+
+	private String randomId() {
+		return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+	}
+
+	public static class ModelRequest implements CrudRequest {
+		private final String name;
+
+		public ModelRequest(final String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+
+	public static class ModelResponse implements CrudResponse<String> {
+		private final String id;
+		private final String name;
+
+		public ModelResponse(final String id, final String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		@NonNull
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+
+	@Component
+	public static class ModelMapper implements CrudMapper<Model, ModelRequest, ModelResponse> {
+
+		@NonNull
+		@Override
+		public Model toCreate(@NonNull final ModelRequest request) {
+			return new Model().setName(request.getName());
+		}
+
+		@NonNull
+		@Override
+		public Model toUpdate(@NonNull final ModelRequest request, @NonNull final Model target) {
+			if (request.getName() != null) {
+				target.setName(request.getName());
+			}
+			return target;
+		}
+
+		@NonNull
+		@Override
+		public ModelResponse toResponse(@NonNull final Model entity) {
+			return new ModelResponse(entity.getId(), entity.getName());
+		}
+	}
+
+	@Service
+	public static class ModelService extends AbstractCrudService<Model, String, ModelRequest, ModelResponse> {
+		public ModelService(final ModelRepo repo, final ModelMapper mapper) {
+			super(repo, mapper);
+		}
+	}
+
+	@SpringBootConfiguration
+	@EnableAutoConfiguration(exclude = {
+			DataSourceAutoConfiguration.class,
+			HibernateJpaAutoConfiguration.class,
+			JpaRepositoriesAutoConfiguration.class
+	})
+	@EnableMongoRepositories(basePackageClasses = ModelRepo.class)
+	@Import({ModelMapper.class, ModelService.class})
+	public static class Config {
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.benchmark;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.springframework.beans.BeanUtils.getPropertyDescriptor;
+import static org.springframework.beans.BeanUtils.getPropertyDescriptors;
+
+/**
+ * The former reflective implementation of {@link io.github.cepr0.crud.support.CrudUtils#copyNonNullProperties},
+ * kept here as a baseline for the benchmarks.
+ *
+ * @author Sergei Poznanski
+ */
+final class ReflectiveCopy {
+
+	private ReflectiveCopy() {
+	}
+
+	static <S, T> T copyNonNullProperties(final S source, final T target, String... ignoredProperties) throws BeansException {
+
+		Class<?> targetClass = target.getClass();
+		PropertyDescriptor[] targetProperties = getPropertyDescriptors(targetClass);
+		List<String> ignoreList = (ignoredProperties != null ? Arrays.asList(ignoredProperties) : null);
+
+		for (PropertyDescriptor targetProperty : targetProperties) {
+
+			Method targetPropSetter = targetProperty.getWriteMethod();
+			String targetPropName = targetProperty.getName();
+
+			if (targetPropSetter != null && (ignoreList == null || !ignoreList.contains(targetPropName))) {
+
+				PropertyDescriptor sourceProperty = getPropertyDescriptor(source.getClass(), targetPropName);
+
+				if (sourceProperty != null) {
+
+					Method sourcePropGetter = sourceProperty.getReadMethod();
+
+					if (sourcePropGetter != null && ClassUtils.isAssignable(targetPropSetter.getParameterTypes()[0], sourcePropGetter.getReturnType())) {
+						try {
+							if (!Modifier.isPublic(sourcePropGetter.getDeclaringClass().getModifiers())) {
+								sourcePropGetter.setAccessible(true);
+							}
+							Object value = sourcePropGetter.invoke(source);
+							if (value != null) {
+								if (!Modifier.isPublic(targetPropSetter.getDeclaringClass().getModifiers())) {
+									targetPropSetter.setAccessible(true);
+								}
+								targetPropSetter.invoke(target, value);
+							}
+						} catch (Throwable ex) {
+							throw new FatalBeanException("Could not copy property '" + targetPropName + "' from source to target", ex);
+						}
+					}
+				}
+			}
+		}
+		return target;
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import io.github.cepr0.crud.model.ContentAlias;
+import org.atteo.evo.inflector.English;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The former implementation of {@link io.github.cepr0.crud.api.CrudPageSerializer} (in the default
+ * {@code FIRST_WORD} mode), which resolves the "content" alias on every serialization and writes
+ * the field names as strings, kept here as a baseline for the benchmarks.
+ *
+ * @author Sergei Poznanski
+ */
+@SuppressWarnings("unchecked")
+final class UncachedPageSerializer extends JsonSerializer<Slice> {
+
+	@Override
+	public void serialize(final Slice slice, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+
+		List content = slice.getContent();
+		Page page = slice instanceof Page ? (Page) slice : null;
+
+		gen.writeStartObject();
+		{
+			if (!content.isEmpty()) {
+				gen.writeObjectField(getContentAlias(content), content);
+			}
+
+			gen.writeObjectFieldStart("page");
+			{
+				gen.writeNumberField("number", slice.getNumber());
+				gen.writeNumberField("size", slice.getSize());
+				if (page != null) {
+					gen.writeNumberField("total", page.getTotalPages());
+				}
+				gen.writeBooleanField("first", slice.isFirst());
+				gen.writeBooleanField("last", slice.isLast());
+			}
+			gen.writeEndObject();
+
+			gen.writeObjectFieldStart("elements");
+			{
+				if (page != null) {
+					gen.writeNumberField("total", page.getTotalElements());
+				}
+				gen.writeNumberField("exposed", slice.getNumberOfElements());
+			}
+			gen.writeEndObject();
+
+			Sort sort = slice.getSort();
+			if (sort != null && sort.iterator().hasNext()) {
+				gen.writeArrayFieldStart("sort");
+				{
+					for (Sort.Order order : sort) {
+						gen.writeStartObject();
+						{
+							gen.writeStringField("property", order.getProperty());
+							gen.writeStringField("direction", order.getDirection().name());
+						}
+						gen.writeEndObject();
+					}
+				}
+				gen.writeEndArray();
+			}
+		}
+		gen.writeEndObject();
+	}
+
+	private static String getContentAlias(final List content) {
+		Class<?> contentClass = content.get(0).getClass();
+		ContentAlias contentAlias = contentClass.getAnnotation(ContentAlias.class);
+		if (contentAlias != null) {
+			return contentAlias.value();
+		}
+		// the former CrudUtils.firstWordOf, which compiled the regex on every call
+		String firstWord = contentClass.getSimpleName().split("(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])")[0].toLowerCase();
+		return English.plural(firstWord);
+	}
+}
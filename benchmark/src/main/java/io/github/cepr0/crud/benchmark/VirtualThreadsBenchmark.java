@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.benchmark;
+
+import io.github.cepr0.crud.threads.VirtualThreads;
+import io.github.cepr0.crud.threads.VirtualThreadsAutoConfiguration;
+import io.github.cepr0.test.dto.ModelRequest;
+import io.github.cepr0.test.dto.ModelResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A load test which compares the 'virtual threads' mode of {@link VirtualThreadsAutoConfiguration}
+ * (a virtual thread per request and the concurrency limit sized to the connection pool) with the platform thread model
+ * (a pool of 200 threads, as the default one of Tomcat), on the {@code getOne} requests to the JPA service
+ * (H2 in-memory database and the default Hikari pool of 10 connections).
+ * <p>
+ * Every request can wait for a simulated remote call ({@code ioMillis}) before reading the entity.
+ * The 'virtual' mode requires JDK 21+.
+ *
+ * @author Sergei Poznanski
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadsBenchmark {
+
+	private static final int MODELS = 1000;
+	private static final int REQUESTS = 2000;
+	private static final int PLATFORM_THREADS = 200;
+
+	@Param({"platform", "virtual"})
+	public String threads;
+
+	@Param({"0", "5"})
+	public int ioMillis;
+
+	private ConfigurableApplicationContext context;
+	private JpaCrudServiceBenchmark.ModelService service;
+	private ExecutorService executor;
+	private List<Integer> ids;
+
+	@Setup
+	public void setup() {
+		boolean virtual = "virtual".equals(threads);
+		if (virtual && !VirtualThreads.isSupported()) {
+			throw new IllegalStateException("The 'virtual' mode requires JDK 21+");
+		}
+
+		context = new SpringApplicationBuilder(JpaCrudServiceBenchmark.Config.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.main.banner-mode=off", "--logging.level.root=warn",
+						"--generic-crud.virtual-threads.enabled=" + virtual);
+		service = context.getBean(JpaCrudServiceBenchmark.ModelService.class);
+
+		ids = new ArrayList<>(MODELS);
+		for (int i = 0; i < MODELS; i++) {
+			ids.add(service.create(new ModelRequest().setText("text" + i).setNumber(i)).getId());
+		}
+
+		executor = virtual ? VirtualThreads.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(PLATFORM_THREADS);
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdownNow();
+		context.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(REQUESTS)
+	public void getOne(final Blackhole blackhole) throws Exception {
+		List<Future<Optional<ModelResponse>>> responses = new ArrayList<>(REQUESTS);
+		for (int i = 0; i < REQUESTS; i++) {
+			responses.add(executor.submit(this::request));
+		}
+		for (Future<Optional<ModelResponse>> response : responses) {
+			blackhole.consume(response.get());
+		}
+	}
+
+	private Optional<ModelResponse> request() throws InterruptedException {
+		if (ioMillis > 0) {
+			Thread.sleep(ioMillis);
+		}
+		return service.getOne(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import io.github.cepr0.crud.support.CrudUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Measures {@link CallbackMapper#apply} comparing with the plain call of the mapper function.
+ * The benchmark is placed in the package of {@link CallbackMapper} because the latter is package-private.
+ *
+ * @author Sergei Poznanski
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CallbackMapperBenchmark {
+
+	private static final String[] IGNORED_PROPS = {"id", "count"};
+
+	private BiFunction<Bean, Bean, Bean> mapper;
+	private CallbackMapper<Bean, Bean> callbackMapper;
+	private Bean source;
+	private Bean target;
+
+	@Setup
+	public void setup() {
+		mapper = (s, t) -> CrudUtils.copyNonNullProperties(s, t, IGNORED_PROPS);
+		callbackMapper = new CallbackMapper<>(mapper, (s, t) -> t.setCount(t.getCount() + 1));
+		source = new Bean();
+		source.setName("name");
+		target = new Bean();
+		target.setId(1);
+		target.setCount(0);
+	}
+
+	@Benchmark
+	public Bean plainMapper() {
+		return mapper.apply(source, target);
+	}
+
+	@Benchmark
+	public Bean callbackMapper() {
+		return callbackMapper.apply(source, target);
+	}
+
+	public static class Bean {
+		private Integer id;
+		private String name;
+		private int count;
+
+		public Integer getId() {
+			return id;
+		}
+
+		public void setId(final Integer id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(final String name) {
+			this.name = name;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(final int count) {
+			this.count = count;
+		}
+	}
+}
@@ -16,8 +16,10 @@
 
 package io.github.cepr0.demo;
 
+import io.github.cepr0.crud.event.EntityEventDispatcher;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableAsync;
 
 /**
@@ -31,5 +33,10 @@ public class Application {
 		SpringApplication.run(Application.class, args);
 	}
 
+	@Bean
+	public EntityEventDispatcher entityEventDispatcher() {
+		return new EntityEventDispatcher(2, 1000, 100, EntityEventDispatcher.OverflowPolicy.BLOCK);
+	}
+
 }
 
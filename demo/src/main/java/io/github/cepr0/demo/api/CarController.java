@@ -25,6 +25,7 @@ import io.github.cepr0.demo.person.CarService;
 import io.github.cepr0.demo.person.dto.CarRequest;
 import io.github.cepr0.demo.person.dto.CarResponse;
 import io.github.cepr0.demo.person.dto.Views;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.validation.annotation.Validated;
@@ -54,8 +55,8 @@ public class CarController extends AbstractCrudController<Car, UUID, CarRequest,
 	@JsonView(Views.ForCar.class)
 	@PatchMapping("/{id}")
 	@Override
-	public ResponseEntity<CarResponse> update(@PathVariable("id") @NonNull final UUID id, @Validated(OnUpdate.class) @RequestBody @NonNull final CarRequest request) {
-		return super.update(id, request);
+	public ResponseEntity<CarResponse> update(@PathVariable("id") @NonNull final UUID id, @Validated(OnUpdate.class) @RequestBody @NonNull final CarRequest request, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+		return super.update(id, request, ifMatch);
 	}
 
 	@DeleteMapping("/{id}")
@@ -67,8 +68,8 @@ public class CarController extends AbstractCrudController<Car, UUID, CarRequest,
 	@JsonView(Views.ForCar.class)
 	@GetMapping("/{id}")
 	@Override
-	public ResponseEntity<CarResponse> getOne(@PathVariable("id") @NonNull final UUID id) {
-		return super.getOne(id);
+	public ResponseEntity<CarResponse> getOne(@PathVariable("id") @NonNull final UUID id, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+		return super.getOne(id, ifNoneMatch);
 	}
 
 	@JsonView(Views.ForCar.class)
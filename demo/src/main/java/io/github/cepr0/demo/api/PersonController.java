@@ -27,6 +27,7 @@ import io.github.cepr0.demo.person.dto.PersonResponse;
 import io.github.cepr0.demo.person.dto.Views;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.validation.annotation.Validated;
@@ -55,8 +56,8 @@ public class PersonController extends AbstractCrudController<Person, UUID, Perso
 	@JsonView(Views.ForPerson.class)
 	@PatchMapping("/{id}")
 	@Override
-	public ResponseEntity<PersonResponse> update(@PathVariable("id") @NonNull final UUID id, @Validated(OnUpdate.class) @RequestBody @NonNull final PersonRequest request) {
-		return super.update(id, request);
+	public ResponseEntity<PersonResponse> update(@PathVariable("id") @NonNull final UUID id, @Validated(OnUpdate.class) @RequestBody @NonNull final PersonRequest request, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+		return super.update(id, request, ifMatch);
 	}
 
 	@DeleteMapping("/{id}")
@@ -68,8 +69,8 @@ public class PersonController extends AbstractCrudController<Person, UUID, Perso
 	@JsonView(Views.ForPerson.class)
 	@GetMapping("/{id}")
 	@Override
-	public ResponseEntity<PersonResponse> getOne(@PathVariable("id") @NonNull final UUID id) {
-		return super.getOne(id);
+	public ResponseEntity<PersonResponse> getOne(@PathVariable("id") @NonNull final UUID id, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+		return super.getOne(id, ifNoneMatch);
 	}
 
 	@JsonView(Views.ForPerson.class)
@@ -25,6 +25,7 @@ import io.github.cepr0.demo.user.dto.UserRequest;
 import io.github.cepr0.demo.user.dto.UserResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.validation.annotation.Validated;
@@ -59,8 +60,8 @@ public class UserController extends AbstractCrudController<User, Long, UserReque
 
 	@PatchMapping("/{id}")
 	@Override
-	public ResponseEntity<UserResponse> update(@PathVariable("id") @NonNull final Long id, @Validated(OnUpdate.class) @RequestBody @NonNull final UserRequest request) {
-		return super.update(id, request);
+	public ResponseEntity<UserResponse> update(@PathVariable("id") @NonNull final Long id, @Validated(OnUpdate.class) @RequestBody @NonNull final UserRequest request, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+		return super.update(id, request, ifMatch);
 	}
 
 	@DeleteMapping("/{id}")
@@ -71,8 +72,8 @@ public class UserController extends AbstractCrudController<User, Long, UserReque
 
 	@GetMapping("/{id}")
 	@Override
-	public ResponseEntity<UserResponse> getOne(@PathVariable("id") @NonNull final Long id) {
-		return super.getOne(id);
+	public ResponseEntity<UserResponse> getOne(@PathVariable("id") @NonNull final Long id, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+		return super.getOne(id, ifNoneMatch);
 	}
 
 	@GetMapping
@@ -33,4 +33,9 @@ import java.util.UUID;
 @Mapper(config = CrudMapper.class, uses = PersonMapper.class)
 public abstract class CarMapper implements CrudMapper<Car, CarRequest, CarResponse>, ReferenceMapper<Car, UUID> {
 	@Autowired @Getter private CarRepo repo;
+
+	@Override
+	public boolean loadReferencesInBulk() {
+		return true;
+	}
 }
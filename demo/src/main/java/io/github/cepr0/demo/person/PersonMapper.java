@@ -33,4 +33,9 @@ import java.util.UUID;
 @Mapper(config = CrudMapper.class, uses = CarMapper.class)
 public abstract class PersonMapper implements CrudMapper<Person, PersonRequest, PersonResponse>, ReferenceMapper<Person, UUID> {
 	@Autowired @Getter private PersonRepo repo;
+
+	@Override
+	public boolean loadReferencesInBulk() {
+		return true;
+	}
 }
@@ -16,6 +16,8 @@
 
 package io.github.cepr0.demo.person;
 
+import io.github.cepr0.crud.event.BatchEntityEventListener;
+import io.github.cepr0.crud.repo.FetchPlan;
 import io.github.cepr0.crud.service.AbstractCrudService;
 import io.github.cepr0.demo.model.Car;
 import io.github.cepr0.demo.model.Person;
@@ -24,39 +26,47 @@ import io.github.cepr0.demo.person.dto.PersonResponse;
 import io.github.cepr0.demo.person.event.UpdatePersonEvent;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Service with example of async post-processing of updating the entity.
+ * Service with example of async post-processing of updating the entities: the update events are dispatched
+ * after the commit by {@link io.github.cepr0.crud.event.EntityEventDispatcher} in batches.
+ * The single person is read together with its cars (the list of persons relies on {@code @BatchSize}).
  *
  * @author Sergei Poznanski
  */
 @Slf4j
 @Service
-public class PersonService extends AbstractCrudService<Person, UUID, PersonRequest, PersonResponse> {
+public class PersonService extends AbstractCrudService<Person, UUID, PersonRequest, PersonResponse>
+		implements BatchEntityEventListener<UpdatePersonEvent> {
 	public PersonService(final PersonRepo repo, final PersonMapper mapper) {
 		super(repo, mapper);
 	}
 
+	@Override
+	protected FetchPlan getOneFetchPlan() {
+		return FetchPlan.of("cars");
+	}
+
 	@Override
 	protected UpdatePersonEvent onUpdateEvent(final Person entity) {
 		return new UpdatePersonEvent(entity);
 	}
 
-	@Async
 	@SneakyThrows
-	@TransactionalEventListener
-	public void handleUpdatePersonEvent(UpdatePersonEvent event) {
-		log.info("[i] Person update event after commit handling...");
+	@Override
+	public void onEvents(List<UpdatePersonEvent> events) {
+		log.info("[i] {} person update event(s) after commit handling...", events.size());
 		TimeUnit.SECONDS.sleep(1); // simulate the delay
-		Person person = event.getEntity();
-		Set<Car> cars = person.getCars();
-		log.info("[i] Person cars: {}", cars);
+		for (UpdatePersonEvent event : events) {
+			Person person = event.getEntity();
+			Set<Car> cars = person.getCars();
+			log.info("[i] Person cars: {}", cars);
+		}
 	}
 }
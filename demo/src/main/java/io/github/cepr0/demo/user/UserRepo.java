@@ -18,37 +18,22 @@ package io.github.cepr0.demo.user;
 
 import io.github.cepr0.crud.repo.JpaRepo;
 import io.github.cepr0.demo.model.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.Query;
-
-import java.util.Optional;
+import org.springframework.data.jpa.domain.Specification;
 
 /**
  * @author Sergei Poznanski
  */
 public interface UserRepo extends JpaRepo<User, Long> {
 
-	String SELECT_NON_DELETED = "select u from User u where u.id = ?1 and u.deleted = false";
+	Specification<User> NON_DELETED = (root, query, cb) -> cb.isFalse(root.get("deleted"));
 
 	@Override
 	default void delete(User user) {
 		user.setDeleted(true);
 	}
 
-	@Query(SELECT_NON_DELETED)
-	@Override
-	Optional<User> getToDeleteById(Long id);
-
-	@Query(SELECT_NON_DELETED)
-	@Override
-	Optional<User> getToUpdateById(Long id);
-
-	@Query(SELECT_NON_DELETED)
-	@Override
-	Optional<User> getById(Long id);
-
-	@Query("select u from User u where u.deleted = false")
 	@Override
-	Page<User> getAll(Pageable pageable);
+	default Specification<User> restriction() {
+		return NON_DELETED;
+	}
 }
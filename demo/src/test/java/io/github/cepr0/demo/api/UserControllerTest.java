@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.demo.api;
+
+import io.github.cepr0.demo.model.User;
+import io.github.cepr0.demo.user.UserRepo;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static io.github.cepr0.demo.api.UserController.USERS;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author Sergei Poznanski
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserControllerTest {
+
+	@Autowired private MockMvc mvc;
+	@Autowired private UserRepo userRepo;
+
+	@Test
+	public void getOneWithETag() throws Exception {
+		User user = userRepo.save(user("user", false));
+
+		mvc.perform(get(USERS + "/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+	}
+
+	@Test
+	public void deletedUserIsNotFoundWithETag() throws Exception {
+		User user = userRepo.save(user("deleted", true));
+
+		mvc.perform(get(USERS + "/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isNotFound());
+
+		mvc.perform(patch(USERS + "/{id}", user.getId())
+				.header(HttpHeaders.IF_MATCH, "\"0\"")
+				.contentType(APPLICATION_JSON)
+				.content("{\"name\": \"updated\"}"))
+				.andExpect(status().isPreconditionFailed())
+				.andExpect(header().doesNotExist(HttpHeaders.ETAG));
+	}
+
+	private static User user(final String name, final boolean deleted) {
+		User user = new User();
+		user.setName(name);
+		user.setCreatedAt(Instant.now());
+		user.setUpdatedAt(Instant.now());
+		user.setDeleted(deleted);
+		return user;
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.mapper;
+
+import io.github.cepr0.crud.model.IdentifiableEntity;
+
+import javax.persistence.EntityNotFoundException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Bulk loading of the referenced entities of {@link ReferenceMapper}.
+ *
+ * @author Sergei Poznanski
+ */
+final class BulkReferences {
+
+	private BulkReferences() {
+	}
+
+	/**
+	 * Loads the entities with the given ids by the chunks of {@link ReferenceMapper#referenceChunkSize()} ids
+	 * (with {@link io.github.cepr0.crud.repo.JpaRepo#getByIdIn}, so the repository restriction is applied).
+	 *
+	 * @return the loaded entities by their ids
+	 * @throws EntityNotFoundException if {@link ReferenceMapper#validateReferences()} is {@code true} and some entities are not found
+	 */
+	static <T extends IdentifiableEntity<ID>, ID extends Serializable> Map<ID, T> load(final ReferenceMapper<T, ID> mapper, final Collection<ID> ids) {
+		Set<ID> unique = new LinkedHashSet<>(ids.size());
+		for (ID id : ids) {
+			unique.add(Objects.requireNonNull(id, "The id must not be null!"));
+		}
+
+		int chunkSize = mapper.referenceChunkSize();
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Reference chunk size must be positive!");
+		}
+
+		Map<ID, T> entities = new HashMap<>(unique.size() * 4 / 3 + 1);
+		List<ID> chunk = new ArrayList<>(Math.min(chunkSize, unique.size()));
+		for (ID id : unique) {
+			chunk.add(id);
+			if (chunk.size() == chunkSize) {
+				loadChunk(mapper, chunk, entities);
+			}
+		}
+		if (!chunk.isEmpty()) {
+			loadChunk(mapper, chunk, entities);
+		}
+
+		if (mapper.validateReferences() && entities.size() < unique.size()) {
+			unique.removeAll(entities.keySet());
+			throw new EntityNotFoundException("Unable to find the entities with ids " + unique);
+		}
+		return entities;
+	}
+
+	/**
+	 * @return the loaded entity or, if it's not loaded, its reference
+	 */
+	static <T extends IdentifiableEntity<ID>, ID extends Serializable> T get(final ReferenceMapper<T, ID> mapper, final Map<ID, T> entities, final ID id) {
+		T entity = entities.get(id);
+		return entity != null ? entity : mapper.getRepo().getOne(id);
+	}
+
+	private static <T extends IdentifiableEntity<ID>, ID extends Serializable> void loadChunk(final ReferenceMapper<T, ID> mapper, final List<ID> chunk, final Map<ID, T> entities) {
+		for (T entity : mapper.getRepo().getByIdIn(chunk)) {
+			entities.put(entity.getId(), entity);
+		}
+		chunk.clear();
+	}
+}
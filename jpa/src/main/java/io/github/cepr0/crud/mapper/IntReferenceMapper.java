@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.mapper;
+
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import io.github.cepr0.crud.support.CrudUtils;
+import org.springframework.lang.NonNull;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Extension of {@link ReferenceMapper} for the entities with the {@code int} identifiers, which maps the arrays
+ * of primitive ids to the references (without copying them into the boxed collections, see {@link CrudUtils#asList(int...)})
+ * and the collections of entities to the arrays of their ids. For example:
+ * <pre>
+ *    {@code IntReferenceMapper<User> refMapper = () -> repo;}
+ * </pre>
+ *
+ * @param <T> type of the entity which extends {@link IdentifiableEntity}
+ *
+ * @author Sergei Poznanski
+ */
+@FunctionalInterface
+public interface IntReferenceMapper<T extends IdentifiableEntity<Integer>> extends ReferenceMapper<T, Integer> {
+
+	/**
+	 * Maps an array of ids to the set of related references (see {@link ReferenceMapper#toRefSet(Collection)}).
+	 *
+	 * @param ids must not be {@code null}
+	 * @return the set of related references
+	 * @throws EntityNotFoundException if {@link #validateReferences()} is {@code true} and some entities are not found
+	 */
+	@NonNull
+	default Set<T> toRefSet(@NonNull int[] ids) {
+		Objects.requireNonNull(ids, "The 'ids' must not be null!");
+		return toRefSet(CrudUtils.asList(ids));
+	}
+
+	/**
+	 * Maps an array of ids to the list of related references, in the order of the ids
+	 * (see {@link ReferenceMapper#toRefList(Collection)}).
+	 *
+	 * @param ids must not be {@code null}
+	 * @return the list of related references
+	 * @throws EntityNotFoundException if {@link #validateReferences()} is {@code true} and some entities are not found
+	 */
+	@NonNull
+	default List<T> toRefList(@NonNull int[] ids) {
+		Objects.requireNonNull(ids, "The 'ids' must not be null!");
+		return toRefList(CrudUtils.asList(ids));
+	}
+
+	/**
+	 * Maps a collection of entities to the array of their ids, in the order of the entities.
+	 *
+	 * @param entities must not be {@code null}
+	 * @return the array of ids
+	 */
+	@NonNull
+	default int[] toIdArray(@NonNull Collection<T> entities) {
+		Objects.requireNonNull(entities, "The entities must not be null!");
+		int[] ids = new int[entities.size()];
+		int i = 0;
+		for (T entity : entities) {
+			ids[i++] = toId(entity);
+		}
+		return ids;
+	}
+}
@@ -21,9 +21,11 @@ import io.github.cepr0.crud.repo.JpaRepo;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
 import org.springframework.lang.NonNull;
 
+import javax.persistence.EntityNotFoundException;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -38,6 +40,10 @@ import static java.util.stream.Collectors.toSet;
  * <pre>
  *    {@code ReferenceMapper<User, Long> refMapper = () -> repo;}
  * </pre>
+ * By default, the collections of ids are mapped to the references one by one, so if the references are initialized
+ * later (when the responses are mapped, for example) every reference is loaded with its own query.
+ * To load them with the {@code IN} queries override {@link #loadReferencesInBulk()}, and to check
+ * that all referenced entities exist right at the mapping override {@link #validateReferences()}.
  *
  * @param <T> type of the entity which extends {@link IdentifiableEntity}
  * @param <ID> type of the entity identifier
@@ -55,15 +61,52 @@ public interface ReferenceMapper<T extends IdentifiableEntity<ID>, ID extends Se
 	@NonNull
 	JpaRepo<T, ID> getRepo();
 
+	/**
+	 * Whether the collections of ids are mapped to the loaded entities with the {@code IN} queries
+	 * (by the chunks of {@link #referenceChunkSize()} ids), instead of their references. {@code false} by default.
+	 *
+	 * @return {@code true} to load the entities in bulk
+	 */
+	default boolean loadReferencesInBulk() {
+		return false;
+	}
+
+	/**
+	 * Whether the existence of the referenced entities is checked right at the mapping, so that
+	 * {@link EntityNotFoundException} is thrown by the mapper instead of the first access to the missing reference
+	 * (at the flush, for example). If it's {@code true}, the entities are loaded instead of their references
+	 * (with {@link JpaRepo#getById} and {@link JpaRepo#getByIdIn}, so the entities excluded by
+	 * {@link JpaRepo#restriction()} are not found). {@code false} by default.
+	 *
+	 * @return {@code true} to check the existence of the referenced entities
+	 */
+	default boolean validateReferences() {
+		return false;
+	}
+
+	/**
+	 * Maximum number of ids in one {@code IN} query of the bulk loading. By default it's 1000
+	 * (the limit of the number of expressions in the list of some databases, Oracle for example).
+	 *
+	 * @return maximum number of ids in one query
+	 */
+	default int referenceChunkSize() {
+		return 1000;
+	}
+
 	/**
 	 * Maps the entity id to its reference.
 	 *
 	 * @param id must not be {@code null}
 	 * @return reference to the entity
+	 * @throws EntityNotFoundException if {@link #validateReferences()} is {@code true} and the entity is not found
 	 */
 	@NonNull
 	default T toReference(@NonNull ID id) {
 		Objects.requireNonNull(id, "The id must not be null!");
+		if (validateReferences()) {
+			return getRepo().getById(id).orElseThrow(() -> new EntityNotFoundException("Unable to find the entity with id " + id));
+		}
 		return getRepo().getOne(id);
 	}
 
@@ -80,14 +123,20 @@ public interface ReferenceMapper<T extends IdentifiableEntity<ID>, ID extends Se
 	}
 
 	/**
-	 * Maps a collection of ids to the set of related references.
+	 * Maps a collection of ids to the set of related references
+	 * (or the loaded entities, see {@link #loadReferencesInBulk()} and {@link #validateReferences()}).
 	 *
 	 * @param ids must not be {@code null}
 	 * @return the set of related references
+	 * @throws EntityNotFoundException if {@link #validateReferences()} is {@code true} and some entities are not found
 	 */
 	@NonNull
 	default Set<T> toRefSet(@NonNull Collection<ID> ids) {
 		Objects.requireNonNull(ids, "The 'ids' must not be null!");
+		if (loadReferencesInBulk() || validateReferences()) {
+			Map<ID, T> entities = BulkReferences.load(this, ids);
+			return ids.stream().map(id -> BulkReferences.get(this, entities, id)).collect(toSet());
+		}
 		return ids.stream().map(this::toReference).collect(toSet());
 	}
 
@@ -104,14 +153,20 @@ public interface ReferenceMapper<T extends IdentifiableEntity<ID>, ID extends Se
 	}
 
 	/**
-	 * Maps a collection of ids to the list of related references.
+	 * Maps a collection of ids to the list of related references, in the order of the ids
+	 * (or the loaded entities, see {@link #loadReferencesInBulk()} and {@link #validateReferences()}).
 	 *
 	 * @param ids must not be {@code null}
 	 * @return the list of related references
+	 * @throws EntityNotFoundException if {@link #validateReferences()} is {@code true} and some entities are not found
 	 */
 	@NonNull
 	default List<T> toRefList(@NonNull Collection<ID> ids) {
 		Objects.requireNonNull(ids, "The 'ids' must not be null!");
+		if (loadReferencesInBulk() || validateReferences()) {
+			Map<ID, T> entities = BulkReferences.load(this, ids);
+			return ids.stream().map(id -> BulkReferences.get(this, entities, id)).collect(toList());
+		}
 		return ids.stream().map(this::toReference).collect(toList());
 	}
 
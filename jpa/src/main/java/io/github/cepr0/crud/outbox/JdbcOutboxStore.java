@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.outbox;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.lang.NonNull;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static io.github.cepr0.crud.support.CrudUtils.partition;
+
+/**
+ * {@link OutboxStore} which stores the messages to the database table with {@link JdbcOperations}.
+ * When the JPA transaction manager exposes its JDBC connection (as {@code JpaTransactionManager}
+ * with Hibernate does by default), the messages are stored in the same transaction as the entities.
+ * <p>
+ * The table must be created by the application, for example:
+ * <pre>{@code
+ * create table outbox (
+ *     id bigserial primary key, -- an auto-incremented id
+ *     event_type varchar(255) not null,
+ *     entity_type varchar(255) not null,
+ *     entity_id varchar(255) not null,
+ *     payload bytea not null, -- a binary column
+ *     created_at timestamp not null
+ * );
+ * }</pre>
+ *
+ * @author Sergei Poznanski
+ */
+public class JdbcOutboxStore implements OutboxStore {
+
+	/**
+	 * Maximum number of the identifiers in one 'delete' statement (the limit of the 'in' list in some databases).
+	 */
+	private static final int MAX_DELETED = 1000;
+
+	private final JdbcOperations jdbc;
+	private final String insertQuery;
+	private final String pollQuery;
+	private final String deleteQuery;
+
+	/**
+	 * Creates the store of the 'outbox' table.
+	 *
+	 * @param jdbc must not be {@code null}
+	 */
+	public JdbcOutboxStore(@NonNull final JdbcOperations jdbc) {
+		this(jdbc, "outbox");
+	}
+
+	/**
+	 * @param jdbc must not be {@code null}
+	 * @param tableName name of the table, can be qualified by the schema name, must not be {@code null}
+	 */
+	public JdbcOutboxStore(@NonNull final JdbcOperations jdbc, @NonNull final String tableName) {
+		this.jdbc = Objects.requireNonNull(jdbc, "Parameter 'jdbc' must not be null!");
+		Objects.requireNonNull(tableName, "Parameter 'tableName' must not be null!");
+		this.insertQuery = "insert into " + tableName + " (event_type, entity_type, entity_id, payload, created_at) values (?, ?, ?, ?, ?)";
+		this.pollQuery = "select id, event_type, entity_type, entity_id, payload, created_at from " + tableName + " order by id";
+		this.deleteQuery = "delete from " + tableName + " where id in ";
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalTransactionStateException if there is no active transaction
+	 */
+	@Override
+	public void save(@NonNull final OutboxMessage message) {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			throw new IllegalTransactionStateException("Outbox message must be saved within a transaction!");
+		}
+		jdbc.update(insertQuery,
+				message.getEventType(),
+				message.getEntityType(),
+				message.getEntityId(),
+				message.getPayload(),
+				Timestamp.from(message.getCreatedAt())
+		);
+	}
+
+	@NonNull
+	@Override
+	public List<OutboxMessage> poll(final int limit) {
+		return jdbc.query(con -> {
+			PreparedStatement ps = con.prepareStatement(pollQuery);
+			ps.setMaxRows(limit);
+			return ps;
+		}, (rs, i) -> new OutboxMessage(
+				rs.getLong("id"),
+				rs.getString("event_type"),
+				rs.getString("entity_type"),
+				rs.getString("entity_id"),
+				rs.getBytes("payload"),
+				rs.getTimestamp("created_at").toInstant()
+		));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The messages are deleted with one {@code delete ... where id in (...)} statement per chunk of 1000 messages.
+	 */
+	@Override
+	public void delete(@NonNull final List<OutboxMessage> messages) {
+		for (List<OutboxMessage> chunk : partition(messages, MAX_DELETED)) {
+			String placeholders = chunk.stream().map(message -> "?").collect(Collectors.joining(", ", "(", ")"));
+			jdbc.update(deleteQuery + placeholders, chunk.stream().map(OutboxMessage::getId).toArray());
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import org.springframework.lang.NonNull;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Locates the {@link EntityManager} bound to the current thread (by the current transaction or
+ * by the 'open EntityManager in view' pattern), which manages the given entity class.
+ * <p>
+ * It's used in the default methods of {@link JpaRepo} which need direct access to the persistence context.
+ *
+ * @author Sergei Poznanski
+ */
+public abstract class EntityManagerLocator {
+
+	/**
+	 * Finds the current {@link EntityManager} which manages the given entity class.
+	 *
+	 * @param entityClass must not be {@code null}
+	 * @return the found {@link EntityManager} or {@code Optional#empty()} if there is no one bound to the current thread
+	 */
+	@NonNull
+	public static Optional<EntityManager> find(@NonNull final Class<?> entityClass) {
+		Objects.requireNonNull(entityClass, "The given entity class must not be null!");
+		for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+			if (resource instanceof EntityManagerHolder) {
+				EntityManager em = ((EntityManagerHolder) resource).getEntityManager();
+				if (isManaged(em, entityClass)) {
+					return Optional.of(em);
+				}
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Returns the current {@link EntityManager} which manages the given entity class.
+	 *
+	 * @param entityClass must not be {@code null}
+	 * @return the found {@link EntityManager}, will never be {@code null}
+	 * @throws IllegalStateException if there is no {@link EntityManager} bound to the current thread
+	 */
+	@NonNull
+	public static EntityManager get(@NonNull final Class<?> entityClass) {
+		return find(entityClass).orElseThrow(() -> new IllegalStateException(
+				"No EntityManager bound to the current thread for the entity " + entityClass.getName()
+						+ ", the method must be invoked within a transaction!"));
+	}
+
+	private static boolean isManaged(final EntityManager em, final Class<?> entityClass) {
+		// entity class can be a proxy, so check its superclasses too
+		for (Class<?> cls = entityClass; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+			try {
+				em.getMetamodel().entity(cls);
+				return true;
+			} catch (IllegalArgumentException ignored) {
+				// not an entity
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.Subgraph;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Performs the read methods of {@link JpaRepo} with a {@link FetchPlan}, which is converted to the JPA entity graph
+ * (the named one, or the dynamic one built from the attribute paths) and passed to the queries as a 'fetch graph'.
+ * The queries are restricted with {@link JpaRepo#restriction()}.
+ *
+ * @author Sergei Poznanski
+ */
+final class FetchPlanQueries {
+
+	private static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+
+	// the entity graph with collections produces duplicates of the root entities, which are removed in memory only
+	private static final String PASS_DISTINCT_THROUGH = "hibernate.query.passDistinctThrough";
+
+	private FetchPlanQueries() {
+	}
+
+	@NonNull
+	static <T> Optional<T> findById(@NonNull final JpaRepo<T, ?> repo, @NonNull final Object id, @NonNull final FetchPlan plan) {
+		if (repo.restriction() != null) {
+			return query(repo, id, Sort.unsorted(), plan).getResultList().stream().findFirst();
+		}
+		Class<T> entityClass = FieldsUpdate.entityClassOf(repo);
+		EntityManager em = EntityManagerLocator.get(entityClass);
+		return Optional.ofNullable(em.find(entityClass, id, Collections.singletonMap(FETCH_GRAPH, graphOf(em, entityClass, plan))));
+	}
+
+	@NonNull
+	static <T> List<T> findAll(@NonNull final JpaRepo<T, ?> repo, @NonNull final Sort sort, @NonNull final FetchPlan plan) {
+		return query(repo, null, sort, plan).getResultList();
+	}
+
+	@NonNull
+	static <T> Page<T> findPage(@NonNull final JpaRepo<T, ?> repo, @NonNull final Pageable pageable, @NonNull final FetchPlan plan) {
+		if (pageable.isUnpaged()) {
+			return new PageImpl<>(findAll(repo, pageable.getSort(), plan));
+		}
+		TypedQuery<T> query = query(repo, null, pageable.getSort(), plan);
+		query.setFirstResult((int) pageable.getOffset());
+		query.setMaxResults(pageable.getPageSize());
+		return PageableExecutionUtils.getPage(query.getResultList(), pageable, repo::countAll);
+	}
+
+	@NonNull
+	static <T> Slice<T> findSlice(@NonNull final JpaRepo<T, ?> repo, @NonNull final Pageable pageable, @NonNull final FetchPlan plan) {
+		if (pageable.isUnpaged()) {
+			return new SliceImpl<>(findAll(repo, pageable.getSort(), plan), pageable, false);
+		}
+		TypedQuery<T> query = query(repo, null, pageable.getSort(), plan);
+		query.setFirstResult((int) pageable.getOffset());
+		query.setMaxResults(pageable.getPageSize() + 1);
+		List<T> content = query.getResultList();
+		boolean hasNext = content.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+	}
+
+	private static <T> TypedQuery<T> query(final JpaRepo<T, ?> repo, @Nullable final Object id, final Sort sort, final FetchPlan plan) {
+		Class<T> entityClass = FieldsUpdate.entityClassOf(repo);
+		EntityManager em = EntityManagerLocator.get(entityClass);
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<T> criteria = cb.createQuery(entityClass);
+		Root<T> root = criteria.from(entityClass);
+		criteria.select(root).distinct(true);
+		Predicate where = RestrictedQueries.restrict(repo, root, criteria, cb, id != null ? cb.equal(root.get("id"), id) : null);
+		if (where != null) {
+			criteria.where(where);
+		}
+		if (sort.isSorted()) {
+			criteria.orderBy(QueryUtils.toOrders(sort, root, cb));
+		}
+		return em.createQuery(criteria)
+				.setHint(FETCH_GRAPH, graphOf(em, entityClass, plan))
+				.setHint(PASS_DISTINCT_THROUGH, false);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> EntityGraph<T> graphOf(final EntityManager em, final Class<T> entityClass, final FetchPlan plan) {
+		if (plan.isNamed()) {
+			return (EntityGraph<T>) em.getEntityGraph(plan.getName());
+		}
+
+		// the paths are merged into a tree, so every attribute node is added to the graph once
+		Node root = new Node();
+		for (String path : plan.getAttributePaths()) {
+			Node node = root;
+			for (String name : path.split("\\.")) {
+				node = node.children.computeIfAbsent(name, n -> new Node());
+			}
+		}
+
+		EntityGraph<T> graph = em.createEntityGraph(entityClass);
+		addNodes(root, name -> graph.addAttributeNodes(name), name -> graph.addSubgraph(name));
+		return graph;
+	}
+
+	private static void addNodes(final Node node, final Consumer<String> addAttribute, final Function<String, Subgraph<?>> addSubgraph) {
+		node.children.forEach((name, child) -> {
+			if (child.children.isEmpty()) {
+				addAttribute.accept(name);
+			} else {
+				Subgraph<?> subgraph = addSubgraph.apply(name);
+				addNodes(child, n -> subgraph.addAttributeNodes(n), n -> subgraph.addSubgraph(n));
+			}
+		});
+	}
+
+	private static final class Node {
+		private final Map<String, Node> children = new LinkedHashMap<>();
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Performs {@link JpaRepo#updateFields} with one criteria {@code UPDATE} statement,
+ * and {@link JpaRepo#getVersionById} with the criteria query of the version only.
+ *
+ * @author Sergei Poznanski
+ */
+final class FieldsUpdate {
+
+	private static final Map<Class<?>, Class<?>> ENTITY_CLASSES = new ConcurrentReferenceHashMap<>();
+
+	private FieldsUpdate() {
+	}
+
+	/**
+	 * Updates the entity of the given repository with the {@code 'update ... set ... where id = ? [and version = ?]'}
+	 * statement, which where clause also includes the restriction of the repository (the criteria query passed
+	 * to it is {@code null}). The numeric version of the entity is incremented. The updated entity is loaded
+	 * from the database, or refreshed if it's already in the current persistence context.
+	 */
+	@NonNull
+	static <T> Optional<T> execute(@NonNull final JpaRepo<T, ?> repo, @NonNull final Object id, @Nullable final Object version, @NonNull final Map<String, ?> fields) {
+		Class<T> entityClass = entityClassOf(repo);
+		EntityManager em = EntityManagerLocator.get(entityClass);
+		EntityType<T> type = em.getMetamodel().entity(entityClass);
+		SingularAttribute<? super T, ?> idAttr = type.getId(type.getIdType().getJavaType());
+		SingularAttribute<? super T, ?> versionAttr = type.hasVersionAttribute() ? versionOf(type) : null;
+		boolean incVersion = versionAttr != null && Number.class.isAssignableFrom(wrap(versionAttr.getJavaType()));
+		boolean checkVersion = versionAttr != null && version != null;
+
+		if (fields.isEmpty() && !incVersion) {
+			return find(repo, em, entityClass, id);
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaUpdate<T> update = cb.createCriteriaUpdate(entityClass);
+		Root<T> root = update.from(entityClass);
+
+		fields.forEach((name, value) -> update.set(name, value));
+		if (incVersion) {
+			Path<Number> versionPath = root.get(versionAttr.getName());
+			update.set(versionPath, cb.sum(versionPath, 1));
+		}
+
+		Predicate where = cb.equal(root.get(idAttr.getName()), id);
+		if (checkVersion) {
+			where = cb.and(where, cb.equal(root.get(versionAttr.getName()), version));
+		}
+		where = RestrictedQueries.restrict(repo, root, null, cb, where);
+		update.where(where);
+
+		if (em.createQuery(update).executeUpdate() == 0) {
+			if (checkVersion && find(repo, em, entityClass, id).isPresent()) {
+				throw new ObjectOptimisticLockingFailureException(entityClass, id);
+			}
+			return Optional.empty();
+		}
+
+		// the bulk update bypasses the persistence context, so the already loaded entity must be refreshed
+		T entity = em.getReference(entityClass, id);
+		if (em.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(entity)) {
+			em.refresh(entity);
+			return Optional.of(entity);
+		}
+		return Optional.ofNullable(em.find(entityClass, id));
+	}
+
+	/**
+	 * Reads the {@code @Version} of the entity of the given repository with the
+	 * {@code 'select e.version from ... e where e.id = ?'} query restricted with the restriction of the repository.
+	 */
+	@NonNull
+	static <T> Optional<Object> findVersion(@NonNull final JpaRepo<T, ?> repo, @NonNull final Object id) {
+		Class<T> entityClass = entityClassOf(repo);
+		EntityManager em = EntityManagerLocator.get(entityClass);
+		EntityType<T> type = em.getMetamodel().entity(entityClass);
+		if (!type.hasVersionAttribute()) {
+			return Optional.empty();
+		}
+		SingularAttribute<? super T, ?> idAttr = type.getId(type.getIdType().getJavaType());
+		SingularAttribute<? super T, ?> versionAttr = versionOf(type);
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object> query = cb.createQuery(Object.class);
+		Root<T> root = query.from(entityClass);
+		query.select(root.get(versionAttr.getName()))
+				.where(RestrictedQueries.restrict(repo, root, query, cb, cb.equal(root.get(idAttr.getName()), id)));
+
+		List<Object> versions = em.createQuery(query).setMaxResults(1).getResultList();
+		return versions.isEmpty() ? Optional.empty() : Optional.ofNullable(versions.get(0));
+	}
+
+	private static <T> Optional<T> find(final JpaRepo<T, ?> repo, final EntityManager em, final Class<T> entityClass, final Object id) {
+		if (repo.restriction() != null) {
+			return repo.findOne(RestrictedQueries.restrict(repo, RestrictedQueries.idEquals(id)));
+		}
+		return Optional.ofNullable(em.find(entityClass, id));
+	}
+
+	private static <T> SingularAttribute<? super T, ?> versionOf(final EntityType<T> type) {
+		for (SingularAttribute<? super T, ?> attr : type.getSingularAttributes()) {
+			if (attr.isVersion()) {
+				return attr;
+			}
+		}
+		return null;
+	}
+
+	private static Class<?> wrap(final Class<?> type) {
+		return ClassUtils.resolvePrimitiveIfNecessary(type);
+	}
+
+	/**
+	 * Resolves the entity class of the given repository (it's also used by {@link FetchPlanQueries}).
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Class<T> entityClassOf(final JpaRepo<?, ?> repo) {
+		return (Class<T>) ENTITY_CLASSES.computeIfAbsent(repo.getClass(), repoClass -> {
+			for (Class<?> iface : repoClass.getInterfaces()) {
+				if (JpaRepo.class.isAssignableFrom(iface)) {
+					Class<?>[] types = GenericTypeResolver.resolveTypeArguments(iface, JpaRepo.class);
+					if (types != null && types[0] != null) {
+						return types[0];
+					}
+				}
+			}
+			throw new IllegalStateException("Could not resolve the entity class of the repository " + repoClass.getName());
+		});
+	}
+}
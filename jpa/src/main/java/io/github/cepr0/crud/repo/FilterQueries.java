@@ -0,0 +1,267 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.lang.NonNull;
+import org.springframework.util.ClassUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Performs the filtered reads of {@link JpaRepo}: the {@link Filter} is compiled to the JPQL query
+ * with the named parameters ({@code 'select e from Model e where e.age > :p0 and ...'}), which is cached
+ * by the entity class and the shape of the filter. So the filters of the same shape are executed as the same
+ * query (and use the same plan of the Hibernate query plan cache), and the values are bound as its parameters.
+ * <p>
+ * The properties of the filter are resolved by the JPA metamodel (the single-valued properties only,
+ * including the properties of the embedded and associated entities, like {@code "person.name"}), and the values
+ * are converted to their types.
+ * <p>
+ * If the repository is restricted (see {@link JpaRepo#restriction()}), the filter is executed as the criteria query
+ * combined with the restriction instead of the cached JPQL one.
+ *
+ * @author Sergei Poznanski
+ */
+final class FilterQueries {
+
+	private static final String ALIAS = "e";
+
+	// the shapes come from the requests, so their number is limited (the other ones are compiled every time)
+	private static final int MAX_SHAPES = 256;
+
+	private static final ConcurrentMap<Class<?>, ConcurrentMap<String, Compiled>> QUERIES = new ConcurrentHashMap<>();
+
+	private static final ConversionService CONVERSIONS = new DefaultFormattingConversionService();
+
+	private FilterQueries() {
+	}
+
+	@NonNull
+	static <T> List<T> findAll(@NonNull final JpaRepo<T, ?> repo, @NonNull final Filter filter, @NonNull final Sort sort) {
+		Class<T> entityClass = FieldsUpdate.entityClassOf(repo);
+		EntityManager em = EntityManagerLocator.get(entityClass);
+		Compiled compiled = compile(em, entityClass, filter);
+		if (repo.restriction() != null) {
+			return repo.findAll(specificationOf(repo, compiled, filter), sort);
+		}
+		return query(em, QueryUtils.applySorting(compiled.select, sort, ALIAS), entityClass, compiled, filter).getResultList();
+	}
+
+	@NonNull
+	static <T> Page<T> findPage(@NonNull final JpaRepo<T, ?> repo, @NonNull final Filter filter, @NonNull final Pageable pageable) {
+		Class<T> entityClass = FieldsUpdate.entityClassOf(repo);
+		EntityManager em = EntityManagerLocator.get(entityClass);
+		Compiled compiled = compile(em, entityClass, filter);
+		if (repo.restriction() != null) {
+			return repo.findAll(specificationOf(repo, compiled, filter), pageable);
+		}
+		TypedQuery<T> query = query(em, QueryUtils.applySorting(compiled.select, pageable.getSort(), ALIAS), entityClass, compiled, filter);
+		if (pageable.isPaged()) {
+			query.setFirstResult((int) pageable.getOffset());
+			query.setMaxResults(pageable.getPageSize());
+		}
+		return PageableExecutionUtils.getPage(query.getResultList(), pageable,
+				() -> query(em, compiled.count, Long.class, compiled, filter).getSingleResult());
+	}
+
+	static <T> long count(@NonNull final JpaRepo<T, ?> repo, @NonNull final Filter filter) {
+		Class<T> entityClass = FieldsUpdate.entityClassOf(repo);
+		EntityManager em = EntityManagerLocator.get(entityClass);
+		Compiled compiled = compile(em, entityClass, filter);
+		if (repo.restriction() != null) {
+			return repo.count(specificationOf(repo, compiled, filter));
+		}
+		return query(em, compiled.count, Long.class, compiled, filter).getSingleResult();
+	}
+
+	private static <R> TypedQuery<R> query(final EntityManager em, final String jpql, final Class<R> resultClass, final Compiled compiled, final Filter filter) {
+		TypedQuery<R> query = em.createQuery(jpql, resultClass);
+		List<Filter.Condition> conditions = filter.getConditions();
+		for (int i = 0; i < conditions.size(); i++) {
+			Filter.Condition condition = conditions.get(i);
+			if (condition.getOperator().hasValue()) {
+				query.setParameter("p" + i, valueOf(condition, compiled.types.get(i)));
+			}
+		}
+		return query;
+	}
+
+	private static <T> Specification<T> specificationOf(final JpaRepo<T, ?> repo, final Compiled compiled, final Filter filter) {
+		List<Filter.Condition> conditions = filter.getConditions();
+		Specification<T> spec = (root, query, cb) -> {
+			Predicate[] predicates = new Predicate[conditions.size()];
+			for (int i = 0; i < predicates.length; i++) {
+				predicates[i] = predicateOf(root, cb, conditions.get(i), compiled.types.get(i));
+			}
+			return cb.and(predicates);
+		};
+		return RestrictedQueries.restrict(repo, spec);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Predicate predicateOf(final Root<?> root, final CriteriaBuilder cb, final Filter.Condition condition, final Class<?> type) {
+		Path path = root;
+		for (String name : condition.getProperty().split("\\.")) {
+			path = path.get(name);
+		}
+		Object value = condition.getOperator().hasValue() ? valueOf(condition, type) : null;
+		switch (condition.getOperator()) {
+			case EQ: return cb.equal(path, value);
+			case NE: return cb.notEqual(path, value);
+			case GT: return cb.greaterThan(path, (Comparable) value);
+			case GE: return cb.greaterThanOrEqualTo(path, (Comparable) value);
+			case LT: return cb.lessThan(path, (Comparable) value);
+			case LE: return cb.lessThanOrEqualTo(path, (Comparable) value);
+			case IN: return path.in((Collection<?>) value);
+			case LIKE: return cb.like(path, (String) value);
+			case NULL: return cb.isNull(path);
+			case NOT_NULL: return cb.isNotNull(path);
+			default: throw new IllegalArgumentException("Unsupported filter operator " + condition.getOperator());
+		}
+	}
+
+	private static Compiled compile(final EntityManager em, final Class<?> entityClass, final Filter filter) {
+		ConcurrentMap<String, Compiled> queries = QUERIES.computeIfAbsent(entityClass, c -> new ConcurrentHashMap<>());
+		String shape = filter.getShape();
+		Compiled compiled = queries.get(shape);
+		if (compiled == null) {
+			compiled = new Compiled(em.getMetamodel(), entityClass, filter);
+			if (queries.size() < MAX_SHAPES) {
+				queries.putIfAbsent(shape, compiled);
+			}
+		}
+		return compiled;
+	}
+
+	private static Object valueOf(final Filter.Condition condition, final Class<?> type) {
+		Object value = Objects.requireNonNull(condition.getValue());
+		if (condition.getOperator() == Filter.Operator.LIKE) {
+			return value.toString();
+		}
+		if (condition.getOperator() == Filter.Operator.IN) {
+			Collection<?> values = (Collection<?>) value;
+			List<Object> result = new ArrayList<>(values.size());
+			for (Object element : values) {
+				result.add(convert(condition, element, type));
+			}
+			return result;
+		}
+		return convert(condition, value, type);
+	}
+
+	private static Object convert(final Filter.Condition condition, final Object value, final Class<?> type) {
+		try {
+			return CONVERSIONS.convert(value, type);
+		} catch (ConversionException e) {
+			throw new IllegalArgumentException("The value '" + value + "' of the filter condition '" + condition.getProperty() + "' can't be converted to " + type.getSimpleName(), e);
+		}
+	}
+
+	/**
+	 * The JPQL queries of the filter shape and the types of its properties.
+	 */
+	private static final class Compiled {
+		private final String select;
+		private final String count;
+		private final List<Class<?>> types;
+
+		private Compiled(final Metamodel metamodel, final Class<?> entityClass, final Filter filter) {
+			List<Filter.Condition> conditions = filter.getConditions();
+			types = new ArrayList<>(conditions.size());
+			StringBuilder where = new StringBuilder();
+			for (int i = 0; i < conditions.size(); i++) {
+				Filter.Condition condition = conditions.get(i);
+				types.add(ClassUtils.resolvePrimitiveIfNecessary(typeOf(metamodel, entityClass, condition.getProperty())));
+				where.append(i == 0 ? " where " : " and ").append(predicateOf(condition, i));
+			}
+			String entityName = metamodel.entity(entityClass).getName();
+			select = "select " + ALIAS + " from " + entityName + " " + ALIAS + where;
+			count = "select count(" + ALIAS + ") from " + entityName + " " + ALIAS + where;
+		}
+
+		private static String predicateOf(final Filter.Condition condition, final int index) {
+			String path = ALIAS + "." + condition.getProperty();
+			String parameter = ":p" + index;
+			switch (condition.getOperator()) {
+				case EQ: return path + " = " + parameter;
+				case NE: return path + " <> " + parameter;
+				case GT: return path + " > " + parameter;
+				case GE: return path + " >= " + parameter;
+				case LT: return path + " < " + parameter;
+				case LE: return path + " <= " + parameter;
+				case IN: return path + " in " + parameter;
+				case LIKE: return path + " like " + parameter;
+				case NULL: return path + " is null";
+				case NOT_NULL: return path + " is not null";
+				default: throw new IllegalArgumentException("Unsupported filter operator " + condition.getOperator());
+			}
+		}
+
+		/**
+		 * Resolves the type of the (single-valued) property path by the metamodel.
+		 *
+		 * @throws IllegalArgumentException if the property is unknown or it's a collection
+		 */
+		private static Class<?> typeOf(final Metamodel metamodel, final Class<?> entityClass, final String path) {
+			ManagedType<?> type = metamodel.managedType(entityClass);
+			String[] names = path.split("\\.");
+			Class<?> result = entityClass;
+			for (int i = 0; i < names.length; i++) {
+				Attribute<?, ?> attribute;
+				try {
+					attribute = type.getAttribute(names[i]);
+				} catch (IllegalArgumentException e) {
+					throw new IllegalArgumentException("Unknown filter property '" + path + "' of " + entityClass.getSimpleName(), e);
+				}
+				if (attribute.isCollection()) {
+					throw new IllegalArgumentException("The filter property '" + path + "' must not be a collection");
+				}
+				result = attribute.getJavaType();
+				if (i < names.length - 1) {
+					if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+						throw new IllegalArgumentException("Unknown filter property '" + path + "' of " + entityClass.getSimpleName());
+					}
+					type = metamodel.managedType(result);
+				}
+			}
+			return result;
+		}
+	}
+}
@@ -18,22 +18,36 @@ package io.github.cepr0.crud.repo;
 
 import io.github.cepr0.crud.model.IdentifiableEntity;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import static io.github.cepr0.crud.support.CrudUtils.partition;
 
 /**
  * Implementation of {@link CrudRepo} which extends {@link JpaRepository} and all it functionality.
+ * <p>
+ * The entities can be restricted at the repository level (to filter out the 'soft deleted' entities, for example)
+ * by overriding {@link JpaRepo#restriction()}, which is applied to the queries of the repository methods.
  *
  * @param <T> type of the entity which extends {@link IdentifiableEntity}
  * @param <ID> type of the entity identifier
@@ -41,7 +55,25 @@ import java.util.function.BiFunction;
  */
 @Transactional
 @NoRepositoryBean
-public interface JpaRepo<T extends IdentifiableEntity<ID>, ID extends Serializable> extends CrudRepo<T, ID>, JpaRepository<T, ID> {
+public interface JpaRepo<T extends IdentifiableEntity<ID>, ID extends Serializable> extends CrudRepo<T, ID>, JpaRepository<T, ID>, JpaSpecificationExecutor<T>, FilterRepo<T> {
+
+	/**
+	 * Returns the restriction of the entities which are available through this repository, for example:
+	 * <pre>{@code
+	 * default Specification<Model> restriction() {
+	 *     return (root, query, cb) -> cb.isFalse(root.get("deleted"));
+	 * }
+	 * }</pre>
+	 * The restriction is applied to the queries of the {@link CrudRepo} methods (including the {@code update}
+	 * statement of {@link JpaRepo#updateFields}, where the criteria query passed to it is {@code null}), but not
+	 * to the inherited methods of {@link JpaRepository}, such as {@code findById}. Not restricted by default.
+	 *
+	 * @return the restriction or {@code null} if the entities are not restricted
+	 */
+	@Nullable
+	default Specification<T> restriction() {
+		return null;
+	}
 
 	@NonNull
 	@Override
@@ -59,7 +91,9 @@ public interface JpaRepo<T extends IdentifiableEntity<ID>, ID extends Serializab
 	 */
 	@Transactional(readOnly = true)
 	@NonNull
-	Optional<T> getToUpdateById(@NonNull ID id);
+	default Optional<T> getToUpdateById(@NonNull final ID id) {
+		return getById(id);
+	}
 
 	@NonNull
 	@Override
@@ -69,6 +103,28 @@ public interface JpaRepo<T extends IdentifiableEntity<ID>, ID extends Serializab
 		return getToUpdateById(id).map(target -> mapper.apply(source, target));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entity is updated with one criteria {@code UPDATE} statement, which sets the given properties, increments
+	 * the numeric {@code @Version} of the entity (if any) and checks it against the given version.
+	 * Then the updated entity is loaded (or refreshed if it's already in the current persistence context).
+	 * <p>
+	 * The statement is restricted with {@link JpaRepo#restriction()}, so the restriction must not depend on
+	 * the criteria query passed to it (which is {@code null} in this case). Note that the bulk update doesn't invoke
+	 * the entity lifecycle callbacks, such as {@code @PreUpdate}, {@code @UpdateTimestamp} or auditing.
+	 *
+	 * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the entity is found
+	 * but its version differs from the given one
+	 */
+	@NonNull
+	@Override
+	default Optional<T> updateFields(@NonNull final ID id, @Nullable final Object version, @NonNull final Map<String, ?> fields) {
+		Objects.requireNonNull(id, "The given id must not be null!");
+		Objects.requireNonNull(fields, "The given fields must not be null!");
+		return FieldsUpdate.execute(this, id, version, fields);
+	}
+
 	/**
 	 * Retrieves an entity to be deleted, by its id.
 	 * Used in {@link JpaRepo#del} method.
@@ -78,7 +134,9 @@ public interface JpaRepo<T extends IdentifiableEntity<ID>, ID extends Serializab
 	 */
 	@Transactional(readOnly = true)
 	@NonNull
-	Optional<T> getToDeleteById(@NonNull ID id);
+	default Optional<T> getToDeleteById(@NonNull final ID id) {
+		return getById(id);
+	}
 
 	@Override
 	default Optional<T> del(@NonNull final ID id) {
@@ -88,26 +146,409 @@ public interface JpaRepo<T extends IdentifiableEntity<ID>, ID extends Serializab
 		});
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are saved with {@link JpaRepository#saveAll} by chunks of {@link JpaRepo#batchSize()} size,
+	 * the persistence context is flushed after each chunk, so the inserts can be grouped into the JDBC batches
+	 * (if {@code hibernate.jdbc.batch_size} property is set).
+	 */
+	@NonNull
+	@Override
+	default List<T> createAll(@NonNull final Collection<T> entities) {
+		Objects.requireNonNull(entities, "The given entities must not be null!");
+		List<T> result = new ArrayList<>(entities.size());
+		for (List<T> chunk : partition(entities, batchSize())) {
+			result.addAll(saveAll(chunk));
+			flush();
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieves entities to be updated, by their ids.
+	 * Used in the {@link JpaRepo#updateAll} method. If you override {@link JpaRepo#getToUpdateById}
+	 * you should override this method accordingly.
+	 *
+	 * @param ids must not be {@code null}
+	 * @return the found entities
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	default List<T> getToUpdateByIdIn(@NonNull final Collection<ID> ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		return findAll(RestrictedQueries.restrict(this, RestrictedQueries.idIn(ids)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are read with {@link JpaRepo#getToUpdateByIdIn} by chunks of {@link JpaRepo#batchSize()} size,
+	 * the persistence context is flushed after each chunk.
+	 */
+	@NonNull
+	@Override
+	default <S> List<T> updateAll(@NonNull final Map<ID, S> sources, @NonNull final BiFunction<S, T, T> mapper) {
+		Objects.requireNonNull(sources, "The given sources must not be null!");
+		Objects.requireNonNull(mapper, "The given mapper must not be null!");
+		List<T> result = new ArrayList<>(sources.size());
+		for (List<ID> chunk : partition(sources.keySet(), batchSize())) {
+			for (T target : getToUpdateByIdIn(chunk)) {
+				result.add(mapper.apply(sources.get(target.getId()), target));
+			}
+			flush();
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieves entities to be deleted, by their ids.
+	 * Used in the {@link JpaRepo#delAll} method. If you override {@link JpaRepo#getToDeleteById}
+	 * you should override this method accordingly.
+	 *
+	 * @param ids must not be {@code null}
+	 * @return the found entities
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	default List<T> getToDeleteByIdIn(@NonNull final Collection<ID> ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		return findAll(RestrictedQueries.restrict(this, RestrictedQueries.idIn(ids)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are read with {@link JpaRepo#getToDeleteByIdIn} and deleted with {@link JpaRepo#delete}
+	 * by chunks of {@link JpaRepo#batchSize()} size, the persistence context is flushed after each chunk.
+	 */
+	@NonNull
+	@Override
+	default List<T> delAll(@NonNull final Collection<ID> ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		List<T> result = new ArrayList<>(ids.size());
+		for (List<ID> chunk : partition(ids, batchSize())) {
+			for (T found : getToDeleteByIdIn(chunk)) {
+				delete(found);
+				result.add(found);
+			}
+			flush();
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Detaches the given entities from the current persistence context (if any).
+	 * Note that the pending changes of the entities must be flushed before.
+	 */
+	@Override
+	default void detach(@NonNull final Collection<T> entities) {
+		Objects.requireNonNull(entities, "The given entities must not be null!");
+		if (entities.isEmpty()) {
+			return;
+		}
+		EntityManagerLocator.find(entities.iterator().next().getClass()).ifPresent(em -> {
+			for (T entity : entities) {
+				if (em.contains(entity)) em.detach(entity);
+			}
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entity is read with {@link JpaRepository#findById} or, if the repository is restricted
+	 * (see {@link JpaRepo#restriction()}), with the restricted query.
+	 */
 	@Transactional(readOnly = true)
 	@NonNull
 	@Override
-	Optional<T> getById(@NonNull ID id);
+	default Optional<T> getById(@NonNull final ID id) {
+		Objects.requireNonNull(id, "The given id must not be null!");
+		Specification<T> restriction = restriction();
+		return restriction != null ? findOne(restriction.and(RestrictedQueries.idEquals(id))) : findById(id);
+	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The plan is passed to {@code EntityManager#find} (or to the restricted criteria query, if the repository
+	 * is restricted) as the 'fetch graph' (the named entity graph or the one built from the attribute paths).
+	 */
 	@Transactional(readOnly = true)
-	@Query("select e from #{#entityName} e")
 	@NonNull
 	@Override
-	List<T> getAll();
+	default Optional<T> getById(@NonNull final ID id, @Nullable final FetchPlan plan) {
+		Objects.requireNonNull(id, "The given id must not be null!");
+		return plan != null ? FetchPlanQueries.findById(this, id, plan) : getById(id);
+	}
+
+	/**
+	 * Retrieves entities by their ids with the restricted {@code 'in'} query.
+	 * Used in the {@link JpaRepo#getAllById} method.
+	 *
+	 * @param ids must not be {@code null}
+	 * @return the found entities
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	default List<T> getByIdIn(@NonNull final Collection<ID> ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		return findAll(RestrictedQueries.restrict(this, RestrictedQueries.idIn(ids)));
+	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are read with {@link JpaRepo#getByIdIn} by chunks of {@link JpaRepo#batchSize()} size
+	 * (i.e. with one {@code 'in'} query per chunk).
+	 */
 	@Transactional(readOnly = true)
-	@Query("select e from #{#entityName} e")
 	@NonNull
 	@Override
-	Page<T> getAll(@NonNull Pageable pageable);
+	default List<T> getAllById(@NonNull final Collection<ID> ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		List<T> result = new ArrayList<>(ids.size());
+		for (List<ID> chunk : partition(ids, batchSize())) {
+			result.addAll(getByIdIn(chunk));
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The version is read with the restricted criteria query {@code 'select e.version from ... e where e.id = ?'}.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default Optional<Object> getVersionById(@NonNull final ID id) {
+		Objects.requireNonNull(id, "The given id must not be null!");
+		return FieldsUpdate.findVersion(this, id);
+	}
+
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default List<T> getAll() {
+		return findAll(restriction());
+	}
+
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default Page<T> getAll(@NonNull final Pageable pageable) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		return findAll(restriction(), pageable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are read with the restricted criteria query with the 'fetch graph' hint, and counted with
+	 * {@link JpaRepo#countAll()}. Note that Hibernate paginates the entities in memory if the plan includes a collection.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default Page<T> getAll(@NonNull final Pageable pageable, @Nullable final FetchPlan plan) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		return plan != null ? FetchPlanQueries.findPage(this, pageable, plan) : getAll(pageable);
+	}
 
 	@Transactional(readOnly = true)
-	@Query("select e from #{#entityName} e")
 	@NonNull
 	@Override
-	List<T> getAll(@NonNull Sort sort);
+	default List<T> getAll(@NonNull final Sort sort) {
+		Objects.requireNonNull(sort, "The given sort must not be null!");
+		return findAll(restriction(), sort);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are read with the restricted criteria query with the 'fetch graph' hint.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default List<T> getAll(@NonNull final Sort sort, @Nullable final FetchPlan plan) {
+		Objects.requireNonNull(sort, "The given sort must not be null!");
+		return plan != null ? FetchPlanQueries.findAll(this, sort, plan) : getAll(sort);
+	}
+
+	@Transactional(readOnly = true)
+	@Override
+	default long countAll() {
+		return count(restriction());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The filter is compiled to the JPQL query with parameters, which is cached by the shape of the filter,
+	 * or, if the repository is restricted, executed as the criteria query combined with the restriction.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default Page<T> getAllBy(@NonNull final Filter filter, @NonNull final Pageable pageable) {
+		Objects.requireNonNull(filter, "The given filter must not be null!");
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		return FilterQueries.findPage(this, filter, pageable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The filter is compiled to the JPQL query with parameters, which is cached by the shape of the filter.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default List<T> getAllBy(@NonNull final Filter filter, @NonNull final Sort sort) {
+		Objects.requireNonNull(filter, "The given filter must not be null!");
+		Objects.requireNonNull(sort, "The given sort must not be null!");
+		return FilterQueries.findAll(this, filter, sort);
+	}
+
+	@Transactional(readOnly = true)
+	@Override
+	default long countBy(@NonNull final Filter filter) {
+		Objects.requireNonNull(filter, "The given filter must not be null!");
+		return FilterQueries.count(this, filter);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are read with the restricted criteria query, which fetches one extra entity
+	 * to determine whether the next slice exists.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default Slice<T> getSlice(@NonNull final Pageable pageable) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		return RestrictedQueries.findSlice(this, null, pageable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are read with the restricted criteria query with the 'fetch graph' hint.
+	 * Note that Hibernate paginates the entities in memory if the plan includes a collection.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default Slice<T> getSlice(@NonNull final Pageable pageable, @Nullable final FetchPlan plan) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		return plan != null ? FetchPlanQueries.findSlice(this, pageable, plan) : getSlice(pageable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The (given) properties of the projection are selected by the restricted criteria query as a tuple,
+	 * and the page is counted with {@link JpaRepo#countAll()}.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default <P> Page<P> getAllAs(@NonNull final Pageable pageable, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		Objects.requireNonNull(projection, "The given projection must not be null!");
+		return ProjectionQueries.findPage(this, pageable, projection, properties);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The (given) properties of the projection are selected by the criteria query as a tuple.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default <P> Slice<P> getSliceAs(@NonNull final Pageable pageable, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		Objects.requireNonNull(projection, "The given projection must not be null!");
+		return ProjectionQueries.findSlice(this, pageable, projection, properties);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The (given) properties of the projection are selected by the criteria query as a tuple.
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default <P> List<P> getAllAs(@NonNull final Sort sort, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		Objects.requireNonNull(sort, "The given sort must not be null!");
+		Objects.requireNonNull(projection, "The given projection must not be null!");
+		return ProjectionQueries.findAll(this, sort, projection, properties);
+	}
+
+	/**
+	 * Returns a {@link Slice} of entities which ids are greater than the given one. Used in the {@link JpaRepo#getAfter} method.
+	 * The entities are read with the restricted criteria query.
+	 *
+	 * @param id must not be {@code null}
+	 * @param pageable must not be {@code null}
+	 * @return a slice of entities
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	default Slice<T> getByIdGreaterThan(@NonNull final ID id, @NonNull final Pageable pageable) {
+		Objects.requireNonNull(id, "The given id must not be null!");
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		return RestrictedQueries.findSlice(this, RestrictedQueries.idGreaterThan(id), pageable);
+	}
+
+	/**
+	 * Returns a {@link Slice} of entities which ids are less than the given one. Used in the {@link JpaRepo#getAfter} method.
+	 * The entities are read with the restricted criteria query.
+	 *
+	 * @param id must not be {@code null}
+	 * @param pageable must not be {@code null}
+	 * @return a slice of entities
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	default Slice<T> getByIdLessThan(@NonNull final ID id, @NonNull final Pageable pageable) {
+		Objects.requireNonNull(id, "The given id must not be null!");
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		return RestrictedQueries.findSlice(this, RestrictedQueries.idLessThan(id), pageable);
+	}
+
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default Slice<T> getAfter(@Nullable final ID lastId, final int size, @NonNull final Sort.Direction direction) {
+		Objects.requireNonNull(direction, "The given direction must not be null!");
+		Pageable pageable = PageRequest.of(0, size, Sort.by(direction, "id"));
+		if (lastId == null) {
+			return getSlice(pageable);
+		}
+		return direction.isAscending() ? getByIdGreaterThan(lastId, pageable) : getByIdLessThan(lastId, pageable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are read with the restricted criteria query. The stream is backed by Hibernate
+	 * {@code ScrollableResults}, so the rows are fetched from the database by portions of
+	 * {@code hibernate.jdbc.fetch_size} size (if it's configured).
+	 */
+	@Transactional(readOnly = true)
+	@NonNull
+	@Override
+	default Stream<T> streamAll(@NonNull final Sort sort) {
+		Objects.requireNonNull(sort, "The given sort must not be null!");
+		return RestrictedQueries.stream(this, sort);
+	}
 }
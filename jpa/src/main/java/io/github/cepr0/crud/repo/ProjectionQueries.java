@@ -0,0 +1,205 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.cepr0.crud.repo;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.model.PreferredConstructorDiscoverer;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Performs the projection reads of {@link JpaRepo}: the criteria query selects only the properties of the projection
+ * (as a {@link Tuple}), so the entities are neither instantiated nor tracked by the persistence context.
+ * <p>
+ * The tuples are converted to the interface projections with {@link ProjectionFactory} and to the class projections
+ * with their preferred constructor. The constructor is invoked here, not by the JPA constructor expression,
+ * so it may be non-public (as the one generated for Lombok {@code @Value} and {@code @Builder}).
+ * <p>
+ * If only some properties of the projection are requested (the 'sparse fieldset'), only they are selected,
+ * and the other ones are left {@code null}. The entities are restricted with {@link JpaRepo#restriction()}.
+ *
+ * @author Sergei Poznanski
+ */
+final class ProjectionQueries {
+
+	private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+	private static final ConcurrentMap<Class<?>, Shape<?>> SHAPES = new ConcurrentHashMap<>();
+
+	private ProjectionQueries() {
+	}
+
+	@NonNull
+	static <T, P> List<P> findAll(@NonNull final JpaRepo<T, ?> repo, @NonNull final Sort sort, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		Shape<P> shape = shapeOf(projection).select(properties);
+		return query(repo, sort, shape).getResultList().stream().map(shape).collect(Collectors.toList());
+	}
+
+	@NonNull
+	static <T, P> Page<P> findPage(@NonNull final JpaRepo<T, ?> repo, @NonNull final Pageable pageable, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		if (pageable.isUnpaged()) {
+			return new PageImpl<>(findAll(repo, pageable.getSort(), projection, properties));
+		}
+		Shape<P> shape = shapeOf(projection).select(properties);
+		TypedQuery<Tuple> query = query(repo, pageable.getSort(), shape);
+		query.setFirstResult((int) pageable.getOffset());
+		query.setMaxResults(pageable.getPageSize());
+		List<P> content = query.getResultList().stream().map(shape).collect(Collectors.toList());
+		return PageableExecutionUtils.getPage(content, pageable, repo::countAll);
+	}
+
+	@NonNull
+	static <T, P> Slice<P> findSlice(@NonNull final JpaRepo<T, ?> repo, @NonNull final Pageable pageable, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		if (pageable.isUnpaged()) {
+			return new SliceImpl<>(findAll(repo, pageable.getSort(), projection, properties), pageable, false);
+		}
+		Shape<P> shape = shapeOf(projection).select(properties);
+		TypedQuery<Tuple> query = query(repo, pageable.getSort(), shape);
+		query.setFirstResult((int) pageable.getOffset());
+		query.setMaxResults(pageable.getPageSize() + 1);
+		List<P> content = query.getResultList().stream().map(shape).collect(Collectors.toList());
+		boolean hasNext = content.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+	}
+
+	private static <T> TypedQuery<Tuple> query(final JpaRepo<T, ?> repo, final Sort sort, final Shape<?> shape) {
+		Class<T> entityClass = FieldsUpdate.entityClassOf(repo);
+		EntityManager em = EntityManagerLocator.get(entityClass);
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+		Root<T> root = criteria.from(entityClass);
+		List<Selection<?>> selections = new ArrayList<>(shape.properties.size());
+		for (String property : shape.properties) {
+			selections.add(root.get(property).alias(property));
+		}
+		criteria.multiselect(selections);
+		Predicate restriction = RestrictedQueries.restrict(repo, root, criteria, cb, null);
+		if (restriction != null) {
+			criteria.where(restriction);
+		}
+		if (sort.isSorted()) {
+			criteria.orderBy(QueryUtils.toOrders(sort, root, cb));
+		}
+		return em.createQuery(criteria);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <P> Shape<P> shapeOf(final Class<P> projection) {
+		return (Shape<P>) SHAPES.computeIfAbsent(projection, ProjectionQueries::createShape);
+	}
+
+	private static <P> Shape<P> createShape(final Class<P> projection) {
+		if (projection.isInterface()) {
+			List<String> properties = PROJECTIONS.getProjectionInformation(projection).getInputProperties().stream()
+					.map(PropertyDescriptor::getName)
+					.collect(Collectors.toList());
+			return new Shape<>(properties, values -> PROJECTIONS.createProjection(projection, values));
+		}
+
+		PreferredConstructor<P, ?> preferred = PreferredConstructorDiscoverer.discover(projection);
+		if (preferred == null || !preferred.hasParameters()) {
+			throw new IllegalArgumentException("The projection class " + projection.getName() + " must have a constructor with parameters");
+		}
+		List<String> properties = new ArrayList<>();
+		for (PreferredConstructor.Parameter<Object, ?> parameter : preferred.getParameters()) {
+			if (parameter.getName() == null) {
+				throw new IllegalArgumentException("The constructor parameter names of " + projection.getName() + " are not available");
+			}
+			properties.add(parameter.getName());
+		}
+		Constructor<P> constructor = preferred.getConstructor();
+		Class<?>[] types = constructor.getParameterTypes();
+		return new Shape<>(properties, values -> {
+			Object[] args = new Object[types.length];
+			for (int i = 0; i < args.length; i++) {
+				Object value = values.get(properties.get(i));
+				args[i] = value == null && types[i].isPrimitive() ? Array.get(Array.newInstance(types[i], 1), 0) : value;
+			}
+			return BeanUtils.instantiateClass(constructor, args);
+		});
+	}
+
+	/**
+	 * The selected properties of the projection and the function which creates the projection from their values.
+	 */
+	private static final class Shape<P> implements Function<Tuple, P> {
+		private final List<String> properties;
+		private final Function<Map<String, Object>, P> factory;
+
+		private Shape(final List<String> properties, final Function<Map<String, Object>, P> factory) {
+			this.properties = properties;
+			this.factory = factory;
+		}
+
+		/**
+		 * Returns the shape which selects only the given properties of the projection (in their original order),
+		 * the values of the other ones are {@code null} (or the default values of the primitive types).
+		 */
+		private Shape<P> select(@Nullable final Set<String> selected) {
+			if (selected == null) {
+				return this;
+			}
+			List<String> filtered = properties.stream().filter(selected::contains).collect(Collectors.toList());
+			if (filtered.isEmpty()) {
+				throw new IllegalArgumentException("None of the properties " + selected + " belongs to the projection");
+			}
+			return filtered.size() == properties.size() ? this : new Shape<>(filtered, factory);
+		}
+
+		@Override
+		public P apply(final Tuple tuple) {
+			Map<String, Object> values = new HashMap<>(properties.size() * 2);
+			for (String property : properties) {
+				values.put(property, tuple.get(property));
+			}
+			return factory.apply(values);
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.cepr0.crud.repo;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Applies the restriction of {@link JpaRepo} (see {@link JpaRepo#restriction()}) to the queries of the repository,
+ * and performs its restricted reads which are not provided by {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor}.
+ *
+ * @author Sergei Poznanski
+ */
+final class RestrictedQueries {
+
+	private static final String ID = "id";
+
+	private RestrictedQueries() {
+	}
+
+	/**
+	 * Returns the given specification combined with the restriction of the repository (if any).
+	 */
+	@NonNull
+	static <T> Specification<T> restrict(@NonNull final JpaRepo<T, ?> repo, @NonNull final Specification<T> spec) {
+		Specification<T> restriction = repo.restriction();
+		return restriction != null ? restriction.and(spec) : spec;
+	}
+
+	/**
+	 * Returns the given predicate of the criteria query (or update, then the query is {@code null}) combined
+	 * with the restriction of the repository, or the given predicate only if the repository isn't restricted.
+	 */
+	@Nullable
+	static <T> Predicate restrict(
+			@NonNull final JpaRepo<T, ?> repo,
+			@NonNull final Root<T> root,
+			@Nullable final CriteriaQuery<?> query,
+			@NonNull final CriteriaBuilder cb,
+			@Nullable final Predicate predicate
+	) {
+		Specification<T> restriction = repo.restriction();
+		Predicate restricted = restriction != null ? restriction.toPredicate(root, query, cb) : null;
+		if (restricted == null) {
+			return predicate;
+		}
+		return predicate != null ? cb.and(predicate, restricted) : restricted;
+	}
+
+	/**
+	 * Returns the slice of the entities read with the restricted criteria query, which fetches one extra entity
+	 * to determine whether the next slice exists (so the entities are not counted).
+	 */
+	@NonNull
+	static <T> Slice<T> findSlice(@NonNull final JpaRepo<T, ?> repo, @Nullable final Specification<T> spec, @NonNull final Pageable pageable) {
+		TypedQuery<T> query = query(repo, spec, pageable.getSort());
+		if (pageable.isUnpaged()) {
+			return new SliceImpl<>(query.getResultList(), pageable, false);
+		}
+		query.setFirstResult((int) pageable.getOffset());
+		query.setMaxResults(pageable.getPageSize() + 1);
+		List<T> content = query.getResultList();
+		boolean hasNext = content.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+	}
+
+	/**
+	 * Returns the stream of the entities read with the restricted criteria query. The stream is backed by
+	 * Hibernate {@code ScrollableResults}, so it must be consumed (and closed) within the transaction.
+	 */
+	@NonNull
+	static <T> Stream<T> stream(@NonNull final JpaRepo<T, ?> repo, @NonNull final Sort sort) {
+		return query(repo, null, sort).getResultStream();
+	}
+
+	private static <T> TypedQuery<T> query(final JpaRepo<T, ?> repo, @Nullable final Specification<T> spec, final Sort sort) {
+		Class<T> entityClass = FieldsUpdate.entityClassOf(repo);
+		EntityManager em = EntityManagerLocator.get(entityClass);
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<T> criteria = cb.createQuery(entityClass);
+		Root<T> root = criteria.from(entityClass);
+		criteria.select(root);
+		Predicate where = restrict(repo, root, criteria, cb, spec != null ? spec.toPredicate(root, criteria, cb) : null);
+		if (where != null) {
+			criteria.where(where);
+		}
+		if (sort.isSorted()) {
+			criteria.orderBy(QueryUtils.toOrders(sort, root, cb));
+		}
+		return em.createQuery(criteria);
+	}
+
+	@NonNull
+	static <T> Specification<T> idEquals(@NonNull final Object id) {
+		return (root, query, cb) -> cb.equal(root.get(ID), id);
+	}
+
+	@NonNull
+	static <T> Specification<T> idIn(@NonNull final Collection<?> ids) {
+		return (root, query, cb) -> root.get(ID).in(ids);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	@NonNull
+	static <T> Specification<T> idGreaterThan(@NonNull final Object id) {
+		return (root, query, cb) -> cb.greaterThan(root.get(ID), (Comparable) id);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	@NonNull
+	static <T> Specification<T> idLessThan(@NonNull final Object id) {
+		return (root, query, cb) -> cb.lessThan(root.get(ID), (Comparable) id);
+	}
+}
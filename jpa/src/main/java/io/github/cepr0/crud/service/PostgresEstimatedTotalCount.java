@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@link TotalCountProvider} which estimates the total number of rows of the given PostgreSQL table
+ * with the planner statistics ({@code pg_class.reltuples}), instead of executing {@code count(*)} query.
+ * <p>
+ * The estimation is as accurate as the statistics, which is updated by {@code VACUUM}, {@code ANALYZE}
+ * and some DDL commands. If the table has never been analyzed, the provider returns {@code null},
+ * so the exact count query is executed.
+ * <p>
+ * Note that the estimation takes into account all rows of the table, so it's not suitable for the repositories
+ * with the filtered {@code getAll} methods (a 'soft delete', for example).
+ *
+ * @author Sergei Poznanski
+ */
+public class PostgresEstimatedTotalCount implements TotalCountProvider {
+
+	private static final String QUERY = "select cast(reltuples as bigint) from pg_class where oid = to_regclass(?)";
+
+	private final JdbcOperations jdbc;
+	private final String tableName;
+
+	/**
+	 * @param jdbc must not be {@code null}
+	 * @param tableName name of the table, can be qualified by the schema name, must not be {@code null}
+	 */
+	public PostgresEstimatedTotalCount(@NonNull final JdbcOperations jdbc, @NonNull final String tableName) {
+		this.jdbc = Objects.requireNonNull(jdbc, "Parameter 'jdbc' must not be null!");
+		this.tableName = Objects.requireNonNull(tableName, "Parameter 'tableName' must not be null!");
+	}
+
+	@Nullable
+	@Override
+	public Long getTotal() {
+		List<Long> result = jdbc.queryForList(QUERY, Long.class, tableName);
+		if (result.isEmpty() || result.get(0) == null || result.get(0) <= 0) {
+			// the table is not found or has never been analyzed (reltuples is -1 in PG 14+ and 0 in earlier versions)
+			return null;
+		}
+		return result.get(0);
+	}
+}
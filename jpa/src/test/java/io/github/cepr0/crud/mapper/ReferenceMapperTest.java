@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.mapper;
+
+import io.github.cepr0.crud.repo.JpaRepo;
+import io.github.cepr0.test.model.Model;
+import io.github.cepr0.test.repo.ModelRepo;
+import io.github.cepr0.test.repo.RestrictedModelRepo;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.Persistence;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Sergei Poznanski
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@ActiveProfiles("test")
+@Sql(statements = {
+		"delete from models",
+		"insert into models (id, version, text, number) values (1, 0, 'text1', 1)",
+		"insert into models (id, version, text, number) values (2, 0, 'text2', 2)",
+		"insert into models (id, version, text, number) values (3, 0, 'text3', 3)"
+})
+public class ReferenceMapperTest {
+
+	@Autowired private ModelRepo modelRepo;
+	@Autowired private RestrictedModelRepo restrictedRepo;
+
+	@Test
+	public void loadedInBulk() {
+		List<Model> models = mapper(false).toRefList(asList(3, 1, 3, 2));
+
+		assertThat(ids(models)).containsExactly(3, 1, 3, 2);
+		assertThat(models).allMatch(Persistence.getPersistenceUtil()::isLoaded);
+	}
+
+	@Test
+	public void missingAreReferencedWithoutValidation() {
+		List<Model> models = mapper(false).toRefList(asList(1, 4));
+
+		assertThat(models).hasSize(2);
+		assertThat(models.get(0).getId()).isEqualTo(1);
+		assertThat(Persistence.getPersistenceUtil().isLoaded(models.get(0))).isTrue();
+		assertThat(Persistence.getPersistenceUtil().isLoaded(models.get(1))).isFalse();
+	}
+
+	@Test
+	public void missingAreFailedWithValidation() {
+		assertThat(mapper(true).toRefSet(asList(1, 2, 3))).hasSize(3);
+
+		assertThatThrownBy(() -> mapper(true).toRefSet(asList(1, 4, 5)))
+				.isInstanceOf(EntityNotFoundException.class)
+				.hasMessageContaining("[4, 5]");
+		assertThatThrownBy(() -> mapper(true).toReference(4))
+				.isInstanceOf(EntityNotFoundException.class);
+	}
+
+	@Sql(statements = {
+			"delete from models",
+			"insert into models (id, version, text, number) values (1, 0, 'text1', 1)",
+			"insert into models (id, version, text, number) values (2, 0, 'hidden', 2)"
+	})
+	@Test
+	public void restrictedAreFailedWithValidation() {
+		assertThatThrownBy(() -> mapper(restrictedRepo, true).toRefList(asList(1, 2)))
+				.isInstanceOf(EntityNotFoundException.class)
+				.hasMessageContaining("[2]");
+		assertThatThrownBy(() -> mapper(restrictedRepo, true).toReference(2))
+				.isInstanceOf(EntityNotFoundException.class);
+		assertThat(mapper(restrictedRepo, true).toReference(1).getId()).isEqualTo(1);
+	}
+
+	@Test
+	public void primitiveIds() {
+		IntReferenceMapper<Model> mapper = () -> modelRepo;
+
+		List<Model> models = mapper.toRefList(new int[]{3, 1, 2});
+		assertThat(ids(models)).containsExactly(3, 1, 2);
+		assertThat(mapper.toRefSet(new int[]{1, 1, 2})).hasSize(2);
+		assertThat(mapper.toIdArray(models)).containsExactly(3, 1, 2);
+	}
+
+	private ReferenceMapper<Model, Integer> mapper(final boolean validate) {
+		return mapper(modelRepo, validate);
+	}
+
+	private ReferenceMapper<Model, Integer> mapper(final JpaRepo<Model, Integer> repo, final boolean validate) {
+		return new ReferenceMapper<Model, Integer>() {
+			@NonNull
+			@Override
+			public JpaRepo<Model, Integer> getRepo() {
+				return repo;
+			}
+
+			@Override
+			public boolean loadReferencesInBulk() {
+				return true;
+			}
+
+			@Override
+			public boolean validateReferences() {
+				return validate;
+			}
+
+			@Override
+			public int referenceChunkSize() {
+				return 2;
+			}
+		};
+	}
+
+	private static List<Integer> ids(final List<Model> models) {
+		return models.stream().map(Model::getId).collect(Collectors.toList());
+	}
+
+	@Configuration
+	@EnableJpaRepositories("io.github.cepr0.test.repo")
+	@EntityScan("io.github.cepr0.test.model")
+	public static class Config {
+	}
+}
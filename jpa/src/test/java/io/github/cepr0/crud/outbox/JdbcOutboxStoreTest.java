@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.outbox;
+
+import io.github.cepr0.test.event.CreateModelEvent;
+import io.github.cepr0.test.model.Model;
+import io.github.cepr0.test.service.ModelService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+/**
+ * @author Sergei Poznanski
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Transactional(propagation = NOT_SUPPORTED)
+@ActiveProfiles("test")
+@Sql(statements = {
+		"create table if not exists outbox (id bigint auto_increment primary key, event_type varchar(255) not null, entity_type varchar(255) not null, entity_id varchar(255) not null, payload varbinary(4096) not null, created_at timestamp not null)",
+		"delete from outbox",
+		"delete from models"
+})
+public class JdbcOutboxStoreTest {
+
+	@Autowired private ModelService modelService;
+	@Autowired private JdbcOutboxStore store;
+
+	@Test
+	public void savedWithEntity() {
+		Model model = modelService.create(new Model("model", 1));
+
+		List<OutboxMessage> messages = store.poll(10);
+		assertThat(messages).hasSize(1);
+		OutboxMessage message = messages.get(0);
+		assertThat(message.getId()).isNotNull();
+		assertThat(message.getEventType()).isEqualTo(CreateModelEvent.class.getName());
+		assertThat(message.getEntityType()).isEqualTo(Model.class.getName());
+		assertThat(message.getEntityId()).isEqualTo(String.valueOf(model.getId()));
+		assertThat(new String(message.getPayload(), UTF_8)).isEqualTo("model");
+	}
+
+	@Test
+	public void notStoredEventsAreSkipped() {
+		Model model = modelService.create(new Model("model", 1));
+		modelService.delete(model.getId());
+
+		assertThat(store.poll(10)).hasSize(1);
+	}
+
+	@Test
+	public void relayed() {
+		modelService.create(new Model("model1", 1));
+		modelService.create(new Model("model2", 2));
+		modelService.create(new Model("model3", 3));
+
+		List<List<OutboxMessage>> batches = new ArrayList<>();
+		OutboxRelay relay = new OutboxRelay(store, batches::add, 2, Duration.ofSeconds(1));
+
+		assertThat(relay.relay()).isEqualTo(3);
+		assertThat(batches).hasSize(2);
+		assertThat(payloads(batches.get(0))).containsExactly("model1", "model2");
+		assertThat(batches.get(1)).hasSize(1);
+		assertThat(store.poll(10)).isEmpty();
+	}
+
+	private static List<String> payloads(final List<OutboxMessage> messages) {
+		return messages.stream().map(message -> new String(message.getPayload(), UTF_8)).collect(Collectors.toList());
+	}
+
+	@Configuration
+	@EnableJpaRepositories("io.github.cepr0.test.repo")
+	@EntityScan("io.github.cepr0.test.model")
+	@Import(ModelService.class)
+	@ComponentScan("io.github.cepr0.test.mapper")
+	public static class Config {
+
+		@Bean
+		public JdbcOutboxStore outboxStore(DataSource dataSource) {
+			return new JdbcOutboxStore(new JdbcTemplate(dataSource));
+		}
+
+		@Bean
+		public Outbox outbox(JdbcOutboxStore outboxStore) {
+			return new Outbox(outboxStore, event -> ((Model) event.getEntity()).getText().getBytes(UTF_8), CreateModelEvent.class);
+		}
+	}
+}
@@ -18,8 +18,10 @@ package io.github.cepr0.crud.repo;
 
 import com.integralblue.log4jdbc.spring.Log4jdbcAutoConfiguration;
 import io.github.cepr0.crud.support.CrudUtils;
+import io.github.cepr0.test.dto.ModelResponse;
 import io.github.cepr0.test.model.Model;
 import io.github.cepr0.test.repo.ModelRepo;
+import io.github.cepr0.test.repo.RestrictedModelRepo;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -28,20 +30,33 @@ import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
 
 /**
@@ -55,11 +70,15 @@ import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORT
 public class JpaRepoTest {
 
 	@Autowired private ModelRepo modelRepo;
+	@Autowired private RestrictedModelRepo restrictedRepo;
+	@Autowired private PlatformTransactionManager transactionManager;
 
 	private Model model1, model2;
+	private TransactionTemplate transaction;
 
 	@Before
 	public void setUp() throws Exception {
+		transaction = new TransactionTemplate(transactionManager);
 		model1 = (Model) new Model("text1", 1).setId(1).setVersion(0);
 		model2 = (Model) new Model("text2", 2).setId(2).setVersion(0);
 	}
@@ -109,6 +128,30 @@ public class JpaRepoTest {
 				.withMessage("The given mapper must not be null!");
 	}
 
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models (id, version, text, number) values (1, 0, 'text1', 1)")
+	@Test
+	public void updateFields() {
+		Model expected = (Model) new Model("updated", 1).setId(1).setVersion(1);
+
+		assertThat(modelRepo.updateFields(1, 0, singletonMap("text", "updated")))
+				.isNotEmpty()
+				.get().satisfies(model -> assertThat(model).isEqualToComparingFieldByField(expected));
+
+		List<Model> models = modelRepo.findAll();
+		assertThat(models).hasSize(1);
+		assertThat(models.get(0)).isEqualToComparingFieldByField(expected);
+
+		assertThatExceptionOfType(ObjectOptimisticLockingFailureException.class)
+				.isThrownBy(() -> modelRepo.updateFields(1, 0, singletonMap("text", "stale")));
+
+		assertThat(modelRepo.updateFields(2, null, singletonMap("text", "updated"))).isEmpty();
+
+		assertThatNullPointerException()
+				.isThrownBy(() -> modelRepo.updateFields(1, null, null))
+				.withMessage("The given fields must not be null!");
+	}
+
 	@Sql(statements = "delete from models")
 	@Sql(statements = "insert into models (id, version, text, number) values (1, 0, 'text1', 1)")
 	@Test
@@ -131,6 +174,23 @@ public class JpaRepoTest {
 				.get().satisfies(model -> assertThat(model).isEqualToComparingFieldByField(model1));
 	}
 
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void getAllById() {
+		assertThat(modelRepo.getAllById(asList(1, 2, 3))).containsExactlyInAnyOrder(model1, model2);
+		assertThat(modelRepo.getAllById(2, 3)).containsExactly(model2);
+		assertThat(modelRepo.getAllById(new int[0])).isEmpty();
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void delAllByPrimitiveIds() {
+		assertThat(modelRepo.delAll(1, 3)).containsExactly(model1);
+		assertThat(modelRepo.findAll()).containsExactly(model2);
+	}
+
 	@Sql(statements = "delete from models")
 	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
 	@Test
@@ -146,6 +206,21 @@ public class JpaRepoTest {
 				.get().satisfies(model -> assertThat(model).isEqualToComparingFieldByField(model2));
 	}
 
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models (id, version, text, number) values (1, 3, 'text1', 1)")
+	@Test
+	public void getVersionById() {
+		assertThat(modelRepo.getVersionById(1)).contains(3);
+		assertThat(modelRepo.getVersionById(2)).isEmpty();
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void countAll() {
+		assertThat(modelRepo.countAll()).isEqualTo(2);
+	}
+
 	@Sql(statements = "delete from models")
 	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
 	@Test
@@ -170,6 +245,167 @@ public class JpaRepoTest {
 		assertThat(models.get(1)).isEqualToComparingFieldByField(model2);
 	}
 
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void getWithFetchPlan() {
+		FetchPlan plan = FetchPlan.of("text");
+
+		assertThat(modelRepo.getById(1, plan))
+				.isNotEmpty()
+				.get().satisfies(model -> assertThat(model).isEqualToComparingFieldByField(model1));
+		assertThat(modelRepo.getById(3, plan)).isEmpty();
+
+		List<Model> models = modelRepo.getAll(Sort.by(Sort.Direction.DESC, "id"), plan);
+		assertThat(models).containsExactly(model2, model1);
+
+		Page<Model> page = modelRepo.getAll(PageRequest.of(1, 1, Sort.by("id")), plan);
+		assertThat(page.getTotalElements()).isEqualTo(2);
+		assertThat(page.getContent()).hasSize(1);
+		assertThat(page.getContent().get(0)).isEqualToComparingFieldByField(model2);
+
+		Slice<Model> slice = modelRepo.getSlice(PageRequest.of(0, 1, Sort.by("id")), plan);
+		assertThat(slice.hasNext()).isTrue();
+		assertThat(slice.getContent()).containsExactly(model1);
+
+		slice = modelRepo.getSlice(PageRequest.of(1, 1, Sort.by("id")), plan);
+		assertThat(slice.hasNext()).isFalse();
+		assertThat(slice.getContent()).containsExactly(model2);
+
+		assertThat(modelRepo.getAll(Sort.by("id"), null)).containsExactly(model1, model2);
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void getAllAs() {
+		List<ModelText> texts = modelRepo.getAllAs(Sort.by("id"), ModelText.class);
+		assertThat(texts).hasSize(2);
+		assertThat(texts.get(0).getText()).isEqualTo("text1");
+		assertThat(texts.get(1).getText()).isEqualTo("text2");
+
+		ModelResponse response2 = ModelResponse.builder().id(2).text("text2").number(2).build();
+
+		Page<ModelResponse> page = modelRepo.getAllAs(PageRequest.of(1, 1, Sort.by("id")), ModelResponse.class);
+		assertThat(page.getContent()).containsExactly(response2);
+		assertThat(page.getTotalElements()).isEqualTo(2);
+
+		Slice<ModelResponse> slice = modelRepo.getSliceAs(PageRequest.of(1, 1, Sort.by("id")), ModelResponse.class);
+		assertThat(slice.getContent()).containsExactly(response2);
+		assertThat(slice.hasNext()).isFalse();
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void getAllAsWithProperties() {
+		Set<String> properties = new HashSet<>(asList("id", "text"));
+
+		List<ModelResponse> responses = modelRepo.getAllAs(Sort.by("id"), ModelResponse.class, properties);
+		assertThat(responses).containsExactly(
+				ModelResponse.builder().id(1).text("text1").build(),
+				ModelResponse.builder().id(2).text("text2").build()
+		);
+
+		Page<ModelResponse> page = modelRepo.getAllAs(PageRequest.of(1, 1, Sort.by("id")), ModelResponse.class, properties);
+		assertThat(page.getContent()).containsExactly(ModelResponse.builder().id(2).text("text2").build());
+		assertThat(page.getTotalElements()).isEqualTo(2);
+
+		Slice<ModelText> slice = modelRepo.getSliceAs(PageRequest.of(0, 1, Sort.by("id")), ModelText.class, properties);
+		assertThat(slice.getContent()).extracting(ModelText::getText).containsExactly("text1");
+		assertThat(slice.hasNext()).isTrue();
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2), (3, 0, 'other', 3)")
+	@Test
+	public void getAllBy() {
+		List<Model> models = modelRepo.getAllBy(Filter.parse("text:like:text%;number:ge:2"), Sort.by("id"));
+		assertThat(models).extracting(Model::getId).containsExactly(2);
+
+		models = modelRepo.getAllBy(Filter.where("number", Filter.Operator.IN, asList(1, "3")), Sort.by(Sort.Direction.DESC, "id"));
+		assertThat(models).extracting(Model::getId).containsExactly(3, 1);
+
+		Page<Model> page = modelRepo.getAllBy(Filter.parse("number:gt:1"), PageRequest.of(0, 1, Sort.by("id")));
+		assertThat(page.getContent()).extracting(Model::getId).containsExactly(2);
+		assertThat(page.getTotalElements()).isEqualTo(2);
+
+		assertThat(modelRepo.countBy(Filter.parse("text:ne:other"))).isEqualTo(2);
+		assertThat(modelRepo.countBy(Filter.parse("text:notnull"))).isEqualTo(3);
+		assertThat(modelRepo.countBy(Filter.empty())).isEqualTo(3);
+
+		// IllegalArgumentException is translated by the repository proxy
+		assertThatThrownBy(() -> modelRepo.getAllBy(Filter.parse("unknown:eq:1"), Sort.unsorted()))
+				.isInstanceOfAny(IllegalArgumentException.class, InvalidDataAccessApiUsageException.class);
+		assertThatThrownBy(() -> modelRepo.getAllBy(Filter.parse("number:eq:one"), Sort.unsorted()))
+				.isInstanceOfAny(IllegalArgumentException.class, InvalidDataAccessApiUsageException.class);
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'hidden', 2), (3, 0, 'text3', 3)")
+	@Test
+	public void restriction() {
+		assertThat(restrictedRepo.getById(1)).isNotEmpty();
+		assertThat(restrictedRepo.getById(2)).isEmpty();
+		assertThat(restrictedRepo.getAllById(asList(1, 2, 3))).extracting(Model::getId).containsExactlyInAnyOrder(1, 3);
+		assertThat(restrictedRepo.getAll()).extracting(Model::getId).containsExactlyInAnyOrder(1, 3);
+		assertThat(restrictedRepo.getAll(Sort.by(Sort.Direction.DESC, "id"))).extracting(Model::getId).containsExactly(3, 1);
+		assertThat(transaction.execute(status -> restrictedRepo.streamAll(Sort.by("id")).map(Model::getId).collect(toList())))
+				.containsExactly(1, 3);
+
+		Page<Model> page = restrictedRepo.getAll(PageRequest.of(0, 1, Sort.by("id")));
+		assertThat(page.getContent()).extracting(Model::getId).containsExactly(1);
+		assertThat(page.getTotalElements()).isEqualTo(2);
+		assertThat(restrictedRepo.countAll()).isEqualTo(2);
+
+		assertThat(restrictedRepo.getVersionById(1)).contains(0);
+		assertThat(restrictedRepo.getVersionById(2)).isEmpty();
+
+		Slice<Model> models = restrictedRepo.getSlice(PageRequest.of(0, 1, Sort.by("id")));
+		assertThat(models.getContent()).extracting(Model::getId).containsExactly(1);
+		assertThat(models.hasNext()).isTrue();
+		models = restrictedRepo.getSlice(PageRequest.of(1, 1, Sort.by("id")));
+		assertThat(models.getContent()).extracting(Model::getId).containsExactly(3);
+		assertThat(models.hasNext()).isFalse();
+
+		assertThat(restrictedRepo.getAfter(1, 1, Sort.Direction.ASC).getContent()).extracting(Model::getId).containsExactly(3);
+		assertThat(restrictedRepo.getAfter(3, 1, Sort.Direction.DESC).getContent()).extracting(Model::getId).containsExactly(1);
+
+		FetchPlan plan = FetchPlan.of("text");
+		assertThat(restrictedRepo.getById(1, plan)).isNotEmpty();
+		assertThat(restrictedRepo.getById(2, plan)).isEmpty();
+		assertThat(restrictedRepo.getAll(Sort.by("id"), plan)).extracting(Model::getId).containsExactly(1, 3);
+		assertThat(restrictedRepo.getSlice(PageRequest.of(0, 2, Sort.by("id")), plan).getContent())
+				.extracting(Model::getId).containsExactly(1, 3);
+
+		Set<String> properties = new HashSet<>(asList("id", "text"));
+		List<ModelResponse> responses = restrictedRepo.getAllAs(Sort.by("id"), ModelResponse.class, properties);
+		assertThat(responses).containsExactly(
+				ModelResponse.builder().id(1).text("text1").build(),
+				ModelResponse.builder().id(3).text("text3").build()
+		);
+		Slice<ModelText> slice = restrictedRepo.getSliceAs(PageRequest.of(1, 1, Sort.by("id")), ModelText.class, properties);
+		assertThat(slice.getContent()).extracting(ModelText::getText).containsExactly("text3");
+		assertThat(slice.hasNext()).isFalse();
+
+		assertThat(restrictedRepo.getAllBy(Filter.parse("number:le:2"), Sort.by("id"))).extracting(Model::getId).containsExactly(1);
+		assertThat(restrictedRepo.getAllBy(Filter.parse("text:like:text%"), PageRequest.of(0, 1, Sort.by("id"))).getTotalElements()).isEqualTo(2);
+		assertThat(restrictedRepo.countBy(Filter.empty())).isEqualTo(2);
+
+		assertThat(restrictedRepo.update(2, new Model("updated", null), (s, t) -> t.setText(s.getText()))).isEmpty();
+		assertThat(restrictedRepo.updateFields(2, 0, singletonMap("number", 20))).isEmpty();
+		assertThat(restrictedRepo.updateFields(3, 0, singletonMap("number", 30)))
+				.isNotEmpty()
+				.get().satisfies(model -> assertThat(model.getNumber()).isEqualTo(30));
+		assertThat(modelRepo.findById(2)).get().satisfies(model -> assertThat(model.getNumber()).isEqualTo(2));
+		assertThat(restrictedRepo.delAll(asList(1, 2))).extracting(Model::getId).containsExactly(1);
+		assertThat(modelRepo.findAll()).extracting(Model::getId).containsExactlyInAnyOrder(2, 3);
+	}
+
+	public interface ModelText {
+		String getText();
+	}
+
 	@Configuration
 	@EnableJpaRepositories("io.github.cepr0.test.repo")
 	@EntityScan("io.github.cepr0.test.model")
@@ -31,19 +31,31 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.IllegalTransactionStateException;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
 
 /**
@@ -109,6 +121,44 @@ public class CrudServiceTest {
 		assertThat(models.get(1)).isEqualToComparingFieldByField(expectedModel2);
 	}
 
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models (id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void updatedWithSingleStatement() {
+		try {
+			modelService.setSingleStatementUpdate(true);
+
+			assertThat(modelService.update(2, new ModelRequest().setText("updated")))
+					.isNotEmpty()
+					.contains(ModelResponse.builder().id(2).text("updated").number(2).build());
+
+			assertThat(modelService.update(3, new ModelRequest().setText("updated"))).isEmpty();
+
+			List<Model> models = modelRepo.findAll(Sort.by("id"));
+			assertThat(models).hasSize(2);
+			assertThat(models.get(0)).isEqualToComparingFieldByField(model1);
+			assertThat(models.get(1)).isEqualToComparingFieldByField(new Model("updated", 2).setId(2).setVersion(1));
+		} finally {
+			modelService.setSingleStatementUpdate(false);
+		}
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models (id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void updatedWithVersion() {
+		assertThat(modelService.getVersion(2)).contains(0);
+		assertThat(modelService.getVersion(3)).isEmpty();
+
+		assertThatExceptionOfType(OptimisticLockingFailureException.class)
+				.isThrownBy(() -> modelService.update(2, new ModelRequest().setText("updated"), 1));
+		assertThat(modelService.getVersion(2)).contains(0);
+
+		assertThat(modelService.update(2, new ModelRequest().setText("updated"), 0))
+				.contains(ModelResponse.builder().id(2).text("updated").number(2).build());
+		assertThat(modelService.getVersion(2)).contains(1);
+	}
+
 	@Sql(statements = "delete from models")
 	@Sql(statements = "insert into models (id, version, text, number) values (1, 0, 'text1', 1)")
 	@Test
@@ -118,6 +168,52 @@ public class CrudServiceTest {
 		assertThat(modelRepo.findAll()).isEmpty();
 	}
 
+	@Sql(statements = "delete from models")
+	@Test
+	public void createAll() {
+		ModelRequest modelRequest = new ModelRequest().setText("text2").setNumber(2);
+
+		BatchResult<Integer, ModelResponse> result = modelService.createAll(asList(modelRequest, modelRequest, modelRequest));
+
+		assertThat(result.isComplete()).isTrue();
+		assertThat(result.getProcessed())
+				.hasSize(3)
+				.allSatisfy(response -> assertThat(response).isEqualToIgnoringGivenFields(modelResponse2, "id"));
+
+		assertThat(modelRepo.findAll())
+				.hasSize(3)
+				.allSatisfy(model -> assertThat(model).isEqualToIgnoringGivenFields(model2, "id"));
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models (id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void updateAll() {
+		Map<Integer, ModelRequest> requests = new LinkedHashMap<>();
+		requests.put(2, new ModelRequest().setText("updated"));
+		requests.put(3, new ModelRequest().setText("updated"));
+
+		BatchResult<Integer, ModelResponse> result = modelService.updateAll(requests);
+
+		assertThat(result.getProcessed()).containsExactly(ModelResponse.builder().id(2).text("updated").number(2).build());
+		assertThat(result.getNotFound()).containsExactly(3);
+
+		List<Model> models = modelRepo.findAll(Sort.by("id"));
+		assertThat(models.get(0)).isEqualToComparingFieldByField(model1);
+		assertThat(models.get(1)).isEqualToComparingFieldByField(new Model("updated", 2).setId(2).setVersion(1));
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models (id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void deleteAll() {
+		BatchResult<Integer, Integer> result = modelService.deleteAll(asList(1, 3));
+
+		assertThat(result.getProcessed()).containsExactly(1);
+		assertThat(result.getNotFound()).containsExactly(3);
+		assertThat(modelRepo.findAll()).containsExactly(model2);
+	}
+
 	@Sql(statements = "delete from models")
 	@Sql(statements = "insert into models (id, version, text, number) values (1, 0, 'text1', 1)")
 	@Test
@@ -187,6 +283,52 @@ public class CrudServiceTest {
 		assertThat(responses).contains(modelResponse2);
 	}
 
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void getAllPagedWithTotalCountProvider() {
+		try {
+			modelService.setTotalCountProvider(() -> 10L);
+
+			Page<ModelResponse> page = modelService.getAll(PageRequest.of(0, 1, Sort.by("id")));
+			assertThat(page.getContent()).containsExactly(modelResponse1);
+			assertThat(page.getTotalElements()).isEqualTo(10);
+
+			// the last page corrects the provided total
+			page = modelService.getAll(PageRequest.of(1, 1, Sort.by("id")));
+			assertThat(page.getContent()).containsExactly(modelResponse2);
+			assertThat(page.getTotalElements()).isEqualTo(2);
+
+			// the provider doesn't know the total, so the exact count is used
+			modelService.setTotalCountProvider(() -> null);
+			assertThat(modelService.getAllT(PageRequest.of(0, 1, Sort.by("id"))).getTotalElements()).isEqualTo(2);
+
+			modelService.setTotalCountProvider(TotalCountProvider.exact(modelRepo));
+			assertThat(modelService.getAllT(PageRequest.of(0, 1, Sort.by("id"))).getTotalElements()).isEqualTo(2);
+		} finally {
+			modelService.setTotalCountProvider(null);
+		}
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void getSlice() {
+		Slice<ModelResponse> slice = modelService.getSlice(PageRequest.of(0, 1, Sort.by("id")));
+		assertThat(slice.getContent()).containsExactly(modelResponse1);
+		assertThat(slice.isFirst()).isTrue();
+		assertThat(slice.hasNext()).isTrue();
+		assertThat(slice).isNotInstanceOf(Page.class);
+
+		slice = modelService.getSlice(PageRequest.of(1, 1, Sort.by("id")));
+		assertThat(slice.getContent()).containsExactly(modelResponse2);
+		assertThat(slice.isLast()).isTrue();
+
+		Slice<Model> models = modelService.getSliceT(PageRequest.of(0, 2, Sort.by("id")));
+		assertThat(models.getContent()).containsExactly(model1, model2);
+		assertThat(models.hasNext()).isFalse();
+	}
+
 	@Sql(statements = "delete from models")
 	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
 	@Test
@@ -207,6 +349,120 @@ public class CrudServiceTest {
 		assertThat(responses).containsExactly(modelResponse1, modelResponse2);
 	}
 
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void getAllWithResponseProjection() {
+		try {
+			modelService.setResponseProjection(true);
+
+			assertThat(modelService.getAll()).containsExactlyInAnyOrder(modelResponse1, modelResponse2);
+			assertThat(modelService.getAll(Sort.by(Sort.Direction.DESC, "id"))).containsExactly(modelResponse2, modelResponse1);
+
+			Page<ModelResponse> page = modelService.getAll(PageRequest.of(1, 1, Sort.by("id")));
+			assertThat(page.getContent()).containsExactly(modelResponse2);
+			assertThat(page.getTotalElements()).isEqualTo(2);
+
+			Slice<ModelResponse> slice = modelService.getSlice(PageRequest.of(0, 1, Sort.by("id")));
+			assertThat(slice.getContent()).containsExactly(modelResponse1);
+			assertThat(slice.hasNext()).isTrue();
+
+			modelService.setTotalCountProvider(() -> 10L);
+			page = modelService.getAll(PageRequest.of(0, 1, Sort.by("id")));
+			assertThat(page.getContent()).containsExactly(modelResponse1);
+			assertThat(page.getTotalElements()).isEqualTo(10);
+		} finally {
+			modelService.setResponseProjection(false);
+			modelService.setTotalCountProvider(null);
+		}
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void getAllSparse() {
+		Set<String> fields = new HashSet<>(asList("id", "text"));
+		ModelResponse sparse1 = ModelResponse.builder().id(1).text("text1").build();
+		ModelResponse sparse2 = ModelResponse.builder().id(2).text("text2").build();
+
+		assertThat(modelService.getAllSparse(Sort.by("id"), fields)).containsExactly(modelResponse1, modelResponse2);
+
+		try {
+			modelService.setResponseProjection(true);
+
+			assertThat(modelService.getAllSparse(Sort.by("id"), fields)).containsExactly(sparse1, sparse2);
+			assertThat(modelService.getAllSparse(Sort.by("id"), null)).containsExactly(modelResponse1, modelResponse2);
+
+			Page<ModelResponse> page = modelService.getAllSparse(PageRequest.of(1, 1, Sort.by("id")), fields);
+			assertThat(page.getContent()).containsExactly(sparse2);
+			assertThat(page.getTotalElements()).isEqualTo(2);
+
+			Slice<ModelResponse> slice = modelService.getSliceSparse(PageRequest.of(0, 1, Sort.by("id")), fields);
+			assertThat(slice.getContent()).containsExactly(sparse1);
+			assertThat(slice.hasNext()).isTrue();
+		} finally {
+			modelService.setResponseProjection(false);
+		}
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void getAfter() {
+		KeysetSlice<ModelResponse> slice = modelService.getAfter(null, 1, Sort.by("id"));
+		assertThat(slice.getContent()).containsExactly(modelResponse1);
+		assertThat(slice.isFirst()).isTrue();
+		assertThat(slice.hasNext()).isTrue();
+		assertThat(slice.getNextKey()).isEqualTo(1);
+
+		slice = modelService.getAfter(1, 1, Sort.by("id"));
+		assertThat(slice.getContent()).containsExactly(modelResponse2);
+		assertThat(slice.isFirst()).isFalse();
+		assertThat(slice.hasNext()).isFalse();
+		assertThat(slice.getNextKey()).isNull();
+
+		KeysetSlice<Model> desc = modelService.getAfterT(null, 2, Sort.by(Sort.Direction.DESC, "id"));
+		assertThat(desc.getContent()).containsExactly(model2, model1);
+		assertThat(desc.hasNext()).isFalse();
+
+		assertThatIllegalArgumentException().isThrownBy(() -> modelService.getAfter(null, 1, Sort.by("text")));
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void forEach() {
+		List<ModelResponse> responses = new ArrayList<>();
+		modelService.forEach(Sort.by("id"), responses::add);
+		assertThat(responses).containsExactly(modelResponse1, modelResponse2);
+	}
+
+	@Test
+	public void streamAllRequiresTransaction() {
+		assertThatExceptionOfType(IllegalTransactionStateException.class).isThrownBy(() -> modelService.streamAll(Sort.by("id")));
+	}
+
+	@Sql(statements = "delete from models")
+	@Sql(statements = "insert into models(id, version, text, number) values (1, 0, 'text1', 1), (2, 0, 'text2', 2)")
+	@Test
+	public void consumePage() {
+		List<ModelResponse> responses = new ArrayList<>();
+		modelService.consumePage(PageRequest.of(1, 1, Sort.by("id")), true, (page, content) -> {
+			assertThat(page.getNumber()).isEqualTo(1);
+			assertThat(((Page<?>) page).getTotalElements()).isEqualTo(2);
+			content.forEachRemaining(responses::add);
+		});
+		assertThat(responses).containsExactly(modelResponse2);
+
+		responses.clear();
+		modelService.consumePage(PageRequest.of(0, 1, Sort.by("id")), false, (page, content) -> {
+			assertThat(page).isNotInstanceOf(Page.class);
+			assertThat(page.hasNext()).isTrue();
+			content.forEachRemaining(responses::add);
+		});
+		assertThat(responses).containsExactly(modelResponse1);
+	}
+
 	@Configuration
 	@EnableJpaRepositories("io.github.cepr0.test.repo")
 	@EntityScan("io.github.cepr0.test.model")
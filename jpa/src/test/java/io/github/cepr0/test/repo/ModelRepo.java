@@ -16,6 +16,7 @@
 
 package io.github.cepr0.test.repo;
 
+import io.github.cepr0.crud.repo.IntCrudRepo;
 import io.github.cepr0.crud.repo.JpaRepo;
 import io.github.cepr0.test.model.Model;
 import org.springframework.data.domain.Page;
@@ -30,7 +31,7 @@ import java.util.Optional;
 /**
  * @author Sergei Poznanski
  */
-public interface ModelRepo extends JpaRepo<Model, Integer> {
+public interface ModelRepo extends JpaRepo<Model, Integer>, IntCrudRepo<Model> {
 	@NonNull
 	@Override
 	Optional<Model> getToUpdateById(@NonNull Integer integer);
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.cepr0.test.repo;
+
+import io.github.cepr0.crud.repo.JpaRepo;
+import io.github.cepr0.test.model.Model;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * The repository of the models which text is not 'hidden'.
+ *
+ * @author Sergei Poznanski
+ */
+public interface RestrictedModelRepo extends JpaRepo<Model, Integer> {
+	@Override
+	default Specification<Model> restriction() {
+		return (root, query, cb) -> cb.notEqual(root.get("text"), "hidden");
+	}
+}
@@ -18,6 +18,7 @@ package io.github.cepr0.test.service;
 
 import io.github.cepr0.crud.event.EntityEvent;
 import io.github.cepr0.crud.service.AbstractCrudService;
+import io.github.cepr0.crud.service.TotalCountProvider;
 import io.github.cepr0.test.dto.ModelRequest;
 import io.github.cepr0.test.dto.ModelResponse;
 import io.github.cepr0.test.event.CreateModelEvent;
@@ -36,10 +37,41 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 @Service
 public class ModelService extends AbstractCrudService<Model, Integer, ModelRequest, ModelResponse> {
+	private TotalCountProvider totalCountProvider;
+	private boolean singleStatementUpdate;
+	private boolean responseProjection;
+
 	protected ModelService(@NonNull final ModelRepo repo, @NonNull final ModelMapper mapper) {
 		super(repo, mapper);
 	}
 
+	public void setTotalCountProvider(final TotalCountProvider totalCountProvider) {
+		this.totalCountProvider = totalCountProvider;
+	}
+
+	@Override
+	protected TotalCountProvider getTotalCountProvider() {
+		return totalCountProvider;
+	}
+
+	public void setSingleStatementUpdate(final boolean singleStatementUpdate) {
+		this.singleStatementUpdate = singleStatementUpdate;
+	}
+
+	@Override
+	protected boolean useSingleStatementUpdate() {
+		return singleStatementUpdate;
+	}
+
+	public void setResponseProjection(final boolean responseProjection) {
+		this.responseProjection = responseProjection;
+	}
+
+	@Override
+	protected Class<? extends ModelResponse> getResponseProjection() {
+		return responseProjection ? ModelResponse.class : null;
+	}
+
 	@Override
 	protected EntityEvent<Model> onCreateEvent(final Model entity) {
 		return new CreateModelEvent(entity);
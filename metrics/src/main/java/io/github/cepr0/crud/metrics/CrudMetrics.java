@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.metrics;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.lang.NonNull;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.util.Map;
+
+/**
+ * Names and tags of the metrics, which are recorded by the {@link CrudMetricsAutoConfiguration}.
+ * <p>
+ * All timers and counters are tagged with {@link #ENTITY} (the simple name of the entity class)
+ * and {@link #OPERATION} (the name of the invoked method) tags.
+ *
+ * @author Sergei Poznanski
+ */
+public final class CrudMetrics {
+
+	/**
+	 * Timer of the {@code AbstractCrudService} methods.
+	 */
+	public static final String SERVICE = "crud.service";
+
+	/**
+	 * Counter of the {@code AbstractCrudService} operations which have not found the requested entities.
+	 */
+	public static final String SERVICE_NOT_FOUND = "crud.service.not.found";
+
+	/**
+	 * Timer of the {@code CrudRepo} methods.
+	 */
+	public static final String REPO = "crud.repo";
+
+	/**
+	 * Timer of the {@code CrudMapper} methods.
+	 */
+	public static final String MAPPER = "crud.mapper";
+
+	/**
+	 * Timer of the {@code AbstractCrudController} methods.
+	 */
+	public static final String CONTROLLER = "crud.controller";
+
+	/**
+	 * Timer of the {@code EntityEvent} publication in {@code AbstractCrudService}, the operation tag contains
+	 * the simple name of the event class.
+	 */
+	public static final String EVENT_PUBLICATION = "crud.event.publication";
+
+	public static final String ENTITY = "entity";
+	public static final String OPERATION = "operation";
+
+	private static final String UNKNOWN = "unknown";
+
+	private static final Map<Class<?>, Map<Class<?>, String>> ENTITY_NAMES = new ConcurrentReferenceHashMap<>();
+
+	private CrudMetrics() {
+	}
+
+	/**
+	 * Returns the simple name of the entity class, which is the first type parameter of the given generic type
+	 * ({@code CrudService}, {@code CrudRepo}, {@code CrudMapper} etc.), resolved for the given class.
+	 *
+	 * @param cls the class implementing the generic type
+	 * @param genericType the generic type
+	 * @return the simple name of the entity class, or 'unknown' if it cannot be resolved
+	 */
+	@NonNull
+	static String entityName(@NonNull final Class<?> cls, @NonNull final Class<?> genericType) {
+		return ENTITY_NAMES.computeIfAbsent(genericType, t -> new ConcurrentReferenceHashMap<>()).computeIfAbsent(cls, c -> {
+			Class<?>[] types = GenericTypeResolver.resolveTypeArguments(ClassUtils.getUserClass(c), genericType);
+			return types != null && types[0] != null ? types[0].getSimpleName() : UNKNOWN;
+		});
+	}
+
+	/**
+	 * Returns the class of the given bean which implements the given generic type: the target class of the bean or,
+	 * if the bean is a proxy whose target doesn't implement this type (as the Spring Data repositories,
+	 * which are backed by {@code SimpleJpaRepository} or {@code SimpleMongoRepository}), the proxied interface
+	 * which extends it.
+	 *
+	 * @param bean the bean, must not be {@code null}
+	 * @param genericType the generic type
+	 * @return the class implementing the generic type, or the target class of the bean if there is no such class
+	 */
+	@NonNull
+	static Class<?> typeOf(@NonNull final Object bean, @NonNull final Class<?> genericType) {
+		Class<?> targetClass = AopUtils.getTargetClass(bean);
+		if (genericType.isAssignableFrom(targetClass)) {
+			return targetClass;
+		}
+		if (bean instanceof Advised) {
+			for (Class<?> proxiedInterface : AopProxyUtils.proxiedUserInterfaces(bean)) {
+				if (genericType.isAssignableFrom(proxiedInterface)) {
+					return proxiedInterface;
+				}
+			}
+		}
+		return targetClass;
+	}
+}
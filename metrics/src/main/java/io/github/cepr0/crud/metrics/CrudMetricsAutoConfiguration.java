@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.metrics;
+
+import io.github.cepr0.crud.api.AbstractCrudController;
+import io.github.cepr0.crud.mapper.CrudMapper;
+import io.github.cepr0.crud.repo.CrudRepo;
+import io.github.cepr0.crud.service.AbstractCrudService;
+import io.github.cepr0.crud.service.CrudService;
+import io.github.cepr0.crud.support.CrudAutoProxyRegistrar;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Auto-configuration of the Micrometer metrics of the CRUD operations. It's turned on with the
+ * {@code generic-crud.metrics.enabled=true} property and records the following metrics (see {@link CrudMetrics})
+ * for every entity and operation, without any changes in the application code:
+ * <ul>
+ *     <li>execution time of the {@link CrudService} methods of the {@link AbstractCrudService} beans,
+ *     and the number of not found entities;</li>
+ *     <li>execution time of the {@link CrudRepo} methods;</li>
+ *     <li>execution time of the {@link CrudMapper} methods;</li>
+ *     <li>time of the entity event publication in the {@link AbstractCrudService} beans;</li>
+ *     <li>execution time of the public methods of the {@code AbstractCrudController} beans (if the 'web' module is present).</li>
+ * </ul>
+ *
+ * @author Sergei Poznanski
+ */
+@Configuration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "generic-crud.metrics", name = "enabled", havingValue = "true")
+@Import(CrudAutoProxyRegistrar.class)
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class CrudMetricsAutoConfiguration {
+
+	@Bean
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	public Advisor crudServiceMetricsAdvisor(final ObjectProvider<MeterRegistry> registry) {
+		return advisor(AbstractCrudService.class, CrudService.class,
+				new CrudMetricsInterceptor(registry, CrudMetrics.SERVICE, CrudMetrics.SERVICE_NOT_FOUND, CrudService.class));
+	}
+
+	@Bean
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	public Advisor crudRepoMetricsAdvisor(final ObjectProvider<MeterRegistry> registry) {
+		return advisor(CrudRepo.class, CrudRepo.class,
+				new CrudMetricsInterceptor(registry, CrudMetrics.REPO, null, CrudRepo.class));
+	}
+
+	@Bean
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	public Advisor crudMapperMetricsAdvisor(final ObjectProvider<MeterRegistry> registry) {
+		return advisor(CrudMapper.class, CrudMapper.class,
+				new CrudMetricsInterceptor(registry, CrudMetrics.MAPPER, null, CrudMapper.class));
+	}
+
+	@Bean
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	public static BeanPostProcessor crudEventPublicationMetricsPostProcessor(final ObjectProvider<MeterRegistry> registry) {
+		return new EventPublicationMetricsPostProcessor(registry);
+	}
+
+	@Configuration
+	@ConditionalOnClass(name = "io.github.cepr0.crud.api.AbstractCrudController")
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	static class ControllerMetricsConfiguration {
+
+		@Bean
+		@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+		public Advisor crudControllerMetricsAdvisor(final ObjectProvider<MeterRegistry> registry) {
+			return advisor(AbstractCrudController.class, AbstractCrudController.class,
+					new CrudMetricsInterceptor(registry, CrudMetrics.CONTROLLER, null, AbstractCrudController.class));
+		}
+	}
+
+	/**
+	 * Creates the advisor of the public methods of the given target type, which have the same names
+	 * as the public methods of the given 'operations' type.
+	 */
+	private static Advisor advisor(final Class<?> targetType, final Class<?> operationsType, final CrudMetricsInterceptor interceptor) {
+		Set<String> operations = Arrays.stream(operationsType.getMethods())
+				.filter(method -> method.getDeclaringClass() != Object.class)
+				.map(Method::getName)
+				.collect(Collectors.toSet());
+
+		DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+			@Override
+			public boolean matches(@NonNull final Method method, @Nullable final Class<?> targetClass) {
+				return Modifier.isPublic(method.getModifiers()) && operations.contains(method.getName());
+			}
+
+			@NonNull
+			@Override
+			public ClassFilter getClassFilter() {
+				return targetType::isAssignableFrom;
+			}
+		}, interceptor);
+
+		// to include the transaction time into the measured one
+		advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return advisor;
+	}
+}
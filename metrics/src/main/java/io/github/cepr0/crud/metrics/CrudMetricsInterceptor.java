@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.metrics;
+
+import io.github.cepr0.crud.service.BatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodClassKey;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.cepr0.crud.metrics.CrudMetrics.ENTITY;
+import static io.github.cepr0.crud.metrics.CrudMetrics.OPERATION;
+
+/**
+ * Records the execution time of the intercepted methods to the timer with the given name,
+ * tagged by the entity and the method name. Optionally counts the results meaning 'entity is not found'
+ * ({@code Optional.empty()}, {@code false} of the 'delete' method and not found ids of {@link BatchResult}).
+ * <p>
+ * The entity is resolved from the class of the intercepted bean which implements the given generic type
+ * (for the Spring Data repositories it's the repository interface, see {@link CrudMetrics#typeOf}).
+ * <p>
+ * The meter registry is resolved lazily, on the first invocation, so the interceptor doesn't
+ * cause the early initialization of the registry. If it's not available, the methods are just invoked.
+ *
+ * @author Sergei Poznanski
+ */
+class CrudMetricsInterceptor implements MethodInterceptor {
+
+	private final ObjectProvider<MeterRegistry> registryProvider;
+	private final String timerName;
+	private final String notFoundName;
+	private final Class<?> genericType;
+
+	private final Map<Class<?>, Class<?>> targetClasses = new ConcurrentHashMap<>();
+	private final Map<MethodClassKey, Meters> meters = new ConcurrentHashMap<>();
+
+	/**
+	 * @param registryProvider provider of the meter registry
+	 * @param timerName name of the timer
+	 * @param notFoundName name of the 'not found' counter, or {@code null} if the results should not be counted
+	 * @param genericType the generic type whose first type parameter is the entity type
+	 */
+	CrudMetricsInterceptor(
+			@NonNull final ObjectProvider<MeterRegistry> registryProvider,
+			@NonNull final String timerName,
+			@Nullable final String notFoundName,
+			@NonNull final Class<?> genericType
+	) {
+		this.registryProvider = registryProvider;
+		this.timerName = timerName;
+		this.notFoundName = notFoundName;
+		this.genericType = genericType;
+	}
+
+	@Override
+	public Object invoke(@NonNull final MethodInvocation invocation) throws Throwable {
+		MeterRegistry registry = registryProvider.getIfAvailable();
+		if (registry == null) {
+			return invocation.proceed();
+		}
+
+		Object target = invocation.getThis();
+		Class<?> targetClass = target != null ? targetClassOf(target) : invocation.getMethod().getDeclaringClass();
+
+		Meters methodMeters = meters.computeIfAbsent(
+				new MethodClassKey(invocation.getMethod(), targetClass),
+				key -> new Meters(registry, CrudMetrics.entityName(targetClass, genericType), invocation.getMethod().getName())
+		);
+
+		long start = System.nanoTime();
+		try {
+			Object result = invocation.proceed();
+			methodMeters.countNotFound(result);
+			return result;
+		} finally {
+			methodMeters.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private Class<?> targetClassOf(final Object target) {
+		Class<?> targetClass = targetClasses.get(target.getClass());
+		if (targetClass == null) {
+			targetClass = CrudMetrics.typeOf(target, genericType);
+			targetClasses.putIfAbsent(target.getClass(), targetClass);
+		}
+		return targetClass;
+	}
+
+	private final class Meters {
+		private final Timer timer;
+		private final Counter notFound;
+		private final boolean delete;
+
+		private Meters(final MeterRegistry registry, final String entity, final String operation) {
+			this.timer = Timer.builder(timerName)
+					.tag(ENTITY, entity)
+					.tag(OPERATION, operation)
+					.register(registry);
+			this.notFound = notFoundName != null
+					? Counter.builder(notFoundName).tag(ENTITY, entity).tag(OPERATION, operation).register(registry)
+					: null;
+			this.delete = operation.equals("delete");
+		}
+
+		private void countNotFound(final Object result) {
+			if (notFound == null) return;
+
+			if (result instanceof Optional) {
+				if (!((Optional<?>) result).isPresent()) notFound.increment();
+			} else if (result instanceof BatchResult) {
+				int count = ((BatchResult<?, ?>) result).getNotFound().size();
+				if (count > 0) notFound.increment(count);
+			} else if (delete && Boolean.FALSE.equals(result)) {
+				notFound.increment();
+			}
+		}
+	}
+}
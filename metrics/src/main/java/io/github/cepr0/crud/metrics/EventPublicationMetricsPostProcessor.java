@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.metrics;
+
+import io.github.cepr0.crud.service.AbstractCrudService;
+import io.github.cepr0.crud.service.CrudService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.lang.NonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.cepr0.crud.metrics.CrudMetrics.ENTITY;
+import static io.github.cepr0.crud.metrics.CrudMetrics.EVENT_PUBLICATION;
+import static io.github.cepr0.crud.metrics.CrudMetrics.OPERATION;
+
+/**
+ * Decorates the {@link ApplicationEventPublisher} of the {@link AbstractCrudService} beans
+ * (see {@link AbstractCrudService#decorateEventPublisher}) with the one which records the time
+ * of the event publication (including the synchronous event listeners).
+ *
+ * @author Sergei Poznanski
+ */
+class EventPublicationMetricsPostProcessor implements BeanPostProcessor {
+
+	private final ObjectProvider<MeterRegistry> registryProvider;
+
+	EventPublicationMetricsPostProcessor(@NonNull final ObjectProvider<MeterRegistry> registryProvider) {
+		this.registryProvider = registryProvider;
+	}
+
+	@Override
+	public Object postProcessBeforeInitialization(@NonNull final Object bean, final String beanName) throws BeansException {
+		if (bean instanceof AbstractCrudService) {
+			String entity = CrudMetrics.entityName(bean.getClass(), CrudService.class);
+			((AbstractCrudService<?, ?, ?, ?>) bean).decorateEventPublisher(publisher -> publisher instanceof TimedEventPublisher
+					? publisher
+					: new TimedEventPublisher(publisher, registryProvider, entity));
+		}
+		return bean;
+	}
+
+	private static final class TimedEventPublisher implements ApplicationEventPublisher {
+
+		private final ApplicationEventPublisher delegate;
+		private final ObjectProvider<MeterRegistry> registryProvider;
+		private final String entity;
+		private final Map<Class<?>, Timer> timers = new ConcurrentHashMap<>();
+
+		private TimedEventPublisher(final ApplicationEventPublisher delegate, final ObjectProvider<MeterRegistry> registryProvider, final String entity) {
+			this.delegate = delegate;
+			this.registryProvider = registryProvider;
+			this.entity = entity;
+		}
+
+		@Override
+		public void publishEvent(@NonNull final Object event) {
+			MeterRegistry registry = registryProvider.getIfAvailable();
+			if (registry == null) {
+				delegate.publishEvent(event);
+				return;
+			}
+
+			Timer timer = timers.computeIfAbsent(event.getClass(), eventClass -> Timer.builder(EVENT_PUBLICATION)
+					.tag(ENTITY, entity)
+					.tag(OPERATION, eventClass.getSimpleName())
+					.register(registry));
+
+			long start = System.nanoTime();
+			try {
+				delegate.publishEvent(event);
+			} finally {
+				timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+		}
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.metrics;
+
+import io.github.cepr0.crud.dto.CrudRequest;
+import io.github.cepr0.crud.dto.CrudResponse;
+import io.github.cepr0.crud.event.EntityEvent;
+import io.github.cepr0.crud.mapper.CrudMapper;
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import io.github.cepr0.crud.repo.CrudRepo;
+import io.github.cepr0.crud.service.AbstractCrudService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Sergei Poznanski
+ */
+public class CrudMetricsAutoConfigurationTest {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(CrudMetricsAutoConfiguration.class))
+			.withUserConfiguration(TestConfig.class);
+
+	@Test
+	public void metricsAreRecorded() {
+		contextRunner.withPropertyValues("generic-crud.metrics.enabled=true").run(context -> {
+			TestService service = context.getBean(TestService.class);
+			MeterRegistry registry = context.getBean(MeterRegistry.class);
+
+			assertThat(service.getOne(1)).isPresent();
+			assertThat(service.getOne(2)).isEmpty();
+			service.create(new TestEntity(3));
+
+			assertThat(registry.get(CrudMetrics.SERVICE).tags("entity", "TestEntity", "operation", "getOne").timer().count()).isEqualTo(2);
+			assertThat(registry.get(CrudMetrics.SERVICE_NOT_FOUND).tags("entity", "TestEntity", "operation", "getOne").counter().count()).isEqualTo(1);
+			assertThat(registry.get(CrudMetrics.REPO).tags("entity", "TestEntity", "operation", "getById").timer().count()).isEqualTo(2);
+			assertThat(registry.get(CrudMetrics.MAPPER).tags("entity", "TestEntity", "operation", "toResponse").timer().count()).isEqualTo(1);
+			assertThat(registry.get(CrudMetrics.EVENT_PUBLICATION).tags("entity", "TestEntity", "operation", "EntityEvent").timer().count()).isEqualTo(1);
+		});
+	}
+
+	@Test
+	public void repositoryMetricsAreTaggedByEntity() {
+		contextRunner.withPropertyValues("generic-crud.metrics.enabled=true").run(context -> {
+			MeterRegistry registry = context.getBean(MeterRegistry.class);
+
+			assertThat(context.getBean(TestRepo.class).getById(1)).isPresent();
+			assertThat(context.getBean(OtherRepo.class).getById(1)).isPresent();
+			assertThat(context.getBean(OtherRepo.class).getById(2)).isEmpty();
+
+			assertThat(registry.get(CrudMetrics.REPO).tags("entity", "TestEntity", "operation", "getById").timer().count()).isEqualTo(1);
+			assertThat(registry.get(CrudMetrics.REPO).tags("entity", "OtherEntity", "operation", "getById").timer().count()).isEqualTo(2);
+			assertThat(registry.find(CrudMetrics.REPO).tags("entity", "unknown").timer()).isNull();
+		});
+	}
+
+	@Test
+	public void metricsAreDisabledByDefault() {
+		contextRunner.run(context -> {
+			assertThat(context).doesNotHaveBean(Advisor.class);
+
+			context.getBean(TestService.class).getOne(1);
+			assertThat(context.getBean(MeterRegistry.class).find(CrudMetrics.SERVICE).timer()).isNull();
+		});
+	}
+
+	@Configuration
+	static class TestConfig {
+
+		@Bean
+		public MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		public TestRepo testRepo() {
+			return repository(TestRepo.class, TestEntity::new);
+		}
+
+		@Bean
+		public OtherRepo otherRepo() {
+			return repository(OtherRepo.class, OtherEntity::new);
+		}
+
+		/**
+		 * Creates a JDK proxy of the repository interface, whose target doesn't implement it, as the Spring Data
+		 * repositories are (with {@code SimpleJpaRepository} as the target, for example).
+		 */
+		@SuppressWarnings("unchecked")
+		private static <R> R repository(final Class<R> repoInterface, final Function<Integer, Object> entityFactory) {
+			ProxyFactory factory = new ProxyFactory(new SimpleRepo());
+			factory.addInterface(repoInterface);
+			factory.addAdvice((MethodInterceptor) invocation -> {
+				Object[] args = invocation.getArguments();
+				switch (invocation.getMethod().getName()) {
+					case "getById":
+						return Integer.valueOf(1).equals(args[0]) ? Optional.of(entityFactory.apply(1)) : Optional.empty();
+					case "create":
+						return args[0];
+					default:
+						throw new UnsupportedOperationException(invocation.getMethod().getName());
+				}
+			});
+			return (R) factory.getProxy(repoInterface.getClassLoader());
+		}
+
+		@Bean
+		public TestMapper testMapper() {
+			return new TestMapper();
+		}
+
+		@Bean
+		public TestService testService(final TestRepo repo, final TestMapper mapper) {
+			return new TestService(repo, mapper);
+		}
+	}
+
+	static class TestEntity implements IdentifiableEntity<Integer> {
+		private final Integer id;
+
+		TestEntity(final Integer id) {
+			this.id = id;
+		}
+
+		@Override
+		public Integer getId() {
+			return id;
+		}
+	}
+
+	static class TestRequest implements CrudRequest {
+	}
+
+	static class TestResponse implements CrudResponse<Integer> {
+		private final Integer id;
+
+		TestResponse(final Integer id) {
+			this.id = id;
+		}
+
+		@Override
+		public Integer getId() {
+			return id;
+		}
+	}
+
+	public interface TestRepo extends CrudRepo<TestEntity, Integer> {
+	}
+
+	static class OtherEntity implements IdentifiableEntity<Integer> {
+		private final Integer id;
+
+		OtherEntity(final Integer id) {
+			this.id = id;
+		}
+
+		@Override
+		public Integer getId() {
+			return id;
+		}
+	}
+
+	public interface OtherRepo extends CrudRepo<OtherEntity, Integer> {
+	}
+
+	static class SimpleRepo {
+	}
+
+	public static class TestMapper implements CrudMapper<TestEntity, TestRequest, TestResponse> {
+		@Override
+		public TestEntity toCreate(final TestRequest request) {
+			return new TestEntity(null);
+		}
+
+		@Override
+		public TestEntity toUpdate(final TestRequest request, final TestEntity target) {
+			return target;
+		}
+
+		@Override
+		public TestResponse toResponse(final TestEntity entity) {
+			return new TestResponse(entity.getId());
+		}
+	}
+
+	public static class TestService extends AbstractCrudService<TestEntity, Integer, TestRequest, TestResponse> {
+		public TestService(final TestRepo repo, final TestMapper mapper) {
+			super(repo, mapper);
+		}
+
+		@Override
+		protected EntityEvent<TestEntity> onCreateEvent(final TestEntity entity) {
+			return new EntityEvent<>(entity);
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.outbox;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.lang.NonNull;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * {@link OutboxStore} which stores the messages to the MongoDB collection.
+ * <p>
+ * The messages are stored in the same transaction as the documents only when the application uses
+ * {@code MongoTransactionManager} (which requires a replica set). Without it the message is <b>not</b> written
+ * in the same transaction: every message is inserted on its own right after the change of the document,
+ * so if the application fails between them the change is kept but its message is lost.
+ * <p>
+ * The messages are polled in the order of their {@code ObjectId}s, which are generated by the driver:
+ * they follow the order of saving within one application instance (to the second across the instances).
+ *
+ * @author Sergei Poznanski
+ */
+public class MongoOutboxStore implements OutboxStore {
+
+	private static final String ID = "_id";
+	private static final String EVENT_TYPE = "eventType";
+	private static final String ENTITY_TYPE = "entityType";
+	private static final String ENTITY_ID = "entityId";
+	private static final String PAYLOAD = "payload";
+	private static final String CREATED_AT = "createdAt";
+
+	private final MongoOperations mongo;
+	private final String collectionName;
+
+	/**
+	 * Creates the store of the 'outbox' collection.
+	 *
+	 * @param mongo must not be {@code null}
+	 */
+	public MongoOutboxStore(@NonNull final MongoOperations mongo) {
+		this(mongo, "outbox");
+	}
+
+	/**
+	 * @param mongo must not be {@code null}
+	 * @param collectionName must not be {@code null}
+	 */
+	public MongoOutboxStore(@NonNull final MongoOperations mongo, @NonNull final String collectionName) {
+		this.mongo = Objects.requireNonNull(mongo, "Parameter 'mongo' must not be null!");
+		this.collectionName = Objects.requireNonNull(collectionName, "Parameter 'collectionName' must not be null!");
+	}
+
+	@Override
+	public void save(@NonNull final OutboxMessage message) {
+		// ObjectId is generated by the driver, so the messages are ordered by the time of their saving
+		Document document = new Document(EVENT_TYPE, message.getEventType())
+				.append(ENTITY_TYPE, message.getEntityType())
+				.append(ENTITY_ID, message.getEntityId())
+				.append(PAYLOAD, new Binary(message.getPayload()))
+				.append(CREATED_AT, Date.from(message.getCreatedAt()));
+		mongo.insert(document, collectionName);
+	}
+
+	@NonNull
+	@Override
+	public List<OutboxMessage> poll(final int limit) {
+		Query query = new Query().with(Sort.by(ID)).limit(limit);
+		return mongo.find(query, Document.class, collectionName).stream()
+				.map(document -> new OutboxMessage(
+						document.getObjectId(ID),
+						document.getString(EVENT_TYPE),
+						document.getString(ENTITY_TYPE),
+						document.getString(ENTITY_ID),
+						payload(document.get(PAYLOAD)),
+						document.getDate(CREATED_AT).toInstant()
+				))
+				.collect(Collectors.toList());
+	}
+
+	private static byte[] payload(final Object value) {
+		return value instanceof Binary ? ((Binary) value).getData() : (byte[]) value;
+	}
+
+	@Override
+	public void delete(@NonNull final List<OutboxMessage> messages) {
+		if (messages.isEmpty()) return;
+		List<ObjectId> ids = messages.stream().map(message -> (ObjectId) message.getId()).collect(Collectors.toList());
+		mongo.remove(new Query(Criteria.where(ID).in(ids)), collectionName);
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.lang.NonNull;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * {@link MongoRepo} which supports the {@link Filter}s (see {@link FilterRepo}). The filters are executed
+ * by {@link SimpleMongoRepo}, so the repository must be based on it:
+ * <pre>{@code @EnableMongoRepositories(repositoryBaseClass = SimpleMongoRepo.class)}</pre>
+ *
+ * @param <T> type of the entity which extends {@link IdentifiableEntity}
+ * @param <ID> type of the entity identifier
+ *
+ * @author Sergei Poznanski
+ */
+@NoRepositoryBean
+public interface FilterMongoRepo<T extends IdentifiableEntity<ID>, ID extends Serializable> extends MongoRepo<T, ID>, FilterRepo<T> {
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The filter is executed by {@link SimpleMongoRepo#findAllBy(Filter, Pageable)}.
+	 *
+	 * @throws IllegalStateException if the repository is not based on {@link SimpleMongoRepo}
+	 */
+	@Override
+	@NonNull
+	default Page<T> getAllBy(@NonNull final Filter filter, @NonNull final Pageable pageable) {
+		return SimpleMongoRepo.<T, ID>required(this).findAllBy(filter, pageable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The filter is executed by {@link SimpleMongoRepo#findAllBy(Filter, Sort)}.
+	 *
+	 * @throws IllegalStateException if the repository is not based on {@link SimpleMongoRepo}
+	 */
+	@Override
+	@NonNull
+	default List<T> getAllBy(@NonNull final Filter filter, @NonNull final Sort sort) {
+		return SimpleMongoRepo.<T, ID>required(this).findAllBy(filter, sort);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The filter is executed by {@link SimpleMongoRepo#countBy(Filter)}.
+	 *
+	 * @throws IllegalStateException if the repository is not based on {@link SimpleMongoRepo}
+	 */
+	@Override
+	default long countBy(@NonNull final Filter filter) {
+		return SimpleMongoRepo.<T, ID>required(this).countBy(filter);
+	}
+}
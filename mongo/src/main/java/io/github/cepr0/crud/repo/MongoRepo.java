@@ -17,20 +17,30 @@
 package io.github.cepr0.crud.repo;
 
 import io.github.cepr0.crud.model.IdentifiableEntity;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
+import static io.github.cepr0.crud.support.CrudUtils.partition;
 import static java.lang.String.format;
 
 /**
@@ -69,6 +79,24 @@ public interface MongoRepo<T extends IdentifiableEntity<ID>, ID extends Serializ
 				.map(target -> save(mapper.apply(source, target)));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the repository is based on {@link SimpleMongoRepo} (see {@code EnableMongoRepositories#repositoryBaseClass}),
+	 * the document is updated with one 'findAndModify' command (see {@link SimpleMongoRepo#updateFields}),
+	 * which doesn't take into account {@link MongoRepo#getToUpdateById}. Otherwise the document is loaded
+	 * with {@link MongoRepo#getToUpdateById} and saved with the new values of the given properties.
+	 */
+	@Override
+	@NonNull
+	default Optional<T> updateFields(@NonNull final ID id, @Nullable final Object version, @NonNull final Map<String, ?> fields) {
+		Optional<SimpleMongoRepo<T, ID>> base = SimpleMongoRepo.of(this);
+		if (base.isPresent()) {
+			return base.get().updateFields(id, version, fields);
+		}
+		return CrudRepo.super.updateFields(id, version, fields);
+	}
+
 	/**
 	 * Retrieves an entity to be deleted, by its id.
 	 * Used in {@link MongoRepo#del} method.
@@ -88,10 +116,166 @@ public interface MongoRepo<T extends IdentifiableEntity<ID>, ID extends Serializ
 		});
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are inserted with {@link MongoRepository#insert(Iterable)} (i.e. with one 'insertMany' command)
+	 * by chunks of {@link MongoRepo#batchSize()} size.
+	 */
+	@Override
+	@NonNull
+	default List<T> createAll(@NonNull final Collection<T> entities) {
+		Objects.requireNonNull(entities, "The given entities must not be null!");
+		List<T> result = new ArrayList<>(entities.size());
+		for (List<T> chunk : partition(entities, batchSize())) {
+			result.addAll(insert(chunk));
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieves entities to be updated, by their ids.
+	 * Used in the {@link MongoRepo#updateAll} method. If you override {@link MongoRepo#getToUpdateById}
+	 * you should override this method accordingly.
+	 *
+	 * @param ids must not be {@code null}
+	 * @return the found entities
+	 */
+	@NonNull
+	List<T> getToUpdateByIdIn(@NonNull Collection<ID> ids);
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are read with {@link MongoRepo#getToUpdateByIdIn} (i.e. with one query per chunk)
+	 * by chunks of {@link MongoRepo#batchSize()} size. If the repository is based on {@link SimpleMongoRepo},
+	 * each chunk is written with one 'bulkWrite' command (see {@link SimpleMongoRepo#replaceAll}),
+	 * otherwise it's saved with {@link MongoRepository#saveAll}.
+	 */
+	@Override
+	@NonNull
+	default <S> List<T> updateAll(@NonNull final Map<ID, S> sources, @NonNull final BiFunction<S, T, T> mapper) {
+		Objects.requireNonNull(sources, "The given sources must not be null!");
+		Objects.requireNonNull(mapper, "The given mapper must not be null!");
+		Optional<SimpleMongoRepo<T, ID>> base = SimpleMongoRepo.of(this);
+		List<T> result = new ArrayList<>(sources.size());
+		for (List<ID> chunk : partition(sources.keySet(), batchSize())) {
+			List<T> updated = new ArrayList<>(chunk.size());
+			for (T target : getToUpdateByIdIn(chunk)) {
+				updated.add(mapper.apply(sources.get(target.getId()), target));
+			}
+			result.addAll(base.isPresent() ? base.get().replaceAll(updated) : saveAll(updated));
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieves entities to be deleted, by their ids.
+	 * Used in the {@link MongoRepo#delAll} method. If you override {@link MongoRepo#getToDeleteById}
+	 * you should override this method accordingly.
+	 *
+	 * @param ids must not be {@code null}
+	 * @return the found entities
+	 */
+	@NonNull
+	List<T> getToDeleteByIdIn(@NonNull Collection<ID> ids);
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entities are read with {@link MongoRepo#getToDeleteByIdIn} (i.e. with one query per chunk)
+	 * by chunks of {@link MongoRepo#batchSize()} size. If the repository is based on {@link SimpleMongoRepo},
+	 * the found documents of each chunk are removed with one command (see {@link SimpleMongoRepo#removeAllById}),
+	 * otherwise every entity is deleted with {@link MongoRepo#delete}. So if you override {@code delete}
+	 * (to implement a 'soft delete', for example) override this method too.
+	 */
+	@Override
+	@NonNull
+	default List<T> delAll(@NonNull final Collection<ID> ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		Optional<SimpleMongoRepo<T, ID>> base = SimpleMongoRepo.of(this);
+		List<T> result = new ArrayList<>(ids.size());
+		for (List<ID> chunk : partition(ids, batchSize())) {
+			List<T> found = getToDeleteByIdIn(chunk);
+			if (base.isPresent()) {
+				List<ID> foundIds = new ArrayList<>(found.size());
+				for (T entity : found) {
+					foundIds.add(entity.getId());
+				}
+				base.get().removeAllById(foundIds);
+			} else {
+				found.forEach(this::delete);
+			}
+			result.addAll(found);
+		}
+		return result;
+	}
+
 	@Override
 	@NonNull
 	Optional<T> getById(@NonNull ID id);
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the repository is based on {@link SimpleMongoRepo}, the document is read with the fields of the plan only
+	 * (see {@link SimpleMongoRepo#findById(Serializable, FetchPlan)}), otherwise the plan is ignored.
+	 * Note that the entities read with a plan must not be saved, because their other properties are {@code null}.
+	 */
+	@Override
+	@NonNull
+	default Optional<T> getById(@NonNull final ID id, @Nullable final FetchPlan plan) {
+		Optional<SimpleMongoRepo<T, ID>> base = SimpleMongoRepo.of(this);
+		if (plan != null && base.isPresent()) {
+			return base.get().findById(id, plan);
+		}
+		return getById(id);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the repository is based on {@link SimpleMongoRepo}, only the version is read
+	 * (see {@link SimpleMongoRepo#findVersionById}), otherwise the document is loaded.
+	 */
+	@Override
+	@NonNull
+	default Optional<Object> getVersionById(@NonNull final ID id) {
+		Optional<SimpleMongoRepo<T, ID>> base = SimpleMongoRepo.of(this);
+		if (base.isPresent()) {
+			return base.get().findVersionById(id);
+		}
+		return CrudRepo.super.getVersionById(id);
+	}
+
+	/**
+	 * Retrieves entities by their ids.
+	 * Used in the {@link MongoRepo#getAllById} method. If you override {@link MongoRepo#getById(Serializable)}
+	 * you should override this method accordingly.
+	 *
+	 * @param ids must not be {@code null}
+	 * @return the found entities
+	 */
+	@NonNull
+	List<T> getByIdIn(@NonNull Collection<ID> ids);
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The documents are read with {@link MongoRepo#getByIdIn} by chunks of {@link MongoRepo#batchSize()} size
+	 * (i.e. with one {@code '$in'} query per chunk).
+	 */
+	@Override
+	@NonNull
+	default List<T> getAllById(@NonNull final Collection<ID> ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		List<T> result = new ArrayList<>(ids.size());
+		for (List<ID> chunk : partition(ids, batchSize())) {
+			result.addAll(getByIdIn(chunk));
+		}
+		return result;
+	}
+
 	/**
 	 * Returns an object with the given identifier. Throws a {@link DocNotFoundException} if the object is not found.
 	 *
@@ -118,4 +302,157 @@ public interface MongoRepo<T extends IdentifiableEntity<ID>, ID extends Serializ
 	@Override
 	@NonNull
 	List<T> getAll(@NonNull Sort sort);
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the repository is based on {@link SimpleMongoRepo}, the documents are read with the fields of the plan only
+	 * (see {@link SimpleMongoRepo#findAll(Pageable, FetchPlan)}), otherwise the plan is ignored.
+	 */
+	@Override
+	@NonNull
+	default Page<T> getAll(@NonNull final Pageable pageable, @Nullable final FetchPlan plan) {
+		Optional<SimpleMongoRepo<T, ID>> base = SimpleMongoRepo.of(this);
+		if (plan != null && base.isPresent()) {
+			return base.get().findAll(pageable, plan);
+		}
+		return getAll(pageable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the repository is based on {@link SimpleMongoRepo}, the documents are read with the fields of the plan only
+	 * (see {@link SimpleMongoRepo#findAll(Sort, FetchPlan)}), otherwise the plan is ignored.
+	 */
+	@Override
+	@NonNull
+	default List<T> getAll(@NonNull final Sort sort, @Nullable final FetchPlan plan) {
+		Optional<SimpleMongoRepo<T, ID>> base = SimpleMongoRepo.of(this);
+		if (plan != null && base.isPresent()) {
+			return base.get().findAll(sort, plan);
+		}
+		return getAll(sort);
+	}
+
+	@Query(value = "{id: { $exists: true }}", count = true)
+	@Override
+	long countAll();
+
+	@Query("{id: { $exists: true }}")
+	@Override
+	@NonNull
+	Slice<T> getSlice(@NonNull Pageable pageable);
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the repository is based on {@link SimpleMongoRepo}, the documents are read with the fields of the plan only
+	 * (see {@link SimpleMongoRepo#findSlice(Pageable, FetchPlan)}), otherwise the plan is ignored.
+	 */
+	@Override
+	@NonNull
+	default Slice<T> getSlice(@NonNull final Pageable pageable, @Nullable final FetchPlan plan) {
+		Optional<SimpleMongoRepo<T, ID>> base = SimpleMongoRepo.of(this);
+		if (plan != null && base.isPresent()) {
+			return base.get().findSlice(pageable, plan);
+		}
+		return getSlice(pageable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the repository is based on {@link SimpleMongoRepo}, the documents are read straight into the projection
+	 * (see {@link SimpleMongoRepo#findAllAs(Pageable, Class, Set)}), otherwise they are read whole and converted in memory.
+	 */
+	@Override
+	@NonNull
+	default <P> Page<P> getAllAs(@NonNull final Pageable pageable, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		Optional<SimpleMongoRepo<T, ID>> base = SimpleMongoRepo.of(this);
+		if (base.isPresent()) {
+			return base.get().findAllAs(pageable, projection, properties);
+		}
+		return CrudRepo.super.getAllAs(pageable, projection, properties);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the repository is based on {@link SimpleMongoRepo}, the documents are read straight into the projection
+	 * (see {@link SimpleMongoRepo#findSliceAs(Pageable, Class, Set)}), otherwise they are read whole and converted in memory.
+	 */
+	@Override
+	@NonNull
+	default <P> Slice<P> getSliceAs(@NonNull final Pageable pageable, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		Optional<SimpleMongoRepo<T, ID>> base = SimpleMongoRepo.of(this);
+		if (base.isPresent()) {
+			return base.get().findSliceAs(pageable, projection, properties);
+		}
+		return CrudRepo.super.getSliceAs(pageable, projection, properties);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the repository is based on {@link SimpleMongoRepo}, the documents are read straight into the projection
+	 * (see {@link SimpleMongoRepo#findAllAs(Sort, Class, Set)}), otherwise they are read whole and converted in memory.
+	 */
+	@Override
+	@NonNull
+	default <P> List<P> getAllAs(@NonNull final Sort sort, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		Optional<SimpleMongoRepo<T, ID>> base = SimpleMongoRepo.of(this);
+		if (base.isPresent()) {
+			return base.get().findAllAs(sort, projection, properties);
+		}
+		return CrudRepo.super.getAllAs(sort, projection, properties);
+	}
+
+	/**
+	 * Returns a {@link Slice} of entities which ids are greater than the given one. Used in the {@link MongoRepo#getAfter} method.
+	 *
+	 * @param id must not be {@code null}
+	 * @param pageable must not be {@code null}
+	 * @return a slice of entities
+	 */
+	@NonNull
+	Slice<T> getByIdGreaterThan(@NonNull Object id, @NonNull Pageable pageable);
+
+	/**
+	 * Returns a {@link Slice} of entities which ids are less than the given one. Used in the {@link MongoRepo#getAfter} method.
+	 *
+	 * @param id must not be {@code null}
+	 * @param pageable must not be {@code null}
+	 * @return a slice of entities
+	 */
+	@NonNull
+	Slice<T> getByIdLessThan(@NonNull Object id, @NonNull Pageable pageable);
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Note that string ids, which are valid {@link ObjectId}s, are converted to {@link ObjectId},
+	 * because Spring Data MongoDB doesn't convert the ids in the range queries.
+	 */
+	@Override
+	@NonNull
+	default Slice<T> getAfter(@Nullable final ID lastId, final int size, @NonNull final Sort.Direction direction) {
+		Objects.requireNonNull(direction, "The given direction must not be null!");
+		Pageable pageable = PageRequest.of(0, size, Sort.by(direction, "id"));
+		if (lastId == null) {
+			return getSlice(pageable);
+		}
+		Object key = lastId instanceof String && ObjectId.isValid((String) lastId) ? new ObjectId((String) lastId) : lastId;
+		return direction.isAscending() ? getByIdGreaterThan(key, pageable) : getByIdLessThan(key, pageable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The stream is backed by the MongoDB cursor.
+	 */
+	@Query("{id: { $exists: true }}")
+	@Override
+	@NonNull
+	Stream<T> streamAll(@NonNull Sort sort);
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * Implementation of {@link ReactiveCrudRepo} which extends {@link ReactiveMongoRepository} and all it functionality.
+ *
+ * @param <T> type of the entity which extends {@link IdentifiableEntity}
+ * @param <ID> type of the entity identifier
+ *
+ * @author Sergei Poznanski
+ */
+@NoRepositoryBean
+public interface ReactiveMongoRepo<T extends IdentifiableEntity<ID>, ID extends Serializable> extends ReactiveCrudRepo<T, ID>, ReactiveMongoRepository<T, ID> {
+	@Override
+	@NonNull
+	default Mono<T> create(@NonNull final T entity) {
+		Objects.requireNonNull(entity, "The given entity must not be null!");
+		return insert(entity);
+	}
+
+	/**
+	 * Retrieves an entity to be updated, by its id.
+	 * Used in the {@link ReactiveMongoRepo#update} method.
+	 *
+	 * @param id must not be {@code null}
+	 * @return {@link Mono} emitting the entity with the given id, or empty {@link Mono} if none found
+	 */
+	@NonNull
+	Mono<T> getToUpdateById(@NonNull ID id);
+
+	@Override
+	@NonNull
+	default <S> Mono<T> update(@NonNull final ID id, @NonNull final S source, @NonNull final BiFunction<S, T, T> mapper) {
+		Objects.requireNonNull(source, "The given source must not be null!");
+		Objects.requireNonNull(mapper, "The given mapper must not be null!");
+		return getToUpdateById(id)
+				.map(target -> mapper.apply(source, target))
+				.flatMap(this::save);
+	}
+
+	/**
+	 * Retrieves an entity to be deleted, by its id.
+	 * Used in {@link ReactiveMongoRepo#del} method.
+	 *
+	 * @param id must not be {@code null}
+	 * @return {@link Mono} emitting the entity with the given id, or empty {@link Mono} if none found
+	 */
+	@NonNull
+	Mono<T> getToDeleteById(@NonNull ID id);
+
+	@Override
+	@NonNull
+	default Mono<T> del(@NonNull final ID id) {
+		return getToDeleteById(id).flatMap(found -> delete(found).thenReturn(found));
+	}
+
+	@Override
+	@NonNull
+	Mono<T> getById(@NonNull ID id);
+
+	@Query("{id: { $exists: true }}")
+	@Override
+	@NonNull
+	Flux<T> getAll();
+
+	@Query("{id: { $exists: true }}")
+	@Override
+	@NonNull
+	Flux<T> getAll(@NonNull Pageable pageable);
+
+	@Query("{id: { $exists: true }}")
+	@Override
+	@NonNull
+	Flux<T> getAll(@NonNull Sort sort);
+
+	@Query(value = "{id: { $exists: true }}", count = true)
+	@Override
+	@NonNull
+	Mono<Long> countAll();
+}
@@ -0,0 +1,577 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.springframework.aop.framework.Advised;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.query.MongoEntityInformation;
+import org.springframework.data.mongodb.repository.support.SimpleMongoRepository;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Repository base class which extends {@link SimpleMongoRepository} with the operations
+ * that need {@link MongoOperations}, for example the single-command {@link MongoRepo#updateFields}
+ * or the reads with a {@link FetchPlan}, with a {@link Filter} or into a projection.
+ * <p>
+ * To use it, set it as the repository base class:
+ * <pre>{@code @EnableMongoRepositories(repositoryBaseClass = SimpleMongoRepo.class)}</pre>
+ *
+ * @param <T> type of the entity
+ * @param <ID> type of the entity identifier
+ *
+ * @author Sergei Poznanski
+ */
+public class SimpleMongoRepo<T, ID extends Serializable> extends SimpleMongoRepository<T, ID> {
+
+	// the filter shapes come from the requests, so their number is limited (the other ones are resolved every time)
+	private static final int MAX_FILTER_SHAPES = 256;
+
+	private static final ConversionService CONVERSIONS = new DefaultFormattingConversionService();
+
+	private final MongoEntityInformation<T, ID> entityInformation;
+	private final MongoOperations mongoOperations;
+	private final ConcurrentMap<String, List<Class<?>>> filterShapes = new ConcurrentHashMap<>();
+
+	public SimpleMongoRepo(final MongoEntityInformation<T, ID> metadata, final MongoOperations mongoOperations) {
+		super(metadata, mongoOperations);
+		this.entityInformation = metadata;
+		this.mongoOperations = mongoOperations;
+	}
+
+	/**
+	 * Updates the document, found by its id (and the version if it's given), with one 'findAndModify' command,
+	 * which sets the given properties with {@code $set} and increments the {@code @Version} property (if any).
+	 *
+	 * @param id must not be {@code null}
+	 * @param version the expected version of the document, or {@code null} to not check it
+	 * @param fields the new values of the document properties by their names, must not be {@code null}
+	 * @return the updated document or {@code Optional#empty()} if none found
+	 * @throws OptimisticLockingFailureException if the document is found but its version differs from the given one
+	 */
+	@NonNull
+	public Optional<T> updateFields(@NonNull final ID id, @Nullable final Object version, @NonNull final Map<String, ?> fields) {
+		Objects.requireNonNull(id, "The given id must not be null!");
+		Objects.requireNonNull(fields, "The given fields must not be null!");
+
+		MongoPersistentEntity<?> entity = mongoOperations.getConverter().getMappingContext()
+				.getRequiredPersistentEntity(entityInformation.getJavaType());
+		PersistentProperty<?> versionProperty = entity.getVersionProperty();
+		boolean checkVersion = versionProperty != null && version != null;
+
+		Criteria criteria = Criteria.where(entityInformation.getIdAttribute()).is(id);
+		if (checkVersion) {
+			criteria.and(versionProperty.getName()).is(version);
+		}
+
+		Update update = new Update();
+		fields.forEach(update::set);
+		if (versionProperty != null) {
+			update.inc(versionProperty.getName(), 1);
+		}
+
+		T updated = mongoOperations.findAndModify(
+				Query.query(criteria),
+				update,
+				FindAndModifyOptions.options().returnNew(true),
+				entityInformation.getJavaType(),
+				entityInformation.getCollectionName()
+		);
+		if (updated == null && checkVersion && existsById(id)) {
+			throw new OptimisticLockingFailureException("The version of the document with id '" + id + "' differs from the given one!");
+		}
+		return Optional.ofNullable(updated);
+	}
+
+	/**
+	 * Replaces the given (existing) documents with one unordered 'bulkWrite' command. As {@link MongoOperations#save}
+	 * does, the replacement of the versioned document is matched by its id and {@code @Version}, and the version
+	 * is incremented. Note that the mapping lifecycle events (and auditing) are not applied.
+	 * <p>
+	 * The command is not atomic (without a transaction), so if the version of some documents differs, the other ones
+	 * are replaced anyway.
+	 *
+	 * @param entities must not be {@code null}
+	 * @return the replaced documents
+	 * @throws OptimisticLockingFailureException if some versioned documents are not matched by their versions
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	@NonNull
+	public <S extends T> List<S> replaceAll(@NonNull final Collection<S> entities) {
+		Objects.requireNonNull(entities, "The given entities must not be null!");
+		if (entities.isEmpty()) {
+			return new ArrayList<>(0);
+		}
+		MongoPersistentEntity<?> entity = mongoOperations.getConverter().getMappingContext()
+				.getRequiredPersistentEntity(entityInformation.getJavaType());
+		MongoPersistentProperty versionProperty = entity.getVersionProperty();
+
+		List<S> result = new ArrayList<>(entities.size());
+		List<WriteModel<Document>> replacements = new ArrayList<>(entities.size());
+		for (S source : entities) {
+			PersistentPropertyAccessor accessor = entity.getPropertyAccessor(source);
+			Object version = versionProperty != null ? accessor.getProperty(versionProperty) : null;
+			if (versionProperty != null) {
+				long next = version != null ? ((Number) version).longValue() + 1 : 0;
+				accessor.setProperty(versionProperty, CONVERSIONS.convert(next, ClassUtils.resolvePrimitiveIfNecessary(versionProperty.getType())));
+			}
+			S replaced = (S) accessor.getBean();
+			Document document = new Document();
+			mongoOperations.getConverter().write(replaced, document);
+			Document filter = new Document("_id", document.get("_id"));
+			if (versionProperty != null && version != null) {
+				filter.append(versionProperty.getFieldName(), version);
+			}
+			replacements.add(new ReplaceOneModel<>(filter, document));
+			result.add(replaced);
+		}
+
+		BulkWriteResult written = mongoOperations.execute(entityInformation.getCollectionName(),
+				collection -> collection.bulkWrite(replacements, new BulkWriteOptions().ordered(false)));
+		if (versionProperty != null && written != null && written.getMatchedCount() < replacements.size()) {
+			throw new OptimisticLockingFailureException((replacements.size() - written.getMatchedCount())
+					+ " of the documents were not replaced, their versions differ from the given ones!");
+		}
+		return result;
+	}
+
+	/**
+	 * Removes the documents with the given ids with one 'delete' command.
+	 *
+	 * @param ids must not be {@code null}
+	 */
+	public void removeAllById(@NonNull final Collection<ID> ids) {
+		Objects.requireNonNull(ids, "The given ids must not be null!");
+		if (ids.isEmpty()) {
+			return;
+		}
+		Query query = Query.query(Criteria.where(entityInformation.getIdAttribute()).in(ids));
+		mongoOperations.remove(query, entityInformation.getJavaType(), entityInformation.getCollectionName());
+	}
+
+	/**
+	 * Reads the {@code @Version} property of the document by its id, with the projection of this property only.
+	 *
+	 * @param id must not be {@code null}
+	 * @return the version of the document or {@code Optional#empty()} if none found or the document has no version
+	 */
+	@NonNull
+	public Optional<Object> findVersionById(@NonNull final ID id) {
+		Objects.requireNonNull(id, "The given id must not be null!");
+		MongoPersistentEntity<?> entity = mongoOperations.getConverter().getMappingContext()
+				.getRequiredPersistentEntity(entityInformation.getJavaType());
+		PersistentProperty<?> versionProperty = entity.getVersionProperty();
+		if (versionProperty == null) {
+			return Optional.empty();
+		}
+		Query query = Query.query(Criteria.where(entityInformation.getIdAttribute()).is(id));
+		query.fields().include(versionProperty.getName());
+		T found = mongoOperations.findOne(query, entityInformation.getJavaType(), entityInformation.getCollectionName());
+		return Optional.ofNullable(found).map(document -> entity.getPropertyAccessor(document).getProperty(versionProperty));
+	}
+
+	/**
+	 * Reads the document by its id, with the fields of the given plan only (see {@link #project}).
+	 *
+	 * @param id must not be {@code null}
+	 * @param plan must not be {@code null}
+	 * @return the found document or {@code Optional#empty()} if none found
+	 */
+	@NonNull
+	public Optional<T> findById(@NonNull final ID id, @NonNull final FetchPlan plan) {
+		Objects.requireNonNull(id, "The given id must not be null!");
+		Query query = project(Query.query(Criteria.where(entityInformation.getIdAttribute()).is(id)), plan);
+		return Optional.ofNullable(mongoOperations.findOne(query, entityInformation.getJavaType(), entityInformation.getCollectionName()));
+	}
+
+	/**
+	 * Reads all documents sorted by the given options, with the fields of the given plan only (see {@link #project}).
+	 *
+	 * @param sort must not be {@code null}
+	 * @param plan must not be {@code null}
+	 * @return the found documents
+	 */
+	@NonNull
+	public List<T> findAll(@NonNull final Sort sort, @NonNull final FetchPlan plan) {
+		Objects.requireNonNull(sort, "The given sort must not be null!");
+		return find(project(allQuery(), plan).with(sort));
+	}
+
+	/**
+	 * Reads a page of documents, with the fields of the given plan only (see {@link #project}).
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param plan must not be {@code null}
+	 * @return the page of documents
+	 */
+	@NonNull
+	public Page<T> findAll(@NonNull final Pageable pageable, @NonNull final FetchPlan plan) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		List<T> content = find(project(allQuery(), plan).with(pageable));
+		return PageableExecutionUtils.getPage(content, pageable,
+				() -> mongoOperations.count(allQuery(), entityInformation.getJavaType(), entityInformation.getCollectionName()));
+	}
+
+	/**
+	 * Reads a slice of documents, with the fields of the given plan only (see {@link #project}).
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param plan must not be {@code null}
+	 * @return the slice of documents
+	 */
+	@NonNull
+	public Slice<T> findSlice(@NonNull final Pageable pageable, @NonNull final FetchPlan plan) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		Query query = project(allQuery(), plan).with(pageable.getSort());
+		if (pageable.isUnpaged()) {
+			return new SliceImpl<>(find(query), pageable, false);
+		}
+		List<T> content = find(query.skip(pageable.getOffset()).limit(pageable.getPageSize() + 1));
+		boolean hasNext = content.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+	}
+
+	/**
+	 * Reads all documents sorted by the given options straight into the given projection (see {@link #findAs}).
+	 *
+	 * @param sort must not be {@code null}
+	 * @param projection must not be {@code null}
+	 * @param properties the properties to read, or {@code null} to read all properties of the projection
+	 * @param <P> type of projection
+	 * @return the found projections
+	 */
+	@NonNull
+	public <P> List<P> findAllAs(@NonNull final Sort sort, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		Objects.requireNonNull(sort, "The given sort must not be null!");
+		return findAs(allQuery().with(sort), projection, properties);
+	}
+
+	/**
+	 * Reads a page of documents straight into the given projection (see {@link #findAs}).
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param projection must not be {@code null}
+	 * @param properties the properties to read, or {@code null} to read all properties of the projection
+	 * @param <P> type of projection
+	 * @return the page of projections
+	 */
+	@NonNull
+	public <P> Page<P> findAllAs(@NonNull final Pageable pageable, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		List<P> content = findAs(allQuery().with(pageable), projection, properties);
+		return PageableExecutionUtils.getPage(content, pageable,
+				() -> mongoOperations.count(allQuery(), entityInformation.getJavaType(), entityInformation.getCollectionName()));
+	}
+
+	/**
+	 * Reads a slice of documents straight into the given projection (see {@link #findAs}).
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param projection must not be {@code null}
+	 * @param properties the properties to read, or {@code null} to read all properties of the projection
+	 * @param <P> type of projection
+	 * @return the slice of projections
+	 */
+	@NonNull
+	public <P> Slice<P> findSliceAs(@NonNull final Pageable pageable, @NonNull final Class<P> projection, @Nullable final Set<String> properties) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		Query query = allQuery().with(pageable.getSort());
+		if (pageable.isUnpaged()) {
+			return new SliceImpl<>(findAs(query, projection, properties), pageable, false);
+		}
+		List<P> content = findAs(query.skip(pageable.getOffset()).limit(pageable.getPageSize() + 1), projection, properties);
+		boolean hasNext = content.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+	}
+
+	/**
+	 * Reads the documents with the fluent {@link MongoOperations#query} API, which maps them straight into
+	 * the projection: the interface projection restricts the read fields to its properties ({@code $project}),
+	 * the class one is instantiated by the converter from the document. If the properties are given,
+	 * the read fields are restricted to them.
+	 */
+	private <P> List<P> findAs(final Query query, final Class<P> projection, @Nullable final Set<String> properties) {
+		Objects.requireNonNull(projection, "The given projection must not be null!");
+		if (properties != null) {
+			properties.forEach(query.fields()::include);
+		}
+		return mongoOperations.query(entityInformation.getJavaType())
+				.inCollection(entityInformation.getCollectionName())
+				.as(projection)
+				.matching(query)
+				.all();
+	}
+
+	/**
+	 * Reads a page of documents matching the given filter (see {@link #filterQuery}).
+	 *
+	 * @param filter must not be {@code null}
+	 * @param pageable must not be {@code null}
+	 * @return the page of documents
+	 * @throws IllegalArgumentException if the filter properties are unknown or the values can't be converted to their types
+	 */
+	@NonNull
+	public Page<T> findAllBy(@NonNull final Filter filter, @NonNull final Pageable pageable) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		List<T> content = find(filterQuery(filter).with(pageable));
+		return PageableExecutionUtils.getPage(content, pageable, () -> countBy(filter));
+	}
+
+	/**
+	 * Reads all documents matching the given filter sorted by the given options (see {@link #filterQuery}).
+	 *
+	 * @param filter must not be {@code null}
+	 * @param sort must not be {@code null}
+	 * @return the found documents
+	 * @throws IllegalArgumentException if the filter properties are unknown or the values can't be converted to their types
+	 */
+	@NonNull
+	public List<T> findAllBy(@NonNull final Filter filter, @NonNull final Sort sort) {
+		Objects.requireNonNull(sort, "The given sort must not be null!");
+		return find(filterQuery(filter).with(sort));
+	}
+
+	/**
+	 * Counts the documents matching the given filter (see {@link #filterQuery}).
+	 *
+	 * @param filter must not be {@code null}
+	 * @return the number of documents
+	 * @throws IllegalArgumentException if the filter properties are unknown or the values can't be converted to their types
+	 */
+	public long countBy(@NonNull final Filter filter) {
+		return mongoOperations.count(filterQuery(filter), entityInformation.getJavaType(), entityInformation.getCollectionName());
+	}
+
+	/**
+	 * Builds the query of the given filter: the conditions are converted to the {@link Criteria} of the properties,
+	 * and the values - to the types of the properties, which are resolved by the mapping context and cached
+	 * by the shape of the filter.
+	 */
+	private Query filterQuery(final Filter filter) {
+		Objects.requireNonNull(filter, "The given filter must not be null!");
+		List<Filter.Condition> conditions = filter.getConditions();
+		List<Class<?>> types = filterTypes(filter);
+		Criteria[] criteria = new Criteria[conditions.size() + 1];
+		criteria[0] = Criteria.where(entityInformation.getIdAttribute()).exists(true);
+		for (int i = 0; i < conditions.size(); i++) {
+			criteria[i + 1] = criteriaOf(conditions.get(i), types.get(i));
+		}
+		return Query.query(new Criteria().andOperator(criteria));
+	}
+
+	private List<Class<?>> filterTypes(final Filter filter) {
+		String shape = filter.getShape();
+		List<Class<?>> types = filterShapes.get(shape);
+		if (types == null) {
+			MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> context = mongoOperations.getConverter().getMappingContext();
+			types = new ArrayList<>();
+			for (Filter.Condition condition : filter.getConditions()) {
+				types.add(ClassUtils.resolvePrimitiveIfNecessary(typeOf(context, condition.getProperty())));
+			}
+			if (filterShapes.size() < MAX_FILTER_SHAPES) {
+				filterShapes.putIfAbsent(shape, types);
+			}
+		}
+		return types;
+	}
+
+	private Class<?> typeOf(final MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> context, final String path) {
+		MongoPersistentEntity<?> entity = context.getRequiredPersistentEntity(entityInformation.getJavaType());
+		String[] names = path.split("\\.");
+		for (int i = 0; ; i++) {
+			MongoPersistentProperty property = entity.getPersistentProperty(names[i]);
+			if (property == null) {
+				throw new IllegalArgumentException("Unknown filter property '" + path + "' of " + entityInformation.getJavaType().getSimpleName());
+			}
+			if (i == names.length - 1) {
+				return property.getActualType();
+			}
+			entity = context.getPersistentEntity(property.getActualType());
+			if (entity == null) {
+				throw new IllegalArgumentException("Unknown filter property '" + path + "' of " + entityInformation.getJavaType().getSimpleName());
+			}
+		}
+	}
+
+	private static Criteria criteriaOf(final Filter.Condition condition, final Class<?> type) {
+		Criteria criteria = Criteria.where(condition.getProperty());
+		switch (condition.getOperator()) {
+			case EQ: return criteria.is(convert(condition, condition.getValue(), type));
+			case NE: return criteria.ne(convert(condition, condition.getValue(), type));
+			case GT: return criteria.gt(convert(condition, condition.getValue(), type));
+			case GE: return criteria.gte(convert(condition, condition.getValue(), type));
+			case LT: return criteria.lt(convert(condition, condition.getValue(), type));
+			case LE: return criteria.lte(convert(condition, condition.getValue(), type));
+			case IN: {
+				Collection<?> values = (Collection<?>) Objects.requireNonNull(condition.getValue());
+				List<Object> converted = new ArrayList<>(values.size());
+				for (Object value : values) {
+					converted.add(convert(condition, value, type));
+				}
+				return criteria.in(converted);
+			}
+			case LIKE: return criteria.regex(likeToRegex(String.valueOf(condition.getValue())));
+			case NULL: return criteria.is(null);
+			case NOT_NULL: return criteria.ne(null);
+			default: throw new IllegalArgumentException("Unsupported filter operator " + condition.getOperator());
+		}
+	}
+
+	private static Object convert(final Filter.Condition condition, @Nullable final Object value, final Class<?> type) {
+		try {
+			return CONVERSIONS.convert(value, type);
+		} catch (ConversionException e) {
+			throw new IllegalArgumentException("The value '" + value + "' of the filter condition '" + condition.getProperty() + "' can't be converted to " + type.getSimpleName(), e);
+		}
+	}
+
+	/**
+	 * Converts the pattern of {@link Filter.Operator#LIKE} ({@code %} - any number of characters,
+	 * {@code _} - a single character) to the anchored regular expression.
+	 */
+	private static String likeToRegex(final String pattern) {
+		StringBuilder result = new StringBuilder("^");
+		StringBuilder literal = new StringBuilder();
+		for (char c : pattern.toCharArray()) {
+			if (c == '%' || c == '_') {
+				if (literal.length() > 0) {
+					result.append(Pattern.quote(literal.toString()));
+					literal.setLength(0);
+				}
+				result.append(c == '%' ? ".*" : ".");
+			} else {
+				literal.append(c);
+			}
+		}
+		if (literal.length() > 0) {
+			result.append(Pattern.quote(literal.toString()));
+		}
+		return result.append('$').toString();
+	}
+
+	/**
+	 * Restricts the fields of the found documents to the attribute paths of the given plan (the id and the
+	 * {@code @Version} property are always included). Named plans are not supported.
+	 * <p>
+	 * Note that the other properties of the read entities are {@code null}, so such entities must not be saved.
+	 *
+	 * @throws IllegalArgumentException if the plan is named
+	 */
+	private Query project(final Query query, final FetchPlan plan) {
+		Objects.requireNonNull(plan, "The given plan must not be null!");
+		if (plan.isNamed()) {
+			throw new IllegalArgumentException("Named fetch plans are not supported by Mongo repositories: " + plan.getName());
+		}
+		plan.getAttributePaths().forEach(query.fields()::include);
+		PersistentProperty<?> versionProperty = mongoOperations.getConverter().getMappingContext()
+				.getRequiredPersistentEntity(entityInformation.getJavaType())
+				.getVersionProperty();
+		if (versionProperty != null) {
+			query.fields().include(versionProperty.getName());
+		}
+		return query;
+	}
+
+	private Query allQuery() {
+		// the same as the queries of MongoRepo#getAll methods
+		return Query.query(Criteria.where(entityInformation.getIdAttribute()).exists(true));
+	}
+
+	private List<T> find(final Query query) {
+		return mongoOperations.find(query, entityInformation.getJavaType(), entityInformation.getCollectionName());
+	}
+
+	/**
+	 * Returns the {@link SimpleMongoRepo} which backs the given repository proxy, if any.
+	 *
+	 * @param repo the repository proxy, must not be {@code null}
+	 * @param <T> type of the entity
+	 * @param <ID> type of the entity identifier
+	 * @return the backing repository or {@code Optional#empty()} if the repository is not based on {@link SimpleMongoRepo}
+	 */
+	@SuppressWarnings("unchecked")
+	@NonNull
+	public static <T, ID extends Serializable> Optional<SimpleMongoRepo<T, ID>> of(@NonNull final Object repo) {
+		Objects.requireNonNull(repo, "The given repo must not be null!");
+		if (repo instanceof SimpleMongoRepo) {
+			return Optional.of((SimpleMongoRepo<T, ID>) repo);
+		}
+		if (repo instanceof Advised) {
+			try {
+				Object target = ((Advised) repo).getTargetSource().getTarget();
+				if (target instanceof SimpleMongoRepo) {
+					return Optional.of((SimpleMongoRepo<T, ID>) target);
+				}
+			} catch (Exception ignored) {
+				// no accessible target
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Returns the {@link SimpleMongoRepo} which backs the given repository proxy (see {@link #of}).
+	 *
+	 * @param repo the repository proxy, must not be {@code null}
+	 * @param <T> type of the entity
+	 * @param <ID> type of the entity identifier
+	 * @return the backing repository
+	 * @throws IllegalStateException if the repository is not based on {@link SimpleMongoRepo}
+	 */
+	@NonNull
+	static <T, ID extends Serializable> SimpleMongoRepo<T, ID> required(@NonNull final Object repo) {
+		return SimpleMongoRepo.<T, ID>of(repo).orElseThrow(() -> new IllegalStateException(
+				"The repository must be based on " + SimpleMongoRepo.class.getName() + " (see EnableMongoRepositories#repositoryBaseClass)"));
+	}
+}
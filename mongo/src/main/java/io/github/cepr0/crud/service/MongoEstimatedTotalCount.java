@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.service;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.lang.NonNull;
+
+import java.util.Objects;
+
+/**
+ * {@link TotalCountProvider} which estimates the total number of documents of the given collection
+ * with the collection metadata (like {@code estimatedDocumentCount()} of the MongoDB driver),
+ * instead of counting the documents.
+ * <p>
+ * Note that the estimation takes into account all documents of the collection, so it's not suitable for the repositories
+ * with the filtered {@code getAll} methods (a 'soft delete', for example).
+ *
+ * @author Sergei Poznanski
+ */
+public class MongoEstimatedTotalCount implements TotalCountProvider {
+
+	private final MongoOperations mongo;
+	private final String collectionName;
+
+	/**
+	 * @param mongo must not be {@code null}
+	 * @param entityClass class of the documents, must not be {@code null}
+	 */
+	public MongoEstimatedTotalCount(@NonNull final MongoOperations mongo, @NonNull final Class<?> entityClass) {
+		this.mongo = Objects.requireNonNull(mongo, "Parameter 'mongo' must not be null!");
+		this.collectionName = mongo.getCollectionName(Objects.requireNonNull(entityClass, "Parameter 'entityClass' must not be null!"));
+	}
+
+	@NonNull
+	@Override
+	public Long getTotal() {
+		// 'count' command without a query returns the number of documents from the collection metadata
+		// (the same as 'estimatedDocumentCount()', which is not available in the drivers before 3.8)
+		Document result = mongo.executeCommand(new Document("count", collectionName));
+		return ((Number) result.get("n")).longValue();
+	}
+}
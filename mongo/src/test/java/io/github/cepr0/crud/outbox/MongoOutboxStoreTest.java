@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.outbox;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Sergei Poznanski
+ */
+@RunWith(SpringRunner.class)
+@DataMongoTest
+@ActiveProfiles("test")
+public class MongoOutboxStoreTest {
+
+	@Autowired private MongoOperations mongo;
+	@Autowired private MongoOutboxStore store;
+
+	@Before
+	public void setUp() {
+		mongo.dropCollection("outbox");
+	}
+
+	@Test
+	public void savedAndPolled() {
+		Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+		store.save(new OutboxMessage("CreateEvent", "Model", "1", "model1".getBytes(UTF_8), createdAt));
+
+		List<OutboxMessage> messages = store.poll(10);
+		assertThat(messages).hasSize(1);
+		OutboxMessage message = messages.get(0);
+		assertThat(message.getId()).isNotNull();
+		assertThat(message.getEventType()).isEqualTo("CreateEvent");
+		assertThat(message.getEntityType()).isEqualTo("Model");
+		assertThat(message.getEntityId()).isEqualTo("1");
+		assertThat(new String(message.getPayload(), UTF_8)).isEqualTo("model1");
+		assertThat(message.getCreatedAt()).isEqualTo(createdAt);
+	}
+
+	@Test
+	public void polledInOrderAndDeleted() {
+		save("model1", "model2", "model3");
+
+		List<OutboxMessage> messages = store.poll(2);
+		assertThat(payloads(messages)).containsExactly("model1", "model2");
+
+		store.delete(messages);
+		assertThat(payloads(store.poll(10))).containsExactly("model3");
+
+		store.delete(new ArrayList<>());
+		assertThat(store.poll(10)).hasSize(1);
+	}
+
+	@Test
+	public void relayed() {
+		save("model1", "model2", "model3");
+
+		List<List<OutboxMessage>> batches = new ArrayList<>();
+		OutboxRelay relay = new OutboxRelay(store, batches::add, 2, Duration.ofSeconds(1));
+
+		assertThat(relay.relay()).isEqualTo(3);
+		assertThat(batches).hasSize(2);
+		assertThat(payloads(batches.get(0))).containsExactly("model1", "model2");
+		assertThat(payloads(batches.get(1))).containsExactly("model3");
+		assertThat(store.poll(10)).isEmpty();
+	}
+
+	private void save(final String... payloads) {
+		for (String payload : payloads) {
+			store.save(new OutboxMessage("CreateEvent", "Model", payload, payload.getBytes(UTF_8), Instant.now()));
+		}
+	}
+
+	private static List<String> payloads(final List<OutboxMessage> messages) {
+		return messages.stream().map(message -> new String(message.getPayload(), UTF_8)).collect(Collectors.toList());
+	}
+
+	@Configuration
+	public static class Config {
+
+		@Bean
+		public MongoOutboxStore outboxStore(MongoOperations mongo) {
+			return new MongoOutboxStore(mongo);
+		}
+	}
+}
@@ -19,5 +19,5 @@ package io.github.cepr0.crud.repo;
 /**
  * @author Sergei Poznanski
  */
-interface ModelRepo extends MongoRepo<Model, String> {
+public interface ModelRepo extends FilterMongoRepo<Model, String> {
 }
@@ -16,24 +16,37 @@
 
 package io.github.cepr0.crud.repo;
 
+import io.github.cepr0.crud.service.MongoEstimatedTotalCount;
 import io.github.cepr0.crud.support.CrudUtils;
+import lombok.Value;
+import org.bson.types.ObjectId;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
  * @author Sergei Poznanski
@@ -44,6 +57,8 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 public class MongoRepoTest {
 
 	@Autowired private ModelRepo modelRepo;
+	@Autowired private RestrictedModelRepo restrictedRepo;
+	@Autowired private MongoTemplate mongoTemplate;
 
 	@Test
 	public void create() {
@@ -64,6 +79,23 @@ public class MongoRepoTest {
 				});
 	}
 
+	@Test
+	public void updateFields() {
+		assertThat(SimpleMongoRepo.of(modelRepo)).isPresent();
+
+		Model target = modelRepo.save(new Model().setName("test"));
+		assertThat(modelRepo.updateFields(target.getId(), null, singletonMap("name", "updated")))
+				.isPresent()
+				.hasValueSatisfying(model -> {
+					assertThat(model.getId()).isEqualTo(target.getId());
+					assertThat(model.getName()).isEqualTo("updated");
+				});
+		assertThat(modelRepo.findById(target.getId()))
+				.hasValueSatisfying(model -> assertThat(model.getName()).isEqualTo("updated"));
+
+		assertThat(modelRepo.updateFields(new ObjectId().toHexString(), null, singletonMap("name", "updated"))).isEmpty();
+	}
+
 	@Test
 	public void del() {
 		Model target = modelRepo.save(new Model().setName("test"));
@@ -76,6 +108,57 @@ public class MongoRepoTest {
 		assertThat(modelRepo.findById(target.getId())).isEmpty();
 	}
 
+	@Test
+	public void countAll() {
+		modelRepo.deleteAll();
+		modelRepo.saveAll(asList(new Model().setName("test1"), new Model().setName("test2")));
+
+		assertThat(modelRepo.countAll()).isEqualTo(2);
+		assertThat(new MongoEstimatedTotalCount(mongoTemplate, Model.class).getTotal()).isEqualTo(2);
+	}
+
+	@Test
+	public void createAll() {
+		modelRepo.deleteAll();
+
+		List<Model> models = modelRepo.createAll(asList(
+				new Model().setName("test1"),
+				new Model().setName("test2")
+		));
+
+		assertThat(models).hasSize(2).allSatisfy(model -> assertThat(model.getId()).isNotNull());
+		assertThat(modelRepo.findAll()).containsExactlyInAnyOrderElementsOf(models);
+	}
+
+	@Test
+	public void updateAll() {
+		List<Model> targets = modelRepo.saveAll(asList(new Model().setName("test1"), new Model().setName("test2")));
+
+		Map<String, Model> sources = new LinkedHashMap<>();
+		sources.put(targets.get(0).getId(), new Model().setName("updated1"));
+		sources.put(targets.get(1).getId(), new Model().setName("updated2"));
+		sources.put(new ObjectId().toHexString(), new Model().setName("not found"));
+
+		List<Model> updated = modelRepo.updateAll(sources, (s, t) -> CrudUtils.copyNonNullProperties(s, t, "id"));
+
+		assertThat(updated)
+				.extracting(Model::getName)
+				.containsExactlyInAnyOrder("updated1", "updated2");
+		assertThat(modelRepo.findById(targets.get(0).getId()))
+				.hasValueSatisfying(m -> assertThat(m.getName()).isEqualTo("updated1"));
+	}
+
+	@Test
+	public void delAll() {
+		List<Model> targets = modelRepo.saveAll(asList(new Model().setName("test1"), new Model().setName("test2")));
+
+		List<Model> deleted = modelRepo.delAll(asList(targets.get(0).getId(), new ObjectId().toHexString()));
+
+		assertThat(deleted).containsExactly(targets.get(0));
+		assertThat(modelRepo.findById(targets.get(0).getId())).isEmpty();
+		assertThat(modelRepo.findById(targets.get(1).getId())).isPresent();
+	}
+
 	@Test
 	public void getOne() {
 		Model model = modelRepo.save(new Model().setName("test"));
@@ -108,6 +191,30 @@ public class MongoRepoTest {
 				.hasValueSatisfying(m -> assertThat(m).isEqualToComparingFieldByField(model));
 	}
 
+	@Test
+	public void getAllById() {
+		List<Model> models = modelRepo.saveAll(asList(
+				new Model().setName("test1"),
+				new Model().setName("hidden"),
+				new Model().setName("test3")
+		));
+		List<String> ids = asList(models.get(0).getId(), models.get(1).getId(), models.get(2).getId(), new ObjectId().toHexString());
+
+		assertThat(modelRepo.getByIdIn(ids)).containsExactlyInAnyOrderElementsOf(models);
+		assertThat(modelRepo.getAllById(ids)).containsExactlyInAnyOrderElementsOf(models);
+
+		// getAllById reads the chunks of ids with the overridden query
+		assertThat(restrictedRepo.getAllById(ids)).containsExactlyInAnyOrder(models.get(0), models.get(2));
+	}
+
+	@Test
+	public void getVersionById() {
+		// the model has no @Version property
+		Model model = modelRepo.save(new Model().setName("test"));
+		assertThat(modelRepo.getVersionById(model.getId())).isEmpty();
+		assertThat(modelRepo.getVersionById(new ObjectId().toHexString())).isEmpty();
+	}
+
 	@Test
 	public void getAll() {
 		modelRepo.deleteAll();
@@ -149,8 +256,155 @@ public class MongoRepoTest {
 				.containsExactly(models.get(2), models.get(1));
 	}
 
+	@Test
+	public void getWithFetchPlan() {
+		modelRepo.deleteAll();
+
+		List<Model> models = modelRepo.saveAll(asList(
+				new Model().setName("test1"),
+				new Model().setName("test2"),
+				new Model().setName("test3")
+		));
+		Model first = models.get(0);
+
+		assertThat(modelRepo.getById(first.getId(), FetchPlan.of("name")))
+				.hasValueSatisfying(m -> assertThat(m).isEqualToComparingFieldByField(first));
+		assertThat(modelRepo.getById(first.getId(), FetchPlan.of("id")))
+				.hasValueSatisfying(m -> {
+					assertThat(m.getId()).isEqualTo(first.getId());
+					assertThat(m.getName()).isNull();
+				});
+
+		Sort sort = new Sort(Sort.Direction.DESC, "name");
+		assertThat(modelRepo.getAll(sort, FetchPlan.of("name")))
+				.containsExactly(models.get(2), models.get(1), models.get(0));
+
+		Page<Model> page = modelRepo.getAll(new PageRequest(0, 2, sort), FetchPlan.of("name"));
+		assertThat(page.getContent()).containsExactly(models.get(2), models.get(1));
+		assertThat(page.getTotalElements()).isEqualTo(3);
+
+		Slice<Model> slice = modelRepo.getSlice(new PageRequest(1, 2, sort), FetchPlan.of("name"));
+		assertThat(slice.getContent()).containsExactly(models.get(0));
+		assertThat(slice.hasNext()).isFalse();
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> modelRepo.getById(first.getId(), FetchPlan.named("model.name")));
+	}
+
+	@Test
+	public void getAllAs() {
+		modelRepo.deleteAll();
+
+		List<Model> models = modelRepo.saveAll(asList(
+				new Model().setName("test1"),
+				new Model().setName("test2"),
+				new Model().setName("test3")
+		));
+		Sort sort = new Sort(Sort.Direction.DESC, "name");
+
+		List<ModelName> names = modelRepo.getAllAs(sort, ModelName.class);
+		assertThat(names).hasSize(3);
+		assertThat(names.get(0).getName()).isEqualTo("test3");
+
+		Page<ModelView> page = modelRepo.getAllAs(new PageRequest(0, 2, sort), ModelView.class);
+		assertThat(page.getContent()).containsExactly(
+				new ModelView(models.get(2).getId(), "test3"),
+				new ModelView(models.get(1).getId(), "test2")
+		);
+		assertThat(page.getTotalElements()).isEqualTo(3);
+
+		Slice<ModelView> slice = modelRepo.getSliceAs(new PageRequest(1, 2, sort), ModelView.class);
+		assertThat(slice.getContent()).containsExactly(new ModelView(models.get(0).getId(), "test1"));
+		assertThat(slice.hasNext()).isFalse();
+
+		List<ModelView> ids = modelRepo.getAllAs(sort, ModelView.class, singleton("id"));
+		assertThat(ids).containsExactly(
+				new ModelView(models.get(2).getId(), null),
+				new ModelView(models.get(1).getId(), null),
+				new ModelView(models.get(0).getId(), null)
+		);
+	}
+
+	@Test
+	public void getAllBy() {
+		modelRepo.deleteAll();
+
+		List<Model> models = modelRepo.saveAll(asList(
+				new Model().setName("test1"),
+				new Model().setName("test2"),
+				new Model().setName("other.1")
+		));
+
+		List<Model> found = modelRepo.getAllBy(Filter.parse("name:like:test%"), Sort.by("name"));
+		assertThat(found).extracting(Model::getName).containsExactly("test1", "test2");
+
+		found = modelRepo.getAllBy(Filter.parse("name:like:other._"), Sort.by("name"));
+		assertThat(found).extracting(Model::getName).containsExactly("other.1");
+		assertThat(modelRepo.getAllBy(Filter.parse("name:like:other__"), Sort.by("name"))).isEmpty();
+
+		found = modelRepo.getAllBy(Filter.parse("id:in:" + models.get(0).getId() + "," + models.get(2).getId()), Sort.by("name"));
+		assertThat(found).extracting(Model::getName).containsExactly("other.1", "test1");
+
+		Page<Model> page = modelRepo.getAllBy(Filter.parse("name:ne:test1"), PageRequest.of(0, 1, Sort.by("name")));
+		assertThat(page.getContent()).extracting(Model::getName).containsExactly("other.1");
+		assertThat(page.getTotalElements()).isEqualTo(2);
+
+		assertThat(modelRepo.countBy(Filter.parse("name:gt:test1;name:notnull"))).isEqualTo(1);
+		assertThat(modelRepo.countBy(Filter.empty())).isEqualTo(3);
+
+		assertThatIllegalArgumentException().isThrownBy(() -> modelRepo.countBy(Filter.parse("unknown:eq:1")));
+	}
+
+	public interface ModelName {
+		String getName();
+	}
+
+	@Value
+	public static class ModelView {
+		private String id;
+		private String name;
+	}
+
+	@Test
+	public void getAfter() {
+		modelRepo.deleteAll();
+
+		List<Model> models = modelRepo.saveAll(asList(
+				new Model().setName("test1"),
+				new Model().setName("test2"),
+				new Model().setName("test3")
+		));
+
+		Slice<Model> slice = modelRepo.getAfter(null, 2, Sort.Direction.ASC);
+		assertThat(slice.getContent()).containsExactly(models.get(0), models.get(1));
+		assertThat(slice.hasNext()).isTrue();
+
+		slice = modelRepo.getAfter(models.get(1).getId(), 2, Sort.Direction.ASC);
+		assertThat(slice.getContent()).containsExactly(models.get(2));
+		assertThat(slice.hasNext()).isFalse();
+
+		slice = modelRepo.getAfter(models.get(2).getId(), 2, Sort.Direction.DESC);
+		assertThat(slice.getContent()).containsExactly(models.get(1), models.get(0));
+		assertThat(slice.hasNext()).isFalse();
+	}
+
+	@Test
+	public void streamAll() {
+		modelRepo.deleteAll();
+
+		List<Model> models = modelRepo.saveAll(asList(
+				new Model().setName("test1"),
+				new Model().setName("test2"),
+				new Model().setName("test3")
+		));
+		try (Stream<Model> stream = modelRepo.streamAll(new Sort(Sort.Direction.DESC, "name"))) {
+			assertThat(stream).containsExactly(models.get(2), models.get(1), models.get(0));
+		}
+	}
+
 	@Configuration
-	@EnableMongoRepositories(basePackageClasses = ModelRepo.class)
+	@EnableMongoRepositories(basePackageClasses = ModelRepo.class, repositoryBaseClass = SimpleMongoRepo.class)
+	@EnableReactiveMongoRepositories(basePackageClasses = ReactiveModelRepo.class)
 	public static class Config {
 	}
 }
\ No newline at end of file
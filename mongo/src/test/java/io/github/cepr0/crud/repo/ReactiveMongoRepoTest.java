@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.repo;
+
+import io.github.cepr0.crud.support.CrudUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Sergei Poznanski
+ */
+@RunWith(SpringRunner.class)
+@DataMongoTest
+@ActiveProfiles("test")
+public class ReactiveMongoRepoTest {
+
+	@Autowired private ReactiveModelRepo modelRepo;
+
+	@Before
+	public void setUp() {
+		modelRepo.deleteAll().block();
+	}
+
+	@Test
+	public void create() {
+		Model model = modelRepo.create(new Model().setName("test")).block();
+		assertThat(model).isNotNull();
+		assertThat(model.getId()).isNotNull();
+		assertThat(modelRepo.findById(model.getId()).block()).isEqualToComparingFieldByField(model);
+	}
+
+	@Test
+	public void update() {
+		Model target = modelRepo.save(new Model().setName("test")).block();
+		Model source = new Model().setName("updated");
+
+		Model updated = modelRepo.update(target.getId(), source, (s, t) -> CrudUtils.copyNonNullProperties(s, t, "id")).block();
+		assertThat(updated).isNotNull();
+		assertThat(updated.getId()).isEqualTo(target.getId());
+		assertThat(updated.getName()).isEqualTo("updated");
+		assertThat(modelRepo.findById(target.getId()).block().getName()).isEqualTo("updated");
+
+		assertThat(modelRepo.update("unknown", source, (s, t) -> t).block()).isNull();
+	}
+
+	@Test
+	public void del() {
+		Model target = modelRepo.save(new Model().setName("test")).block();
+
+		Model deleted = modelRepo.del(target.getId()).block();
+		assertThat(deleted).isNotNull();
+		assertThat(deleted.getName()).isEqualTo("test");
+		assertThat(modelRepo.findById(target.getId()).block()).isNull();
+
+		assertThat(modelRepo.del(target.getId()).block()).isNull();
+	}
+
+	@Test
+	public void getAll() {
+		modelRepo.saveAll(asList(new Model().setName("test1"), new Model().setName("test2"), new Model().setName("test3")))
+				.blockLast();
+
+		assertThat(modelRepo.getAll().collectList().block()).hasSize(3);
+
+		List<Model> models = modelRepo.getAll(Sort.by(Sort.Direction.DESC, "name")).collectList().block();
+		assertThat(models).extracting(Model::getName).containsExactly("test3", "test2", "test1");
+
+		models = modelRepo.getAll(PageRequest.of(1, 2, Sort.by("name"))).collectList().block();
+		assertThat(models).extracting(Model::getName).containsExactly("test3");
+
+		assertThat(modelRepo.countAll().block()).isEqualTo(3);
+	}
+
+	@Configuration
+	@EnableMongoRepositories(basePackageClasses = ModelRepo.class)
+	@EnableReactiveMongoRepositories(basePackageClasses = ReactiveModelRepo.class)
+	public static class Config {
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.threads;
+
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+import java.util.logging.Logger;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Bounds the number of the connections of the target {@link DataSource} which are in use at once with a fair {@link Semaphore}.
+ * <p>
+ * The permit is taken when the connection is obtained and is released when it's closed (returned to the pool),
+ * so it's held exactly as long as the connection: for the whole transaction, and until the stream of entities
+ * which reads the result set is closed. A thread which already holds a connection and obtains another one
+ * (in the {@code REQUIRES_NEW} transaction, for example) takes another permit, as it takes another connection
+ * from the pool, so, as with the pool itself, such threads can exhaust the permits and wait for each other
+ * until the timeout.
+ * <p>
+ * If the permit is not taken in the given time, {@link SQLTransientConnectionException} is thrown
+ * (it's translated to {@code TransientDataAccessResourceException} by Spring). The number of permits is resolved
+ * on the first request of a connection, to not initialize the pool too early.
+ *
+ * @author Sergei Poznanski
+ */
+public class ConcurrencyLimitedDataSource implements DataSource {
+
+	private final DataSource target;
+	private final IntSupplier permits;
+	private final long timeout;
+
+	private volatile Semaphore semaphore;
+	private volatile int maxPermits;
+
+	/**
+	 * @param target the data source to limit, must not be {@code null}
+	 * @param permits the supplier of the maximum number of connections in use, must not be {@code null}
+	 * @param timeout maximum time to wait for a permit, must not be {@code null}
+	 */
+	public ConcurrencyLimitedDataSource(@NonNull final DataSource target, @NonNull final IntSupplier permits, @NonNull final Duration timeout) {
+		this.target = Objects.requireNonNull(target, "Parameter 'target' must not be null!");
+		this.permits = Objects.requireNonNull(permits, "Parameter 'permits' must not be null!");
+		this.timeout = Objects.requireNonNull(timeout, "Parameter 'timeout' must not be null!").toNanos();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		Semaphore permit = acquire();
+		try {
+			return limited(target.getConnection(), permit);
+		} catch (SQLException | RuntimeException | Error e) {
+			permit.release();
+			throw e;
+		}
+	}
+
+	@Override
+	public Connection getConnection(final String username, final String password) throws SQLException {
+		Semaphore permit = acquire();
+		try {
+			return limited(target.getConnection(username, password), permit);
+		} catch (SQLException | RuntimeException | Error e) {
+			permit.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the maximum number of connections in use.
+	 *
+	 * @return the number of permits
+	 */
+	public int getMaxPermits() {
+		getSemaphore();
+		return maxPermits;
+	}
+
+	/**
+	 * Returns the number of connections which can be obtained without waiting.
+	 *
+	 * @return the number of available permits
+	 */
+	public int getAvailablePermits() {
+		return getSemaphore().availablePermits();
+	}
+
+	/**
+	 * Returns the limited data source.
+	 *
+	 * @return the target data source
+	 */
+	@NonNull
+	public DataSource getTarget() {
+		return target;
+	}
+
+	@Override
+	public PrintWriter getLogWriter() throws SQLException {
+		return target.getLogWriter();
+	}
+
+	@Override
+	public void setLogWriter(final PrintWriter out) throws SQLException {
+		target.setLogWriter(out);
+	}
+
+	@Override
+	public void setLoginTimeout(final int seconds) throws SQLException {
+		target.setLoginTimeout(seconds);
+	}
+
+	@Override
+	public int getLoginTimeout() throws SQLException {
+		return target.getLoginTimeout();
+	}
+
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		return target.getParentLogger();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T unwrap(final Class<T> iface) throws SQLException {
+		return iface.isInstance(this) ? (T) this : target.unwrap(iface);
+	}
+
+	@Override
+	public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+		return iface.isInstance(this) || target.isWrapperFor(iface);
+	}
+
+	private Semaphore acquire() throws SQLException {
+		Semaphore result = getSemaphore();
+		try {
+			if (!result.tryAcquire(timeout, NANOSECONDS)) {
+				throw new SQLTransientConnectionException("Could not get a permit to obtain a connection in "
+						+ Duration.ofNanos(timeout).toMillis() + " ms, all " + maxPermits + " permits are in use");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a permit to obtain a connection", e);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the proxy of the given connection, which releases the permit when the connection is closed for the first time.
+	 */
+	private static Connection limited(final Connection connection, final Semaphore permit) {
+		AtomicBoolean closed = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(ConcurrencyLimitedDataSource.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "unwrap":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return proxy;
+					}
+					break;
+				case "isWrapperFor":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return true;
+					}
+					break;
+				case "close":
+					if (closed.compareAndSet(false, true)) {
+						try {
+							connection.close();
+						} finally {
+							permit.release();
+						}
+					}
+					return null;
+				default:
+					break;
+			}
+			try {
+				return method.invoke(connection, args);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		});
+	}
+
+	private Semaphore getSemaphore() {
+		Semaphore result = semaphore;
+		if (result == null) {
+			synchronized (this) {
+				result = semaphore;
+				if (result == null) {
+					int max = permits.getAsInt();
+					if (max <= 0) {
+						throw new IllegalStateException("The number of permits must be positive!");
+					}
+					result = new Semaphore(max, true);
+					maxPermits = max;
+					semaphore = result;
+				}
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.threads;
+
+import org.springframework.lang.NonNull;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Provides access to the virtual threads (JDK 21+) without compile-time dependency on the newer JDK API.
+ *
+ * @author Sergei Poznanski
+ */
+public abstract class VirtualThreads {
+
+	private static final Method NEW_EXECUTOR = findExecutorFactory();
+
+	/**
+	 * Checks whether the current JVM supports the virtual threads.
+	 *
+	 * @return {@code true} if the virtual threads are supported
+	 */
+	public static boolean isSupported() {
+		return NEW_EXECUTOR != null;
+	}
+
+	/**
+	 * Creates an {@link ExecutorService} that starts a new virtual thread for each task
+	 * (see {@code Executors#newVirtualThreadPerTaskExecutor}).
+	 *
+	 * @return the executor, will never be {@code null}
+	 * @throws IllegalStateException if the virtual threads are not supported by the current JVM
+	 */
+	@NonNull
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if (NEW_EXECUTOR == null) {
+			throw new IllegalStateException("Virtual threads are not supported by the current JVM!");
+		}
+		try {
+			return (ExecutorService) NEW_EXECUTOR.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Could not create the virtual thread executor", e);
+		}
+	}
+
+	private static Method findExecutorFactory() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			// on JDK 19-20 it's a preview API, which throws an exception unless the preview features are enabled
+			((ExecutorService) method.invoke(null)).shutdown();
+			return method;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+}
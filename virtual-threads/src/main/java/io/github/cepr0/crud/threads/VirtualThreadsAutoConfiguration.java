@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.threads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Auto-configuration of the 'virtual threads' execution mode. It's turned on with the
+ * {@code generic-crud.virtual-threads.enabled=true} property and:
+ * <ul>
+ *     <li>bounds the number of the connections of every {@link DataSource} bean which are in use at once
+ *     (see {@link ConcurrencyLimitedDataSource}) by the size of the connection pool, so the threads wait for
+ *     a database connection in the fair queue for the configured time;</li>
+ *     <li>if the JVM supports the virtual threads (JDK 21+), runs the requests of the embedded Tomcat
+ *     and the application async tasks (including the MVC async requests) on the virtual threads.</li>
+ * </ul>
+ * The concurrency limit is applied regardless of the JVM version, as it protects the connection pool
+ * with any threading model.
+ *
+ * @author Sergei Poznanski
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "generic-crud.virtual-threads", name = "enabled", havingValue = "true")
+@AutoConfigureBefore(TaskExecutionAutoConfiguration.class)
+@EnableConfigurationProperties(VirtualThreadsProperties.class)
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class VirtualThreadsAutoConfiguration {
+
+	/**
+	 * The default number of connections in use, which is the default size of the Hikari connection pool.
+	 */
+	public static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+	@Bean
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	public static BeanPostProcessor crudConcurrencyLimitPostProcessor(final ObjectProvider<VirtualThreadsProperties> properties) {
+		return new ConcurrencyLimitPostProcessor(properties);
+	}
+
+	@Configuration
+	@Conditional(OnVirtualThreadsCondition.class)
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	static class VirtualThreadsExecutorConfiguration {
+
+		@Bean(destroyMethod = "shutdown")
+		public ExecutorService crudVirtualThreadExecutor() {
+			return VirtualThreads.newVirtualThreadPerTaskExecutor();
+		}
+
+		/**
+		 * Replaces the default {@code ThreadPoolTaskExecutor} of the {@link TaskExecutionAutoConfiguration},
+		 * which is used for the {@code @Async} methods and the MVC async requests.
+		 */
+		@Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+		public TaskExecutorAdapter applicationTaskExecutor(final ExecutorService crudVirtualThreadExecutor) {
+			return new TaskExecutorAdapter(crudVirtualThreadExecutor);
+		}
+
+		@Configuration
+		@ConditionalOnClass(name = "org.apache.catalina.startup.Tomcat")
+		@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+		static class TomcatConfiguration {
+
+			@Bean
+			public WebServerFactoryCustomizer<TomcatServletWebServerFactory> crudVirtualThreadsTomcatCustomizer(final ExecutorService crudVirtualThreadExecutor) {
+				return factory -> factory.addConnectorCustomizers(connector -> {
+					ProtocolHandler handler = connector.getProtocolHandler();
+					if (handler instanceof AbstractProtocol) {
+						((AbstractProtocol<?>) handler).setExecutor(crudVirtualThreadExecutor);
+					}
+				});
+			}
+		}
+	}
+
+	@Nullable
+	private static Integer poolSizeOf(final DataSource dataSource) {
+		if (!ClassUtils.isPresent("com.zaxxer.hikari.HikariDataSource", VirtualThreadsAutoConfiguration.class.getClassLoader())) {
+			return null;
+		}
+		return HikariPoolSize.of(dataSource);
+	}
+
+	/**
+	 * Isolates the optional Hikari classes.
+	 */
+	private static class HikariPoolSize {
+		@Nullable
+		static Integer of(final DataSource dataSource) {
+			try {
+				if (dataSource.isWrapperFor(HikariDataSource.class)) {
+					return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+				}
+			} catch (SQLException ignored) {
+				// unknown pool
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Wraps the {@link DataSource} beans with {@link ConcurrencyLimitedDataSource}, which has the permits
+	 * of the {@code max-concurrency} property, or of the maximum size of the Hikari pool.
+	 */
+	static class ConcurrencyLimitPostProcessor implements BeanPostProcessor {
+
+		private final ObjectProvider<VirtualThreadsProperties> properties;
+
+		ConcurrencyLimitPostProcessor(@NonNull final ObjectProvider<VirtualThreadsProperties> properties) {
+			this.properties = properties;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(@NonNull final Object bean, final String beanName) throws BeansException {
+			if (!(bean instanceof DataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+				return bean;
+			}
+			VirtualThreadsProperties props = properties.getObject();
+			DataSource dataSource = (DataSource) bean;
+			return new ConcurrencyLimitedDataSource(dataSource, () -> {
+				if (props.getMaxConcurrency() != null) {
+					return props.getMaxConcurrency();
+				}
+				Integer poolSize = poolSizeOf(dataSource);
+				return poolSize != null ? poolSize : DEFAULT_MAX_CONCURRENCY;
+			}, props.getAcquireTimeout());
+		}
+	}
+
+	/**
+	 * Matches if the JVM supports the virtual threads.
+	 */
+	static class OnVirtualThreadsCondition implements Condition {
+		@Override
+		public boolean matches(@NonNull final ConditionContext context, @NonNull final AnnotatedTypeMetadata metadata) {
+			return VirtualThreads.isSupported();
+		}
+	}
+}
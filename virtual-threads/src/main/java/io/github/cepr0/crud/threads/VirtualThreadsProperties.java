@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.threads;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties of {@link VirtualThreadsAutoConfiguration}.
+ *
+ * @author Sergei Poznanski
+ */
+@ConfigurationProperties(prefix = "generic-crud.virtual-threads")
+public class VirtualThreadsProperties {
+
+	/**
+	 * Whether to run the web requests and the async tasks on the virtual threads,
+	 * and to bound the number of the database connections in use.
+	 */
+	private boolean enabled;
+
+	/**
+	 * Maximum number of the connections of every data source which are in use at once. By default it's the maximum size
+	 * of the Hikari connection pool, or 10 if it's unknown.
+	 */
+	private Integer maxConcurrency;
+
+	/**
+	 * Maximum time to wait for a connection when the maximum number of them is in use.
+	 */
+	private Duration acquireTimeout = Duration.ofSeconds(30);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(final boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Integer getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	public void setMaxConcurrency(final Integer maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	public Duration getAcquireTimeout() {
+		return acquireTimeout;
+	}
+
+	public void setAcquireTimeout(final Duration acquireTimeout) {
+		this.acquireTimeout = acquireTimeout;
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.threads;
+
+import org.junit.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Sergei Poznanski
+ */
+public class VirtualThreadsAutoConfigurationTest {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(VirtualThreadsAutoConfiguration.class))
+			.withUserConfiguration(TestConfig.class);
+
+	@Test
+	public void connectionsAreLimited() {
+		contextRunner.withPropertyValues(
+				"generic-crud.virtual-threads.enabled=true",
+				"generic-crud.virtual-threads.max-concurrency=1",
+				"generic-crud.virtual-threads.acquire-timeout=100ms"
+		).run(context -> {
+			DataSource dataSource = context.getBean(DataSource.class);
+			TestConfig config = context.getBean(TestConfig.class);
+			assertThat(dataSource).isInstanceOf(ConcurrencyLimitedDataSource.class);
+			ConcurrencyLimitedDataSource limited = (ConcurrencyLimitedDataSource) dataSource;
+
+			// the permit is held until the connection is closed
+			Connection connection = dataSource.getConnection();
+			assertThat(limited.getMaxPermits()).isEqualTo(1);
+			assertThat(limited.getAvailablePermits()).isEqualTo(0);
+			assertThatExceptionOfType(SQLTransientConnectionException.class).isThrownBy(dataSource::getConnection);
+
+			connection.close();
+			connection.close();
+			assertThat(config.closed.get()).isEqualTo(1);
+			assertThat(limited.getAvailablePermits()).isEqualTo(1);
+
+			// the permit is returned if the connection is not obtained
+			config.failing = true;
+			assertThatExceptionOfType(SQLException.class).isThrownBy(dataSource::getConnection);
+			assertThat(limited.getAvailablePermits()).isEqualTo(1);
+		});
+	}
+
+	@Test
+	public void virtualThreadExecutorIsRegisteredIfSupported() {
+		contextRunner.withPropertyValues("generic-crud.virtual-threads.enabled=true").run(context -> {
+			assertThat(context.containsBean("applicationTaskExecutor")).isEqualTo(VirtualThreads.isSupported());
+			assertThat(((ConcurrencyLimitedDataSource) context.getBean(DataSource.class)).getMaxPermits())
+					.isEqualTo(VirtualThreadsAutoConfiguration.DEFAULT_MAX_CONCURRENCY);
+		});
+	}
+
+	@Test
+	public void disabledByDefault() {
+		contextRunner.run(context -> assertThat(context.getBean(DataSource.class)).isNotInstanceOf(ConcurrencyLimitedDataSource.class));
+	}
+
+	@Configuration
+	static class TestConfig {
+
+		final AtomicInteger closed = new AtomicInteger();
+		volatile boolean failing;
+
+		@Bean
+		public DataSource dataSource() {
+			return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+				switch (method.getName()) {
+					case "getConnection":
+						if (failing) {
+							throw new SQLException("The database is not available");
+						}
+						return connection();
+					case "isWrapperFor":
+						return false;
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					case "toString":
+						return "TestDataSource";
+					default:
+						throw new UnsupportedOperationException(method.getName());
+				}
+			});
+		}
+
+		private Connection connection() {
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+				if ("close".equals(method.getName())) {
+					closed.incrementAndGet();
+					return null;
+				}
+				throw new UnsupportedOperationException(method.getName());
+			});
+		}
+	}
+}
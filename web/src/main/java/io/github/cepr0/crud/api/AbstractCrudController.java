@@ -16,19 +16,73 @@
 
 package io.github.cepr0.crud.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
 import io.github.cepr0.crud.dto.CrudRequest;
 import io.github.cepr0.crud.dto.CrudResponse;
 import io.github.cepr0.crud.model.IdentifiableEntity;
+import io.github.cepr0.crud.repo.Filter;
 import io.github.cepr0.crud.service.CrudService;
+import io.github.cepr0.crud.service.KeysetSlice;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.beans.PropertyDescriptor;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Base controller which provides CRUD operations for {@link IdentifiableEntity} entities,
@@ -43,8 +97,45 @@ import java.util.List;
  */
 public abstract class AbstractCrudController<T extends IdentifiableEntity<ID>, ID extends Serializable, Q extends CrudRequest, S extends CrudResponse<ID>> {
 
+	/**
+	 * Media type of the 'newline delimited JSON' (see <a href="http://ndjson.org">ndjson.org</a>).
+	 */
+	public static final MediaType APPLICATION_NDJSON = MediaType.valueOf("application/x-ndjson");
+
+	/**
+	 * Media type of the binary JSON format 'Smile' (see <a href="https://github.com/FasterXML/smile-format-specification">Smile format</a>).
+	 */
+	public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+	/**
+	 * Media type of the 'Concise Binary Object Representation' (see <a href="https://tools.ietf.org/html/rfc7049">RFC 7049</a>).
+	 */
+	public static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
+	private static final SerializedString NDJSON_SEPARATOR = new SerializedString("\n");
+
+	private static final TypeReference<LinkedHashMap<String, Object>> FIELDS_TYPE = new TypeReference<LinkedHashMap<String, Object>>() {};
+
+	private static final CrudPageSerializer DEFAULT_PAGE_SERIALIZER = new CrudPageSerializer();
+
+	private static final String GZIP = "gzip";
+
+	private static final Pattern ZERO_QUALITY = Pattern.compile("q=0(\\.0{0,3})?");
+
+	private static final String VERSION = "version";
+
 	protected final CrudService<T, ID, Q, S> service;
 
+	@Autowired(required = false) protected ObjectMapper objectMapper;
+
+	private volatile Class<?> idClass;
+
+	private volatile Class<?> responseClass;
+
+	private volatile Class<?> versionClass;
+
+	private volatile ObjectMapper defaultMapper;
+
 	public AbstractCrudController(@NonNull final CrudService<T, ID, Q, S> service) {
 		this.service = service;
 	}
@@ -76,6 +167,53 @@ public abstract class AbstractCrudController<T extends IdentifiableEntity<ID>, I
 				.orElse(ResponseEntity.notFound().build());
 	}
 
+	/**
+	 * Updates an entity by its id, with provided input (request) DTO, if the 'If-Match' header matches
+	 * the 'entity tag' of the entity, i.e. its version. The tags of the header are converted to the versions
+	 * (see {@link AbstractCrudController#versionOf(String)}), which are checked by the update itself, in its transaction
+	 * (see {@link CrudService#update(Serializable, CrudRequest, Object)}), so the current version is not read beforehand.
+	 * The new 'ETag' is made from the {@code version} property of the returned DTO, if it has one.
+	 * To use it, map the header in your controller:
+	 * <pre>{@code @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch}</pre>
+	 *
+	 * @param id must not be {@code null}
+	 * @param request must not be {@code null}
+	 * @param ifMatch the value of the 'If-Match' header, or {@code null} to update the entity unconditionally
+	 * @return {@link ResponseEntity} with output (response) DTO of the updated entity as a body and its new 'ETag',
+	 * 200 (Ok) HTTP status if the entity was updated, 404 (Not Found) - if it's not found,
+	 * and 412 (Precondition Failed) - if the header doesn't match the current version (or the entity has no version),
+	 * or if the header is '*' and the entity is not found
+	 */
+	@NonNull
+	public ResponseEntity<S> update(@NonNull final ID id, @NonNull final Q request, @Nullable final String ifMatch) {
+		if (ifMatch == null) {
+			return update(id, request);
+		}
+		List<Object> versions = new ArrayList<>();
+		for (String tag : ifMatch.split(",")) {
+			tag = tag.trim();
+			if (tag.equals("*")) {
+				return service.update(id, request)
+						.map(response -> withETag(ResponseEntity.ok(), responseVersion(response)).body(response))
+						.orElse(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
+			}
+			Object version = versionOf(tag);
+			if (version != null) {
+				versions.add(version);
+			}
+		}
+		for (Object version : versions) {
+			try {
+				return service.update(id, request, version)
+						.map(response -> withETag(ResponseEntity.ok(), responseVersion(response)).body(response))
+						.orElse(ResponseEntity.notFound().build());
+			} catch (OptimisticLockingFailureException e) {
+				// try the next tag of the header
+			}
+		}
+		return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+	}
+
 	/**
 	 * Deletes an entity by its id.
 	 *
@@ -106,6 +244,76 @@ public abstract class AbstractCrudController<T extends IdentifiableEntity<ID>, I
 				.orElse(ResponseEntity.notFound().build());
 	}
 
+	/**
+	 * Retrieves the entity by its id, with the 'ETag' header made from its version (see {@link CrudService#getVersion}).
+	 * The version is read first, so if it matches the 'If-None-Match' header, the entity is not loaded at all.
+	 * To use it, map the header in your controller:
+	 * <pre>{@code @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch}</pre>
+	 *
+	 * @param id must not be {@code null}
+	 * @param ifNoneMatch the value of the 'If-None-Match' header, or {@code null} if there is no such header
+	 * @return {@link ResponseEntity} with output (response) DTO of the found entity as a body and its 'ETag',
+	 * 200 (Ok) HTTP status if the entity was found, 304 (Not Modified) with empty body - if the header matches
+	 * its version, and 404 (Not Found) - if it's not found.
+	 */
+	@NonNull
+	public ResponseEntity<S> getOne(@NonNull final ID id, @Nullable final String ifNoneMatch) {
+		Optional<Object> version = service.getVersion(id);
+		if (version.isPresent() && ifNoneMatch != null) {
+			String eTag = eTagOf(version.get());
+			if (eTagMatches(ifNoneMatch, eTag, true)) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+			}
+		}
+		return service.getOne(id)
+				.map(response -> withETag(ResponseEntity.ok(), version).body(response))
+				.orElse(ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Retrieves the entity by its id like {@link AbstractCrudController#getOne(Serializable)}, but returns the serialized body,
+	 * which is cached by the {@link AbstractCrudController#getResponseBodyCache()} (if it's defined), so the 'hot' entities
+	 * are not read and serialized on every request. The body is written in the format selected by the 'Accept' header
+	 * (see {@link AbstractCrudController#getPageStreamed(Pageable, Boolean, String)}), and it's gzip-compressed
+	 * if the 'Accept-Encoding' header allows it.
+	 *
+	 * @param id must not be {@code null}
+	 * @param accept the value of the 'Accept' header, or {@code null} to use JSON
+	 * @param acceptEncoding the value of the 'Accept-Encoding' header, or {@code null} if there is no such header
+	 * @return {@link ResponseEntity} with the serialized output (response) DTO of the found entity as a body,
+	 * 200 (Ok) HTTP status if the entity was found, and 404 (Not Found) - otherwise,
+	 * or 406 (Not Acceptable) HTTP status if none of the formats is acceptable, or 400 (Bad Request) if the header is invalid
+	 */
+	@NonNull
+	public ResponseEntity<byte[]> getOneCached(@NonNull final ID id, @Nullable final String accept, @Nullable final String acceptEncoding) {
+		return getOneCached(id, accept, acceptEncoding, null);
+	}
+
+	/**
+	 * Retrieves the entity by its id like {@link AbstractCrudController#getOneCached(Serializable, String, String)},
+	 * with the 'ETag' header made from the content of the body (unlike {@link AbstractCrudController#getOne(Serializable, String)},
+	 * which uses the version of the entity). If the tag matches the 'If-None-Match' header, the body is not sent.
+	 *
+	 * @param id must not be {@code null}
+	 * @param accept the value of the 'Accept' header, or {@code null} to use JSON
+	 * @param acceptEncoding the value of the 'Accept-Encoding' header, or {@code null} if there is no such header
+	 * @param ifNoneMatch the value of the 'If-None-Match' header, or {@code null} if there is no such header
+	 * @return {@link ResponseEntity} like {@link AbstractCrudController#getOneCached(Serializable, String, String)},
+	 * or with 304 (Not Modified) HTTP status and empty body if the 'If-None-Match' header matches the body
+	 */
+	@NonNull
+	public ResponseEntity<byte[]> getOneCached(@NonNull final ID id, @Nullable final String accept, @Nullable final String acceptEncoding, @Nullable final String ifNoneMatch) {
+		Objects.requireNonNull(id, "The given id must not be null!");
+		return cachedBody(id, id, accept, acceptEncoding, ifNoneMatch, (gen, provider) -> {
+			Optional<S> response = service.getOne(id);
+			if (!response.isPresent()) {
+				return false;
+			}
+			provider.defaultSerializeValue(response.get(), gen);
+			return true;
+		});
+	}
+
 	/**
 	 * Retrieves a {@link Page} of output (response) DTOs meeting the paging restriction provided in the {@code Pageable} object.
 	 *
@@ -117,6 +325,204 @@ public abstract class AbstractCrudController<T extends IdentifiableEntity<ID>, I
 		return ResponseEntity.ok(service.getAll(pageable));
 	}
 
+	/**
+	 * Retrieves a {@link Page} of output (response) DTOs with only the given fields (the 'sparse fieldset').
+	 * The fields are passed to the service (see {@link CrudService#getAllSparse(Pageable, Set)}), so it can skip
+	 * reading the other ones, and the DTOs are rendered as the JSON objects with the given fields and 'id'.
+	 * <p>
+	 * Only the top-level fields of the DTOs can be selected. If the fields parameter is {@code null} or blank,
+	 * the full DTOs are returned. The page keeps the type of the DTOs (see {@link TypedContent}),
+	 * so {@link CrudPageSerializer} renders it with the same "content" alias as the page of the full DTOs.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param fields comma separated names of the fields, e.g. {@code name,email}
+	 * @return {@link ResponseEntity} with a page of (partial) output (response) DTOs as a body, and with 200 (Ok) HTTP status,
+	 * or with 400 (Bad Request) HTTP status if the fields are unknown
+	 */
+	@NonNull
+	public ResponseEntity<Page<?>> getAll(@NonNull final Pageable pageable, @Nullable final String fields) {
+		Set<String> selected = parseFields(fields);
+		if (selected == null) {
+			return ResponseEntity.ok(service.getAll(pageable));
+		}
+		try {
+			Page<S> page = service.getAllSparse(pageable, selected);
+			return ResponseEntity.ok(new SparsePage(select(page.getContent(), selected), pageable, page.getTotalElements(), getResponseClass()));
+		} catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Retrieves a {@link KeysetSlice} of output (response) DTOs following the given cursor (the keyset pagination).
+	 * The cursor of the next slice is provided by {@link CrudPageSerializer} in the 'next' field of the 'page' block.
+	 *
+	 * @param cursor the cursor of the slice, or {@code null} to get the first slice
+	 * @param size maximum number of elements in the slice, must be positive
+	 * @param sort can contain only the order of 'id' property, must not be {@code null}
+	 * @return {@link ResponseEntity} with a slice of output (response) DTOs as a body, and with 200 (Ok) HTTP status,
+	 * or with 400 (Bad Request) HTTP status if the cursor, size or sort are invalid
+	 */
+	@NonNull
+	public ResponseEntity<KeysetSlice<S>> getAfter(@Nullable final String cursor, final int size, @NonNull final Sort sort) {
+		try {
+			ID lastId = cursor != null ? KeysetCursor.decode(cursor, getIdClass()) : null;
+			return ResponseEntity.ok(service.getAfter(lastId, size, sort));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Retrieves a 'slice' of entities meeting the paging restriction provided in the {@code Pageable} object,
+	 * without counting the total number of entities (see {@link CrudService#getSlice}).
+	 *
+	 * @param pageable must not be {@code null}
+	 * @return {@link ResponseEntity} with a slice of output (response) DTOs as a body, and with 200 (Ok) HTTP status
+	 */
+	@NonNull
+	public ResponseEntity<Slice<S>> getSlice(@NonNull final Pageable pageable) {
+		return ResponseEntity.ok(service.getSlice(pageable));
+	}
+
+	/**
+	 * Retrieves a 'slice' of output (response) DTOs with only the given fields
+	 * (see {@link AbstractCrudController#getAll(Pageable, String)}).
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param fields comma separated names of the fields, e.g. {@code name,email}
+	 * @return {@link ResponseEntity} with a slice of (partial) output (response) DTOs as a body, and with 200 (Ok) HTTP status,
+	 * or with 400 (Bad Request) HTTP status if the fields are unknown
+	 */
+	@NonNull
+	public ResponseEntity<Slice<?>> getSlice(@NonNull final Pageable pageable, @Nullable final String fields) {
+		Set<String> selected = parseFields(fields);
+		if (selected == null) {
+			return ResponseEntity.ok(service.getSlice(pageable));
+		}
+		try {
+			Slice<S> slice = service.getSliceSparse(pageable, selected);
+			return ResponseEntity.ok(new SparseSlice(select(slice.getContent(), selected), pageable, slice.hasNext(), getResponseClass()));
+		} catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Retrieves a 'page' (with the totals) or a 'slice' (without them) of entities meeting the paging restriction
+	 * provided in the {@code Pageable} object. If the 'count' parameter is {@code null},
+	 * the choice is made by the 'slice mode' of the service (see {@link CrudService#isSliceMode}).
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param count {@code true} to count the total number of entities, {@code false} to skip counting,
+	 * or {@code null} to use the service default
+	 * @return {@link ResponseEntity} with a page or a slice of output (response) DTOs as a body, and with 200 (Ok) HTTP status
+	 */
+	@NonNull
+	public ResponseEntity<Slice<S>> getPage(@NonNull final Pageable pageable, @Nullable final Boolean count) {
+		boolean withTotals = count != null ? count : !service.isSliceMode();
+		return ResponseEntity.ok(withTotals ? service.getAll(pageable) : service.getSlice(pageable));
+	}
+
+	/**
+	 * Retrieves a 'page' or a 'slice' of entities like {@link AbstractCrudController#getPage(Pageable, Boolean)},
+	 * but writes it to the response with {@link CrudPageSerializer} while the entities are mapped
+	 * to the output (response) DTOs (see {@link CrudService#consumePage}), so the beginning of a large page
+	 * is sent before all its entities are mapped.
+	 * <p>
+	 * The serializer registered in the {@code ObjectMapper} for {@link Slice} (or {@link Page}) is used
+	 * if it's a {@link CrudPageSerializer}, otherwise the default one is used. The DTOs are written with the JSON view
+	 * of the handler (see {@link AbstractCrudController#getSerializationView()}).
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param count {@code true} to count the total number of entities, {@code false} to skip counting,
+	 * or {@code null} to use the service default
+	 * @return {@link ResponseEntity} with a streamed page or slice of output (response) DTOs as a body,
+	 * and with 200 (Ok) HTTP status
+	 */
+	@NonNull
+	public ResponseEntity<StreamingResponseBody> getPageStreamed(@NonNull final Pageable pageable, @Nullable final Boolean count) {
+		return streamPage(pageable, count, StreamFormat.JSON);
+	}
+
+	/**
+	 * Retrieves a 'page' or a 'slice' of entities like {@link AbstractCrudController#getPageStreamed(Pageable, Boolean)}
+	 * in the format selected by the given 'Accept' header: JSON, or the binary formats
+	 * {@link AbstractCrudController#APPLICATION_SMILE Smile} and {@link AbstractCrudController#APPLICATION_CBOR CBOR}
+	 * if the corresponding Jackson data format modules are on the classpath. The layout of the page is the same in all formats.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param count {@code true} to count the total number of entities, {@code false} to skip counting,
+	 * or {@code null} to use the service default
+	 * @param accept the value of the 'Accept' header, or {@code null} to use JSON
+	 * @return {@link ResponseEntity} with a streamed page or slice of output (response) DTOs as a body,
+	 * and with 200 (Ok) HTTP status, or with 406 (Not Acceptable) HTTP status if none of the formats is acceptable,
+	 * or with 400 (Bad Request) HTTP status if the header is invalid
+	 */
+	@NonNull
+	public ResponseEntity<StreamingResponseBody> getPageStreamed(@NonNull final Pageable pageable, @Nullable final Boolean count, @Nullable final String accept) {
+		try {
+			StreamFormat format = StreamFormat.of(accept);
+			if (format == null) {
+				return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+			}
+			return streamPage(pageable, count, format);
+		} catch (InvalidMediaTypeException e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Retrieves a 'page' or a 'slice' of entities like {@link AbstractCrudController#getPage(Pageable, Boolean)},
+	 * but returns the body serialized with {@link CrudPageSerializer}, which is cached by the
+	 * {@link AbstractCrudController#getResponseBodyCache()} (if it's defined) by the page parameters
+	 * (see {@link AbstractCrudController#getOneCached}).
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param count {@code true} to count the total number of entities, {@code false} to skip counting,
+	 * or {@code null} to use the service default
+	 * @param accept the value of the 'Accept' header, or {@code null} to use JSON
+	 * @param acceptEncoding the value of the 'Accept-Encoding' header, or {@code null} if there is no such header
+	 * @return {@link ResponseEntity} with a serialized page or slice of output (response) DTOs as a body,
+	 * and with 200 (Ok) HTTP status, or with 406 (Not Acceptable) HTTP status if none of the formats is acceptable,
+	 * or with 400 (Bad Request) HTTP status if the header is invalid
+	 */
+	@NonNull
+	public ResponseEntity<byte[]> getAllCached(@NonNull final Pageable pageable, @Nullable final Boolean count, @Nullable final String accept, @Nullable final String acceptEncoding) {
+		return getAllCached(pageable, count, accept, acceptEncoding, null);
+	}
+
+	/**
+	 * Retrieves a 'page' or a 'slice' of entities like {@link AbstractCrudController#getAllCached(Pageable, Boolean, String, String)},
+	 * with the 'ETag' header made from the content of the body. If the tag matches the 'If-None-Match' header, the body is not sent.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param count {@code true} to count the total number of entities, {@code false} to skip counting,
+	 * or {@code null} to use the service default
+	 * @param accept the value of the 'Accept' header, or {@code null} to use JSON
+	 * @param acceptEncoding the value of the 'Accept-Encoding' header, or {@code null} if there is no such header
+	 * @param ifNoneMatch the value of the 'If-None-Match' header, or {@code null} if there is no such header
+	 * @return {@link ResponseEntity} like {@link AbstractCrudController#getAllCached(Pageable, Boolean, String, String)},
+	 * or with 304 (Not Modified) HTTP status and empty body if the 'If-None-Match' header matches the body
+	 */
+	@NonNull
+	public ResponseEntity<byte[]> getAllCached(@NonNull final Pageable pageable, @Nullable final Boolean count, @Nullable final String accept, @Nullable final String acceptEncoding, @Nullable final String ifNoneMatch) {
+		Objects.requireNonNull(pageable, "The given pageable must not be null!");
+		boolean withTotals = count != null ? count : !service.isSliceMode();
+		return cachedBody(null, Arrays.asList(pageable, withTotals), accept, acceptEncoding, ifNoneMatch, (gen, provider) -> {
+			Slice<S> page = withTotals ? service.getAll(pageable) : service.getSlice(pageable);
+			pageSerializerOf(provider, withTotals ? Page.class : Slice.class).serialize(page, page.getContent().iterator(), getResponseClass(), gen, provider);
+			return true;
+		});
+	}
+
+	private ResponseEntity<StreamingResponseBody> streamPage(final Pageable pageable, @Nullable final Boolean count, final StreamFormat format) {
+		boolean withTotals = count != null ? count : !service.isSliceMode();
+		return ResponseEntity.ok()
+				.contentType(format.getMediaType())
+				.body(streamingPageBody(pageable, withTotals, format, getSerializationView()));
+	}
+
 	/**
 	 * Retrieves all entities sorted by the given sort parameter.
 	 *
@@ -128,6 +534,73 @@ public abstract class AbstractCrudController<T extends IdentifiableEntity<ID>, I
 		return ResponseEntity.ok(service.getAll(sort));
 	}
 
+	/**
+	 * Retrieves all entities sorted by the given sort parameter as the output (response) DTOs with only the given fields
+	 * (see {@link AbstractCrudController#getAll(Pageable, String)}).
+	 *
+	 * @param sort must not be {@code null}
+	 * @param fields comma separated names of the fields, e.g. {@code name,email}
+	 * @return {@link ResponseEntity} with a list of (partial) output (response) DTOs as a body, and with 200 (Ok) HTTP status,
+	 * or with 400 (Bad Request) HTTP status if the fields are unknown
+	 */
+	@NonNull
+	public ResponseEntity<List<?>> getAll(@NonNull final Sort sort, @Nullable final String fields) {
+		Set<String> selected = parseFields(fields);
+		if (selected == null) {
+			return ResponseEntity.ok(service.getAll(sort));
+		}
+		try {
+			return ResponseEntity.ok(select(service.getAllSparse(sort, selected), selected));
+		} catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Retrieves a {@link Page} of output (response) DTOs of the entities matching the given filter, which is executed
+	 * in the database (see {@link CrudService#getAllBy(Filter, Pageable)}). The filter is parsed with {@link Filter#parse},
+	 * e.g. {@code age:gt:18;name:like:Jo%;status:in:NEW,ACTIVE}.
+	 * <p>
+	 * The filters require the repository of the service to implement {@link io.github.cepr0.crud.repo.FilterRepo}.
+	 *
+	 * @param pageable must not be {@code null}
+	 * @param filter the filter, or {@code null} to get all entities
+	 * @return {@link ResponseEntity} with a page of output (response) DTOs as a body, and with 200 (Ok) HTTP status,
+	 * or with 400 (Bad Request) HTTP status if the filter is invalid,
+	 * or with 501 (Not Implemented) HTTP status if the filters are not supported
+	 */
+	@NonNull
+	public ResponseEntity<Page<S>> getAllBy(@NonNull final Pageable pageable, @Nullable final String filter) {
+		try {
+			return ResponseEntity.ok(service.getAllBy(Filter.parse(filter), pageable));
+		} catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+			return ResponseEntity.badRequest().build();
+		} catch (UnsupportedOperationException e) {
+			return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+		}
+	}
+
+	/**
+	 * Retrieves output (response) DTOs of all entities matching the given filter sorted by the given sort parameter
+	 * (see {@link AbstractCrudController#getAllBy(Pageable, String)}).
+	 *
+	 * @param sort must not be {@code null}
+	 * @param filter the filter, or {@code null} to get all entities
+	 * @return {@link ResponseEntity} with a list of output (response) DTOs as a body, and with 200 (Ok) HTTP status,
+	 * or with 400 (Bad Request) HTTP status if the filter is invalid,
+	 * or with 501 (Not Implemented) HTTP status if the filters are not supported
+	 */
+	@NonNull
+	public ResponseEntity<List<S>> getAllBy(@NonNull final Sort sort, @Nullable final String filter) {
+		try {
+			return ResponseEntity.ok(service.getAllBy(Filter.parse(filter), sort));
+		} catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+			return ResponseEntity.badRequest().build();
+		} catch (UnsupportedOperationException e) {
+			return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+		}
+	}
+
 	/**
 	 * Retrieves all entities.
 	 *
@@ -137,4 +610,441 @@ public abstract class AbstractCrudController<T extends IdentifiableEntity<ID>, I
 	public ResponseEntity<List<S>> getAll() {
 		return ResponseEntity.ok(service.getAll());
 	}
+
+	/**
+	 * Retrieves all entities sorted by the given sort parameter as a JSON array, which is written to the response
+	 * while the entities are read from the database (see {@link CrudService#forEach}),
+	 * so they are not loaded into memory at once. The DTOs are written with the JSON view of the handler
+	 * (see {@link AbstractCrudController#getSerializationView()}), as well as by the other streaming methods.
+	 *
+	 * @param sort must not be {@code null}
+	 * @return {@link ResponseEntity} with a streamed JSON array of output (response) DTOs as a body,
+	 * and with 200 (Ok) HTTP status
+	 */
+	@NonNull
+	public ResponseEntity<StreamingResponseBody> streamAll(@NonNull final Sort sort) {
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.body(streamingBody(sort, StreamFormat.JSON, false));
+	}
+
+	/**
+	 * Retrieves all entities sorted by the given sort parameter like {@link AbstractCrudController#streamAll(Sort)}
+	 * in the format selected by the given 'Accept' header (see {@link AbstractCrudController#getPageStreamed(Pageable, Boolean, String)}).
+	 *
+	 * @param sort must not be {@code null}
+	 * @param accept the value of the 'Accept' header, or {@code null} to use JSON
+	 * @return {@link ResponseEntity} with a streamed array of output (response) DTOs as a body, and with 200 (Ok) HTTP status,
+	 * or with 406 (Not Acceptable) HTTP status if none of the formats is acceptable,
+	 * or with 400 (Bad Request) HTTP status if the header is invalid
+	 */
+	@NonNull
+	public ResponseEntity<StreamingResponseBody> streamAll(@NonNull final Sort sort, @Nullable final String accept) {
+		try {
+			StreamFormat format = StreamFormat.of(accept);
+			if (format == null) {
+				return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+			}
+			return ResponseEntity.ok()
+					.contentType(format.getMediaType())
+					.body(streamingBody(sort, format, false));
+		} catch (InvalidMediaTypeException e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Retrieves all entities sorted by the given sort parameter as a 'newline delimited JSON' (NDJSON),
+	 * which is written to the response while the entities are read from the database (see {@link CrudService#forEach}),
+	 * so they are not loaded into memory at once.
+	 *
+	 * @param sort must not be {@code null}
+	 * @return {@link ResponseEntity} with streamed NDJSON of output (response) DTOs as a body,
+	 * and with 200 (Ok) HTTP status
+	 */
+	@NonNull
+	public ResponseEntity<StreamingResponseBody> streamAllAsNdjson(@NonNull final Sort sort) {
+		return ResponseEntity.ok()
+				.contentType(APPLICATION_NDJSON)
+				.body(streamingBody(sort, StreamFormat.JSON, true));
+	}
+
+	/**
+	 * Returns the cache of the serialized response bodies used by {@link AbstractCrudController#getOneCached}
+	 * and {@link AbstractCrudController#getAllCached}. Override it to return the {@link ResponseBodyCache} bean
+	 * related to the entities of this controller.
+	 *
+	 * @return the cache, or {@code null} (by default) to serialize the bodies on every request
+	 */
+	@Nullable
+	protected ResponseBodyCache getResponseBodyCache() {
+		return null;
+	}
+
+	/**
+	 * Returns the JSON view of the current request handler (the value of its {@link JsonView} annotation).
+	 * The view is applied to the bodies which are serialized by the controller itself (the cached and the streamed ones),
+	 * bypassing the message converters (so {@code @JsonView} of the handler is not applied to them otherwise).
+	 * It's resolved while the handler is invoked, so the streamed bodies, which are written later, use the view
+	 * of the request they belong to.
+	 *
+	 * @return the view, or {@code null} if the handler has no view or there is no current request
+	 * @throws IllegalArgumentException if the annotation has more than one view
+	 */
+	@Nullable
+	protected Class<?> getSerializationView() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return null;
+		}
+		Object handler = attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		JsonView view = handler instanceof HandlerMethod ? ((HandlerMethod) handler).getMethodAnnotation(JsonView.class) : null;
+		if (view == null) {
+			return null;
+		}
+		if (view.value().length != 1) {
+			throw new IllegalArgumentException("@JsonView of " + handler + " must have exactly one view");
+		}
+		return view.value()[0];
+	}
+
+	/**
+	 * Returns the type of the entity identifier, resolved from the generic parameters of this controller.
+	 *
+	 * @return the type of the entity identifier
+	 */
+	@SuppressWarnings("unchecked")
+	@NonNull
+	protected Class<ID> getIdClass() {
+		Class<?> result = idClass;
+		if (result == null) {
+			Class<?>[] types = GenericTypeResolver.resolveTypeArguments(ClassUtils.getUserClass(getClass()), AbstractCrudController.class);
+			result = types != null && types[1] != null ? types[1] : Serializable.class;
+			idClass = result;
+		}
+		return (Class<ID>) result;
+	}
+
+	/**
+	 * Returns the type of the output (response) DTO, resolved from the generic parameters of this controller.
+	 *
+	 * @return the type of the output (response) DTO
+	 */
+	@SuppressWarnings("unchecked")
+	@NonNull
+	protected Class<S> getResponseClass() {
+		Class<?> result = responseClass;
+		if (result == null) {
+			Class<?>[] types = GenericTypeResolver.resolveTypeArguments(ClassUtils.getUserClass(getClass()), AbstractCrudController.class);
+			result = types != null && types[3] != null ? types[3] : CrudResponse.class;
+			responseClass = result;
+		}
+		return (Class<S>) result;
+	}
+
+	/**
+	 * Returns the strong 'entity tag' of the given version of the entity.
+	 *
+	 * @param version must not be {@code null}
+	 * @return the quoted version
+	 */
+	@NonNull
+	protected String eTagOf(@NonNull final Object version) {
+		return "\"" + version + "\"";
+	}
+
+	/**
+	 * Returns the version of the entity which the given strong 'entity tag' (of the 'If-Match' header) is made of.
+	 * It's the inverse of {@link AbstractCrudController#eTagOf}: the quotes are removed and the value is converted
+	 * to the type of the version (see {@link AbstractCrudController#getVersionClass()}). Override both methods
+	 * to change the tags.
+	 *
+	 * @param eTag must not be {@code null}
+	 * @return the version, or {@code null} if the tag is weak, or it can't be converted to the version
+	 */
+	@Nullable
+	protected Object versionOf(@NonNull final String eTag) {
+		Class<?> type = getVersionClass();
+		if (type == null || eTag.length() < 2 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+			return null;
+		}
+		try {
+			return DefaultConversionService.getSharedInstance().convert(eTag.substring(1, eTag.length() - 1), type);
+		} catch (ConversionException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the type of the {@code version} property of the entity (or of the output (response) DTO, if the entity
+	 * has no such property), the entity is resolved from the generic parameters of this controller.
+	 *
+	 * @return the type of the version, or {@code null} if the entity has no version
+	 */
+	@Nullable
+	protected Class<?> getVersionClass() {
+		Class<?> result = versionClass;
+		if (result == null) {
+			Class<?>[] types = GenericTypeResolver.resolveTypeArguments(ClassUtils.getUserClass(getClass()), AbstractCrudController.class);
+			PropertyDescriptor property = types != null && types[0] != null ? BeanUtils.getPropertyDescriptor(types[0], VERSION) : null;
+			if (property == null) {
+				property = BeanUtils.getPropertyDescriptor(getResponseClass(), VERSION);
+			}
+			result = property != null ? ClassUtils.resolvePrimitiveIfNecessary(property.getPropertyType()) : Void.class;
+			versionClass = result;
+		}
+		return result != Void.class ? result : null;
+	}
+
+	/**
+	 * Checks if the value of the 'If-Match' or 'If-None-Match' header (the list of entity tags or '*') matches
+	 * the given entity tag. The weak comparison (for 'If-None-Match') ignores the 'W/' prefix of the tags.
+	 */
+	private static boolean eTagMatches(@NonNull final String header, @NonNull final String eTag, final boolean weak) {
+		for (String tag : header.split(",")) {
+			tag = tag.trim();
+			if (tag.equals("*")) {
+				return true;
+			}
+			if (weak && tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if (tag.equals(eTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Parses the comma separated names of the fields, adding 'id' to them. Returns {@code null} if the names are blank.
+	 */
+	@Nullable
+	private static Set<String> parseFields(@Nullable final String fields) {
+		if (fields == null || fields.trim().isEmpty()) {
+			return null;
+		}
+		Set<String> result = new LinkedHashSet<>();
+		result.add("id");
+		for (String field : fields.split(",")) {
+			field = field.trim();
+			if (!field.isEmpty()) {
+				result.add(field);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Converts the DTOs to the maps of their (serialized) fields, retaining only the selected ones.
+	 */
+	private List<Map<String, Object>> select(final List<S> responses, final Set<String> fields) {
+		ObjectMapper mapper = getObjectMapper();
+		List<Map<String, Object>> result = new ArrayList<>(responses.size());
+		for (S response : responses) {
+			Map<String, Object> values = mapper.convertValue(response, FIELDS_TYPE);
+			values.keySet().retainAll(fields);
+			result.add(values);
+		}
+		return result;
+	}
+
+	@NonNull
+	private ObjectMapper getObjectMapper() {
+		ObjectMapper result = objectMapper;
+		if (result == null) {
+			result = defaultMapper;
+			if (result == null) {
+				result = Jackson2ObjectMapperBuilder.json().build();
+				defaultMapper = result;
+			}
+		}
+		return result;
+	}
+
+	private ResponseEntity.BodyBuilder withETag(final ResponseEntity.BodyBuilder builder, final Optional<Object> version) {
+		return version.map(v -> builder.eTag(eTagOf(v))).orElse(builder);
+	}
+
+	private static Optional<Object> responseVersion(final Object response) {
+		BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(response);
+		return wrapper.isReadableProperty(VERSION) ? Optional.ofNullable(wrapper.getPropertyValue(VERSION)) : Optional.empty();
+	}
+
+	@NonNull
+	private ResponseEntity<byte[]> cachedBody(@Nullable final ID id, final Object params, @Nullable final String accept, @Nullable final String acceptEncoding, @Nullable final String ifNoneMatch, final BodyWriter writer) {
+		StreamFormat format;
+		try {
+			format = StreamFormat.of(accept);
+		} catch (InvalidMediaTypeException e) {
+			return ResponseEntity.badRequest().build();
+		}
+		if (format == null) {
+			return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+		}
+
+		boolean gzip = acceptsGzip(acceptEncoding);
+		Class<?> view = getSerializationView();
+		Supplier<byte[]> loader = () -> serializeBody(format, gzip, view, writer);
+		ResponseBodyCache cache = getResponseBodyCache();
+		ResponseBodyCache.Body body = cache != null
+				? cache.getBody(new ResponseBodyCache.Key(id, params, format.getMediaType(), gzip, view), loader)
+				: ResponseBodyCache.Body.of(loader.get());
+		if (body == null) {
+			return ResponseEntity.notFound().build();
+		}
+
+		if (ifNoneMatch != null && eTagMatches(ifNoneMatch, body.getETag(), true)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+					.eTag(body.getETag())
+					.header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+					.build();
+		}
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+				.contentType(format.getMediaType())
+				.eTag(body.getETag())
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			builder.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+		}
+		return builder.body(body.getContent());
+	}
+
+	@Nullable
+	private byte[] serializeBody(final StreamFormat format, final boolean gzip, @Nullable final Class<?> view, final BodyWriter writer) {
+		ObjectMapper mapper = getObjectMapper();
+		SerializerProvider provider = serializerProvider(mapper, view);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes;
+		     JsonGenerator gen = format.createGenerator(mapper, out)) {
+			if (!writer.write(gen, provider)) {
+				return null;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Returns the serializer provider of the given mapper, which writes the properties of the given JSON view only.
+	 */
+	private static SerializerProvider serializerProvider(final ObjectMapper mapper, @Nullable final Class<?> view) {
+		if (view == null) {
+			return mapper.getSerializerProviderInstance();
+		}
+		SerializationConfig config = mapper.getSerializationConfig().withView(view);
+		return ((DefaultSerializerProvider) mapper.getSerializerProvider()).createInstance(config, mapper.getSerializerFactory());
+	}
+
+	private static boolean acceptsGzip(@Nullable final String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+				return parts.length < 2 || !ZERO_QUALITY.matcher(parts[1].trim()).matches();
+			}
+		}
+		return false;
+	}
+
+	private StreamingResponseBody streamingPageBody(@NonNull final Pageable pageable, final boolean count, final StreamFormat format, @Nullable final Class<?> view) {
+		ObjectMapper mapper = getObjectMapper();
+		Class<S> responseClass = getResponseClass();
+
+		return out -> {
+			SerializerProvider provider = serializerProvider(mapper, view);
+			CrudPageSerializer serializer = pageSerializerOf(provider, count ? Page.class : Slice.class);
+			try (JsonGenerator gen = format.createGenerator(mapper, out)) {
+				service.consumePage(pageable, count, (page, content) -> {
+					try {
+						serializer.serialize(page, content, responseClass, gen, provider);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		};
+	}
+
+	private static CrudPageSerializer pageSerializerOf(final SerializerProvider provider, final Class<?> pageClass) throws IOException {
+		JsonSerializer<Object> serializer = provider.findValueSerializer(pageClass);
+		return serializer instanceof CrudPageSerializer ? (CrudPageSerializer) serializer : DEFAULT_PAGE_SERIALIZER;
+	}
+
+	private StreamingResponseBody streamingBody(@NonNull final Sort sort, final StreamFormat format, final boolean ndjson) {
+		ObjectMapper mapper = getObjectMapper();
+		ObjectWriter writer = mapper
+				.writerWithView(getSerializationView())
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+		return out -> {
+			JsonGenerator generator = format.createGenerator(mapper, out);
+			if (ndjson) {
+				generator.setRootValueSeparator(NDJSON_SEPARATOR);
+			}
+			try (JsonGenerator gen = generator;
+			     SequenceWriter sequence = ndjson ? writer.writeValues(gen) : writer.writeValuesAsArray(gen)) {
+				service.forEach(sort, response -> {
+					try {
+						sequence.write(response);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		};
+	}
+
+	/**
+	 * A page of the selected fields of the output (response) DTOs, which keeps the type of the DTOs.
+	 */
+	private static final class SparsePage extends PageImpl<Map<String, Object>> implements TypedContent {
+		private final Class<?> contentType;
+
+		private SparsePage(final List<Map<String, Object>> content, final Pageable pageable, final long total, final Class<?> contentType) {
+			super(content, pageable, total);
+			this.contentType = contentType;
+		}
+
+		@JsonIgnore
+		@NonNull
+		@Override
+		public Class<?> getContentType() {
+			return contentType;
+		}
+	}
+
+	/**
+	 * A slice of the selected fields of the output (response) DTOs, which keeps the type of the DTOs.
+	 */
+	private static final class SparseSlice extends SliceImpl<Map<String, Object>> implements TypedContent {
+		private final Class<?> contentType;
+
+		private SparseSlice(final List<Map<String, Object>> content, final Pageable pageable, final boolean hasNext, final Class<?> contentType) {
+			super(content, pageable, hasNext);
+			this.contentType = contentType;
+		}
+
+		@JsonIgnore
+		@NonNull
+		@Override
+		public Class<?> getContentType() {
+			return contentType;
+		}
+	}
+
+	/**
+	 * Writes the response body to the generator.
+	 */
+	@FunctionalInterface
+	private interface BodyWriter {
+
+		/**
+		 * @return {@code false} if there is nothing to write (e.g. the entity is not found)
+		 */
+		boolean write(JsonGenerator gen, SerializerProvider provider) throws IOException;
+	}
 }
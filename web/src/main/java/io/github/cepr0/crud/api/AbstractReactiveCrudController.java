@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.api;
+
+import io.github.cepr0.crud.dto.CrudRequest;
+import io.github.cepr0.crud.dto.CrudResponse;
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import io.github.cepr0.crud.service.ReactiveCrudService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+
+/**
+ * Reactive counterpart of {@link AbstractCrudController}: the base WebFlux controller which provides non-blocking
+ * CRUD operations for {@link IdentifiableEntity} entities, {@link CrudRequest} requests and {@link CrudResponse} responses.
+ *
+ * @param <T> type of the entity which extends {@link IdentifiableEntity}
+ * @param <ID> type of the entity identifier
+ * @param <Q> type of the input (request) DTO
+ * @param <S> type of the output (response) DTO
+ *
+ * @author Sergei Poznanski
+ */
+public abstract class AbstractReactiveCrudController<T extends IdentifiableEntity<ID>, ID extends Serializable, Q extends CrudRequest, S extends CrudResponse<ID>> {
+
+	protected final ReactiveCrudService<T, ID, Q, S> service;
+
+	public AbstractReactiveCrudController(@NonNull final ReactiveCrudService<T, ID, Q, S> service) {
+		this.service = service;
+	}
+
+	/**
+	 * Creates an entity based on its input (request) DTO.
+	 *
+	 * @param request must not be {@code null}
+	 * @return {@link Mono} emitting {@link ResponseEntity} with output (response) DTO as a body of the created entity,
+	 * and 201 (Created) HTTP status
+	 */
+	@NonNull
+	public Mono<ResponseEntity<S>> create(@NonNull final Q request) {
+		return service.create(request)
+				.map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+	}
+
+	/**
+	 * Updates an entity by its id, with provided input (request) DTO.
+	 *
+	 * @param id must not be {@code null}
+	 * @param request must not be {@code null}
+	 * @return {@link Mono} emitting {@link ResponseEntity} with output (response) DTO of the updated entity as a body,
+	 * 200 (Ok) HTTP status if the entity was found, and 404 (Not Found) - otherwise.
+	 */
+	@NonNull
+	public Mono<ResponseEntity<S>> update(@NonNull final ID id, @NonNull final Q request) {
+		return service.update(id, request)
+				.map(ResponseEntity::ok)
+				.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Deletes an entity by its id.
+	 *
+	 * @param id must not be {@code null}
+	 * @return {@link Mono} emitting {@link ResponseEntity} with empty body,
+	 * and 204 (No Content) HTTP status if the entity was found, and 404 (Not Found) - otherwise.
+	 */
+	@NonNull
+	public Mono<ResponseEntity<Void>> delete(@NonNull final ID id) {
+		return service.delete(id)
+				.map(deleted -> deleted ? ResponseEntity.noContent().<Void>build() : ResponseEntity.notFound().<Void>build());
+	}
+
+	/**
+	 * Retrieves the entity by its id.
+	 *
+	 * @param id must not be {@code null}
+	 * @return {@link Mono} emitting {@link ResponseEntity} with output (response) DTO of the found entity as a body,
+	 * 200 (Ok) HTTP status if the entity was found, and 404 (Not Found) - otherwise.
+	 */
+	@NonNull
+	public Mono<ResponseEntity<S>> getOne(@NonNull final ID id) {
+		return service.getOne(id)
+				.map(ResponseEntity::ok)
+				.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Retrieves a {@link Page} of output (response) DTOs meeting the paging restriction provided in the {@code Pageable} object.
+	 *
+	 * @param pageable pageable must not be {@code null}
+	 * @return {@link Mono} emitting {@link ResponseEntity} with a page of output (response) DTOs as a body,
+	 * and with 200 (Ok) HTTP status
+	 */
+	@NonNull
+	public Mono<ResponseEntity<Page<S>>> getAll(@NonNull final Pageable pageable) {
+		return service.getAll(pageable).map(ResponseEntity::ok);
+	}
+
+	/**
+	 * Retrieves all entities sorted by the given sort parameter. The output (response) DTOs are written to the response
+	 * as they are read from the database.
+	 *
+	 * @param sort must not be {@code null}
+	 * @return {@link ResponseEntity} with a {@link Flux} of output (response) DTOs as a body, and with 200 (Ok) HTTP status
+	 */
+	@NonNull
+	public ResponseEntity<Flux<S>> getAll(@NonNull final Sort sort) {
+		return ResponseEntity.ok(service.getAll(sort));
+	}
+
+	/**
+	 * Retrieves all entities. The output (response) DTOs are written to the response as they are read from the database.
+	 *
+	 * @return {@link ResponseEntity} with a {@link Flux} of output (response) DTOs as a body, and with 200 (Ok) HTTP status
+	 */
+	@NonNull
+	public ResponseEntity<Flux<S>> getAll() {
+		return ResponseEntity.ok(service.getAll());
+	}
+}
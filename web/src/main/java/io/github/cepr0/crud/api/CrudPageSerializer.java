@@ -17,19 +17,25 @@
 package io.github.cepr0.crud.api;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import io.github.cepr0.crud.model.ContentAlias;
+import io.github.cepr0.crud.service.KeysetSlice;
 import io.github.cepr0.crud.support.CrudUtils;
 import org.atteo.evo.inflector.English;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * A customizable {@link Page} serializer. It provides the flowing view:
+ * A customizable {@link Page} (and {@link Slice}) serializer. It provides the flowing view:
  * <pre>
  * {
  *     "users": [
@@ -65,15 +71,31 @@ import java.util.List;
  * <p>
  * You can set custom names of every fields of this view by inheriting this serializer
  * and changing the value of the corresponding protected fields (see the source code of the serializer).
+ * The fields are read once, on the first serialization, and the names are pre-encoded as {@link SerializedString}s,
+ * so change them in the constructor (or the initializer) of the inherited serializer.
  * <p>
  * To change the plural name of the "content" field (e.g. 'users' in the example above) you can use
  * the {@link ContentAlias} annotation, and place it on the "content" class (e.g. 'UserResponse'),
  * and/or change the value of {@link CrudPageSerializer#contentAliasMode} property.
  * The {@link ContentAlias} value has a higher priority (if it set),
  * then the {@link CrudPageSerializer#contentAliasMode} value is taken into consideration.
+ * The alias is resolved once per "content" class and cached. It's taken from the declared type of the "content"
+ * elements if it's known (see {@link TypedContent} and {@link CrudPageSerializer#serialize(Slice, Iterator, Class, JsonGenerator, SerializerProvider)}),
+ * otherwise from the class of the first element. So if the elements are the subclasses of the output (response) DTO
+ * (with {@code @JsonTypeInfo}, for example), the declared type keeps the alias of the DTO.
+ * <p>
+ * The "content" elements are written one by one, so they can be provided lazily
+ * (see {@link CrudPageSerializer#serialize(Slice, Iterator, JsonGenerator, SerializerProvider)}).
  * <p>
  * Note that if the value of "content" or "sort" fields is empty, then these fields are not displayed.
  * <p>
+ * If the serialized object is a {@link Slice} but not a {@link Page}, the 'total' fields are not displayed.
+ * If it's a {@link KeysetSlice} then the 'page' block contains the opaque cursor of the next slice in the 'next' field
+ * (see {@link KeysetCursor}) instead of the page number.
+ * <p>
+ * The serializer uses only the generic {@link JsonGenerator} API, so it renders the same view in the binary formats
+ * (e.g. Smile or CBOR) if it's registered in the {@code ObjectMapper} of the corresponding message converter.
+ * <p>
  * To use the serializer you can simple inherit it and register with {@code @JsonComponent} annotation
  * or you can register right this serializer in {@code WebMvcConfigurer}
  * (see an example in {@code AbstractCrudControllerTest.TestConfig}).
@@ -81,7 +103,7 @@ import java.util.List;
  * @author Sergei Poznanski
  */
 @SuppressWarnings("WeakerAccess")
-public class CrudPageSerializer extends JsonSerializer<Page> {
+public class CrudPageSerializer extends JsonSerializer<Slice> {
 
 	/**
 	 * Specifies which alias to use for "content" field in the serialized view.
@@ -100,6 +122,7 @@ public class CrudPageSerializer extends JsonSerializer<Page> {
 	protected String pageTotal = "total";
 	protected String pageFirst = "first";
 	protected String pageLast = "last";
+	protected String pageNext = "next";
 
 	protected String elementsBlock = "elements";
 	protected String elementsTotal = "total";
@@ -109,43 +132,109 @@ public class CrudPageSerializer extends JsonSerializer<Page> {
 	protected String sortedProperty = "property";
 	protected String sortedDirection = "direction";
 
+	private final ConcurrentMap<Class<?>, SerializedString> contentAliases = new ConcurrentHashMap<>();
+
+	private volatile Names names;
+
 	@Override
-	public void serialize(final Page page, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+	public void serialize(final Slice slice, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		serialize(slice, slice.getContent().iterator(), gen, provider);
+	}
 
-		List content = page.getContent();
+	/**
+	 * Writes the view of the given slice (page) with the "content" elements taken from the given iterator.
+	 * Only the metadata of the slice is used (its number, size, total values and sort), so the slice can contain
+	 * the entities while the iterator maps them to the response DTOs lazily - every element is mapped right before
+	 * it's written, and the generator can flush the written elements before the rest ones are mapped
+	 * (see {@code AbstractCrudController#getPageStreamed}).
+	 * <p>
+	 * The serializer of the elements is looked up once per their class.
+	 *
+	 * @param slice the source of the metadata, must not be {@code null}
+	 * @param content the "content" elements, the number of which must match the number of elements of the slice
+	 * @param gen the generator to write to
+	 * @param provider the provider of the element serializers
+	 * @throws IOException if the generator can't write the view
+	 */
+	public void serialize(final Slice<?> slice, final Iterator<?> content, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		Class<?> contentType = slice instanceof TypedContent ? ((TypedContent) slice).getContentType() : null;
+		serialize(slice, content, contentType, gen, provider);
+	}
+
+	/**
+	 * Writes the view of the given slice (page) like {@link CrudPageSerializer#serialize(Slice, Iterator, JsonGenerator, SerializerProvider)},
+	 * taking the alias of the "content" field from the given declared type of the elements.
+	 *
+	 * @param slice the source of the metadata, must not be {@code null}
+	 * @param content the "content" elements, the number of which must match the number of elements of the slice
+	 * @param contentType the declared type of the elements, or {@code null} to take the alias from the class of the first element
+	 * @param gen the generator to write to
+	 * @param provider the provider of the element serializers
+	 * @throws IOException if the generator can't write the view
+	 */
+	public void serialize(final Slice<?> slice, final Iterator<?> content, @Nullable final Class<?> contentType, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+
+		Names names = getNames();
+		Page<?> page = slice instanceof Page ? (Page<?>) slice : null;
 
 		gen.writeStartObject();
 		{
-			if (!content.isEmpty()) {
-				gen.writeObjectField(getContentAlias(content), content);
+			if (content.hasNext()) {
+				Object first = content.next();
+				gen.writeFieldName(getContentAlias(contentType != null ? contentType : first.getClass()));
+				writeContent(first, content, gen, provider);
 			}
 
-			gen.writeObjectFieldStart(pageBlock);
+			gen.writeFieldName(names.pageBlock);
+			gen.writeStartObject();
 			{
-				gen.writeNumberField(pageNumber, page.getNumber());
-				gen.writeNumberField(pageSize, page.getSize());
-				gen.writeNumberField(pageTotal, page.getTotalPages());
-				gen.writeBooleanField(pageFirst, page.isFirst());
-				gen.writeBooleanField(pageLast, page.isLast());
+				if (slice instanceof KeysetSlice) {
+					Object nextKey = ((KeysetSlice<?>) slice).getNextKey();
+					if (nextKey != null) {
+						gen.writeFieldName(names.pageNext);
+						gen.writeString(KeysetCursor.encode(nextKey));
+					}
+				} else {
+					gen.writeFieldName(names.pageNumber);
+					gen.writeNumber(slice.getNumber());
+				}
+				gen.writeFieldName(names.pageSize);
+				gen.writeNumber(slice.getSize());
+				if (page != null) {
+					gen.writeFieldName(names.pageTotal);
+					gen.writeNumber(page.getTotalPages());
+				}
+				gen.writeFieldName(names.pageFirst);
+				gen.writeBoolean(slice.isFirst());
+				gen.writeFieldName(names.pageLast);
+				gen.writeBoolean(slice.isLast());
 			}
 			gen.writeEndObject();
 
-			gen.writeObjectFieldStart(elementsBlock);
+			gen.writeFieldName(names.elementsBlock);
+			gen.writeStartObject();
 			{
-				gen.writeNumberField(elementsTotal, page.getTotalElements());
-				gen.writeNumberField(elementsExposed, page.getNumberOfElements());
+				if (page != null) {
+					gen.writeFieldName(names.elementsTotal);
+					gen.writeNumber(page.getTotalElements());
+				}
+				gen.writeFieldName(names.elementsExposed);
+				gen.writeNumber(slice.getNumberOfElements());
 			}
 			gen.writeEndObject();
 
-			Sort sort = page.getSort();
+			Sort sort = slice.getSort();
 			if (sort != null && sort.iterator().hasNext()) { // sort.isSorted() - works in SB 2.0+
-				gen.writeArrayFieldStart(sortBlock);
+				gen.writeFieldName(names.sortBlock);
+				gen.writeStartArray();
 				{
 					for (Sort.Order order : sort) {
 						gen.writeStartObject();
 						{
-							gen.writeStringField(sortedProperty, order.getProperty());
-							gen.writeStringField(sortedDirection, order.getDirection().name());
+							gen.writeFieldName(names.sortedProperty);
+							gen.writeString(order.getProperty());
+							gen.writeFieldName(names.sortedDirection);
+							gen.writeString(order.getDirection().name());
 						}
 						gen.writeEndObject();
 					}
@@ -156,30 +245,108 @@ public class CrudPageSerializer extends JsonSerializer<Page> {
 		gen.writeEndObject();
 	}
 
-	private String getContentAlias(final List content) {
+	/**
+	 * Writes the "content" array element by element, reusing the serializer while the element class is not changed.
+	 * The serializer writes the type information of the polymorphic elements (see {@code @JsonTypeInfo}).
+	 */
+	private static void writeContent(final Object first, final Iterator<?> content, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		Class<?> elementClass = null;
+		JsonSerializer<Object> elementSerializer = null;
+
+		gen.writeStartArray();
+		{
+			Object element = first;
+			while (true) {
+				if (element == null) {
+					provider.defaultSerializeNull(gen);
+				} else {
+					if (element.getClass() != elementClass) {
+						elementClass = element.getClass();
+						elementSerializer = provider.findTypedValueSerializer(elementClass, true, null);
+					}
+					elementSerializer.serialize(element, gen, provider);
+				}
+				if (!content.hasNext()) {
+					break;
+				}
+				element = content.next();
+			}
+		}
+		gen.writeEndArray();
+	}
+
+	/**
+	 * Returns the alias of the "content" field, which is resolved once per the "content" class.
+	 */
+	private SerializedString getContentAlias(final Class<?> contentClass) {
+		return contentAliases.computeIfAbsent(contentClass, this::resolveContentAlias);
+	}
+
+	private SerializedString resolveContentAlias(final Class<?> contentClass) {
 
 		String alias = defaultContentName;
 
-		if (!content.isEmpty()) {
-			Object obj = content.get(0);
-			ContentAlias contentAlias = obj.getClass().getAnnotation(ContentAlias.class);
-			if (contentAlias != null) {
-				alias = contentAlias.value();
-			} else {
-				switch (contentAliasMode) {
-					case FIRST_WORD:
-						alias = English.plural(CrudUtils.firstWordOf(obj.getClass().getSimpleName()));
-						break;
-					case SNAKE_CASE:
-						alias = CrudUtils.toSnakeCase(English.plural(obj.getClass().getSimpleName()));
-						break;
-					case CAMEL_CASE:
-						alias = English.plural(obj.getClass().getSimpleName());
-						break;
-				}
+		ContentAlias contentAlias = contentClass.getAnnotation(ContentAlias.class);
+		if (contentAlias != null) {
+			alias = contentAlias.value();
+		} else {
+			switch (contentAliasMode) {
+				case FIRST_WORD:
+					alias = English.plural(CrudUtils.firstWordOf(contentClass.getSimpleName()));
+					break;
+				case SNAKE_CASE:
+					alias = CrudUtils.toSnakeCase(English.plural(contentClass.getSimpleName()));
+					break;
+				case CAMEL_CASE:
+					alias = English.plural(contentClass.getSimpleName());
+					break;
 			}
 		}
-		return alias;
+		return new SerializedString(alias);
+	}
+
+	private Names getNames() {
+		Names result = names;
+		if (result == null) {
+			result = new Names(this);
+			names = result;
+		}
+		return result;
+	}
+
+	/**
+	 * The field names of the view, pre-encoded by Jackson.
+	 */
+	private static final class Names {
+		private final SerializedString pageBlock;
+		private final SerializedString pageNumber;
+		private final SerializedString pageSize;
+		private final SerializedString pageTotal;
+		private final SerializedString pageFirst;
+		private final SerializedString pageLast;
+		private final SerializedString pageNext;
+		private final SerializedString elementsBlock;
+		private final SerializedString elementsTotal;
+		private final SerializedString elementsExposed;
+		private final SerializedString sortBlock;
+		private final SerializedString sortedProperty;
+		private final SerializedString sortedDirection;
+
+		private Names(final CrudPageSerializer serializer) {
+			pageBlock = new SerializedString(serializer.pageBlock);
+			pageNumber = new SerializedString(serializer.pageNumber);
+			pageSize = new SerializedString(serializer.pageSize);
+			pageTotal = new SerializedString(serializer.pageTotal);
+			pageFirst = new SerializedString(serializer.pageFirst);
+			pageLast = new SerializedString(serializer.pageLast);
+			pageNext = new SerializedString(serializer.pageNext);
+			elementsBlock = new SerializedString(serializer.elementsBlock);
+			elementsTotal = new SerializedString(serializer.elementsTotal);
+			elementsExposed = new SerializedString(serializer.elementsExposed);
+			sortBlock = new SerializedString(serializer.sortBlock);
+			sortedProperty = new SerializedString(serializer.sortedProperty);
+			sortedDirection = new SerializedString(serializer.sortedDirection);
+		}
 	}
 
 	/**
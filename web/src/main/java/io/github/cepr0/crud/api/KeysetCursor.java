@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.api;
+
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.lang.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Encodes the keys of {@link io.github.cepr0.crud.service.KeysetSlice} to the opaque cursors
+ * (URL-safe Base64 strings), which are passed to the clients, and decodes them back.
+ *
+ * @author Sergei Poznanski
+ */
+public abstract class KeysetCursor {
+
+	/**
+	 * Encodes the given key to the cursor.
+	 *
+	 * @param key must not be {@code null}
+	 * @return the cursor, will never be {@code null}
+	 */
+	@NonNull
+	public static String encode(@NonNull final Object key) {
+		Objects.requireNonNull(key, "The given key must not be null!");
+		return Base64.getUrlEncoder()
+				.withoutPadding()
+				.encodeToString(key.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes the given cursor to the key of the given type.
+	 *
+	 * @param cursor must not be {@code null}
+	 * @param keyClass the type of the key, must not be {@code null}
+	 * @param <K> the type of the key
+	 * @return the key, will never be {@code null}
+	 * @throws IllegalArgumentException if the cursor is invalid
+	 */
+	@NonNull
+	public static <K> K decode(@NonNull final String cursor, @NonNull final Class<K> keyClass) throws IllegalArgumentException {
+		Objects.requireNonNull(cursor, "The given cursor must not be null!");
+		Objects.requireNonNull(keyClass, "The given key class must not be null!");
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			K key = DefaultConversionService.getSharedInstance().convert(value, keyClass);
+			if (key == null) {
+				throw new IllegalArgumentException("Invalid cursor '" + cursor + "'");
+			}
+			return key;
+		} catch (ConversionException e) {
+			throw new IllegalArgumentException("Invalid cursor '" + cursor + "'", e);
+		}
+	}
+}
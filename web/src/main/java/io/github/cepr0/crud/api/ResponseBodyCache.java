@@ -0,0 +1,258 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.api;
+
+import io.github.cepr0.crud.event.EntityEvent;
+import io.github.cepr0.crud.support.BoundedCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches the serialized (and optionally gzip-compressed) bodies of the GET responses of {@link AbstractCrudController}
+ * (see {@link AbstractCrudController#getOneCached} and {@link AbstractCrudController#getAllCached}), so the 'hot' responses
+ * are not read, serialized and compressed on every request. The bodies are cached by the entity identifier
+ * or the page parameters, and by the media type, the encoding and the JSON view of the response.
+ * The 'ETag' of the body (the hash of its content) is computed once, when the body is cached.
+ * <p>
+ * The cache is a {@link BoundedCache}, bounded by the maximum number of entries and by the time to live (TTL)
+ * of the entries. The entries are invalidated by all {@link EntityEvent}s related to the entities of the given class:
+ * the bodies of the entity with the identifier from the event, and the bodies of all pages (if the event is published
+ * within a transaction, they are invalidated again after the transaction completion). The keys of the cached bodies
+ * are indexed by the entity identifier, so the event evicts only the related bodies.
+ * To listen the events the cache must be registered as a bean, for example:
+ * <pre>{@code
+ * @Bean
+ * public ResponseBodyCache modelBodyCache() {
+ *     return new ResponseBodyCache(Model.class, 1_000, Duration.ofMinutes(1));
+ * }
+ * }</pre>
+ * Then return it from {@link AbstractCrudController#getResponseBodyCache()} of the controller.
+ * <p>
+ * The cache statistics are available with {@link #getHitCount()}, {@link #getMissCount()},
+ * {@link #getEvictionCount()} and {@link #size()} methods.
+ *
+ * @author Sergei Poznanski
+ */
+public class ResponseBodyCache {
+
+	// the index key of the page bodies
+	private static final Object PAGES = new Object();
+
+	private final Class<?> entityClass;
+	private final BoundedCache<Key, Body> cache;
+	private final ConcurrentMap<Object, Set<Key>> keys = new ConcurrentHashMap<>();
+
+	/**
+	 * @param entityClass the class of the entities, which events invalidate the cached bodies, must not be {@code null}
+	 * @param maxSize maximum number of the cached bodies, must be positive
+	 * @param ttl time to live of the cached bodies, must not be {@code null} or negative
+	 */
+	public ResponseBodyCache(@NonNull final Class<?> entityClass, final int maxSize, @NonNull final Duration ttl) {
+		this.entityClass = Objects.requireNonNull(entityClass, "Parameter 'entityClass' must not be null!");
+		this.cache = new BoundedCache<>(maxSize, ttl, this::unindex);
+	}
+
+	/**
+	 * Returns the cached body by the given key, or loads it with the given loader and caches it.
+	 *
+	 * @param key the key of the body
+	 * @param loader serializes the body, returns {@code null} if there is nothing to serialize (then nothing is cached)
+	 * @return the body, or {@code null} if the loader returned {@code null}
+	 */
+	@Nullable
+	byte[] get(@NonNull final Key key, @NonNull final Supplier<byte[]> loader) {
+		Body body = getBody(key, loader);
+		return body != null ? body.content : null;
+	}
+
+	/**
+	 * Returns the cached body with its 'ETag' by the given key, or loads it with the given loader and caches it.
+	 */
+	@Nullable
+	Body getBody(@NonNull final Key key, @NonNull final Supplier<byte[]> loader) {
+		return cache.get(key, () -> {
+			// the key is indexed before the body is cached, so the concurrent invalidation doesn't miss it
+			keys.computeIfAbsent(key.indexKey(), k -> ConcurrentHashMap.newKeySet()).add(key);
+			return Body.of(loader.get());
+		});
+	}
+
+	/**
+	 * Invalidates the cached bodies of the entity with the given id and the bodies of all pages.
+	 *
+	 * @param id the entity identifier, must not be {@code null}
+	 */
+	public void evict(@NonNull final Object id) {
+		Objects.requireNonNull(id, "The given id must not be null!");
+		evictIndexed(id);
+		evictIndexed(PAGES);
+	}
+
+	/**
+	 * Invalidates all cached bodies.
+	 */
+	public void evictAll() {
+		keys.clear();
+		cache.evictAll();
+	}
+
+	/**
+	 * Invalidates the cached bodies of the entity from the given event and the bodies of all pages,
+	 * if the entity is an instance of the cache entity class. If the event is published within a transaction,
+	 * the bodies are invalidated again after the transaction completion (see {@link BoundedCache#invalidate}).
+	 *
+	 * @param event the published entity event
+	 */
+	@EventListener
+	public void onEntityEvent(@Nullable final EntityEvent<?> event) {
+		if (event == null || event.getEntity() == null || !entityClass.isInstance(event.getEntity())) return;
+
+		Object id = event.getEntity().getId();
+		BoundedCache.invalidate(id != null ? () -> evict(id) : this::evictAll);
+	}
+
+	/**
+	 * Returns the number of requests which were served with the cached bodies.
+	 */
+	public long getHitCount() {
+		return cache.getHitCount();
+	}
+
+	/**
+	 * Returns the number of requests which bodies were serialized.
+	 */
+	public long getMissCount() {
+		return cache.getMissCount();
+	}
+
+	/**
+	 * Returns the number of cached bodies which were evicted due to the size or TTL limits.
+	 */
+	public long getEvictionCount() {
+		return cache.getEvictionCount();
+	}
+
+	/**
+	 * Returns the current number of cached bodies.
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	private void evictIndexed(final Object indexKey) {
+		Set<Key> indexed = keys.remove(indexKey);
+		if (indexed != null) {
+			indexed.forEach(cache::evict);
+		}
+	}
+
+	private void unindex(final Key key) {
+		keys.computeIfPresent(key.indexKey(), (k, indexed) -> {
+			indexed.remove(key);
+			return indexed.isEmpty() ? null : indexed;
+		});
+	}
+
+	/**
+	 * The key of the cached body.
+	 */
+	static final class Key {
+		@Nullable private final Object id;
+		private final Object params;
+		private final MediaType mediaType;
+		private final boolean gzip;
+		@Nullable private final Class<?> view;
+
+		/**
+		 * @param id the entity identifier of the body, or {@code null} if it's a body of the page
+		 * @param params the parameters of the request (the identifier itself or the page parameters)
+		 * @param mediaType the media type of the body
+		 * @param gzip whether the body is gzip-compressed
+		 */
+		Key(@Nullable final Object id, @NonNull final Object params, @NonNull final MediaType mediaType, final boolean gzip) {
+			this(id, params, mediaType, gzip, null);
+		}
+
+		/**
+		 * @param id the entity identifier of the body, or {@code null} if it's a body of the page
+		 * @param params the parameters of the request (the identifier itself or the page parameters)
+		 * @param mediaType the media type of the body
+		 * @param gzip whether the body is gzip-compressed
+		 * @param view the JSON view of the body, or {@code null} if it's serialized without a view
+		 */
+		Key(@Nullable final Object id, @NonNull final Object params, @NonNull final MediaType mediaType, final boolean gzip, @Nullable final Class<?> view) {
+			this.id = id;
+			this.params = params;
+			this.mediaType = mediaType;
+			this.gzip = gzip;
+			this.view = view;
+		}
+
+		private Object indexKey() {
+			return id != null ? id : PAGES;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Key key = (Key) o;
+			return gzip == key.gzip && Objects.equals(id, key.id) && params.equals(key.params) && mediaType.equals(key.mediaType) && Objects.equals(view, key.view);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(id, params, mediaType, gzip, view);
+		}
+	}
+
+	/**
+	 * The serialized body and its strong 'ETag'.
+	 */
+	static final class Body {
+		private final byte[] content;
+		private final String eTag;
+
+		private Body(final byte[] content) {
+			this.content = content;
+			this.eTag = "\"0" + DigestUtils.md5DigestAsHex(content) + "\"";
+		}
+
+		@Nullable
+		static Body of(@Nullable final byte[] content) {
+			return content != null ? new Body(content) : null;
+		}
+
+		byte[] getContent() {
+			return content;
+		}
+
+		String getETag() {
+			return eTag;
+		}
+	}
+}
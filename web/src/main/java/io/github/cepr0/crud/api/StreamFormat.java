@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Formats of the responses streamed by {@link AbstractCrudController}. The binary formats (Smile and CBOR) are available
+ * if the corresponding Jackson data format modules are on the classpath.
+ * <p>
+ * The generators are created by the factory of the format, but the values are written with the serializers
+ * of the given {@link ObjectMapper}, so the layout of the responses (e.g. of {@link CrudPageSerializer})
+ * is the same in all formats.
+ *
+ * @author Sergei Poznanski
+ */
+enum StreamFormat {
+
+	JSON(MediaType.APPLICATION_JSON_UTF8, true),
+	SMILE(AbstractCrudController.APPLICATION_SMILE, ClassUtils.isPresent("com.fasterxml.jackson.dataformat.smile.SmileFactory", null)),
+	CBOR(AbstractCrudController.APPLICATION_CBOR, ClassUtils.isPresent("com.fasterxml.jackson.dataformat.cbor.CBORFactory", null));
+
+	private final MediaType mediaType;
+	private final boolean available;
+
+	StreamFormat(final MediaType mediaType, final boolean available) {
+		this.mediaType = mediaType;
+		this.available = available;
+	}
+
+	@NonNull
+	MediaType getMediaType() {
+		return mediaType;
+	}
+
+	/**
+	 * Selects the format by the given 'Accept' header: the available format, which is compatible
+	 * with the most preferable media type of the header.
+	 *
+	 * @param accept the value of the 'Accept' header, or {@code null} to select {@link StreamFormat#JSON}
+	 * @return the format, or {@code null} if none of the available formats is acceptable
+	 * @throws org.springframework.http.InvalidMediaTypeException if the header can't be parsed
+	 */
+	@Nullable
+	static StreamFormat of(@Nullable final String accept) {
+		List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+		if (mediaTypes.isEmpty()) {
+			return JSON;
+		}
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+		for (MediaType mediaType : mediaTypes) {
+			for (StreamFormat format : values()) {
+				if (format.available && mediaType.isCompatibleWith(format.mediaType)) {
+					return format;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the generator of this format, which writes to the given stream but doesn't close it.
+	 */
+	@NonNull
+	JsonGenerator createGenerator(@NonNull final ObjectMapper mapper, @NonNull final OutputStream out) throws IOException {
+		JsonFactory factory;
+		switch (this) {
+			case SMILE:
+				factory = Smile.FACTORY;
+				break;
+			case CBOR:
+				factory = Cbor.FACTORY;
+				break;
+			default:
+				factory = mapper.getFactory();
+		}
+		JsonGenerator generator = factory.createGenerator(out)
+				.setCodec(mapper)
+				.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		mapper.getSerializationConfig().initialize(generator);
+		return generator;
+	}
+
+	/**
+	 * Holds the factory, so the Smile module is loaded only when it's used.
+	 */
+	private static final class Smile {
+		private static final JsonFactory FACTORY = new SmileFactory();
+	}
+
+	/**
+	 * Holds the factory, so the CBOR module is loaded only when it's used.
+	 */
+	private static final class Cbor {
+		private static final JsonFactory FACTORY = new CBORFactory();
+	}
+}
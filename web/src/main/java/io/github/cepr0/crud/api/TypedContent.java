@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.cepr0.crud.api;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.lang.NonNull;
+
+/**
+ * A {@link Slice} (or {@link Page}) which knows the declared type of its "content" elements.
+ * {@link CrudPageSerializer} takes the alias of the "content" field from this type instead of the class
+ * of the first element, so the alias is kept when the elements are not the output (response) DTOs themselves,
+ * e.g. the maps of the selected fields (see {@link AbstractCrudController#getAll(org.springframework.data.domain.Pageable, String)}).
+ *
+ * @author Sergei Poznanski
+ */
+public interface TypedContent {
+
+	/**
+	 * Returns the declared type of the "content" elements.
+	 *
+	 * @return the type of the output (response) DTOs
+	 */
+	@NonNull
+	Class<?> getContentType();
+}
@@ -16,10 +16,17 @@
 
 package io.github.cepr0.crud.api;
 
+import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.github.cepr0.crud.event.EntityEvent;
+import io.github.cepr0.crud.repo.Filter;
 import io.github.cepr0.crud.service.CrudService;
+import io.github.cepr0.crud.service.KeysetSlice;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -28,27 +35,50 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8;
@@ -66,6 +96,7 @@ public class AbstractCrudControllerTest {
 
 	@MockBean private CrudService<Model, Integer, ModelRequest, ModelResponse> modelService;
 	@Autowired private MockMvc mvc;
+	@Autowired private TestCrudController controller;
 	@Autowired protected ObjectMapper objectMapper;
 
 	private ModelRequest modelRequest;
@@ -94,6 +125,17 @@ public class AbstractCrudControllerTest {
 		when(modelService.getAll()).thenReturn(responses);
 		when(modelService.getAll(sort)).thenReturn(responses);
 		when(modelService.getAll(pageable)).thenReturn(new PageImpl<>(responses, pageable, 2));
+		when(modelService.getSlice(pageable)).thenReturn(new SliceImpl<>(responses, pageable, false));
+
+		Pageable keysetPageable = PageRequest.of(0, 1, sort);
+		when(modelService.getAfter(null, 1, sort)).thenReturn(new KeysetSlice<>(asList(modelResponse1), keysetPageable, 1, true));
+		when(modelService.getAfter(1, 1, sort)).thenReturn(new KeysetSlice<>(asList(modelResponse2), keysetPageable, null, false));
+
+		doAnswer(invocation -> {
+			Consumer<ModelResponse> action = invocation.getArgument(1);
+			responses.forEach(action);
+			return null;
+		}).when(modelService).forEach(eq(sort), any());
 	}
 
 	private String toJson(Object object) throws JsonProcessingException {
@@ -161,6 +203,66 @@ public class AbstractCrudControllerTest {
 				.andExpect(jsonPath("$").doesNotExist());
 	}
 
+	@Test
+	public void conditionalRequests() throws Exception {
+		ModelResponse updated = new ModelResponse().setId(1).setName("model1").setVersion(4);
+		when(modelService.getVersion(1)).thenReturn(Optional.of(3));
+		when(modelService.update(1, modelRequest, 2)).thenThrow(new OptimisticLockingFailureException("The version differs"));
+		when(modelService.update(1, modelRequest, 3)).thenReturn(Optional.of(updated));
+
+		ResultActions result = mvc.perform(get(MODELS + "/{id}", 1)
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+		assertThat(bodyToObject(result)).isEqualTo(modelResponse1);
+
+		mvc.perform(get(MODELS + "/{id}", 1)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+				.andExpect(content().string(""));
+
+		mvc.perform(get(MODELS + "/{id}", 1)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"1\", W/\"2\"")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk());
+
+		mvc.perform(patch(MODELS + "/{id}", 1)
+				.header(HttpHeaders.IF_MATCH, "\"2\"")
+				.contentType(APPLICATION_JSON_UTF8)
+				.content(toJson(modelRequest))
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isPreconditionFailed());
+
+		result = mvc.perform(patch(MODELS + "/{id}", 1)
+				.header(HttpHeaders.IF_MATCH, "\"2\", \"3\"")
+				.contentType(APPLICATION_JSON_UTF8)
+				.content(toJson(modelRequest))
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+		assertThat(bodyToObject(result)).isEqualTo(updated);
+
+		mvc.perform(patch(MODELS + "/{id}", 1)
+				.header(HttpHeaders.IF_MATCH, "W/\"3\", \"invalid\"")
+				.contentType(APPLICATION_JSON_UTF8)
+				.content(toJson(modelRequest))
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isPreconditionFailed());
+
+		mvc.perform(patch(MODELS + "/{id}", 0)
+				.header(HttpHeaders.IF_MATCH, "*")
+				.contentType(APPLICATION_JSON_UTF8)
+				.content(toJson(modelRequest))
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isPreconditionFailed());
+
+		// the version is checked by the update only
+		verify(modelService, times(3)).getVersion(1);
+		verify(modelService, never()).getVersion(0);
+	}
+
 	@Test
 	public void getAll() throws Exception {
 		ResultActions result = mvc.perform(get(MODELS)
@@ -185,6 +287,119 @@ public class AbstractCrudControllerTest {
 		assertThat(actual).containsExactly(modelResponse1, modelResponse2);
 	}
 
+	@Test
+	public void getAllSortedWithFields() throws Exception {
+		Set<String> fields = new HashSet<>(asList("id"));
+		when(modelService.getAllSparse(sort, fields)).thenReturn(asList(modelResponse1, modelResponse2));
+
+		mvc.perform(get(MODELS + "/all/sorted/sparse?sort=id&fields=id")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(APPLICATION_JSON_UTF8))
+				.andExpect(jsonPath("$", hasSize(2)))
+				.andExpect(jsonPath("$[0].id").value(1))
+				.andExpect(jsonPath("$[0].name").doesNotExist())
+				.andExpect(jsonPath("$[1].id").value(2))
+				.andExpect(jsonPath("$[1].name").doesNotExist());
+
+		ResultActions result = mvc.perform(get(MODELS + "/all/sorted/sparse?sort=id&fields=")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk());
+		assertThat(bodyToList(result)).containsExactly(modelResponse1, modelResponse2);
+	}
+
+	@Test
+	public void getAllSortedWithUnknownFields() throws Exception {
+		Set<String> fields = new HashSet<>(asList("id", "unknown"));
+		when(modelService.getAllSparse(sort, fields)).thenThrow(new InvalidDataAccessApiUsageException("Unknown property"));
+
+		mvc.perform(get(MODELS + "/all/sorted/sparse?sort=id&fields=unknown")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void getAllPagedWithFields() throws Exception {
+		Set<String> fields = new HashSet<>(asList("id"));
+		when(modelService.getAllSparse(pageable, fields)).thenReturn(new PageImpl<>(asList(modelResponse1, modelResponse2), pageable, 2));
+
+		mvc.perform(get(MODELS + "/all/paged/sparse?sort=id&page=0&size=20&fields=id")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(APPLICATION_JSON_UTF8))
+				.andExpect(jsonPath("$.models", hasSize(2)))
+				.andExpect(jsonPath("$.models[0].id", is(1)))
+				.andExpect(jsonPath("$.models[0].name").doesNotExist())
+				.andExpect(jsonPath("$.models[1].id", is(2)))
+				.andExpect(jsonPath("$.models[1].name").doesNotExist())
+				.andExpect(jsonPath("$.elements.total", is(2)))
+				.andExpect(jsonPath("$.contentType").doesNotExist());
+
+		Set<String> unknown = new HashSet<>(asList("id", "unknown"));
+		when(modelService.getAllSparse(pageable, unknown)).thenThrow(new IllegalArgumentException("Unknown property"));
+
+		mvc.perform(get(MODELS + "/all/paged/sparse?sort=id&page=0&size=20&fields=unknown")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void getSliceWithFields() throws Exception {
+		Set<String> fields = new HashSet<>(asList("id"));
+		when(modelService.getSliceSparse(pageable, fields)).thenReturn(new SliceImpl<>(asList(modelResponse1, modelResponse2), pageable, false));
+
+		mvc.perform(get(MODELS + "/all/slice/sparse?sort=id&page=0&size=20&fields=id")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(APPLICATION_JSON_UTF8))
+				.andExpect(jsonPath("$.models", hasSize(2)))
+				.andExpect(jsonPath("$.models[0].id", is(1)))
+				.andExpect(jsonPath("$.models[0].name").doesNotExist())
+				.andExpect(jsonPath("$.page.last", is(true)))
+				.andExpect(jsonPath("$.elements.total").doesNotExist());
+
+		Set<String> unknown = new HashSet<>(asList("id", "unknown"));
+		when(modelService.getSliceSparse(pageable, unknown)).thenThrow(new InvalidDataAccessApiUsageException("Unknown property"));
+
+		mvc.perform(get(MODELS + "/all/slice/sparse?sort=id&page=0&size=20&fields=unknown")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void getAllFiltered() throws Exception {
+		when(modelService.getAllBy(Filter.parse("name:like:model%;id:in:1,2"), sort)).thenReturn(asList(modelResponse1, modelResponse2));
+		when(modelService.getAllBy(Filter.parse("unknown:eq:1"), sort)).thenThrow(new IllegalArgumentException("Unknown filter property"));
+		when(modelService.getAllBy(Filter.parse("name:eq:model"), sort)).thenThrow(new UnsupportedOperationException("Filters are not supported"));
+
+		ResultActions result = mvc.perform(get(MODELS + "/all/filtered")
+				.param("sort", "id")
+				.param("filter", "name:like:model%;id:in:1,2")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(APPLICATION_JSON_UTF8))
+				.andExpect(jsonPath("$", hasSize(2)));
+		assertThat(bodyToList(result)).containsExactly(modelResponse1, modelResponse2);
+
+		mvc.perform(get(MODELS + "/all/filtered")
+				.param("sort", "id")
+				.param("filter", "unknown:eq:1")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+
+		mvc.perform(get(MODELS + "/all/filtered")
+				.param("sort", "id")
+				.param("filter", "name:eq:model")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isNotImplemented());
+
+		mvc.perform(get(MODELS + "/all/filtered")
+				.param("sort", "id")
+				.param("filter", "name:between:1")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+	}
+
 	@Test
 	public void getAllPaged() throws Exception {
 		mvc.perform(get(MODELS + "/all/paged?sort=id&page=0&size=20")
@@ -209,14 +424,299 @@ public class AbstractCrudControllerTest {
 				.andExpect(jsonPath("$.sort[0].direction", is("ASC")));
 	}
 
+	@Test
+	public void getPage() throws Exception {
+		mvc.perform(get(MODELS + "/all/page?sort=id&page=0&size=20&count=false")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(APPLICATION_JSON_UTF8))
+				.andExpect(jsonPath("$.models", hasSize(2)))
+				.andExpect(jsonPath("$.page.number", is(0)))
+				.andExpect(jsonPath("$.page.size", is(20)))
+				.andExpect(jsonPath("$.page.total").doesNotExist())
+				.andExpect(jsonPath("$.page.first", is(true)))
+				.andExpect(jsonPath("$.page.last", is(true)))
+				.andExpect(jsonPath("$.elements.total").doesNotExist())
+				.andExpect(jsonPath("$.elements.exposed", is(2)));
+
+		mvc.perform(get(MODELS + "/all/page?sort=id&page=0&size=20")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.page.total", is(1)))
+				.andExpect(jsonPath("$.elements.total", is(2)));
+
+		when(modelService.isSliceMode()).thenReturn(true);
+
+		mvc.perform(get(MODELS + "/all/page?sort=id&page=0&size=20")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.page.total").doesNotExist())
+				.andExpect(jsonPath("$.elements.total").doesNotExist());
+	}
+
+	@Test
+	public void streamAll() throws Exception {
+		MvcResult mvcResult = mvc.perform(get(MODELS + "/all/stream?sort=id")
+				.accept(APPLICATION_JSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		ResultActions result = mvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(APPLICATION_JSON_UTF8))
+				.andExpect(jsonPath("$", hasSize(2)));
+
+		List<ModelResponse> actual = bodyToList(result);
+		assertThat(actual).containsExactly(modelResponse1, modelResponse2);
+	}
+
+	@Test
+	public void streamAllAsNdjson() throws Exception {
+		MvcResult mvcResult = mvc.perform(get(MODELS + "/all/stream?sort=id")
+				.accept(AbstractCrudController.APPLICATION_NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		String body = mvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(AbstractCrudController.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		String[] lines = body.split("\n");
+		assertThat(lines).hasSize(2);
+		assertThat(objectMapper.readValue(lines[0], ModelResponse.class)).isEqualTo(modelResponse1);
+		assertThat(objectMapper.readValue(lines[1], ModelResponse.class)).isEqualTo(modelResponse2);
+	}
+
+	@Test
+	public void getPageStreamed() throws Exception {
+		doCallRealMethod().when(modelService).consumePage(eq(pageable), anyBoolean(), any());
+
+		MvcResult mvcResult = mvc.perform(get(MODELS + "/all/page/stream?sort=id&count=true")
+				.accept(APPLICATION_JSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(APPLICATION_JSON_UTF8))
+				.andExpect(jsonPath("$.models", hasSize(2)))
+				.andExpect(jsonPath("$.models[0].id", is(1)))
+				.andExpect(jsonPath("$.models[1].id", is(2)))
+				.andExpect(jsonPath("$.page.total", is(1)))
+				.andExpect(jsonPath("$.elements.total", is(2)))
+				.andExpect(jsonPath("$.elements.exposed", is(2)))
+				.andExpect(jsonPath("$.sort[0].property", is("id")));
+
+		mvcResult = mvc.perform(get(MODELS + "/all/page/stream?sort=id&count=false")
+				.accept(APPLICATION_JSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.models", hasSize(2)))
+				.andExpect(jsonPath("$.page.total").doesNotExist())
+				.andExpect(jsonPath("$.elements.total").doesNotExist());
+	}
+
+	@Test
+	public void getAllPagedAsSmile() throws Exception {
+		byte[] body = mvc.perform(get(MODELS + "/all/paged?sort=id")
+				.accept(AbstractCrudController.APPLICATION_SMILE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(AbstractCrudController.APPLICATION_SMILE))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		JsonNode root = new ObjectMapper(new SmileFactory()).readTree(body);
+		assertThat(root.get("models")).hasSize(2);
+		assertThat(root.get("models").get(0).get("id").asInt()).isEqualTo(1);
+		assertThat(root.get("page").get("total").asInt()).isEqualTo(1);
+		assertThat(root.get("elements").get("total").asInt()).isEqualTo(2);
+	}
+
+	@Test
+	public void getPageStreamedAsCbor() throws Exception {
+		doCallRealMethod().when(modelService).consumePage(eq(pageable), anyBoolean(), any());
+
+		MvcResult mvcResult = mvc.perform(get(MODELS + "/all/page/stream?sort=id&count=true")
+				.accept(AbstractCrudController.APPLICATION_CBOR))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		byte[] body = mvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(AbstractCrudController.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		JsonNode root = new ObjectMapper(new CBORFactory()).readTree(body);
+		assertThat(root.get("models")).hasSize(2);
+		assertThat(root.get("models").get(1).get("name").asText()).isEqualTo("model2");
+		assertThat(root.get("page").get("total").asInt()).isEqualTo(1);
+		assertThat(root.get("elements").get("exposed").asInt()).isEqualTo(2);
+
+		mvc.perform(get(MODELS + "/all/page/stream?sort=id")
+				.accept(MediaType.APPLICATION_XML))
+				.andExpect(status().isNotAcceptable());
+	}
+
+	@Test
+	public void streamedWithJsonView() throws Exception {
+		doCallRealMethod().when(modelService).consumePage(eq(pageable), anyBoolean(), any());
+
+		MvcResult mvcResult = mvc.perform(get(MODELS + "/summary/stream?sort=id")
+				.accept(APPLICATION_JSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(2)))
+				.andExpect(jsonPath("$[0].id", is(1)))
+				.andExpect(jsonPath("$[0].name").doesNotExist());
+
+		mvcResult = mvc.perform(get(MODELS + "/summary/page/stream?sort=id&count=true")
+				.accept(APPLICATION_JSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.models", hasSize(2)))
+				.andExpect(jsonPath("$.models[1].id", is(2)))
+				.andExpect(jsonPath("$.models[1].name").doesNotExist())
+				.andExpect(jsonPath("$.elements.total", is(2)));
+
+		controller.getResponseBodyCache().evictAll();
+		mvc.perform(get(MODELS + "/summary/1/cached")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id", is(1)))
+				.andExpect(jsonPath("$.name").doesNotExist());
+		mvc.perform(get(MODELS + "/1/cached")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name", is("model1")));
+	}
+
+	@Test
+	public void getOneCached() throws Exception {
+		controller.getResponseBodyCache().evictAll();
+
+		for (int i = 0; i < 2; i++) {
+			byte[] body = mvc.perform(get(MODELS + "/1/cached")
+					.accept(APPLICATION_JSON)
+					.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+					.andExpect(status().isOk())
+					.andExpect(content().contentType(APPLICATION_JSON_UTF8))
+					.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+					.andReturn().getResponse().getContentAsByteArray();
+
+			try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+				assertThat(objectMapper.readValue(in, ModelResponse.class)).isEqualTo(modelResponse1);
+			}
+		}
+		verify(modelService, times(1)).getOne(1);
+
+		ResultActions result = mvc.perform(get(MODELS + "/1/cached")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andExpect(header().exists(HttpHeaders.ETAG));
+		assertThat(bodyToObject(result)).isEqualTo(modelResponse1);
+		verify(modelService, times(2)).getOne(1);
+
+		String eTag = result.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mvc.perform(get(MODELS + "/1/cached")
+				.accept(APPLICATION_JSON)
+				.header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag))
+				.andExpect(content().bytes(new byte[0]));
+		verify(modelService, times(2)).getOne(1);
+
+		controller.getResponseBodyCache().onEntityEvent(new EntityEvent<>(new Model().setId(1)));
+		mvc.perform(get(MODELS + "/1/cached")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk());
+		verify(modelService, times(3)).getOne(1);
+
+		mvc.perform(get(MODELS + "/0/cached")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void getAllCached() throws Exception {
+		controller.getResponseBodyCache().evictAll();
+
+		for (int i = 0; i < 2; i++) {
+			mvc.perform(get(MODELS + "/all/cached?sort=id&count=true")
+					.accept(APPLICATION_JSON)
+					.header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+					.andExpect(status().isOk())
+					.andExpect(content().contentType(APPLICATION_JSON_UTF8))
+					.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+					.andExpect(jsonPath("$.models", hasSize(2)))
+					.andExpect(jsonPath("$.page.total", is(1)))
+					.andExpect(jsonPath("$.elements.total", is(2)));
+		}
+		verify(modelService, times(1)).getAll(pageable);
+
+		controller.getResponseBodyCache().onEntityEvent(new EntityEvent<>(new Model().setId(2)));
+		mvc.perform(get(MODELS + "/all/cached?sort=id&count=true")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk());
+		verify(modelService, times(2)).getAll(pageable);
+	}
+
+	@Test
+	public void getAfter() throws Exception {
+		String cursor = KeysetCursor.encode(1);
+
+		mvc.perform(get(MODELS + "/all/keyset?sort=id&size=1")
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(APPLICATION_JSON_UTF8))
+				.andExpect(jsonPath("$.models", hasSize(1)))
+				.andExpect(jsonPath("$.models[0].id", is(1)))
+				.andExpect(jsonPath("$.page.next", is(cursor)))
+				.andExpect(jsonPath("$.page.number").doesNotExist())
+				.andExpect(jsonPath("$.page.total").doesNotExist())
+				.andExpect(jsonPath("$.page.first", is(true)))
+				.andExpect(jsonPath("$.page.last", is(false)))
+				.andExpect(jsonPath("$.elements.total").doesNotExist())
+				.andExpect(jsonPath("$.elements.exposed", is(1)));
+
+		mvc.perform(get(MODELS + "/all/keyset?sort=id&size=1&cursor=" + cursor)
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.models", hasSize(1)))
+				.andExpect(jsonPath("$.models[0].id", is(2)))
+				.andExpect(jsonPath("$.page.next").doesNotExist())
+				.andExpect(jsonPath("$.page.first", is(false)))
+				.andExpect(jsonPath("$.page.last", is(true)));
+
+		mvc.perform(get(MODELS + "/all/keyset?sort=id&size=1&cursor=" + KeysetCursor.encode("invalid"))
+				.accept(APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+	}
+
 	@RestController
 	@RequestMapping(MODELS)
 	static class TestCrudController extends AbstractCrudController<Model, Integer, ModelRequest, ModelResponse> {
 
+		private final ResponseBodyCache bodyCache = new ResponseBodyCache(Model.class, 100, Duration.ofHours(1));
+
 		public TestCrudController(CrudService<Model, Integer, ModelRequest, ModelResponse> service) {
 			super(service);
 		}
 
+		@Override
+		protected ResponseBodyCache getResponseBodyCache() {
+			return bodyCache;
+		}
+
 		@PostMapping
 		@Override
 		public ResponseEntity<ModelResponse> create(@RequestBody final ModelRequest request) {
@@ -225,8 +725,8 @@ public class AbstractCrudControllerTest {
 
 		@PatchMapping("/{id}")
 		@Override
-		public ResponseEntity<ModelResponse> update(@PathVariable("id") final Integer id, @RequestBody final ModelRequest request) {
-			return super.update(id, request);
+		public ResponseEntity<ModelResponse> update(@PathVariable("id") final Integer id, @RequestBody final ModelRequest request, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+			return super.update(id, request, ifMatch);
 		}
 
 		@DeleteMapping("/{id}")
@@ -237,8 +737,20 @@ public class AbstractCrudControllerTest {
 
 		@GetMapping("/{id}")
 		@Override
-		public ResponseEntity<ModelResponse> getOne(@PathVariable("id") final Integer id) {
-			return super.getOne(id);
+		public ResponseEntity<ModelResponse> getOne(@PathVariable("id") final Integer id, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+			return super.getOne(id, ifNoneMatch);
+		}
+
+		@GetMapping("/{id}/cached")
+		@Override
+		public ResponseEntity<byte[]> getOneCached(@PathVariable("id") final Integer id, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept, @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+			return super.getOneCached(id, accept, acceptEncoding, ifNoneMatch);
+		}
+
+		@GetMapping("/all/cached")
+		@Override
+		public ResponseEntity<byte[]> getAllCached(final Pageable pageable, @RequestParam(value = "count", required = false) final Boolean count, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept, @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+			return super.getAllCached(pageable, count, accept, acceptEncoding, ifNoneMatch);
 		}
 
 		@GetMapping("/all/paged")
@@ -247,17 +759,89 @@ public class AbstractCrudControllerTest {
 			return super.getAll(pageable);
 		}
 
+		@GetMapping("/all/paged/sparse")
+		@Override
+		public ResponseEntity<Page<?>> getAll(final Pageable pageable, @RequestParam(value = "fields", required = false) final String fields) {
+			return super.getAll(pageable, fields);
+		}
+
+		@GetMapping("/all/slice/sparse")
+		@Override
+		public ResponseEntity<Slice<?>> getSlice(final Pageable pageable, @RequestParam(value = "fields", required = false) final String fields) {
+			return super.getSlice(pageable, fields);
+		}
+
+		@GetMapping("/all/page")
+		@Override
+		public ResponseEntity<Slice<ModelResponse>> getPage(final Pageable pageable, @RequestParam(value = "count", required = false) final Boolean count) {
+			return super.getPage(pageable, count);
+		}
+
+		@GetMapping("/all/page/stream")
+		@Override
+		public ResponseEntity<StreamingResponseBody> getPageStreamed(final Pageable pageable, @RequestParam(value = "count", required = false) final Boolean count, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept) {
+			return super.getPageStreamed(pageable, count, accept);
+		}
+
 		@GetMapping("/all/sorted")
 		@Override
 		public ResponseEntity<List<ModelResponse>> getAll(final Sort sort) {
 			return super.getAll(sort);
 		}
 
+		@GetMapping("/all/sorted/sparse")
+		@Override
+		public ResponseEntity<List<?>> getAll(final Sort sort, @RequestParam(value = "fields", required = false) final String fields) {
+			return super.getAll(sort, fields);
+		}
+
+		@GetMapping("/all/filtered")
+		@Override
+		public ResponseEntity<List<ModelResponse>> getAllBy(final Sort sort, @RequestParam(value = "filter", required = false) final String filter) {
+			return super.getAllBy(sort, filter);
+		}
+
+		@GetMapping("/all/keyset")
+		@Override
+		public ResponseEntity<KeysetSlice<ModelResponse>> getAfter(@RequestParam(value = "cursor", required = false) final String cursor, @RequestParam("size") final int size, final Sort sort) {
+			return super.getAfter(cursor, size, sort);
+		}
+
 		@GetMapping
 		@Override
 		public ResponseEntity<List<ModelResponse>> getAll() {
 			return super.getAll();
 		}
+
+		@GetMapping(value = "/all/stream", produces = "application/json")
+		@Override
+		public ResponseEntity<StreamingResponseBody> streamAll(final Sort sort) {
+			return super.streamAll(sort);
+		}
+
+		@GetMapping(value = "/all/stream", produces = "application/x-ndjson")
+		@Override
+		public ResponseEntity<StreamingResponseBody> streamAllAsNdjson(final Sort sort) {
+			return super.streamAllAsNdjson(sort);
+		}
+
+		@JsonView(ModelResponse.Summary.class)
+		@GetMapping("/summary/stream")
+		public ResponseEntity<StreamingResponseBody> streamSummaries(final Sort sort) {
+			return super.streamAll(sort);
+		}
+
+		@JsonView(ModelResponse.Summary.class)
+		@GetMapping("/summary/page/stream")
+		public ResponseEntity<StreamingResponseBody> getSummariesStreamed(final Pageable pageable, @RequestParam(value = "count", required = false) final Boolean count) {
+			return super.getPageStreamed(pageable, count);
+		}
+
+		@JsonView(ModelResponse.Summary.class)
+		@GetMapping("/summary/{id}/cached")
+		public ResponseEntity<byte[]> getSummaryCached(@PathVariable("id") final Integer id, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept) {
+			return super.getOneCached(id, accept, null, null);
+		}
 	}
 
 	@Configuration
@@ -268,9 +852,11 @@ public class AbstractCrudControllerTest {
 		@Override
 		public void configureMessageConverters(final List<HttpMessageConverter<?>> converters) {
 			SimpleModule m = new SimpleModule();
-			m.addSerializer(Page.class, new CrudPageSerializer());
+			m.addSerializer(Slice.class, new CrudPageSerializer());
 			ObjectMapper mapper = new Jackson2ObjectMapperBuilder().modules(m).build();
 			converters.add(new MappingJackson2HttpMessageConverter(mapper));
+			converters.add(new MappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder.smile().modules(m).build()));
+			converters.add(new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor().modules(m).build()));
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.api;
+
+import io.github.cepr0.crud.service.ReactiveCrudService;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * @author Sergei Poznanski
+ */
+public class AbstractReactiveCrudControllerTest {
+
+	private static final String MODELS = "/models";
+
+	private ReactiveCrudService<Model, Integer, ModelRequest, ModelResponse> modelService;
+	private WebTestClient client;
+
+	private ModelRequest modelRequest;
+	private ModelResponse modelResponse1;
+	private ModelResponse modelResponse2;
+
+	@SuppressWarnings("unchecked")
+	@Before
+	public void setUp() {
+		modelRequest = new ModelRequest().setName("model1");
+		modelResponse1 = new ModelResponse().setId(1).setName("model1");
+		modelResponse2 = new ModelResponse().setId(2).setName("model2");
+
+		modelService = mock(ReactiveCrudService.class);
+
+		when(modelService.create(modelRequest)).thenReturn(Mono.just(modelResponse1));
+		when(modelService.update(1, modelRequest)).thenReturn(Mono.just(modelResponse1));
+		when(modelService.update(0, modelRequest)).thenReturn(Mono.empty());
+
+		when(modelService.delete(1)).thenReturn(Mono.just(true));
+		when(modelService.delete(0)).thenReturn(Mono.just(false));
+
+		when(modelService.getOne(1)).thenReturn(Mono.just(modelResponse1));
+		when(modelService.getOne(0)).thenReturn(Mono.empty());
+
+		when(modelService.getAll()).thenReturn(Flux.just(modelResponse1, modelResponse2));
+
+		client = WebTestClient.bindToController(new TestReactiveCrudController(modelService)).build();
+	}
+
+	@Test
+	public void create() {
+		client.post().uri(MODELS)
+				.contentType(APPLICATION_JSON)
+				.syncBody(modelRequest)
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(ModelResponse.class).isEqualTo(modelResponse1);
+	}
+
+	@Test
+	public void update() {
+		client.patch().uri(MODELS + "/1")
+				.contentType(APPLICATION_JSON)
+				.syncBody(modelRequest)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(ModelResponse.class).isEqualTo(modelResponse1);
+
+		client.patch().uri(MODELS + "/0")
+				.contentType(APPLICATION_JSON)
+				.syncBody(modelRequest)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	public void delete() {
+		client.delete().uri(MODELS + "/1").exchange().expectStatus().isNoContent();
+		client.delete().uri(MODELS + "/0").exchange().expectStatus().isNotFound();
+	}
+
+	@Test
+	public void getOne() {
+		client.get().uri(MODELS + "/1")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(ModelResponse.class).isEqualTo(modelResponse1);
+
+		client.get().uri(MODELS + "/0").exchange().expectStatus().isNotFound();
+	}
+
+	@Test
+	public void getAll() {
+		client.get().uri(MODELS)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(ModelResponse.class).containsExactly(modelResponse1, modelResponse2);
+	}
+
+	@RestController
+	@RequestMapping(MODELS)
+	static class TestReactiveCrudController extends AbstractReactiveCrudController<Model, Integer, ModelRequest, ModelResponse> {
+
+		TestReactiveCrudController(final ReactiveCrudService<Model, Integer, ModelRequest, ModelResponse> service) {
+			super(service);
+		}
+
+		@PostMapping
+		@Override
+		public Mono<ResponseEntity<ModelResponse>> create(@RequestBody final ModelRequest request) {
+			return super.create(request);
+		}
+
+		@PatchMapping("/{id}")
+		@Override
+		public Mono<ResponseEntity<ModelResponse>> update(@PathVariable("id") final Integer id, @RequestBody final ModelRequest request) {
+			return super.update(id, request);
+		}
+
+		@DeleteMapping("/{id}")
+		@Override
+		public Mono<ResponseEntity<Void>> delete(@PathVariable("id") final Integer id) {
+			return super.delete(id);
+		}
+
+		@GetMapping("/{id}")
+		@Override
+		public Mono<ResponseEntity<ModelResponse>> getOne(@PathVariable("id") final Integer id) {
+			return super.getOne(id);
+		}
+
+		@GetMapping
+		@Override
+		public ResponseEntity<Flux<ModelResponse>> getAll() {
+			return super.getAll();
+		}
+	}
+}
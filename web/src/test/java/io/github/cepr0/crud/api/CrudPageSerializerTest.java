@@ -16,23 +16,32 @@
 
 package io.github.cepr0.crud.api;
 
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import io.github.cepr0.crud.model.ContentAlias;
+import io.github.cepr0.crud.service.KeysetSlice;
 import lombok.Data;
 import lombok.experimental.Accessors;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.util.Assert;
 
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import static java.util.Arrays.asList;
@@ -69,7 +78,7 @@ public class CrudPageSerializerTest {
 		JsonFactory jsonFactory = new JsonFactory();
 		jsonFactory.setCodec(mapper);
 		generator = jsonFactory.createGenerator(writer);
-		provider = mapper.getSerializerProvider();
+		provider = mapper.getSerializerProviderInstance();
 	}
 
 	@Test
@@ -166,6 +175,122 @@ public class CrudPageSerializerTest {
 		);
 	}
 
+	@Test
+	public void serializeSlice() throws Exception {
+		serializer = new CrudPageSerializer();
+
+		List<Object> content = asList(new TestResponse().setName("name1"), new TestResponse().setName("name2"));
+		Slice<Object> slice = new SliceImpl<>(content, PageRequest.of(1, 2), true);
+
+		serializer.serialize(slice, generator, provider);
+		generator.flush();
+
+		JsonNode rootNode = mapper.readTree(writer.toString());
+		assertThat(rootNode.fieldNames()).containsOnly(contentBlock, pageBlock, elementsBlock);
+		assertThat(rootNode.get(contentBlock)).hasSize(2);
+
+		JsonNode pageNode = rootNode.get(pageBlock);
+		assertThat(pageNode.fieldNames()).containsOnly(pageNumber, pageSize, pageFirst, pageLast);
+		assertThat(pageNode.get(pageNumber).asInt()).isEqualTo(1);
+		assertThat(pageNode.get(pageFirst).asBoolean()).isFalse();
+		assertThat(pageNode.get(pageLast).asBoolean()).isFalse();
+
+		assertThat(rootNode.get(elementsBlock).fieldNames()).containsOnly(elementsExposed);
+	}
+
+	@Test
+	public void serializeKeysetSlice() throws Exception {
+		serializer = new CrudPageSerializer();
+
+		List<Object> content = asList(new TestResponse().setName("name1"), new TestResponse().setName("name2"));
+		KeysetSlice<Object> slice = new KeysetSlice<>(content, PageRequest.of(0, 2), 2, true);
+
+		serializer.serialize(slice, generator, provider);
+		generator.flush();
+
+		JsonNode rootNode = mapper.readTree(writer.toString());
+		assertThat(rootNode.fieldNames()).containsOnly(contentBlock, pageBlock, elementsBlock);
+		assertThat(rootNode.get(contentBlock)).hasSize(2);
+
+		JsonNode pageNode = rootNode.get(pageBlock);
+		assertThat(pageNode.fieldNames()).containsOnly("next", pageSize, pageFirst, pageLast);
+		assertThat(KeysetCursor.decode(pageNode.get("next").asText(), Integer.class)).isEqualTo(2);
+		assertThat(pageNode.get(pageFirst).asBoolean()).isTrue();
+		assertThat(pageNode.get(pageLast).asBoolean()).isFalse();
+
+		assertThat(rootNode.get(elementsBlock).fieldNames()).containsOnly(elementsExposed);
+	}
+
+	@Test
+	public void serializeDifferentContentClasses() throws Exception {
+		serializer = new CrudPageSerializer();
+
+		for (int i = 0; i < 2; i++) {
+			Writer writer = new StringWriter();
+			try (JsonGenerator gen = mapper.getFactory().createGenerator(writer)) {
+				serializer.serialize(new PageImpl<>(asList(new TestResponse().setName("name"))), gen, provider);
+				serializer.serialize(new PageImpl<>(asList(new TestDto().setName("name"))), gen, provider);
+			}
+			assertThat(writer.toString()).startsWith("{\"tests\":[{\"name\":\"name\"}]").contains("{\"dtos\":[{\"name\":\"name\"}]");
+		}
+	}
+
+	@Test
+	public void serializeLazyContent() throws Exception {
+		serializer = new CrudPageSerializer();
+
+		List<Integer> mappedAt = new ArrayList<>();
+		Page<String> page = new PageImpl<>(asList("name1", "name2"));
+		Iterator<TestResponse> content = page.getContent().stream()
+				.map(name -> {
+					JsonStreamContext context = generator.getOutputContext();
+					mappedAt.add(context.inArray() ? context.getEntryCount() : -1);
+					return new TestResponse().setName(name);
+				})
+				.iterator();
+
+		serializer.serialize(page, content, generator, provider);
+		generator.flush();
+
+		// the second element is mapped after the first one is written
+		assertThat(mappedAt).containsExactly(-1, 1);
+
+		JsonNode rootNode = mapper.readTree(writer.toString());
+		assertThat(rootNode.get(contentBlock)).hasSize(2);
+		assertThat(rootNode.get(contentBlock).get(1).get("name").asText()).isEqualTo("name2");
+		assertThat(rootNode.get(elementsBlock).get(elementsExposed).asInt()).isEqualTo(2);
+	}
+
+	@Test
+	public void serializePolymorphicContent() throws Exception {
+		serializer = new CrudPageSerializer();
+
+		Page<TestShape> page = new PageImpl<>(asList(new TestCircle().setRadius(1), new TestSquare().setSide(2)));
+
+		serializer.serialize(page, generator, provider);
+		generator.flush();
+
+		JsonNode contentNode = mapper.readTree(writer.toString()).get(contentBlock);
+		assertThat(contentNode).hasSize(2);
+		assertThat(contentNode.get(0).get("type").asText()).isEqualTo("circle");
+		assertThat(contentNode.get(1).get("type").asText()).isEqualTo("square");
+		assertThat(mapper.treeToValue(contentNode.get(0), TestShape.class)).isEqualTo(page.getContent().get(0));
+		assertThat(mapper.treeToValue(contentNode.get(1), TestShape.class)).isEqualTo(page.getContent().get(1));
+	}
+
+	@Test
+	public void serializeWithDeclaredContentType() throws Exception {
+		serializer = new CrudPageSerializer();
+
+		Page<TestShape> page = new PageImpl<>(asList(new TestCircle().setRadius(1), new TestSquare().setSide(2)));
+
+		serializer.serialize(page, page.getContent().iterator(), TestShape.class, generator, provider);
+		generator.flush();
+
+		JsonNode rootNode = mapper.readTree(writer.toString());
+		assertThat(rootNode.fieldNames()).containsOnly("shapes", pageBlock, elementsBlock);
+		assertThat(rootNode.get("shapes")).hasSize(2);
+	}
 
 	private void testSerialize(Object... elements) throws IOException {
 		Assert.notEmpty(elements, "Arg array must not be empty");
@@ -206,4 +331,25 @@ public class CrudPageSerializerTest {
 	private static class TestDto {
 		private String name;
 	}
+
+	@ContentAlias("shapes")
+	@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+	@JsonSubTypes({
+			@JsonSubTypes.Type(value = TestCircle.class, name = "circle"),
+			@JsonSubTypes.Type(value = TestSquare.class, name = "square")
+	})
+	private interface TestShape {
+	}
+
+	@Accessors(chain = true)
+	@Data
+	private static class TestCircle implements TestShape {
+		private int radius;
+	}
+
+	@Accessors(chain = true)
+	@Data
+	private static class TestSquare implements TestShape {
+		private int side;
+	}
 }
\ No newline at end of file
@@ -28,4 +28,5 @@ import lombok.experimental.Accessors;
 public class Model implements IdentifiableEntity<Integer> {
 	private Integer id;
 	private String name;
+	private Integer version;
 }
@@ -16,6 +16,7 @@
 
 package io.github.cepr0.crud.api;
 
+import com.fasterxml.jackson.annotation.JsonView;
 import io.github.cepr0.crud.dto.CrudResponse;
 import lombok.Data;
 import lombok.experimental.Accessors;
@@ -26,6 +27,16 @@ import lombok.experimental.Accessors;
 @Accessors(chain = true)
 @Data
 public class ModelResponse implements CrudResponse<Integer> {
+	@JsonView(Summary.class)
 	private Integer id;
+	@JsonView(Details.class)
 	private String name;
+	@JsonView(Details.class)
+	private Integer version;
+
+	interface Summary {
+	}
+
+	interface Details extends Summary {
+	}
 }
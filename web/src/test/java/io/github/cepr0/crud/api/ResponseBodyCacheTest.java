@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Generic-CRUD contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.cepr0.crud.api;
+
+import io.github.cepr0.crud.event.EntityEvent;
+import io.github.cepr0.crud.model.IdentifiableEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Sergei Poznanski
+ */
+public class ResponseBodyCacheTest {
+
+	private static final byte[] BODY = {1, 2, 3};
+
+	private ResponseBodyCache cache;
+	private AtomicInteger loads;
+	private Supplier<byte[]> loader;
+
+	private ResponseBodyCache.Key one1 = new ResponseBodyCache.Key(1, 1, MediaType.APPLICATION_JSON_UTF8, false);
+	private ResponseBodyCache.Key one1Gzip = new ResponseBodyCache.Key(1, 1, MediaType.APPLICATION_JSON_UTF8, true);
+	private ResponseBodyCache.Key one2 = new ResponseBodyCache.Key(2, 2, MediaType.APPLICATION_JSON_UTF8, false);
+	private ResponseBodyCache.Key page = new ResponseBodyCache.Key(null, PageRequest.of(0, 20), MediaType.APPLICATION_JSON_UTF8, false);
+
+	@Before
+	public void setUp() {
+		cache = new ResponseBodyCache(Model.class, 3, Duration.ofHours(1));
+		loads = new AtomicInteger();
+		loader = () -> {
+			loads.incrementAndGet();
+			return BODY;
+		};
+	}
+
+	@Test
+	public void get() {
+		assertThat(cache.get(one1, loader)).isSameAs(BODY);
+		assertThat(cache.get(one1, loader)).isSameAs(BODY);
+		assertThat(cache.get(one1Gzip, loader)).isSameAs(BODY);
+		assertThat(cache.get(one2, () -> null)).isNull();
+
+		assertThat(loads.get()).isEqualTo(2);
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(3);
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void evictEldest() {
+		cache.get(one1, loader);
+		cache.get(one1Gzip, loader);
+		cache.get(one2, loader);
+		cache.get(one1, loader);
+		cache.get(page, loader);
+
+		assertThat(cache.size()).isEqualTo(3);
+		assertThat(cache.getEvictionCount()).isEqualTo(1);
+
+		cache.get(one1Gzip, loader);
+		assertThat(loads.get()).isEqualTo(5);
+	}
+
+	@Test
+	public void expire() {
+		cache = new ResponseBodyCache(Model.class, 3, Duration.ZERO);
+		cache.get(one1, loader);
+		cache.get(one1, loader);
+
+		assertThat(loads.get()).isEqualTo(2);
+		assertThat(cache.getHitCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void evictOnEvent() {
+		cache.get(one1, loader);
+		cache.get(one2, loader);
+		cache.get(page, loader);
+
+		cache.onEntityEvent(new EntityEvent<>(new Other()));
+		assertThat(cache.size()).isEqualTo(3);
+
+		cache.onEntityEvent(new EntityEvent<>(new Model().setId(1)));
+		assertThat(cache.size()).isEqualTo(1);
+
+		cache.get(one1, loader);
+		cache.get(one2, loader);
+		cache.get(page, loader);
+		assertThat(loads.get()).isEqualTo(5);
+	}
+
+	private static class Other implements IdentifiableEntity<Integer> {
+		@Override
+		public Integer getId() {
+			return 1;
+		}
+	}
+}